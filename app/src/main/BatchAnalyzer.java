@@ -0,0 +1,254 @@
+package app.src.main;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.GameCodec;
+import lib.src.main.TableResources;
+import lib.src.main.Tablebase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Analyzes a file of positions in bulk: the best move, value and distance to the end of each.
+ * The input is read through memory-mapped windows, one chunk at a time, so files larger than
+ * RAM work; chunks are analyzed in parallel and their results written in input order.
+ * Positions are looked up in the exact 3x3 tablebase, so every answer is perfect play.
+ *
+ * <p>Input is either text, one position per line as nine cells of {@code X}, {@code O} and
+ * {@code .} (or {@code -}) read row by row, or binary, a sequence of 4-byte {@link GameCodec} states.
+ * Each output line is {@code position,value,depth,row,col} where value is for the side to move
+ * and row and col are -1 when the game is already over.
+ */
+public final class BatchAnalyzer {
+    private static final int CHUNK_POSITIONS = 1 << 16;
+    private static final int MAX_LINE = 64;
+    private static final int MIN_LINE = 10; // nine cells and a newline
+    private static final int MAX_RECORD = 28; // "XXXXXXXXX,INVALID,10,-1,-1\n"
+    private static final byte[] NO_MOVE = ",-1,-1\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] VALUE_NAMES = new byte[Tablebase.Value.values().length][];
+
+    static {
+        for (Tablebase.Value value : Tablebase.Value.values()) {
+            VALUE_NAMES[value.ordinal()] = value.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final Tablebase tablebase;
+    private final int threads;
+
+    /**
+     * Creates an analyzer.
+     * @param tablebase a 3x3 tablebase
+     * @param threads   the number of chunks analyzed at once
+     */
+    public BatchAnalyzer(Tablebase tablebase, int threads) {
+        BoardGeometry geometry = tablebase.getGeometry();
+        if (geometry.getRows() != 3 || geometry.getCols() != 3 || geometry.getWinLength() != 3) {
+            throw new IllegalArgumentException("Batch analysis needs a 3x3 tablebase, got: " + tablebase.getGeometry());
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive, got: " + threads);
+        }
+        this.tablebase = tablebase;
+        this.threads = threads;
+    }
+
+    /**
+     * Analyzes every position of an input file.
+     * @param input  the positions to analyze
+     * @param output the file to write results to, replaced if it exists
+     * @param text   true for text input, false for binary {@link GameCodec} states
+     * @return the number of positions analyzed
+     * @throws IOException if a file cannot be read or written
+     * @throws IllegalArgumentException if the input is malformed
+     */
+    public long analyze(Path input, Path output, boolean text) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-analyzer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            if (!text && size % GameCodec.STATE_BYTES != 0) {
+                throw new IllegalArgumentException("Binary input length " + size + " is not a multiple of "
+                        + GameCodec.STATE_BYTES);
+            }
+            long chunkBytes = (long) CHUNK_POSITIONS * (text ? MIN_LINE : GameCodec.STATE_BYTES);
+            // bounding the chunks in flight bounds memory, whatever the input size
+            ArrayDeque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            long positions = 0;
+            for (long start = 0; start < size || !pending.isEmpty(); ) {
+                while (start < size && pending.size() < 2 * threads) {
+                    long chunkStart = start;
+                    long chunkEnd = Math.min(size, start + chunkBytes);
+                    pending.add(executor.submit(() -> text
+                            ? analyzeText(in, chunkStart, chunkEnd, size)
+                            : analyzeBinary(in, chunkStart, chunkEnd)));
+                    start = chunkEnd;
+                }
+                ByteBuffer results = await(pending.removeFirst());
+                positions += results.getInt(0);
+                results.position(Integer.BYTES);
+                while (results.hasRemaining()) {
+                    out.write(results);
+                }
+            }
+            return positions;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ByteBuffer await(Future<ByteBuffer> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analyzing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Creates a result buffer whose first int will hold the number of positions it contains.
+     */
+    private static ByteBuffer newResults(int maxPositions) {
+        ByteBuffer results = ByteBuffer.allocate(Integer.BYTES + maxPositions * MAX_RECORD);
+        results.position(Integer.BYTES);
+        return results;
+    }
+
+    private static ByteBuffer finish(ByteBuffer results, int count) {
+        results.flip();
+        results.putInt(0, count);
+        return results;
+    }
+
+    private ByteBuffer analyzeBinary(FileChannel in, long start, long end) throws IOException {
+        MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        int count = (int) ((end - start) / GameCodec.STATE_BYTES);
+        ByteBuffer results = newResults(count);
+        for (int i = 0; i < count; i++) {
+            int code = window.getInt();
+            writeResult(results, GameCodec.xMask(code), GameCodec.oMask(code));
+        }
+        return finish(results, count);
+    }
+
+    /**
+     * Analyzes the lines that start in [start, end). A line that starts in the range is read to
+     * its end even past the range, and a line that started before the range belongs to the previous chunk.
+     */
+    private ByteBuffer analyzeText(FileChannel in, long start, long end, long size) throws IOException {
+        long mapStart = Math.max(0, start - 1);
+        long mapEnd = Math.min(size, end + MAX_LINE);
+        MappedByteBuffer window = in.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int limit = (int) (end - mapStart);
+        int pos = (int) (start - mapStart);
+        if (start > 0 && window.get(0) != '\n') {
+            while (pos < window.limit() && window.get(pos) != '\n') pos++;
+            pos++;
+        }
+        // every line that holds a position, except perhaps the last, takes at least MIN_LINE bytes
+        ByteBuffer results = newResults((int) ((end - start) / MIN_LINE) + 1);
+        int count = 0;
+        while (pos < limit) {
+            int lineEnd = pos;
+            while (lineEnd < window.limit() && window.get(lineEnd) != '\n') lineEnd++;
+            if (lineEnd - pos > MAX_LINE) {
+                throw new IllegalArgumentException("Line too long at byte " + (mapStart + pos));
+            }
+            int x = 0;
+            int o = 0;
+            int cell = 0;
+            for (int i = pos; i < lineEnd; i++) {
+                byte b = window.get(i);
+                if (b == ' ' || b == '\t' || b == '\r') continue;
+                if (cell == 9) {
+                    throw new IllegalArgumentException("More than nine cells at byte " + (mapStart + pos));
+                }
+                if (b == 'X' || b == 'x') x |= 1 << cell;
+                else if (b == 'O' || b == 'o') o |= 1 << cell;
+                else if (b != '.' && b != '-') {
+                    throw new IllegalArgumentException("Unexpected '" + (char) b + "' at byte " + (mapStart + i));
+                }
+                cell++;
+            }
+            if (cell != 0) {
+                if (cell != 9) {
+                    throw new IllegalArgumentException("Expected nine cells at byte " + (mapStart + pos));
+                }
+                writeResult(results, x, o);
+                count++;
+            }
+            pos = lineEnd + 1;
+        }
+        return finish(results, count);
+    }
+
+    private void writeResult(ByteBuffer results, int x, int o) {
+        for (int cell = 0; cell < 9; cell++) {
+            int bit = 1 << cell;
+            results.put((byte) ((x & bit) != 0 ? 'X' : (o & bit) != 0 ? 'O' : '.'));
+        }
+        results.put((byte) ',');
+        Tablebase.Value value = tablebase.value(x, o);
+        results.put(VALUE_NAMES[value.ordinal()]);
+        results.put((byte) ',');
+        int depth = (value == Tablebase.Value.INVALID) ? 0 : tablebase.depth(x, o);
+        if (depth >= 10) results.put((byte) ('0' + depth / 10));
+        results.put((byte) ('0' + depth % 10));
+        int cell = (value == Tablebase.Value.INVALID) ? -1 : tablebase.bestMove(x, o);
+        if (cell < 0) {
+            results.put(NO_MOVE);
+        } else {
+            results.put((byte) ',').put((byte) ('0' + cell / 3)).put((byte) ',').put((byte) ('0' + cell % 3)).put((byte) '\n');
+        }
+    }
+
+    /**
+     * Runs batch analysis from the command line.
+     * Usage: {@code analyze <input> <output> [--text|--binary]}; the format defaults to text for
+     * files ending in {@code .txt} and binary otherwise.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3
+                || (args.length == 3 && !"--text".equals(args[2]) && !"--binary".equals(args[2]))) {
+            System.err.println("Usage: analyze <input> <output> [--text|--binary]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        boolean text = (args.length == 3) ? "--text".equals(args[2]) : args[0].endsWith(".txt");
+        try {
+            Tablebase tablebase = TableResources.standardTablebase();
+            BatchAnalyzer analyzer = new BatchAnalyzer(tablebase, Runtime.getRuntime().availableProcessors());
+            long start = System.nanoTime();
+            long positions = analyzer.analyze(input, output, text);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Analyzed %d positions in %.1f ms (%.0f positions/s)%n",
+                    positions, elapsed / 1e6, positions * 1e9 / Math.max(1, elapsed));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Analysis failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
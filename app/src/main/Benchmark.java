@@ -0,0 +1,1085 @@
+package app.src.main;
+
+import lib.src.main.AIMoveSelector;
+import lib.src.main.Board;
+import lib.src.main.BoardBatch;
+import lib.src.main.BoardGeometry;
+import lib.src.main.ColumnarExporter;
+import lib.src.main.ColumnarReader;
+import lib.src.main.CachingMoveStrategy;
+import lib.src.main.Game;
+import lib.src.main.GameClock;
+import lib.src.main.GameCodec;
+import lib.src.main.GameEvent;
+import lib.src.main.GameEventHandler;
+import lib.src.main.GameEventRing;
+import lib.src.main.GameHistoryTrie;
+import lib.src.main.IncrementalEvaluator;
+import lib.src.main.MatchRequest;
+import lib.src.main.Matchmaker;
+import lib.src.main.MoveCache;
+import lib.src.main.MoveStrategy;
+import lib.src.main.MoveStrategyRegistry;
+import lib.src.main.QubicAI;
+import lib.src.main.QubicBoard;
+import lib.src.main.ShardedSolver;
+import lib.src.main.SpectatorBroadcaster;
+import lib.src.main.Player;
+import lib.src.main.TableResources;
+import lib.src.main.TimerWheel;
+import lib.src.main.UltimateAI;
+import lib.src.main.UltimateBoard;
+
+import java.io.ByteArrayInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.spi.ToolProvider;
+
+public class Benchmark {
+    private static final int ROUNDS = 5;
+
+    /**
+     * Entry point for the throughput benchmarks.
+     * Usage: {@code Benchmark <name>}; run without arguments to list the benchmarks.
+     */
+    public static void main(String[] args) {
+        String name = args.length > 0 ? args[0] : "";
+        switch (name) {
+            case "batch":
+                benchmarkBatch();
+                break;
+            case "events":
+                benchmarkEvents();
+                break;
+            case "broadcast":
+                benchmarkBroadcast();
+                break;
+            case "codec":
+                benchmarkCodec();
+                break;
+            case "eval":
+                benchmarkEval();
+                break;
+            case "ultimate":
+                benchmarkUltimate();
+                break;
+            case "qubic":
+                benchmarkQubic();
+                break;
+            case "shards":
+                benchmarkShards();
+                break;
+            case "matchmaking":
+                benchmarkMatchmaking();
+                break;
+            case "startup":
+                benchmarkStartup();
+                break;
+            case "script":
+                benchmarkScript();
+                break;
+            case "clock":
+                benchmarkClock();
+                break;
+            case "cache":
+                benchmarkCache();
+                break;
+            case "history":
+                benchmarkHistory();
+                break;
+            case "columnar":
+                benchmarkColumnar();
+                break;
+            default:
+                System.err.println("Usage: Benchmark <name>");
+                System.err.println("  batch      BoardBatch win detection and move selection vs per-Board loops");
+                System.err.println("  events     GameEventRing publish throughput and consumer lag");
+                System.err.println("  broadcast  SpectatorBroadcaster fan-out throughput and per-subscriber memory");
+                System.err.println("  codec      GameCodec bulk encode/decode vs Java serialization");
+                System.err.println("  eval       IncrementalEvaluator vs from-scratch evaluation in a depth-limited search");
+                System.err.println("  ultimate   Ultimate Tic-Tac-Toe perft and alpha-beta search speed");
+                System.err.println("  qubic      Qubic perft, last-move vs full-scan win checks, and search speed");
+                System.err.println("  shards     ShardedSolver throughput with one, two and four worker JVMs");
+                System.err.println("  matchmaking Matchmaker submit throughput and pairing latency under contention");
+                System.err.println("  startup    CLI launch to first board and first learned move, before and after fast startup");
+                System.err.println("  script     ScriptRunner games per second with and without rendering");
+                System.err.println("  clock      Game moves untimed vs under a clock, and TimerWheel flag timeouts for many games");
+                System.err.println("  cache      CachingMoveStrategy with CLOCK and LRU eviction at hot and cold hit rates");
+                System.err.println("  history    GameHistoryTrie inserts, prefix queries and bytes per game vs a flat encoding");
+                System.err.println("  columnar   ColumnarExporter write and single-column scans vs a row-per-move text dump");
+                System.exit(2);
+        }
+    }
+
+    /**
+     * Compares whole-batch operations on a BoardBatch with the same work done one Board at a time.
+     */
+    private static void benchmarkBatch() {
+        int count = 1 << 20;
+        SplittableRandom random = new SplittableRandom(42);
+        BoardBatch batch = new BoardBatch(count);
+        Board[] boards = new Board[count];
+        for (int i = 0; i < count; i++) {
+            Board board = randomPosition(random);
+            boards[i] = board;
+            batch.add(board);
+        }
+        byte[] winners = new byte[count];
+        boolean[] full = new boolean[count];
+        int[] moves = new int[count];
+
+        long sink = 0;
+        long boardWinNanos = Long.MAX_VALUE;
+        long batchWinNanos = Long.MAX_VALUE;
+        long boardMoveNanos = Long.MAX_VALUE;
+        long batchMoveNanos = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Board board : boards) {
+                sink += board.getWinner() + (board.isFull() ? 1 : 0);
+            }
+            boardWinNanos = Math.min(boardWinNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            batch.winners(winners);
+            batch.fullBoards(full);
+            batchWinNanos = Math.min(batchWinNanos, System.nanoTime() - start);
+            sink += winners[round] + (full[round] ? 1 : 0);
+
+            start = System.nanoTime();
+            for (Board board : boards) {
+                if (board.isGameOver()) continue;
+                char toMove = Integer.bitCount(board.getMask('X')) == Integer.bitCount(board.getMask('O')) ? 'X' : 'O';
+                int[] move = AIMoveSelector.selectHeuristicMove(board, toMove);
+                sink += move == null ? 0 : move[0];
+            }
+            boardMoveNanos = Math.min(boardMoveNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            batch.selectHeuristicMoves(moves);
+            batchMoveNanos = Math.min(batchMoveNanos, System.nanoTime() - start);
+            sink += moves[round];
+        }
+
+        System.out.printf("positions: %d%n", count);
+        report("winner + full (Board loop)", boardWinNanos, count);
+        report("winner + full (BoardBatch)", batchWinNanos, count);
+        report("heuristic move (Board loop)", boardMoveNanos, count);
+        report("heuristic move (BoardBatch)", batchMoveNanos, count);
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Publishes move events through a GameEventRing with three consumers and samples their lag.
+     */
+    private static void benchmarkEvents() {
+        int events = 20_000_000;
+        int capacity = 1 << 14;
+        AtomicLong moves = new AtomicLong();
+        AtomicLong plies = new AtomicLong();
+        AtomicLong sessions = new AtomicLong();
+        GameEventRing ring = new GameEventRing(capacity);
+        ring.addConsumer("metrics", (event, sequence, endOfBatch) -> {
+            if (event.getType() == GameEvent.Type.MOVE_MADE && endOfBatch) moves.lazySet(sequence);
+        });
+        ring.addConsumer("journal", new GameEventHandler() {
+            private long sum;
+
+            @Override
+            public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+                sum += event.getPly() + event.getRow() * 3 + event.getCol();
+                if (endOfBatch) plies.lazySet(sum);
+            }
+        });
+        ring.addConsumer("spectators", (event, sequence, endOfBatch) -> {
+            if (endOfBatch) sessions.lazySet(event.getSessionId());
+        });
+        ring.start();
+
+        long maxLag = 0;
+        long lagTotal = 0;
+        long samples = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < events; i++) {
+            int cell = i % 9;
+            ring.publish(GameEvent.Type.MOVE_MADE, i / 9, cell / 3, cell % 3, (i & 1) == 0 ? 'X' : 'O', cell + 1);
+            if ((i & 4095) == 0) {
+                long lag = ring.getLag();
+                maxLag = Math.max(maxLag, lag);
+                lagTotal += lag;
+                samples++;
+            }
+        }
+        long publishNanos = System.nanoTime() - start;
+        ring.close();
+        long drainNanos = System.nanoTime() - start;
+
+        System.out.printf("events: %d, ring capacity: %d, consumers: 3%n", events, capacity);
+        report("publish", publishNanos, events);
+        report("publish + drain", drainNanos, events);
+        System.out.printf("consumer lag: avg %.1f events, max %d events%n", (double) lagTotal / samples, maxLag);
+        System.out.println("(checksum " + (moves.get() + plies.get() + sessions.get()) + ")");
+    }
+
+    /**
+     * Broadcasts many games to a large audience where half of the spectators never read.
+     */
+    private static void benchmarkBroadcast() {
+        int spectators = 10_000;
+        int games = 200;
+        int[] cells = {4, 0, 8, 2, 6, 3, 1, 7, 5};
+        SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(16);
+
+        long before = usedHeap();
+        SpectatorBroadcaster.Subscription[] subscriptions = new SpectatorBroadcaster.Subscription[spectators];
+        for (int i = 0; i < spectators; i++) {
+            subscriptions[i] = broadcaster.subscribe();
+        }
+        long afterSubscribe = usedHeap();
+
+        long delivered = 0;
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            broadcaster.reset();
+            char mark = 'X';
+            for (int ply = 1; ply <= cells.length; ply++) {
+                broadcaster.publishMove(cells[ply - 1], mark, ply);
+                mark = (mark == 'X') ? 'O' : 'X';
+                // even-numbered spectators keep up, odd-numbered ones never read
+                for (int i = 0; i < spectators; i += 2) {
+                    ByteBuffer frame;
+                    while ((frame = subscriptions[i].poll()) != null) {
+                        sink += frame.get(frame.position());
+                        delivered++;
+                    }
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long afterRun = usedHeap();
+
+        long published = (long) games * cells.length * spectators;
+        System.out.printf("spectators: %d (half never read), games: %d%n", spectators, games);
+        report("move fan-out (per subscriber)", elapsed, published);
+        System.out.printf("frames delivered to readers: %d%n", delivered);
+        System.out.printf("memory per subscriber: %d bytes idle, %d bytes after run%n",
+                (afterSubscribe - before) / spectators, (afterRun - before) / spectators);
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Round-trips a stream of random positions through GameCodec and through Java serialization.
+     */
+    private static void benchmarkCodec() {
+        int count = 200_000;
+        SplittableRandom random = new SplittableRandom(36);
+        Board[] boards = new Board[count];
+        char[] sides = new char[count];
+        for (int i = 0; i < count; i++) {
+            boards[i] = randomPosition(random);
+            sides[i] = Integer.bitCount(boards[i].getMask('X')) == Integer.bitCount(boards[i].getMask('O')) ? 'X' : 'O';
+        }
+
+        int[] codes = new int[count];
+        int[] decoded = new int[count];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(count * GameCodec.STATE_BYTES);
+        Board target = new Board();
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            buffer.clear();
+            for (int i = 0; i < count; i++) {
+                codes[i] = GameCodec.encode(boards[i], sides[i]);
+            }
+            GameCodec.putAll(codes, count, buffer);
+            buffer.flip();
+            int read = GameCodec.getAll(buffer, decoded);
+            for (int i = 0; i < read; i++) {
+                GameCodec.decode(decoded[i], target);
+                sink += target.getMask('X');
+            }
+            long codecNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            byte[] bytes;
+            try {
+                ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+                try (ObjectOutputStream out = new ObjectOutputStream(bytesOut)) {
+                    for (int i = 0; i < count; i++) {
+                        out.writeObject(new SerializedGame(boards[i], sides[i]));
+                    }
+                }
+                bytes = bytesOut.toByteArray();
+                try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    for (int i = 0; i < count; i++) {
+                        sink += ((SerializedGame) in.readObject()).cells[1][1];
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+            long serialNanos = System.nanoTime() - start;
+
+            if (round == ROUNDS - 1) {
+                report("GameCodec round trip", codecNanos, count);
+                report("Java serialization round trip", serialNanos, count);
+                System.out.printf("bytes per game: %d codec, %.1f serialized%n",
+                        GameCodec.STATE_BYTES, (double) bytes.length / count);
+            }
+        }
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * The straightforward serializable form of a position that the codec is measured against.
+     */
+    private static final class SerializedGame implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final char[][] cells = new char[3][3];
+        private final char toMove;
+        private final String state;
+
+        SerializedGame(Board board, char toMove) {
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    cells[r][c] = board.getMark(r, c);
+                }
+            }
+            this.toMove = toMove;
+            this.state = board.getWinner() != ' ' ? "WON" : board.isFull() ? "TIED" : "IN_PROGRESS";
+        }
+    }
+
+    /**
+     * Runs the same fixed-depth negamax with incremental and with from-scratch leaf evaluation.
+     */
+    private static void benchmarkEval() {
+        BoardGeometry[] geometries = {BoardGeometry.STANDARD, new BoardGeometry(7, 7, 4), new BoardGeometry(8, 8, 5)};
+        int[] depths = {9, 3, 3};
+        for (int g = 0; g < geometries.length; g++) {
+            BoardGeometry geometry = geometries[g];
+            IncrementalEvaluator evaluator = new IncrementalEvaluator(geometry);
+            long incrementalNanos = 0;
+            long scratchNanos = 0;
+            long nodes = 0;
+            long sink = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                evaluator.reset();
+                // a couple of central moves so lines are partly filled
+                int center = geometry.cell(geometry.getRows() / 2, geometry.getCols() / 2);
+                evaluator.place(center, 'X');
+                evaluator.place(center + 1, 'O');
+                long x = evaluator.getMask('X');
+                long o = evaluator.getMask('O');
+
+                long[] counter = new long[1];
+                long start = System.nanoTime();
+                sink += negamaxIncremental(evaluator, geometry, depths[g], 'X', counter);
+                incrementalNanos = System.nanoTime() - start;
+                nodes = counter[0];
+
+                start = System.nanoTime();
+                sink += negamaxScratch(geometry, x, o, depths[g], 'X');
+                scratchNanos = System.nanoTime() - start;
+            }
+            System.out.printf("%s, depth %d, %d nodes%n", geometry, depths[g], nodes);
+            report("  incremental (per node)", incrementalNanos, nodes);
+            report("  from scratch (per node)", scratchNanos, nodes);
+            System.out.println("  (checksum " + sink + ")");
+        }
+    }
+
+    private static int negamaxIncremental(IncrementalEvaluator evaluator, BoardGeometry geometry, int depth,
+                                          char toMove, long[] nodes) {
+        nodes[0]++;
+        int score = evaluator.evaluate(toMove);
+        if (depth == 0 || Math.abs(score) == IncrementalEvaluator.WIN_SCORE) return score;
+        long empty = geometry.fullMask() & ~(evaluator.getMask('X') | evaluator.getMask('O'));
+        if (empty == 0) return score;
+        char other = (toMove == 'X') ? 'O' : 'X';
+        int best = -Integer.MAX_VALUE;
+        for (long bits = empty; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            evaluator.place(cell, toMove);
+            best = Math.max(best, -negamaxIncremental(evaluator, geometry, depth - 1, other, nodes));
+            evaluator.remove(cell);
+        }
+        return best;
+    }
+
+    private static int negamaxScratch(BoardGeometry geometry, long x, long o, int depth, char toMove) {
+        int score = IncrementalEvaluator.evaluate(geometry, x, o, toMove);
+        if (depth == 0 || Math.abs(score) == IncrementalEvaluator.WIN_SCORE) return score;
+        long empty = geometry.fullMask() & ~(x | o);
+        if (empty == 0) return score;
+        char other = (toMove == 'X') ? 'O' : 'X';
+        int best = -Integer.MAX_VALUE;
+        for (long bits = empty; bits != 0; bits &= bits - 1) {
+            long bit = bits & -bits;
+            int child = (toMove == 'X')
+                    ? negamaxScratch(geometry, x | bit, o, depth - 1, other)
+                    : negamaxScratch(geometry, x, o | bit, depth - 1, other);
+            best = Math.max(best, -child);
+        }
+        return best;
+    }
+
+    /**
+     * Measures Ultimate Tic-Tac-Toe move generation with perft and the search on a few openings.
+     */
+    private static void benchmarkUltimate() {
+        UltimateBoard board = new UltimateBoard();
+        for (int depth = 1; depth <= 6; depth++) {
+            long start = System.nanoTime();
+            long nodes = board.perft(depth);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("perft(%d) = %d%n", depth, nodes);
+            report("  perft leaves", elapsed, nodes);
+        }
+
+        SplittableRandom random = new SplittableRandom(41);
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        UltimateAI ai = new UltimateAI(6);
+        long elapsed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            UltimateBoard position = new UltimateBoard();
+            for (int i = 0; i < 10; i++) {
+                position.play(moves[random.nextInt(position.generateMoves(moves))]);
+            }
+            long start = System.nanoTime();
+            ai.selectMove(position);
+            elapsed += System.nanoTime() - start;
+        }
+        System.out.printf("search depth %d on %d positions: %.1f ms per move%n", ai.getDepth(), ROUNDS, elapsed / 1e6 / ROUNDS);
+        report("  search nodes", elapsed, ai.getNodes());
+    }
+
+    /**
+     * Measures Qubic move generation with perft, win checks through the last move against a scan of
+     * all 76 lines, and the search on a few openings.
+     */
+    private static void benchmarkQubic() {
+        QubicBoard board = new QubicBoard();
+        for (int depth = 1; depth <= 4; depth++) {
+            long start = System.nanoTime();
+            long nodes = board.perft(depth);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("perft(%d) = %d%n", depth, nodes);
+            report("  perft leaves", elapsed, nodes);
+        }
+
+        // positions from random games, each with the marks and last cell of the player who just moved
+        SplittableRandom random = new SplittableRandom(42);
+        int[] moves = new int[QubicBoard.CELLS];
+        int positions = 1 << 16;
+        long[] masks = new long[positions];
+        int[] cells = new int[positions];
+        for (int i = 0; i < positions; i++) {
+            QubicBoard position = new QubicBoard();
+            int plies = 8 + random.nextInt(32);
+            int cell = -1;
+            while (position.getPly() < plies && !position.isGameOver()) {
+                cell = moves[random.nextInt(position.generateMoves(moves))];
+                position.play(cell);
+            }
+            masks[i] = position.getMask(position.isXToMove() ? 'O' : 'X');
+            cells[i] = cell;
+        }
+        for (int round = 0; round < ROUNDS; round++) {
+            int lastMoveWins = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < positions; i++) {
+                if (QubicBoard.isWinThrough(masks[i], cells[i])) lastMoveWins++;
+            }
+            long lastMove = System.nanoTime() - start;
+            int fullScanWins = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < positions; i++) {
+                if (QubicBoard.isWin(masks[i])) fullScanWins++;
+            }
+            long fullScan = System.nanoTime() - start;
+            System.out.printf("round %d (%d wins, %d by full scan)%n", round + 1, lastMoveWins, fullScanWins);
+            report("  win check, lines through cell", lastMove, positions);
+            report("  win check, all 76 lines", fullScan, positions);
+        }
+
+        QubicAI ai = new QubicAI(4);
+        long elapsed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            QubicBoard position = new QubicBoard();
+            for (int i = 0; i < 8; i++) {
+                position.play(moves[random.nextInt(position.generateMoves(moves))]);
+            }
+            if (position.isGameOver()) {
+                round--;
+                continue;
+            }
+            long start = System.nanoTime();
+            ai.selectMove(position);
+            elapsed += System.nanoTime() - start;
+        }
+        System.out.printf("search depth %d on %d positions: %.1f ms per move%n", ai.getDepth(), ROUNDS, elapsed / 1e6 / ROUNDS);
+        report("  search nodes", elapsed, ai.getNodes());
+    }
+
+    /**
+     * Solves the 3x5 board (k=3) with different numbers of worker JVMs.
+     */
+    private static void benchmarkShards() {
+        BoardGeometry geometry = new BoardGeometry(3, 5, 3);
+        for (int workers = 1; workers <= 4; workers *= 2) {
+            ShardedSolver.Result result;
+            try {
+                result = new ShardedSolver(geometry, 2, workers, 3).solve();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            System.out.println(result);
+            report("  positions, " + workers + " worker(s)", result.getElapsedNanos(), result.getWorkerPositions());
+        }
+    }
+
+    /**
+     * Floods a Matchmaker from several producer threads while one thread pairs in batches,
+     * then reports accepted and refused requests and how long paired players waited.
+     */
+    private static void benchmarkMatchmaking() {
+        long durationNanos = 2_000_000_000L;
+        for (int producers = 1; producers <= 8; producers *= 2) {
+            Matchmaker matchmaker = new Matchmaker(1 << 12, 100, 256, Duration.ofMillis(50));
+            AtomicBoolean running = new AtomicBoolean(true);
+            CountDownLatch finished = new CountDownLatch(producers);
+            for (int p = 0; p < producers; p++) {
+                int seed = p;
+                Thread producer = new Thread(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    long id = 0;
+                    while (running.get()) {
+                        if (!matchmaker.submit(new MatchRequest("p" + seed + "-" + id, 800 + random.nextInt(1600)))) {
+                            Thread.onSpinWait();
+                        }
+                        id++;
+                    }
+                    finished.countDown();
+                }, "producer-" + p);
+                producer.setDaemon(true);
+                producer.start();
+            }
+
+            long[] waits = new long[1 << 20];
+            int[] samples = new int[1];
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < durationNanos) {
+                matchmaker.pair(match -> {
+                    if (!match.isBotMatch() && samples[0] < waits.length) waits[samples[0]++] = match.getWaitNanos();
+                });
+            }
+            long elapsed = System.nanoTime() - start;
+            running.set(false);
+            try {
+                finished.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            Arrays.sort(waits, 0, samples[0]);
+            System.out.printf("%d producer(s): %d accepted, %d refused, %d matches (%d with bots)%n", producers,
+                    matchmaker.getSubmitted(), matchmaker.getRejected(), matchmaker.getMatches(), matchmaker.getBotMatches());
+            report("  accepted requests", elapsed, matchmaker.getSubmitted());
+            report("  matches", elapsed, matchmaker.getMatches());
+            if (samples[0] > 0) {
+                System.out.printf("  pairing wait: p50 %.1f us, p99 %.1f us, max %.1f us%n", waits[samples[0] / 2] / 1e3,
+                        waits[(int) (samples[0] * 0.99)] / 1e3, waits[samples[0] - 1] / 1e3);
+            }
+        }
+    }
+
+    /**
+     * Launches the CLI in fresh JVMs with a scripted computer-vs-human game and times how long
+     * it takes to print the first board and to play the learned computer's first move: once
+     * building the tables in-process with only the JDK's default class-data archive, and once
+     * with the precomputed table resources and an AppCDS archive of the application classes.
+     */
+    private static void benchmarkStartup() {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        if (TableResources.class.getResource(TableResources.LEARNED_VALUES_RESOURCE) == null) {
+            System.out.println("note: no precomputed tables on the class path; run TableResources first");
+        }
+        try {
+            Path directory = Files.createTempDirectory("tictactoe-cds");
+            String classPath = jarClassPath(directory);
+            Path archive = directory.resolve("app.jsa");
+            // the archive is written when the JVM exits normally, so let this game run to the end
+            launchCli(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-cp", classPath, Main.class.getName()), true);
+            if (!Files.exists(archive)) {
+                System.out.println("note: this JVM did not write an AppCDS archive");
+            }
+
+            List<String> before = List.of(java, "-D" + TableResources.PRECOMPUTED_PROPERTY + "=false",
+                    "-cp", classPath, Main.class.getName());
+            List<String> resources = List.of(java, "-cp", classPath, Main.class.getName());
+            List<String> after = List.of(java, "-XX:SharedArchiveFile=" + archive, "-cp", classPath, Main.class.getName());
+            reportStartup("before (tables built at launch)", before);
+            reportStartup("precomputed resources", resources);
+            reportStartup("after (resources + AppCDS)", after);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds the class path as JAR files, packing any directory entry into a new JAR, since class
+     * data sharing only archives classes loaded from JARs.
+     */
+    private static String jarClassPath(Path directory) throws IOException {
+        ToolProvider jar = ToolProvider.findFirst("jar")
+                .orElseThrow(() -> new IOException("The jar tool is not available in this JDK"));
+        List<String> entries = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (!Files.isDirectory(Paths.get(entry))) {
+                entries.add(entry);
+                continue;
+            }
+            Path packed = directory.resolve("classes-" + entries.size() + ".jar");
+            if (jar.run(System.out, System.err, "--create", "--file", packed.toString(), "-C", entry, ".") != 0) {
+                throw new IOException("Could not pack " + entry + " into a JAR");
+            }
+            entries.add(packed.toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void reportStartup(String label, List<String> command) throws IOException {
+        long[] board = new long[ROUNDS];
+        long[] move = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long[] times = launchCli(command, false);
+            board[round] = times[0];
+            move[round] = times[1];
+        }
+        Arrays.sort(board);
+        Arrays.sort(move);
+        System.out.printf("%-34s first board %7.1f ms, first move %7.1f ms (median of %d)%n",
+                label, board[ROUNDS / 2] / 1e6, move[ROUNDS / 2] / 1e6, ROUNDS);
+    }
+
+    /**
+     * Runs the CLI with the learned computer as X against a human with no moves to give.
+     * @param untilExit whether to wait for the CLI to exit instead of stopping it after the first move
+     * @return the nanoseconds from launch to the first board and to the computer's first move
+     */
+    private static long[] launchCli(List<String> command, boolean untilExit) throws IOException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (OutputStream in = process.getOutputStream()) {
+            in.write("c\nComputer\nh\nHuman\nl\n".getBytes(StandardCharsets.US_ASCII));
+        }
+        long[] times = {-1, -1};
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII))) {
+            boolean started = false;
+            String line;
+            while ((line = out.readLine()) != null) {
+                long now = System.nanoTime() - start;
+                if (started && times[0] < 0) times[0] = now;
+                if (line.startsWith("Starting Tic-Tac-Toe")) started = true;
+                if (line.contains(" plays: ") && times[1] < 0) {
+                    times[1] = now;
+                    if (!untilExit) break;
+                }
+            }
+        } finally {
+            process.destroy();
+        }
+        try {
+            process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return times;
+    }
+
+    /**
+     * Plays random game scripts through the scripted mode, writing the records to a discarding
+     * stream, with and without rendering the final board.
+     */
+    private static void benchmarkScript() {
+        SplittableRandom random = new SplittableRandom(46);
+        int games = 200_000;
+        StringBuilder script = new StringBuilder(games * 24);
+        for (int i = 0; i < games; i++) {
+            Board board = new Board();
+            char mark = 'X';
+            while (!board.isGameOver()) {
+                int[] move = AIMoveSelector.selectRandomMove(board);
+                board.placeMark(move[0], move[1], mark);
+                mark = (mark == 'X') ? 'O' : 'X';
+                script.append(move[0]).append(',').append(move[1]).append(' ');
+            }
+            script.append('\n');
+        }
+        String text = script.toString();
+
+        for (boolean render : new boolean[] {false, true}) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                ScriptRunner runner = new ScriptRunner(render);
+                Writer out = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream(),
+                        StandardCharsets.UTF_8), 1 << 16);
+                try {
+                    long start = System.nanoTime();
+                    runner.run(new BufferedReader(new StringReader(text)), out);
+                    out.flush();
+                    best = Math.min(best, System.nanoTime() - start);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            report(render ? "script games (render)" : "script games", best, games);
+        }
+    }
+
+    /**
+     * Plays the same random games untimed, under a clock, and under a clock with flag timeouts
+     * on a shared wheel, then measures scheduling and firing many flag timeouts on one wheel.
+     */
+    private static void benchmarkClock() {
+        SplittableRandom random = new SplittableRandom(47);
+        int games = 100_000;
+        int[][] scripts = new int[games][];
+        for (int i = 0; i < games; i++) {
+            Board board = new Board();
+            int[] cells = new int[9];
+            int moves = 0;
+            char mark = 'X';
+            while (!board.isGameOver()) {
+                int[] move = AIMoveSelector.selectRandomMove(board);
+                board.placeMark(move[0], move[1], mark);
+                mark = (mark == 'X') ? 'O' : 'X';
+                cells[moves++] = move[0] * 3 + move[1];
+            }
+            scripts[i] = Arrays.copyOf(cells, moves);
+        }
+        long totalMoves = Arrays.stream(scripts).mapToLong(script -> script.length).sum();
+
+        Game game = new Game(new Player("X", 'X'), new Player("O", 'O'));
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 512);
+        String[] labels = {"moves untimed", "moves with clock", "moves with clock + wheel"};
+        for (int mode = 0; mode < labels.length; mode++) {
+            long best = Long.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                long start = System.nanoTime();
+                for (int[] script : scripts) {
+                    game.reset();
+                    if (mode > 0) {
+                        game.setClock(new GameClock(Duration.ofMinutes(3), Duration.ofSeconds(2)),
+                                mode == 2 ? wheel : null);
+                    }
+                    for (int cell : script) {
+                        game.makeMove(cell / 3, cell % 3);
+                    }
+                }
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            report(labels[mode], best, totalMoves);
+        }
+
+        int timeouts = 1_000_000;
+        long start = System.nanoTime();
+        TimerWheel flags = new TimerWheel(Duration.ofMillis(1), 1024, start);
+        long[] fired = new long[1];
+        for (int i = 0; i < timeouts; i++) {
+            flags.schedule(start + random.nextLong(5_000_000_000L), () -> fired[0]++);
+        }
+        long scheduled = System.nanoTime();
+        report("wheel schedule", scheduled - start, timeouts);
+        long now = start;
+        long elapsed = 0;
+        while (fired[0] < timeouts) {
+            now += 1_000_000L;
+            long tick = System.nanoTime();
+            flags.advance(now);
+            elapsed += System.nanoTime() - tick;
+        }
+        report("wheel expire (5000 ticks)", elapsed, timeouts);
+    }
+
+    /**
+     * Asks the smart strategy for moves in random positions directly and through a move cache.
+     * In the hot workload nine lookups in ten go to 256 popular positions and the cache holds
+     * 1024 entries; in the cold one every position is equally likely and the cache holds 256.
+     */
+    private static void benchmarkCache() {
+        SplittableRandom random = new SplittableRandom(48);
+        List<Board> distinct = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        while (distinct.size() < 4_000) {
+            Board board = randomPosition(random);
+            if (!board.isGameOver() && seen.add(CachingMoveStrategy.positionKey(board, 'X'))) {
+                distinct.add(board);
+            }
+        }
+        int lookups = 1_000_000;
+        Board[] hot = new Board[lookups];
+        Board[] cold = new Board[lookups];
+        for (int i = 0; i < lookups; i++) {
+            hot[i] = distinct.get(random.nextInt(10) < 9 ? random.nextInt(256) : random.nextInt(distinct.size()));
+            cold[i] = distinct.get(random.nextInt(distinct.size()));
+        }
+
+        MoveStrategy smart = MoveStrategyRegistry.getDefault().get("smart");
+        reportCache("uncached hot", smart, hot, null);
+        for (MoveCache.Eviction eviction : MoveCache.Eviction.values()) {
+            MoveCache cache = new MoveCache(1024, 16, eviction);
+            reportCache(eviction + " hot", new CachingMoveStrategy(smart, cache), hot, cache);
+        }
+        reportCache("uncached cold", smart, cold, null);
+        for (MoveCache.Eviction eviction : MoveCache.Eviction.values()) {
+            MoveCache cache = new MoveCache(256, 16, eviction);
+            reportCache(eviction + " cold", new CachingMoveStrategy(smart, cache), cold, cache);
+        }
+    }
+
+    private static void reportCache(String label, MoveStrategy strategy, Board[] positions, MoveCache cache) {
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Board board : positions) {
+                int[] move = strategy.selectMove(board, 'X', Long.MAX_VALUE).join();
+                checksum += move[0] * 3 + move[1];
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        report(label, best, positions.length);
+        if (cache != null) {
+            System.out.printf("  hit rate %.1f%%, %d evictions (checksum %d)%n",
+                    cache.getHitRate() * 100, cache.getEvictions(), checksum);
+        }
+    }
+
+    /**
+     * Stores a million games between players that mostly follow the heuristic into a history trie,
+     * then compares its size in memory and on disk with a flat encoding of one byte for the
+     * length and outcome plus half a byte per move.
+     */
+    private static void benchmarkHistory() {
+        SplittableRandom random = new SplittableRandom(49);
+        int games = 1_000_000;
+        Game game = new Game(new Player("X", 'X'), new Player("O", 'O'));
+        GameHistoryTrie trie = new GameHistoryTrie();
+        long flatBytes = 0;
+        long playing = 0;
+        long inserting = 0;
+        for (int i = 0; i < games; i++) {
+            long start = System.nanoTime();
+            game.reset();
+            while (!game.isGameOver()) {
+                char mark = game.getCurrentPlayer().getMark();
+                int[] move = (random.nextInt(10) < 7) ? AIMoveSelector.selectHeuristicMove(game.getBoard(), mark) : null;
+                if (move == null) {
+                    move = AIMoveSelector.selectRandomMove(game.getBoard());
+                }
+                game.makeMove(move[0], move[1]);
+            }
+            long played = System.nanoTime();
+            trie.add(game);
+            inserting += System.nanoTime() - played;
+            playing += played - start;
+            flatBytes += 1 + (game.getMoveCount() + 1) / 2;
+        }
+        report("play games", playing, games);
+        report("trie insert", inserting, games);
+
+        int[][] prefixes = {{4}, {4, 0}, {4, 0, 8}, {0, 4, 8, 2}};
+        int queries = 1_000_000;
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            checksum += trie.query(prefixes[i & 3]).getGames();
+        }
+        report("prefix query", System.nanoTime() - start, queries);
+        System.out.println("games starting 4,0,8: " + trie.query(4, 0, 8) + " (checksum " + checksum + ")");
+
+        try {
+            Path file = Files.createTempFile("history", ".bin");
+            try {
+                start = System.nanoTime();
+                trie.write(file);
+                long written = System.nanoTime() - start;
+                start = System.nanoTime();
+                GameHistoryTrie.read(file);
+                long read = System.nanoTime() - start;
+                System.out.printf("snapshot written in %d ms, read in %d ms%n", written / 1_000_000, read / 1_000_000);
+                System.out.printf("%d games in %d nodes%n", games, trie.getNodeCount());
+                System.out.printf("%-32s %8.2f bytes/game%n", "flat encoding", (double) flatBytes / games);
+                System.out.printf("%-32s %8.2f bytes/game%n", "trie in memory", (double) trie.getMemoryBytes() / games);
+                System.out.printf("%-32s %8.2f bytes/game%n", "trie snapshot", (double) Files.size(file) / games);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Exports a million random games to a columnar file and to a text dump with one line per move,
+     * then times scanning single columns against parsing the dump for the same answer.
+     */
+    private static void benchmarkColumnar() {
+        SplittableRandom random = new SplittableRandom(50);
+        int games = 1_000_000;
+        String[] strategies = {"smart", "random", "learned", ColumnarExporter.HUMAN};
+        int[][] scripts = new int[games][];
+        GameHistoryTrie.Outcome[] results = new GameHistoryTrie.Outcome[games];
+        for (int i = 0; i < games; i++) {
+            Board board = new Board();
+            int[] cells = new int[9];
+            int moves = 0;
+            char mark = 'X';
+            while (!board.isGameOver()) {
+                int[] move = AIMoveSelector.selectRandomMove(board);
+                board.placeMark(move[0], move[1], mark);
+                mark = (mark == 'X') ? 'O' : 'X';
+                cells[moves++] = move[0] * 3 + move[1];
+            }
+            scripts[i] = Arrays.copyOf(cells, moves);
+            char winner = board.getWinner();
+            results[i] = (winner == 'X') ? GameHistoryTrie.Outcome.X_WON
+                    : (winner == 'O') ? GameHistoryTrie.Outcome.O_WON : GameHistoryTrie.Outcome.TIED;
+        }
+
+        try {
+            Path directory = Files.createTempDirectory("columnar");
+            Path columnar = directory.resolve("games.col");
+            Path text = directory.resolve("games.csv");
+            try {
+                long start = System.nanoTime();
+                try (ColumnarExporter exporter = new ColumnarExporter(columnar)) {
+                    for (int i = 0; i < games; i++) {
+                        exporter.add(i, strategies[i & 3], strategies[(i >> 2) & 3], results[i], scripts[i], scripts[i].length);
+                    }
+                }
+                report("columnar write", System.nanoTime() - start, games);
+                start = System.nanoTime();
+                try (BufferedWriter out = Files.newBufferedWriter(text, StandardCharsets.UTF_8)) {
+                    for (int i = 0; i < games; i++) {
+                        for (int ply = 0; ply < scripts[i].length; ply++) {
+                            out.write(i + "," + strategies[i & 3] + "," + strategies[(i >> 2) & 3] + ","
+                                    + results[i] + "," + (ply + 1) + "," + scripts[i][ply] + "\n");
+                        }
+                    }
+                }
+                report("text dump write", System.nanoTime() - start, games);
+                System.out.printf("columnar %d KB, text %d KB%n", Files.size(columnar) >> 10, Files.size(text) >> 10);
+
+                ColumnarReader reader = new ColumnarReader(columnar);
+                for (String name : new String[] {ColumnarExporter.GAME_ID, ColumnarExporter.RESULT, ColumnarExporter.MOVES}) {
+                    int column = reader.columnIndex(name);
+                    long best = Long.MAX_VALUE;
+                    long[] sum = new long[1];
+                    for (int round = 0; round < ROUNDS; round++) {
+                        sum[0] = 0;
+                        start = System.nanoTime();
+                        reader.scan(column, value -> sum[0] += value);
+                        best = Math.min(best, System.nanoTime() - start);
+                    }
+                    long encoded = 0;
+                    for (int block = 0; block < reader.getBlockCount(); block++) {
+                        encoded += reader.getEncodedBytes(block, column);
+                    }
+                    System.out.printf("scan %-10s %6.2f ns/row %8.0f MB/s decoded, %6.2f bytes/row stored (sum %d)%n",
+                            name, (double) best / games, games * 8e3 / best, (double) encoded / games, sum[0]);
+                }
+                int result = reader.columnIndex(ColumnarExporter.RESULT);
+                start = System.nanoTime();
+                long xWins = reader.count(result, GameHistoryTrie.Outcome.X_WON.ordinal(), GameHistoryTrie.Outcome.X_WON.ordinal());
+                report("columnar X wins", System.nanoTime() - start, games);
+
+                start = System.nanoTime();
+                long textWins = 0;
+                long lastGame = -1;
+                try (BufferedReader in = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        String[] fields = line.split(",");
+                        long id = Long.parseLong(fields[0]);
+                        if (id != lastGame && "X_WON".equals(fields[3])) {
+                            textWins++;
+                        }
+                        lastGame = id;
+                    }
+                }
+                report("text dump X wins", System.nanoTime() - start, games);
+                System.out.println("X won " + xWins + " games (text dump: " + textWins + ")");
+            } finally {
+                Files.deleteIfExists(columnar);
+                Files.deleteIfExists(text);
+                Files.deleteIfExists(directory);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Plays a random number of random moves from the empty board.
+     */
+    private static Board randomPosition(SplittableRandom random) {
+        Board board = new Board();
+        int plies = random.nextInt(10);
+        char mark = 'X';
+        for (int i = 0; i < plies && !board.isGameOver(); i++) {
+            int[] move = AIMoveSelector.selectRandomMove(board);
+            board.placeMark(move[0], move[1], mark);
+            mark = (mark == 'X') ? 'O' : 'X';
+        }
+        return board;
+    }
+
+    private static void report(String label, long nanos, long operations) {
+        System.out.printf("%-32s %8.2f ns/op %12.0f ops/s%n", label, (double) nanos / operations, operations * 1e9 / nanos);
+    }
+}
@@ -4,19 +4,44 @@ import lib.src.main.Board;
 import lib.src.main.Game;
 import lib.src.main.Player;
 import lib.src.main.ComputerPlayer;
-import lib.src.main.AIMoveSelector;
+import lib.src.main.MoveStrategyRegistry;
+import lib.src.main.Ponderer;
+import lib.src.main.ShardedSolver;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 
 public class Main {
 
     /**
      * Entry point for the Tic-Tac-Toe game.
      * Handles player setup (human or computer), game loop, and displaying the board.
+     * Run as {@code Main analyze <input> <output>} to analyze a file of positions instead; see {@link BatchAnalyzer}.
+     * Run as {@code Main solve <rows> <cols> <k>} to solve a whole board with worker processes; see {@link ShardedSolver}.
+     * Run as {@code Main script [file] [--render]} to play scripted games without prompts; see {@link ScriptRunner}.
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "analyze".equals(args[0])) {
+            BatchAnalyzer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && "solve".equals(args[0])) {
+            try {
+                ShardedSolver.main(Arrays.copyOfRange(args, 1, args.length));
+            } catch (IOException e) {
+                System.err.println("Solve failed: " + e.getMessage());
+                System.exit(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
+        if (args.length > 0 && "script".equals(args[0])) {
+            ScriptRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
 
         try {
@@ -50,13 +75,13 @@ public class Main {
             // If computer selected, choose strategy
             String stratX = null;
             if ("c".equals(typeX)) {
-                System.out.print("Should Player X be smart or random? [s/r]: ");
+                System.out.print("Should Player X be smart, random or learned? [s/r/l]: ");
                 System.out.flush();
                 stratX = readLineOrDefault(input, "s").toLowerCase();
             }
             String stratO = null;
             if ("c".equals(typeO)) {
-                System.out.print("Should Player O be smart or random? [s/r]: ");
+                System.out.print("Should Player O be smart, random or learned? [s/r/l]: ");
                 System.out.flush();
                 stratO = readLineOrDefault(input, "s").toLowerCase();
             }
@@ -70,6 +95,10 @@ public class Main {
             System.out.println("Starting Tic-Tac-Toe: " + game.getPlayerX().getName() + " (X) vs " + game.getPlayerO().getName() + " (O)");
             System.out.println(renderBoard(game.getBoard()));
 
+            // In human-vs-computer games the computer ponders while the human thinks
+            Ponderer ponderer = createPonderer(playerX, playerO);
+            int[] ponderedReply = null;
+
             // Game loop
             while (true) {
                 Game.GameState status = game.getGameState();
@@ -89,13 +118,8 @@ public class Main {
 
                     if (isComputer) {
                         ComputerPlayer ai = (ComputerPlayer) currentPlayer;
-                        int[] move;
-                        if (ai.getStrategy() == ComputerPlayer.Strategy.SMART) {
-                            move = AIMoveSelector.selectHeuristicMove(game.getBoard(), ai.getMark());
-                            if (move == null) move = AIMoveSelector.selectRandomMove(game.getBoard());
-                        } else {
-                            move = AIMoveSelector.selectRandomMove(game.getBoard());
-                        }
+                        int[] move = (ponderedReply != null) ? ponderedReply : ai.selectMove(game.getBoard());
+                        ponderedReply = null;
                         if (move == null) {
                             System.out.println("No available moves. It's a draw.");
                             break;
@@ -104,6 +128,9 @@ public class Main {
                         col = move[1];
                         System.out.println(currentPlayer.getName() + " (" + currentPlayer.getMark() + ") plays: " + row + "," + col);
                     } else {
+                        if (ponderer != null) {
+                            ponderer.start(game.getBoard());
+                        }
                         System.out.print(currentPlayer.getName() + " (" + currentPlayer.getMark() + "), enter your move as row,col [0,2]: ");
                         System.out.flush();
 
@@ -130,6 +157,10 @@ public class Main {
 
                     try {
                         boolean moveSuccessful = game.makeMove(row, col);
+                        // a move that ends the game needs no reply, so it must not count as a miss
+                        if (moveSuccessful && ponderer != null && !isComputer && !game.isGameOver()) {
+                            ponderedReply = ponderer.replyTo(row, col);
+                        }
                         if (moveSuccessful) {
                             System.out.println();
                             System.out.println(renderBoard(game.getBoard()));
@@ -151,6 +182,15 @@ public class Main {
                     }
                 }
             }
+
+            if (ponderer != null) {
+                ponderer.close();
+                long lookups = ponderer.getHits() + ponderer.getMisses();
+                if (lookups > 0) {
+                    System.out.printf("Ponder hits: %d/%d (%.0f%%), thinking time saved: %.3f ms%n",
+                            ponderer.getHits(), lookups, ponderer.getHitRate() * 100, ponderer.getSavedNanos() / 1e6);
+                }
+            }
         } catch (IOException e) {
             System.err.println("Error reading input: " + e.getMessage());
         }
@@ -192,19 +232,43 @@ public class Main {
         return sb.toString();
     }
 
+    /**
+     * Creates a ponderer for the computer player when exactly one of the players is a computer.
+     * @param playerX the X player
+     * @param playerO the O player
+     * @return a Ponderer for the computer player, or null if there is no human-vs-computer pairing
+     */
+    private static Ponderer createPonderer(Player playerX, Player playerO) {
+        boolean computerX = playerX instanceof ComputerPlayer;
+        boolean computerO = playerO instanceof ComputerPlayer;
+        if (computerX == computerO) {
+            return null;
+        }
+        return new Ponderer((ComputerPlayer) (computerX ? playerX : playerO));
+    }
+
     /**
      * Creates a Player instance based on type and strategy.
      * @param name     the player's name
      * @param mark     the player's mark ('X' or 'O')
      * @param type     "h" for human, "c" for computer
-     * @param strategy "s" for smart, "r" for random (ignored for human)
+     * @param strategy "s" for smart, "r" for random, "l" for learned, or the name of any registered strategy (ignored for human)
      * @return a Player instance, either Human (Player) or ComputerPlayer
      */
     private static Player createPlayer(String name, char mark, String type, String strategy) {
         if ("c".equalsIgnoreCase(type)) {
-            ComputerPlayer.Strategy chosen = ("r".equalsIgnoreCase(strategy))
-                    ? ComputerPlayer.Strategy.RANDOM
-                    : ComputerPlayer.Strategy.SMART;
+            MoveStrategyRegistry registry = MoveStrategyRegistry.getDefault();
+            if (strategy.length() > 1 && registry.names().contains(strategy)) {
+                return new ComputerPlayer(name, mark, strategy, registry);
+            }
+            ComputerPlayer.Strategy chosen;
+            if ("r".equalsIgnoreCase(strategy)) {
+                chosen = ComputerPlayer.Strategy.RANDOM;
+            } else if ("l".equalsIgnoreCase(strategy)) {
+                chosen = ComputerPlayer.Strategy.LEARNED;
+            } else {
+                chosen = ComputerPlayer.Strategy.SMART;
+            }
             return new ComputerPlayer(name, mark, chosen);
         }
         return new Player(name, mark);
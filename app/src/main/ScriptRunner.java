@@ -0,0 +1,174 @@
+package app.src.main;
+
+import lib.src.main.Board;
+import lib.src.main.Game;
+import lib.src.main.Player;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Plays scripted games without prompts, for piping many games through the CLI at once.
+ * Each input line is one game: moves as {@code row,col} pairs separated by spaces, X first.
+ * Blank lines and lines starting with {@code #} are skipped. Every move goes through
+ * {@link Game#makeMove}, so scripts are validated by the same rules as interactive play.
+ *
+ * <p>Each game produces one line of JSON, written through a single large buffered writer that is
+ * only flushed at the end, for example {@code {"game":1,"moves":5,"state":"WON","winner":"X"}}.
+ * A script that breaks the rules ends its game at the bad move, with {@code "state":"INVALID"},
+ * the 1-based {@code "move"} that failed and an {@code "error"} message. With rendering on,
+ * each record also carries the final {@code "board"} as three rows separated by {@code /}.
+ */
+public final class ScriptRunner {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final boolean render;
+    private final Game game = new Game(new Player("X", 'X'), new Player("O", 'O'));
+    private final StringBuilder record = new StringBuilder(128);
+    private long games;
+
+    /**
+     * Creates a runner.
+     * @param render whether to include the final board in each record
+     */
+    public ScriptRunner(boolean render) {
+        this.render = render;
+    }
+
+    /**
+     * Plays every game of a script.
+     * @param in  the script, one game per line
+     * @param out receives one record per game; not flushed
+     * @return the number of games played by this call
+     * @throws IOException if reading or writing fails
+     */
+    public long run(BufferedReader in, Writer out) throws IOException {
+        long before = games;
+        String line;
+        while ((line = in.readLine()) != null) {
+            String script = line.trim();
+            if (script.isEmpty() || script.charAt(0) == '#') continue;
+            play(script);
+            out.append(record).append('\n');
+        }
+        return games - before;
+    }
+
+    /**
+     * Plays one game and leaves its record in {@link #record}.
+     */
+    private void play(String script) {
+        game.reset();
+        games++;
+        record.setLength(0);
+        record.append("{\"game\":").append(games);
+        int moves = 0;
+        String error = null;
+        int i = 0;
+        int length = script.length();
+        while (error == null) {
+            while (i < length && Character.isWhitespace(script.charAt(i))) i++;
+            if (i == length) break;
+            moves++;
+            // a move is a row digit, a comma and a column digit
+            if (i + 2 >= length
+                    || !isDigit(script, i) || script.charAt(i + 1) != ',' || !isDigit(script, i + 2)
+                    || (i + 3 < length && !Character.isWhitespace(script.charAt(i + 3)))) {
+                error = "Malformed move, expected row,col";
+                break;
+            }
+            int row = script.charAt(i) - '0';
+            int col = script.charAt(i + 2) - '0';
+            i += 3;
+            try {
+                if (!game.makeMove(row, col)) {
+                    error = "Game is already over";
+                }
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+
+        if (error != null) {
+            record.append(",\"moves\":").append(moves - 1).append(",\"state\":\"INVALID\",\"move\":").append(moves)
+                    .append(",\"error\":\"");
+            appendEscaped(error);
+            record.append('"');
+        } else {
+            Game.GameState state = game.getGameState();
+            record.append(",\"moves\":").append(moves).append(",\"state\":\"").append(state.name()).append('"');
+            if (state == Game.GameState.WON) {
+                record.append(",\"winner\":\"").append(game.getWinner().getMark()).append('"');
+            }
+        }
+        if (render) {
+            record.append(",\"board\":\"");
+            appendBoard(game.getBoard());
+            record.append('"');
+        }
+        record.append('}');
+    }
+
+    private static boolean isDigit(String script, int index) {
+        return index < script.length() && script.charAt(index) >= '0' && script.charAt(index) <= '9';
+    }
+
+    private void appendBoard(Board board) {
+        for (int row = 0; row < 3; row++) {
+            if (row > 0) record.append('/');
+            for (int col = 0; col < 3; col++) {
+                char mark = board.getMark(row, col);
+                record.append(mark == ' ' ? '.' : mark);
+            }
+        }
+    }
+
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') record.append('\\');
+            record.append(c < ' ' ? ' ' : c);
+        }
+    }
+
+    /**
+     * Runs scripted games and reports games per second on standard error.
+     * Usage: {@code script [file|-] [--render]}; without a file, or with {@code -}, the script is read from standard input.
+     */
+    public static void main(String[] args) {
+        String file = "-";
+        boolean render = false;
+        for (String arg : args) {
+            if ("--render".equals(arg)) {
+                render = true;
+            } else if (arg.startsWith("--") || !"-".equals(file)) {
+                System.err.println("Usage: script [file|-] [--render]");
+                System.exit(2);
+            } else {
+                file = arg;
+            }
+        }
+        ScriptRunner runner = new ScriptRunner(render);
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (BufferedReader in = "-".equals(file)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            long start = System.nanoTime();
+            long played = runner.run(in, out);
+            out.flush();
+            long elapsed = System.nanoTime() - start;
+            System.err.printf("Played %d games in %d ms (%.0f games/s)%n",
+                    played, elapsed / 1_000_000, played * 1e9 / Math.max(elapsed, 1));
+        } catch (IOException e) {
+            System.err.println("Script failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -72,6 +72,24 @@ public final class AIMoveSelector {
         return null;
     }
 
+    /**
+     * Selects the perfect-play move by probing a precomputed tablebase.
+     * @param board     the current game board
+     * @param tablebase a tablebase for the standard 3x3 board
+     * @return an array of two integers {row, column} representing the chosen move,
+     *         or null if the game is already over
+     * @throws IllegalArgumentException if the tablebase is not for a 3x3 board with three in a row
+     */
+    public static int[] selectTablebaseMove(Board board, Tablebase tablebase) {
+        BoardGeometry geometry = tablebase.getGeometry();
+        if (geometry.getRows() != 3 || geometry.getCols() != 3 || geometry.getWinLength() != 3) {
+            throw new IllegalArgumentException("Tablebase for " + geometry + " cannot be used on a 3x3 board");
+        }
+        int cell = tablebase.bestMove(board.getMask('X'), board.getMask('O'));
+        if (cell < 0) return null;
+        return new int[]{cell / 3, cell % 3};
+    }
+
     /**
      * Finds a move that would result in an immediate win for the given mark.
      * @param board the current game board
@@ -17,6 +17,25 @@ public class Board {
         initializeBoard();
     }
 
+    /**
+     * Creates an independent copy of this board.
+     * @return a new board with the same marks
+     */
+    public Board copy() {
+        Board copy = new Board();
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            System.arraycopy(board[row], 0, copy.board[row], 0, BOARD_SIZE);
+        }
+        return copy;
+    }
+
+    /**
+     * Clears every cell so the board can be reused for a new game.
+     */
+    public void reset() {
+        initializeBoard();
+    }
+
     /**
      * Initializes the board with empty cells.
      */
@@ -88,6 +107,24 @@ public class Board {
         return board[row][col];
     }
 
+    /**
+     * Gets the cells holding a mark as a bitmask.
+     * Bit {@code row * 3 + col} is set when that cell holds the mark.
+     * @param mark the mark to look for ('X' or 'O')
+     * @return the bitmask of cells holding the mark
+     */
+    public int getMask(char mark) {
+        int mask = 0;
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                if (board[row][col] == mark) {
+                    mask |= 1 << (row * BOARD_SIZE + col);
+                }
+            }
+        }
+        return mask;
+    }
+
     /**
      * Checks if the board is full.
      * @return true if all positions are occupied, false otherwise
@@ -0,0 +1,268 @@
+package lib.src.main;
+
+import java.util.SplittableRandom;
+
+/**
+ * Many independent 3x3 positions stored as parallel primitive arrays.
+ * Each position is one X mask and one O mask (bit {@code row * 3 + col}), so whole-batch
+ * operations are tight loops over short arrays with 512-entry lookup tables and no per-board objects.
+ * The side to move in each position is X when both sides have the same number of marks.
+ */
+public final class BoardBatch {
+    public static final byte NO_WINNER = 0;
+    public static final byte X_WINNER = 1;
+    public static final byte O_WINNER = 2;
+
+    private static final int FULL = 0x1FF;
+    private static final int[] LINES = {
+            0x007, 0x038, 0x1C0, // rows
+            0x049, 0x092, 0x124, // columns
+            0x111, 0x054         // diagonals
+    };
+    // center first, then corners, then edges, matching AIMoveSelector
+    private static final int[] PREFERENCE = {4, 0, 2, 6, 8, 1, 3, 5, 7};
+
+    /** WIN[mask] is 1 when the mask contains a complete line. */
+    private static final byte[] WIN = new byte[512];
+    /** THREATS[mask] holds the cells that would complete a line for a player owning mask. */
+    private static final short[] THREATS = new short[512];
+    /** PREFERRED[empty] is the first preferred cell among the empty cells, or -1. */
+    private static final byte[] PREFERRED = new byte[512];
+
+    static {
+        for (int mask = 0; mask < 512; mask++) {
+            for (int line : LINES) {
+                if ((mask & line) == line) WIN[mask] = 1;
+                int missing = line & ~mask;
+                if (Integer.bitCount(missing) == 1) THREATS[mask] |= (short) missing;
+            }
+            PREFERRED[mask] = -1;
+            for (int cell : PREFERENCE) {
+                if ((mask & (1 << cell)) != 0) {
+                    PREFERRED[mask] = (byte) cell;
+                    break;
+                }
+            }
+        }
+    }
+
+    private final short[] xMasks;
+    private final short[] oMasks;
+    private int size;
+
+    /**
+     * Creates an empty batch.
+     * @param capacity the largest number of positions the batch can hold
+     */
+    public BoardBatch(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative, got: " + capacity);
+        }
+        xMasks = new short[capacity];
+        oMasks = new short[capacity];
+    }
+
+    /**
+     * Checks if a 3x3 mask contains a complete line.
+     * @param mask a player's cells
+     * @return true if the mask wins
+     */
+    static boolean isWin(int mask) {
+        return WIN[mask] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return xMasks.length;
+    }
+
+    /**
+     * Removes all positions from the batch.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends a position given as bitmasks.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the index of the new position
+     * @throws IllegalArgumentException if the masks overlap or use bits outside the board
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(int xMask, int oMask) {
+        if ((xMask & oMask) != 0 || ((xMask | oMask) & ~FULL) != 0) {
+            throw new IllegalArgumentException("Invalid masks: X=" + xMask + ", O=" + oMask);
+        }
+        if (size == xMasks.length) {
+            throw new IllegalStateException("Batch is full");
+        }
+        xMasks[size] = (short) xMask;
+        oMasks[size] = (short) oMask;
+        return size++;
+    }
+
+    /**
+     * Appends a copy of a board's position.
+     * @param board the board to copy
+     * @return the index of the new position
+     * @throws IllegalStateException if the batch is full
+     */
+    public int add(Board board) {
+        return add(board.getMask('X'), board.getMask('O'));
+    }
+
+    public int getXMask(int index) {
+        checkIndex(index);
+        return xMasks[index];
+    }
+
+    public int getOMask(int index) {
+        checkIndex(index);
+        return oMasks[index];
+    }
+
+    /**
+     * Places the mark of the side to move on a cell of one position.
+     * @param index the position index
+     * @param cell  the cell (0-8)
+     * @throws IllegalArgumentException if the cell is out of range or occupied
+     */
+    public void play(int index, int cell) {
+        checkIndex(index);
+        if (cell < 0 || cell > 8 || ((xMasks[index] | oMasks[index]) & (1 << cell)) != 0) {
+            throw new IllegalArgumentException("Cell " + cell + " is not available in position " + index);
+        }
+        if (Integer.bitCount(xMasks[index]) == Integer.bitCount(oMasks[index])) {
+            xMasks[index] |= (short) (1 << cell);
+        } else {
+            oMasks[index] |= (short) (1 << cell);
+        }
+    }
+
+    /**
+     * Applies one move to every position; entries of -1 are skipped.
+     * @param cells the cell to play per position, as produced by the select methods
+     */
+    public void playAll(int[] cells) {
+        checkLength(cells.length);
+        for (int i = 0; i < size; i++) {
+            int cell = cells[i];
+            if (cell < 0) continue;
+            int bit = 1 << cell;
+            boolean xToMove = Integer.bitCount(xMasks[i]) == Integer.bitCount(oMasks[i]);
+            if (xToMove) xMasks[i] |= (short) bit;
+            else oMasks[i] |= (short) bit;
+        }
+    }
+
+    /**
+     * Determines the winner of every position.
+     * @param out receives {@link #X_WINNER}, {@link #O_WINNER} or {@link #NO_WINNER} per position
+     */
+    public void winners(byte[] out) {
+        checkLength(out.length);
+        for (int i = 0; i < size; i++) {
+            out[i] = (byte) (WIN[xMasks[i]] | (WIN[oMasks[i]] << 1));
+        }
+    }
+
+    /**
+     * Determines which positions have no empty cells.
+     * @param out receives true per full position
+     */
+    public void fullBoards(boolean[] out) {
+        checkLength(out.length);
+        for (int i = 0; i < size; i++) {
+            out[i] = (xMasks[i] | oMasks[i]) == FULL;
+        }
+    }
+
+    /**
+     * Counts the positions whose game is over, either by a win or a full board.
+     * @return the number of finished positions
+     */
+    public int countGameOver() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            int x = xMasks[i];
+            int o = oMasks[i];
+            count += (WIN[x] | WIN[o] | ((x | o) == FULL ? 1 : 0));
+        }
+        return count;
+    }
+
+    /**
+     * Picks a uniformly random empty cell for every position.
+     * @param out    receives the chosen cell, or -1 for finished positions
+     * @param random the random source
+     */
+    public void selectRandomMoves(int[] out, SplittableRandom random) {
+        checkLength(out.length);
+        for (int i = 0; i < size; i++) {
+            int x = xMasks[i];
+            int o = oMasks[i];
+            int empty = FULL & ~(x | o);
+            if (empty == 0 || WIN[x] != 0 || WIN[o] != 0) {
+                out[i] = -1;
+                continue;
+            }
+            int skip = random.nextInt(Integer.bitCount(empty));
+            for (int k = 0; k < skip; k++) {
+                empty &= empty - 1;
+            }
+            out[i] = Integer.numberOfTrailingZeros(empty);
+        }
+    }
+
+    /**
+     * Picks a move for the side to move in every position using the same rules as
+     * {@link AIMoveSelector#selectHeuristicMove}: win, block, center, corner, edge.
+     * @param out receives the chosen cell, or -1 for finished positions
+     */
+    public void selectHeuristicMoves(int[] out) {
+        checkLength(out.length);
+        for (int i = 0; i < size; i++) {
+            int x = xMasks[i];
+            int o = oMasks[i];
+            int empty = FULL & ~(x | o);
+            if (empty == 0 || WIN[x] != 0 || WIN[o] != 0) {
+                out[i] = -1;
+                continue;
+            }
+            boolean xToMove = Integer.bitCount(x) == Integer.bitCount(o);
+            int mine = xToMove ? x : o;
+            int theirs = xToMove ? o : x;
+            int wins = THREATS[mine] & empty;
+            int blocks = THREATS[theirs] & empty;
+            if (wins != 0) {
+                out[i] = Integer.numberOfTrailingZeros(wins);
+            } else if (blocks != 0) {
+                out[i] = Integer.numberOfTrailingZeros(blocks);
+            } else {
+                out[i] = PREFERRED[empty];
+            }
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for batch of " + size);
+        }
+    }
+
+    private void checkLength(int length) {
+        if (length < size) {
+            throw new IllegalArgumentException("Output array of length " + length + " is shorter than batch of " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BoardBatch[size=" + size + ", capacity=" + capacity() + "]";
+    }
+}
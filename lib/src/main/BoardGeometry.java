@@ -0,0 +1,181 @@
+package lib.src.main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes the shape of an m,n,k Tic-Tac-Toe board and its winning lines.
+ * Cells are numbered {@code row * cols + col} so a whole position can be held
+ * as one bitmask per player; every winning line is precomputed as such a mask.
+ */
+public final class BoardGeometry {
+    private static final int MAX_CELLS = 64;
+
+    /**
+     * The classic 3x3 board with three in a row to win.
+     */
+    public static final BoardGeometry STANDARD = new BoardGeometry(3, 3, 3);
+
+    private final int rows;
+    private final int cols;
+    private final int winLength;
+    private final long[] lines;
+    private final long[][] linesThroughCell;
+
+    /**
+     * Creates the geometry of a board with the given dimensions.
+     * @param rows      the number of rows
+     * @param cols      the number of columns
+     * @param winLength the number of marks in a row needed to win
+     * @throws IllegalArgumentException if the board has more than 64 cells or no line can be formed
+     */
+    public BoardGeometry(int rows, int cols, int winLength) {
+        if (rows < 1 || cols < 1 || rows * cols > MAX_CELLS) {
+            throw new IllegalArgumentException("Board must have between 1 and " + MAX_CELLS + " cells, got " + rows + "x" + cols);
+        }
+        if (winLength < 1 || winLength > Math.max(rows, cols)) {
+            throw new IllegalArgumentException("Win length " + winLength + " does not fit a " + rows + "x" + cols + " board");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.winLength = winLength;
+        this.lines = buildLines();
+        this.linesThroughCell = new long[rows * cols][];
+        for (int cell = 0; cell < rows * cols; cell++) {
+            List<Long> through = new ArrayList<>();
+            for (long line : lines) {
+                if ((line & (1L << cell)) != 0) {
+                    through.add(line);
+                }
+            }
+            long[] masks = new long[through.size()];
+            for (int i = 0; i < masks.length; i++) {
+                masks[i] = through.get(i);
+            }
+            linesThroughCell[cell] = masks;
+        }
+    }
+
+    /**
+     * Builds the masks of every horizontal, vertical and diagonal line of winLength cells.
+     */
+    private long[] buildLines() {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        List<Long> found = new ArrayList<>();
+        for (int[] d : directions) {
+            for (int row = 0; row < rows; row++) {
+                for (int col = 0; col < cols; col++) {
+                    int endRow = row + d[0] * (winLength - 1);
+                    int endCol = col + d[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= rows || endCol < 0 || endCol >= cols) continue;
+                    long mask = 0L;
+                    for (int i = 0; i < winLength; i++) {
+                        mask |= 1L << cell(row + d[0] * i, col + d[1] * i);
+                    }
+                    found.add(mask);
+                }
+            }
+        }
+        long[] result = new long[found.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = found.get(i);
+        }
+        return result;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /**
+     * Gets the total number of cells on the board.
+     * @return rows * cols
+     */
+    public int getCellCount() {
+        return rows * cols;
+    }
+
+    /**
+     * Gets the mask with every cell of the board set.
+     * @return the full-board mask
+     */
+    public long fullMask() {
+        return (rows * cols == MAX_CELLS) ? -1L : (1L << (rows * cols)) - 1;
+    }
+
+    /**
+     * Converts a row and column into a cell number.
+     * @param row the row index
+     * @param col the column index
+     * @return the cell number {@code row * cols + col}
+     */
+    public int cell(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * Gets the number of winning lines on the board.
+     * @return the line count
+     */
+    public int lineCount() {
+        return lines.length;
+    }
+
+    /**
+     * Gets the mask of a winning line.
+     * @param index the line index (0 to lineCount() - 1)
+     * @return the cells of the line as a bitmask
+     */
+    public long line(int index) {
+        return lines[index];
+    }
+
+    /**
+     * Gets the masks of the winning lines that pass through a cell.
+     * The returned array is shared and must not be modified.
+     * @param cell the cell number
+     * @return the masks of the lines containing the cell
+     */
+    long[] linesThrough(int cell) {
+        return linesThroughCell[cell];
+    }
+
+    /**
+     * Checks if a player's marks contain a complete line.
+     * @param mask the player's cells
+     * @return true if any winning line is fully covered
+     */
+    public boolean isWin(long mask) {
+        for (long line : lines) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a player's marks contain a complete line through the given cell.
+     * Only the lines through the cell are tested, which is all that can change after a move there.
+     * @param mask the player's cells
+     * @param cell the cell that was just played
+     * @return true if a winning line through the cell is fully covered
+     */
+    public boolean isWinThrough(long mask, int cell) {
+        for (long line : linesThroughCell[cell]) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return rows + "x" + cols + " (k=" + winLength + ")";
+    }
+}
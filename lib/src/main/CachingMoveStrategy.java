@@ -0,0 +1,71 @@
+package lib.src.main;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Remembers the moves another strategy chose, so a position seen again is answered from a
+ * {@link MoveCache} instead of being worked out again. A position is keyed by both marks' cell
+ * masks and the side to move, packed into one {@code long}, and the move is cached as its cell
+ * index, so a hit costs a lookup and the returned array. The wrapper keeps the delegate's name
+ * and can be registered in its place. Only deterministic strategies should be wrapped: a wrapped
+ * random strategy keeps playing the first move it picked in each position.
+ */
+public final class CachingMoveStrategy implements MoveStrategy {
+    // cached for positions where the delegate had no move
+    private static final int NO_MOVE = -1;
+
+    private final MoveStrategy delegate;
+    private final MoveCache cache;
+
+    /**
+     * Wraps a strategy.
+     * @param delegate the strategy whose moves are cached
+     * @param cache    the cache to use, which may be shared with other wrappers only if they
+     *                 wrap the same strategy
+     * @throws IllegalArgumentException if either argument is null
+     */
+    public CachingMoveStrategy(MoveStrategy delegate, MoveCache cache) {
+        if (delegate == null || cache == null) {
+            throw new IllegalArgumentException("Strategy and cache cannot be null");
+        }
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    /**
+     * Packs a position into a cache key.
+     * @param board the board
+     * @param mark  the mark of the player to move
+     * @return X's cell mask, O's mask shifted by 9, and bit 18 set when 'O' is to move
+     */
+    public static long positionKey(Board board, char mark) {
+        long key = board.getMask('X') | ((long) board.getMask('O') << 9);
+        return (mark == 'O') ? key | (1L << 18) : key;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+        long key = positionKey(board, mark);
+        int cached = cache.get(key);
+        if (cached != MoveCache.ABSENT) {
+            return CompletableFuture.completedFuture((cached == NO_MOVE) ? null : new int[] {cached / 3, cached % 3});
+        }
+        return delegate.selectMove(board, mark, deadlineNanos).thenApply(move -> {
+            cache.put(key, (move == null) ? NO_MOVE : move[0] * 3 + move[1]);
+            return move;
+        });
+    }
+
+    public MoveStrategy getDelegate() {
+        return delegate;
+    }
+
+    public MoveCache getCache() {
+        return cache;
+    }
+}
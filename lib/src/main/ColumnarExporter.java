@@ -0,0 +1,416 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes finished games to a columnar file for offline analysis, read back with {@link ColumnarReader}.
+ * Every game is one row with six columns: {@link #GAME_ID}, {@link #X_STRATEGY}, {@link #O_STRATEGY},
+ * {@link #RESULT} (a {@link GameHistoryTrie.Outcome} ordinal), {@link #PLIES} and {@link #MOVES}, the
+ * cells played packed four bits each with the first move lowest. Rows are buffered in primitive
+ * arrays and written a block at a time; within a block each column is stored on its own with the
+ * smallest of four encodings, plain, variable-length, delta or run-length, and its minimum and
+ * maximum, so a reader can scan one column and skip the others, or skip whole blocks by range.
+ * Strategy names are stored as indexes into a dictionary kept in the footer.
+ *
+ * <p>Layout, little-endian: the magic number and version; the blocks; a footer naming the columns,
+ * their dictionaries and every block's offset and row count; the footer's offset and the magic again.
+ * A block starts with its row count and, for each column, the encoding, minimum, maximum and byte
+ * length of its data, followed by the columns' data in order.
+ */
+public final class ColumnarExporter implements AutoCloseable {
+    public static final String GAME_ID = "game_id";
+    public static final String X_STRATEGY = "x_strategy";
+    public static final String O_STRATEGY = "o_strategy";
+    public static final String RESULT = "result";
+    public static final String PLIES = "plies";
+    public static final String MOVES = "moves";
+    /** The number of rows per block unless another is chosen. */
+    public static final int DEFAULT_BLOCK_ROWS = 1 << 16;
+    /** The strategy name recorded for players that are not computer players. */
+    public static final String HUMAN = "human";
+
+    static final int MAGIC = 0x54544346; // "TTCF"
+    static final int VERSION = 1;
+    static final int FILE_HEADER_BYTES = 5;
+    static final int FILE_TRAILER_BYTES = 12;
+    static final int COLUMN_HEADER_BYTES = 1 + 8 + 8 + 4;
+    static final byte TYPE_LONG = 0;
+    static final byte TYPE_DICTIONARY = 1;
+    static final String[] COLUMNS = {GAME_ID, X_STRATEGY, O_STRATEGY, RESULT, PLIES, MOVES};
+
+    private static final int ID_COLUMN = 0;
+    private static final int X_COLUMN = 1;
+    private static final int O_COLUMN = 2;
+    private static final int RESULT_COLUMN = 3;
+    private static final int PLIES_COLUMN = 4;
+    private static final int MOVES_COLUMN = 5;
+
+    /**
+     * How one column of one block is stored.
+     */
+    public enum Encoding {
+        /** Eight bytes per value, decoded with a bulk copy. */
+        PLAIN,
+        /** Each value as a zigzag variable-length integer. */
+        VARINT,
+        /** The first value, then the difference from the previous value, as zigzag variable-length integers. */
+        DELTA,
+        /** Runs of equal values, each as the value and the run length, as variable-length integers. */
+        RLE
+    }
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final long[][] columns = new long[COLUMNS.length][];
+    private final List<String> strategyNames = new ArrayList<>();
+    private final Map<String, Integer> strategyCodes = new HashMap<>();
+    private final List<long[]> blocks = new ArrayList<>();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private int rows;
+    private long rowCount;
+    private long position;
+    private boolean closed;
+
+    /**
+     * Creates or replaces a file with {@link #DEFAULT_BLOCK_ROWS} rows per block.
+     * @param file the file to write
+     * @throws IOException if the file cannot be created
+     */
+    public ColumnarExporter(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    /**
+     * Creates or replaces a file.
+     * @param file      the file to write
+     * @param blockRows the number of rows buffered and written together as one block
+     * @throws IOException if the file cannot be created
+     * @throws IllegalArgumentException if the block size is not positive
+     */
+    public ColumnarExporter(Path file, int blockRows) throws IOException {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("Block rows must be positive, got: " + blockRows);
+        }
+        this.blockRows = blockRows;
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = new long[blockRows];
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC).put((byte) VERSION);
+        flush();
+    }
+
+    /**
+     * Adds a finished game.
+     * @param gameId the identifier stored with the game
+     * @param game   a game that is over
+     * @throws IOException if a full block cannot be written
+     * @throws IllegalArgumentException if the game is still in progress or has no move history
+     */
+    public void add(long gameId, Game game) throws IOException {
+        if (!game.isGameOver()) {
+            throw new IllegalArgumentException("Game is still in progress");
+        }
+        if (!game.hasMoveHistory()) {
+            throw new IllegalArgumentException("Game has no move history");
+        }
+        Player winner = game.getWinner();
+        GameHistoryTrie.Outcome result = (winner == null) ? GameHistoryTrie.Outcome.TIED
+                : (winner.getMark() == 'X') ? GameHistoryTrie.Outcome.X_WON : GameHistoryTrie.Outcome.O_WON;
+        int[] moves = game.getMoveHistory();
+        add(gameId, strategyName(game.getPlayerX()), strategyName(game.getPlayerO()), result, moves, moves.length);
+    }
+
+    /**
+     * Adds a game given by its parts.
+     * @param gameId    the identifier stored with the game
+     * @param xStrategy the name of X's strategy
+     * @param oStrategy the name of O's strategy
+     * @param result    how the game ended
+     * @param moves     the cells played, each {@code row * 3 + col}
+     * @param plies     the number of moves to store from the start of the array
+     * @throws IOException if a full block cannot be written
+     * @throws IllegalArgumentException if an argument is null, a cell is out of range or the ply count is invalid
+     * @throws IllegalStateException if the exporter is closed
+     */
+    public void add(long gameId, String xStrategy, String oStrategy, GameHistoryTrie.Outcome result,
+                    int[] moves, int plies) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Exporter is closed");
+        }
+        if (xStrategy == null || oStrategy == null || result == null) {
+            throw new IllegalArgumentException("Strategies and result cannot be null");
+        }
+        long packed = packMoves(moves, plies);
+        columns[ID_COLUMN][rows] = gameId;
+        columns[X_COLUMN][rows] = strategyCode(xStrategy);
+        columns[O_COLUMN][rows] = strategyCode(oStrategy);
+        columns[RESULT_COLUMN][rows] = result.ordinal();
+        columns[PLIES_COLUMN][rows] = plies;
+        columns[MOVES_COLUMN][rows] = packed;
+        if (++rows == blockRows) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Gets the name a player's strategy is stored under.
+     * @param player the player
+     * @return the strategy's registry name, or {@link #HUMAN} for players that are not computer players
+     */
+    public static String strategyName(Player player) {
+        return (player instanceof ComputerPlayer)
+                ? ((ComputerPlayer) player).getStrategyName() : HUMAN;
+    }
+
+    /**
+     * Packs a move sequence into the {@link #MOVES} column's form.
+     * @param moves the cells played
+     * @param plies the number of moves to pack
+     * @return the cells, four bits each, first move lowest
+     * @throws IllegalArgumentException if the ply count or a cell is out of range
+     */
+    public static long packMoves(int[] moves, int plies) {
+        if (plies < 0 || plies > 9 || plies > moves.length) {
+            throw new IllegalArgumentException("Invalid ply count: " + plies);
+        }
+        long packed = 0;
+        for (int i = 0; i < plies; i++) {
+            if (moves[i] < 0 || moves[i] > 8) {
+                throw new IllegalArgumentException("Invalid cell " + moves[i] + " at move " + (i + 1));
+            }
+            packed |= (long) moves[i] << (4 * i);
+        }
+        return packed;
+    }
+
+    /**
+     * Unpacks a {@link #MOVES} value.
+     * @param packed the packed cells
+     * @param plies  the number of moves packed
+     * @return the cells played in order
+     */
+    public static int[] unpackMoves(long packed, int plies) {
+        int[] moves = new int[plies];
+        for (int i = 0; i < plies; i++) {
+            moves[i] = (int) (packed >>> (4 * i)) & 0xF;
+        }
+        return moves;
+    }
+
+    private int strategyCode(String name) {
+        Integer code = strategyCodes.get(name);
+        if (code == null) {
+            code = strategyNames.size();
+            strategyNames.add(name);
+            strategyCodes.put(name, code);
+        }
+        return code;
+    }
+
+    /**
+     * Encodes the buffered rows column by column into the direct buffer and writes them as one block.
+     */
+    private void writeBlock() throws IOException {
+        Encoding[] encodings = new Encoding[columns.length];
+        int[] sizes = new int[columns.length];
+        int total = 4 + columns.length * COLUMN_HEADER_BYTES;
+        for (int c = 0; c < columns.length; c++) {
+            encodings[c] = chooseEncoding(columns[c], rows);
+            sizes[c] = encodedSize(encodings[c], columns[c], rows);
+            total += sizes[c];
+        }
+        ensureCapacity(total);
+        buffer.putInt(rows);
+        for (int c = 0; c < columns.length; c++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long[] values = columns[c];
+            for (int i = 0; i < rows; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            buffer.put((byte) encodings[c].ordinal()).putLong(min).putLong(max).putInt(sizes[c]);
+        }
+        for (int c = 0; c < columns.length; c++) {
+            encode(encodings[c], columns[c], rows);
+        }
+        blocks.add(new long[] {position, rows});
+        rowCount += rows;
+        rows = 0;
+        flush();
+    }
+
+    private static Encoding chooseEncoding(long[] values, int count) {
+        Encoding best = Encoding.PLAIN;
+        int bestSize = encodedSize(Encoding.PLAIN, values, count);
+        for (Encoding encoding : new Encoding[] {Encoding.VARINT, Encoding.DELTA, Encoding.RLE}) {
+            int size = encodedSize(encoding, values, count);
+            if (size < bestSize) {
+                best = encoding;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+
+    static int encodedSize(Encoding encoding, long[] values, int count) {
+        int size = 0;
+        switch (encoding) {
+            case PLAIN:
+                return count * Long.BYTES;
+            case VARINT:
+                for (int i = 0; i < count; i++) {
+                    size += varLongSize(zigzag(values[i]));
+                }
+                return size;
+            case DELTA:
+                for (int i = 0; i < count; i++) {
+                    size += varLongSize(zigzag(values[i] - (i == 0 ? 0 : values[i - 1])));
+                }
+                return size;
+            default:
+                for (int i = 0; i < count; ) {
+                    int run = runLength(values, i, count);
+                    size += varLongSize(zigzag(values[i])) + varLongSize(run);
+                    i += run;
+                }
+                return size;
+        }
+    }
+
+    private void encode(Encoding encoding, long[] values, int count) {
+        switch (encoding) {
+            case PLAIN:
+                buffer.asLongBuffer().put(values, 0, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+                break;
+            case VARINT:
+                for (int i = 0; i < count; i++) {
+                    putVarLong(zigzag(values[i]));
+                }
+                break;
+            case DELTA:
+                for (int i = 0; i < count; i++) {
+                    putVarLong(zigzag(values[i] - (i == 0 ? 0 : values[i - 1])));
+                }
+                break;
+            default:
+                for (int i = 0; i < count; ) {
+                    int run = runLength(values, i, count);
+                    putVarLong(zigzag(values[i]));
+                    putVarLong(run);
+                    i += run;
+                }
+        }
+    }
+
+    private static int runLength(long[] values, int start, int count) {
+        int end = start + 1;
+        while (end < count && values[end] == values[start]) {
+            end++;
+        }
+        return end - start;
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int varLongSize(long value) {
+        return Math.max(1, (64 - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() < bytes) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+            ByteBuffer larger = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(4 + bytes.length);
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    /**
+     * Gets the number of games added so far.
+     * @return the row count
+     */
+    public long getRowCount() {
+        return rowCount + rows;
+    }
+
+    /**
+     * Writes the last block and the footer, and closes the file.
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (rows > 0) {
+                writeBlock();
+            }
+            long footer = position;
+            ensureCapacity(4);
+            buffer.putInt(COLUMNS.length);
+            for (String column : COLUMNS) {
+                putString(column);
+                boolean dictionary = column.equals(X_STRATEGY) || column.equals(O_STRATEGY);
+                ensureCapacity(5);
+                buffer.put(dictionary ? TYPE_DICTIONARY : TYPE_LONG);
+                if (dictionary) {
+                    buffer.putInt(strategyNames.size());
+                    for (String name : strategyNames) {
+                        putString(name);
+                    }
+                }
+            }
+            ensureCapacity(4 + blocks.size() * 12 + 8 + FILE_TRAILER_BYTES);
+            buffer.putInt(blocks.size());
+            for (long[] block : blocks) {
+                buffer.putLong(block[0]).putInt((int) block[1]);
+            }
+            buffer.putLong(rowCount);
+            buffer.putLong(footer).putInt(MAGIC);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
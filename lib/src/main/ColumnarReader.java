@@ -0,0 +1,323 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads a file written by {@link ColumnarExporter}. The file is memory-mapped and only the footer
+ * is parsed on open. Reading a column touches only that column's bytes in each block: plain
+ * columns are bulk-copied and the other encodings decoded in tight loops over the mapping, and a
+ * range scan skips every block whose minimum and maximum show it holds no value in range. The
+ * mapping is released when the reader is garbage collected.
+ * A reader may be used by one thread at a time; open one per thread to scan in parallel.
+ */
+public final class ColumnarReader {
+    private final ByteBuffer file;
+    private final String source;
+    private final List<String> columns = new ArrayList<>();
+    private final List<List<String>> dictionaries = new ArrayList<>();
+    private final long[] blockOffsets;
+    private final int[] blockRows;
+    private final long rowCount;
+    private int largestBlock;
+
+    /**
+     * Opens a file.
+     * @param path the file
+     * @throws IOException if it cannot be read or is not a complete columnar file
+     */
+    public ColumnarReader(Path path) throws IOException {
+        this.source = path.toString();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Columnar file is too large to map: " + source);
+            }
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        int size = file.capacity();
+        if (size < ColumnarExporter.FILE_HEADER_BYTES + ColumnarExporter.FILE_TRAILER_BYTES
+                || file.getInt(0) != ColumnarExporter.MAGIC || file.getInt(size - 4) != ColumnarExporter.MAGIC) {
+            throw new IOException("Not a complete columnar file: " + source);
+        }
+        if (file.get(4) != ColumnarExporter.VERSION) {
+            throw new IOException("Unsupported columnar file version " + file.get(4) + ": " + source);
+        }
+        try {
+            ByteBuffer footer = file.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            long footerOffset = file.getLong(size - ColumnarExporter.FILE_TRAILER_BYTES);
+            if (footerOffset < ColumnarExporter.FILE_HEADER_BYTES || footerOffset > size - ColumnarExporter.FILE_TRAILER_BYTES) {
+                throw new IOException("Corrupt columnar file footer: " + source);
+            }
+            footer.position((int) footerOffset);
+            int columnCount = footer.getInt();
+            for (int c = 0; c < columnCount; c++) {
+                columns.add(getString(footer));
+                List<String> dictionary = Collections.emptyList();
+                if (footer.get() == ColumnarExporter.TYPE_DICTIONARY) {
+                    int entries = footer.getInt();
+                    dictionary = new ArrayList<>(entries);
+                    for (int i = 0; i < entries; i++) {
+                        dictionary.add(getString(footer));
+                    }
+                }
+                dictionaries.add(Collections.unmodifiableList(dictionary));
+            }
+            int blocks = footer.getInt();
+            if (blocks < 0 || blocks > size) {
+                throw new IOException("Corrupt columnar file footer: " + source);
+            }
+            blockOffsets = new long[blocks];
+            blockRows = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                blockOffsets[b] = footer.getLong();
+                blockRows[b] = footer.getInt();
+                if (blockOffsets[b] < 0 || blockOffsets[b] >= footerOffset || file.getInt((int) blockOffsets[b]) != blockRows[b]) {
+                    throw new IOException("Corrupt columnar block " + b + ": " + source);
+                }
+                largestBlock = Math.max(largestBlock, blockRows[b]);
+            }
+            rowCount = footer.getLong();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Corrupt columnar file footer: " + source, e);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Finds a column by name.
+     * @param name the column name, e.g. {@link ColumnarExporter#RESULT}
+     * @return its index
+     * @throws IllegalArgumentException if the file has no such column
+     */
+    public int columnIndex(String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown column: " + name);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the dictionary a column's values index into.
+     * @param column the column index
+     * @return the dictionary entries, empty for a plain numeric column
+     */
+    public List<String> getDictionary(int column) {
+        return dictionaries.get(column);
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getBlockCount() {
+        return blockOffsets.length;
+    }
+
+    public int getBlockRows(int block) {
+        return blockRows[block];
+    }
+
+    /**
+     * Gets the position in the file of a column's header within a block.
+     */
+    private int columnHeader(int block, int column) {
+        if (column < 0 || column >= columns.size()) {
+            throw new IllegalArgumentException("Column index out of range: " + column);
+        }
+        return (int) blockOffsets[block] + 4 + column * ColumnarExporter.COLUMN_HEADER_BYTES;
+    }
+
+    public ColumnarExporter.Encoding getEncoding(int block, int column) {
+        return ColumnarExporter.Encoding.values()[file.get(columnHeader(block, column))];
+    }
+
+    public long getMin(int block, int column) {
+        return file.getLong(columnHeader(block, column) + 1);
+    }
+
+    public long getMax(int block, int column) {
+        return file.getLong(columnHeader(block, column) + 9);
+    }
+
+    /**
+     * Gets the size of a column's data within a block.
+     * @return the encoded size in bytes
+     */
+    public int getEncodedBytes(int block, int column) {
+        return file.getInt(columnHeader(block, column) + 17);
+    }
+
+    /**
+     * Decodes one column of one block.
+     * @param block  the block index
+     * @param column the column index
+     * @param values receives the values from index 0; must hold at least the block's row count
+     * @return the number of values decoded
+     * @throws IllegalArgumentException if the array is too small or the column does not exist
+     */
+    public int readBlock(int block, int column, long[] values) {
+        int rows = blockRows[block];
+        if (values.length < rows) {
+            throw new IllegalArgumentException("Array holds " + values.length + " values, block has " + rows);
+        }
+        int data = (int) blockOffsets[block] + 4 + columns.size() * ColumnarExporter.COLUMN_HEADER_BYTES;
+        for (int c = 0; c < column; c++) {
+            data += getEncodedBytes(block, c);
+        }
+        switch (getEncoding(block, column)) {
+            case PLAIN:
+                ByteBuffer in = file.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+                in.position(data);
+                in.asLongBuffer().get(values, 0, rows);
+                break;
+            case VARINT:
+                decodeVarints(data, values, rows, false);
+                break;
+            case DELTA:
+                decodeVarints(data, values, rows, true);
+                break;
+            default:
+                decodeRuns(data, values, rows);
+        }
+        return rows;
+    }
+
+    // each encoding is decoded by its own small loop, which the JIT compiles well whatever else is scanned
+
+    private void decodeVarints(int position, long[] values, int rows, boolean delta) {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            while ((b = file.get(position++)) < 0) {
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            value = unzigzag(value | ((long) b << shift));
+            previous = delta ? previous + value : value;
+            values[i] = previous;
+        }
+    }
+
+    private void decodeRuns(int position, long[] values, int rows) {
+        for (int i = 0; i < rows; ) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            while ((b = file.get(position++)) < 0) {
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            }
+            value = unzigzag(value | ((long) b << shift));
+            int run = 0;
+            shift = 0;
+            while ((b = file.get(position++)) < 0) {
+                run |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            run |= b << shift;
+            Arrays.fill(values, i, Math.min(rows, i + run), value);
+            i += run;
+        }
+    }
+
+    /**
+     * Passes every value of a column, in row order, to a consumer.
+     * @param column   the column index
+     * @param consumer receives the values
+     * @return the number of values read
+     */
+    public long scan(int column, LongConsumer consumer) {
+        return scan(column, Long.MIN_VALUE, Long.MAX_VALUE, consumer);
+    }
+
+    /**
+     * Passes the values of a column that lie in a range, in row order, to a consumer.
+     * Blocks whose statistics show no value in the range are not decoded.
+     * @param column   the column index
+     * @param min      the smallest value wanted
+     * @param max      the largest value wanted
+     * @param consumer receives the values in range
+     * @return the number of values passed on
+     */
+    public long scan(int column, long min, long max, LongConsumer consumer) {
+        long[] values = new long[largestBlock];
+        long passed = 0;
+        for (int block = 0; block < blockOffsets.length; block++) {
+            if (getMax(block, column) < min || getMin(block, column) > max) {
+                continue;
+            }
+            int rows = readBlock(block, column, values);
+            for (int i = 0; i < rows; i++) {
+                long value = values[i];
+                if (value >= min && value <= max) {
+                    consumer.accept(value);
+                    passed++;
+                }
+            }
+        }
+        return passed;
+    }
+
+    /**
+     * Counts the values of a column that lie in a range, without passing them anywhere.
+     * @param column the column index
+     * @param min    the smallest value counted
+     * @param max    the largest value counted
+     * @return the count
+     */
+    public long count(int column, long min, long max) {
+        long[] values = new long[largestBlock];
+        long count = 0;
+        for (int block = 0; block < blockOffsets.length; block++) {
+            long blockMin = getMin(block, column);
+            long blockMax = getMax(block, column);
+            if (blockMax < min || blockMin > max) {
+                continue;
+            }
+            if (blockMin >= min && blockMax <= max) {
+                count += blockRows[block]; // the statistics alone answer it
+                continue;
+            }
+            int rows = readBlock(block, column, values);
+            for (int i = 0; i < rows; i++) {
+                if (values[i] >= min && values[i] <= max) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @Override
+    public String toString() {
+        return source + ": " + rowCount + " rows in " + blockOffsets.length + " blocks, columns " + columns;
+    }
+}
@@ -1,27 +1,134 @@
 package lib.src.main;
 
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Computer-controlled player with configurable strategy.
+ * Moves are chosen by the {@link MoveStrategy} registered under the strategy's name, which is
+ * either a built-in {@link Strategy} or any name in the registry, such as a strategy discovered with ServiceLoader.
  */
 public class ComputerPlayer extends Player {
 
+    /**
+     * How long {@link #selectMove(Board)} waits before falling back to the heuristic.
+     */
+    public static final Duration DEFAULT_MOVE_TIMEOUT = Duration.ofSeconds(2);
+
     public enum Strategy {
         RANDOM,
-        SMART
+        SMART,
+        /** Greedy play from a value table learned by self-play; see {@link LearnedStrategy}. */
+        LEARNED;
+
+        /**
+         * Gets the name under which this strategy's implementation is registered.
+         * @return the registry name, e.g. "smart"
+         */
+        public String getRegistryName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
     }
 
     private final Strategy strategy;
+    private final String strategyName;
+    private final MoveStrategyRegistry registry;
 
     public ComputerPlayer(String name, char mark, Strategy strategy) {
+        this(name, mark, strategy, MoveStrategyRegistry.getDefault());
+    }
+
+    /**
+     * Creates a computer player that resolves its strategy through the given registry.
+     * @param name     the player's name
+     * @param mark     the player's mark ('X' or 'O')
+     * @param strategy the strategy to play with
+     * @param registry the registry holding the strategy implementations
+     */
+    public ComputerPlayer(String name, char mark, Strategy strategy, MoveStrategyRegistry registry) {
         super(name, mark);
         this.strategy = Objects.requireNonNull(strategy, "strategy");
+        this.strategyName = strategy.getRegistryName();
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    /**
+     * Creates a computer player that plays with any strategy in a registry.
+     * @param name         the player's name
+     * @param mark         the player's mark ('X' or 'O')
+     * @param strategyName the name the strategy is registered under, e.g. one found by ServiceLoader
+     * @param registry     the registry holding the strategy implementations
+     * @throws IllegalArgumentException if the registry has no strategy with that name
+     */
+    public ComputerPlayer(String name, char mark, String strategyName, MoveStrategyRegistry registry) {
+        super(name, mark);
+        this.registry = Objects.requireNonNull(registry, "registry");
+        registry.get(strategyName); // reject unknown names now rather than on the first move
+        this.strategyName = strategyName;
+        this.strategy = builtIn(strategyName);
+    }
+
+    private static Strategy builtIn(String registryName) {
+        for (Strategy candidate : Strategy.values()) {
+            if (candidate.getRegistryName().equals(registryName)) {
+                return candidate;
+            }
+        }
+        return null;
     }
 
+    /**
+     * Gets the built-in strategy this player plays with.
+     * @return the strategy, or null if the player was created with a registry name no built-in strategy uses
+     */
     public Strategy getStrategy() {
         return strategy;
     }
-}
 
+    /**
+     * Gets the name under which this player's strategy is registered.
+     * @return the registry name, e.g. "smart"
+     */
+    public String getStrategyName() {
+        return strategyName;
+    }
+
+    /**
+     * Chooses this player's next move according to its strategy, waiting at most
+     * {@link #DEFAULT_MOVE_TIMEOUT}.
+     * @param board the current game board
+     * @return an array of two integers {row, column} representing the chosen move,
+     *         or null if the board has no empty cells
+     */
+    public int[] selectMove(Board board) {
+        return selectMoveAsync(board, DEFAULT_MOVE_TIMEOUT).join();
+    }
+
+    /**
+     * Starts choosing this player's next move without blocking the caller.
+     * If the strategy does not answer within the timeout the heuristic move is used instead.
+     * @param board   the current game board; the strategy works on a copy
+     * @param timeout how long the strategy may think
+     * @return a future completed with {row, column}, or with null if the board has no empty cells
+     */
+    public CompletableFuture<int[]> selectMoveAsync(Board board, Duration timeout) {
+        return registry.selectMove(strategyName, board, getMark(), timeout);
+    }
 
+    /**
+     * Starts choosing this player's next move with the thinking time a time manager gives it on the game clock.
+     * @param board   the current game board; the strategy works on a copy
+     * @param clock   the game clock, running for this player
+     * @param manager decides how much of the remaining time to spend on this move
+     * @return a future completed with {row, column}, or with null if the board has no empty cells
+     * @throws IllegalStateException if the clock is not running for this player
+     */
+    public CompletableFuture<int[]> selectMoveAsync(Board board, GameClock clock, TimeManager manager) {
+        if (clock.getRunningMark() != getMark()) {
+            throw new IllegalStateException("Clock is not running for " + getMark());
+        }
+        return selectMoveAsync(board, manager.allocate(clock, board, System.nanoTime()));
+    }
+}
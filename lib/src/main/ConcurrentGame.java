@@ -0,0 +1,209 @@
+package lib.src.main;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A 3x3 game that many threads can submit moves to at once without locks.
+ * The whole game state fits into one {@code long}: both marks' cell masks, the side to move,
+ * the status and the ply count. A move is applied by computing the next state and publishing
+ * it with compare-and-set, so every accepted move is atomic and moves are totally ordered.
+ * Out-of-turn moves and moves made against an outdated ply are rejected rather than applied.
+ */
+public final class ConcurrentGame {
+    private static final int O_SHIFT = 9;
+    private static final int SIDE_SHIFT = 18;
+    private static final int STATUS_SHIFT = 19;
+    private static final int PLY_SHIFT = 21;
+    private static final long CELLS = 0x1FF;
+
+    private static final int IN_PROGRESS = 0;
+    private static final int X_WON = 1;
+    private static final int O_WON = 2;
+    private static final int TIED = 3;
+
+    public enum MoveResult {
+        /** The move was applied. */
+        ACCEPTED,
+        /** It is the other player's turn. */
+        NOT_YOUR_TURN,
+        /** The game has moved on since the ply the move was made against. */
+        STALE,
+        /** The cell is outside the board. */
+        OUT_OF_BOUNDS,
+        /** The cell is already occupied. */
+        OCCUPIED,
+        /** The game is already over. */
+        GAME_OVER
+    }
+
+    private final Player playerX;
+    private final Player playerO;
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Creates a new game between two players.
+     * @param playerX the player who will use 'X' marks
+     * @param playerO the player who will use 'O' marks
+     * @throws IllegalArgumentException if either player is null or has the wrong mark
+     */
+    public ConcurrentGame(Player playerX, Player playerO) {
+        if (playerX == null || playerO == null) {
+            throw new IllegalArgumentException("Players cannot be null");
+        }
+        if (playerX.getMark() != 'X' || playerO.getMark() != 'O') {
+            throw new IllegalArgumentException("Player X must have mark 'X' and Player O must have mark 'O'");
+        }
+        this.playerX = playerX;
+        this.playerO = playerO;
+    }
+
+    /**
+     * Submits a move regardless of how many plies have been played.
+     * @param mark the mark of the submitting player
+     * @param row  the row index (0-2)
+     * @param col  the column index (0-2)
+     * @return the outcome of the submission
+     */
+    public MoveResult submitMove(char mark, int row, int col) {
+        return submit(mark, row, col, -1);
+    }
+
+    /**
+     * Submits a move that was decided on the position after {@code expectedPly} plies.
+     * If any other move has been accepted since, the move is rejected as stale.
+     * @param mark        the mark of the submitting player
+     * @param row         the row index (0-2)
+     * @param col         the column index (0-2)
+     * @param expectedPly the ply count the player saw when choosing the move
+     * @return the outcome of the submission
+     */
+    public MoveResult submitMove(char mark, int row, int col, int expectedPly) {
+        return submit(mark, row, col, expectedPly);
+    }
+
+    private MoveResult submit(char mark, int row, int col, int expectedPly) {
+        if (row < 0 || row > 2 || col < 0 || col > 2) {
+            return MoveResult.OUT_OF_BOUNDS;
+        }
+        long bit = 1L << (row * 3 + col);
+        while (true) {
+            long current = state.get();
+            if (status(current) != IN_PROGRESS) return MoveResult.GAME_OVER;
+            if (expectedPly >= 0 && ply(current) != expectedPly) return MoveResult.STALE;
+            if (mark != sideToMove(current)) return MoveResult.NOT_YOUR_TURN;
+            int x = xMask(current);
+            int o = oMask(current);
+            if (((x | o) & bit) != 0) return MoveResult.OCCUPIED;
+
+            boolean xMoves = mark == 'X';
+            if (xMoves) x |= bit;
+            else o |= bit;
+            int status = IN_PROGRESS;
+            if (BoardBatch.isWin(xMoves ? x : o)) {
+                status = xMoves ? X_WON : O_WON;
+            } else if ((x | o) == CELLS) {
+                status = TIED;
+            }
+            long next = pack(x, o, !xMoves, status, ply(current) + 1);
+            if (state.compareAndSet(current, next)) {
+                return MoveResult.ACCEPTED;
+            }
+        }
+    }
+
+    private static long pack(int xMask, int oMask, boolean xToMove, int status, int ply) {
+        return xMask
+                | ((long) oMask << O_SHIFT)
+                | ((xToMove ? 0L : 1L) << SIDE_SHIFT)
+                | ((long) status << STATUS_SHIFT)
+                | ((long) ply << PLY_SHIFT);
+    }
+
+    private static int xMask(long state) {
+        return (int) (state & CELLS);
+    }
+
+    private static int oMask(long state) {
+        return (int) ((state >>> O_SHIFT) & CELLS);
+    }
+
+    private static char sideToMove(long state) {
+        return ((state >>> SIDE_SHIFT) & 1) == 0 ? 'X' : 'O';
+    }
+
+    private static int status(long state) {
+        return (int) ((state >>> STATUS_SHIFT) & 0x3);
+    }
+
+    private static int ply(long state) {
+        return (int) ((state >>> PLY_SHIFT) & 0xF);
+    }
+
+    /**
+     * Gets the number of moves accepted so far.
+     * @return the ply count
+     */
+    public int getPly() {
+        return ply(state.get());
+    }
+
+    /**
+     * Gets the current state of the game.
+     * @return the current game state
+     */
+    public Game.GameState getGameState() {
+        switch (status(state.get())) {
+            case X_WON:
+            case O_WON:
+                return Game.GameState.WON;
+            case TIED:
+                return Game.GameState.TIED;
+            default:
+                return Game.GameState.IN_PROGRESS;
+        }
+    }
+
+    /**
+     * Gets the player whose turn it is.
+     * @return the current player
+     */
+    public Player getCurrentPlayer() {
+        return sideToMove(state.get()) == 'X' ? playerX : playerO;
+    }
+
+    /**
+     * Gets the winner of the game.
+     * @return the winning player, or null if the game is tied or still in progress
+     */
+    public Player getWinner() {
+        int status = status(state.get());
+        if (status == X_WON) return playerX;
+        if (status == O_WON) return playerO;
+        return null;
+    }
+
+    public Player getPlayerX() {
+        return playerX;
+    }
+
+    public Player getPlayerO() {
+        return playerO;
+    }
+
+    /**
+     * Copies the current position into a new board.
+     * All cells come from the same atomic snapshot.
+     * @return a board holding the current marks
+     */
+    public Board toBoard() {
+        long current = state.get();
+        int x = xMask(current);
+        int o = oMask(current);
+        Board board = new Board();
+        for (int cell = 0; cell < 9; cell++) {
+            if ((x & (1 << cell)) != 0) board.placeMark(cell / 3, cell % 3, 'X');
+            else if ((o & (1 << cell)) != 0) board.placeMark(cell / 3, cell % 3, 'O');
+        }
+        return board;
+    }
+}
@@ -1,15 +1,32 @@
 package lib.src.main;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Manages a game of Tic-Tac-Toe between two players.
  * This class handles the game flow, turn management, and game state.
  */
 public class Game {
     private final Board board;
-    private final Player playerX;
-    private final Player playerO;
+    private Player playerX;
+    private Player playerO;
     private Player currentPlayer;
     private GameState gameState;
+    private int generation;
+    private boolean recycled;
+    private int moveCount;
+    // the cells played so far, row * 3 + col, in order; the first moveCount entries are valid
+    private final byte[] moveHistory = new byte[9];
+    // false after restoring a position that no legal game reaches
+    private boolean historyKnown = true;
+    private GameEventRing eventRing;
+    private long sessionId;
+    private GameClock clock;
+    private TimerWheel flagWheel;
+    private TimerWheel.Timeout flagTimeout;
+    // set by the flag timeout on whichever thread advances the wheel, applied by the game's own thread
+    private final AtomicBoolean flagFallPosted = new AtomicBoolean();
+    private char timeLoser = ' ';
 
     public enum GameState {
         IN_PROGRESS,
@@ -24,18 +41,324 @@ public class Game {
      * @throws IllegalArgumentException if either player is null
      */
     public Game(Player playerX, Player playerO) {
+        validatePlayers(playerX, playerO);
+
+        this.board = new Board();
+        this.playerX = playerX;
+        this.playerO = playerO;
+        this.currentPlayer = playerX; //X always goes first
+        this.gameState = GameState.IN_PROGRESS;
+    }
+
+    /**
+     * Checks that both players are present and hold the right marks.
+     */
+    private static void validatePlayers(Player playerX, Player playerO) {
         if (playerX == null || playerO == null) {
             throw new IllegalArgumentException("Players cannot be null");
         }
         if (playerX.getMark() != 'X' || playerO.getMark() != 'O') {
             throw new IllegalArgumentException("Player X must have mark 'X' and Player O must have mark 'O'");
         }
+    }
 
-        this.board = new Board();
+    /**
+     * Restarts the game with the same players on an empty board.
+     * @throws IllegalStateException if the game has been returned to a {@link GamePool}
+     */
+    public void reset() {
+        reset(playerX, playerO);
+    }
+
+    /**
+     * Restarts the game with new players on an empty board, reusing this instance.
+     * Each reset starts a new generation, which {@link GamePool} uses to detect stale references.
+     * @param playerX the player who will use 'X' marks
+     * @param playerO the player who will use 'O' marks
+     * @throws IllegalArgumentException if either player is null or has the wrong mark
+     * @throws IllegalStateException if the game has been returned to a {@link GamePool}; only the pool may restart it
+     */
+    public void reset(Player playerX, Player playerO) {
+        if (recycled) {
+            throw new IllegalStateException("Game has been returned to its pool");
+        }
+        restart(playerX, playerO);
+    }
+
+    /**
+     * Restarts a game taken from a {@link GamePool}'s free list for a new lease, so it accepts moves again.
+     */
+    void reuse(Player playerX, Player playerO) {
+        restart(playerX, playerO);
+        this.recycled = false;
+    }
+
+    private void restart(Player playerX, Player playerO) {
+        validatePlayers(playerX, playerO);
+        board.reset();
         this.playerX = playerX;
         this.playerO = playerO;
-        this.currentPlayer = playerX; //X always goes first
+        this.currentPlayer = playerX;
         this.gameState = GameState.IN_PROGRESS;
+        this.generation++;
+        this.moveCount = 0;
+        this.historyKnown = true;
+        this.eventRing = null;
+        if (flagTimeout != null) {
+            flagTimeout.cancel();
+            flagTimeout = null;
+        }
+        this.clock = null;
+        this.flagWheel = null;
+        this.timeLoser = ' ';
+        this.flagFallPosted.set(false);
+    }
+
+    /**
+     * Gets the number of times this game has been reset.
+     * @return the current generation
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Publishes this game's events to a ring buffer, starting with a session-created event.
+     * The ring allows a single producer, so all games sharing a ring must make their moves on one thread.
+     * @param ring      the ring to publish to, or null to stop publishing
+     * @param sessionId the identifier carried by every event of this game
+     */
+    public void setEventRing(GameEventRing ring, long sessionId) {
+        this.eventRing = ring;
+        this.sessionId = sessionId;
+        if (ring != null) {
+            ring.publish(GameEvent.Type.SESSION_CREATED, sessionId, -1, -1, ' ', moveCount);
+        }
+    }
+
+    /**
+     * Plays this game under a clock from now on; see {@link #setClock(GameClock, TimerWheel, long)}.
+     */
+    public void setClock(GameClock clock, TimerWheel flagWheel) {
+        setClock(clock, flagWheel, System.nanoTime());
+    }
+
+    /**
+     * Plays this game under a clock, starting it afresh for the player to move.
+     * Moves are timed from the {@link System#nanoTime()} readings passed to {@link #makeMove(int, int, long)},
+     * and a move made after the mover's time has run out is refused and loses the game on time.
+     * If a timer wheel is given, the game also keeps one timeout on it at its earliest possible
+     * flag fall, so a player who never moves loses on time too. One wheel may serve many games
+     * and be advanced on any thread: the timeout only posts the flag fall, and the thread that
+     * plays this game's moves applies it at the next {@link #makeMove} or {@link #checkFlag(long)}.
+     * A loop waiting for a move can poll {@link #isFlagFallPending()} to know when to check.
+     * Like the event ring, the clock is detached when the game is reset.
+     * @param clock     the clock to play under, or null to stop timing the game
+     * @param flagWheel the wheel for flag timeouts, or null to detect flag falls only when a move arrives
+     * @param nowNanos  the current {@link System#nanoTime()} reading
+     */
+    public void setClock(GameClock clock, TimerWheel flagWheel, long nowNanos) {
+        if (flagTimeout != null) {
+            flagTimeout.cancel();
+            flagTimeout = null;
+        }
+        this.clock = clock;
+        this.flagWheel = (clock == null) ? null : flagWheel;
+        this.flagFallPosted.set(false);
+        if (clock != null) {
+            clock.reset();
+            if (gameState == GameState.IN_PROGRESS) {
+                clock.start(currentPlayer.getMark(), nowNanos);
+                armFlagTimer();
+            }
+        }
+    }
+
+    /**
+     * Gets the clock this game is played under.
+     * @return the clock, or null if the game is untimed
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Ends the game if the player to move has run out of time; the other player wins.
+     * Also takes in any flag fall posted by the timer wheel.
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @return true if the game was lost on time just now
+     */
+    public boolean checkFlag(long nowNanos) {
+        boolean posted = flagFallPosted.getAndSet(false);
+        if (clock == null || gameState != GameState.IN_PROGRESS) {
+            return false;
+        }
+        if (!clock.isFlagged(nowNanos)) {
+            if (posted) {
+                // a timeout set for an earlier deadline fired; wait for the current one
+                if (flagTimeout != null && !flagTimeout.isPending()) {
+                    flagTimeout = null;
+                }
+                armFlagTimer();
+            }
+            return false;
+        }
+        clock.stop(nowNanos);
+        timeLoser = currentPlayer.getMark();
+        gameState = GameState.WON;
+        switchPlayer(); // the winner stays current, as after a winning move
+        if (flagTimeout != null) {
+            flagTimeout.cancel();
+            flagTimeout = null;
+        }
+        if (eventRing != null) {
+            eventRing.publish(GameEvent.Type.GAME_WON, sessionId, -1, -1, currentPlayer.getMark(), moveCount);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the flag timer has fired since the game last checked its clock.
+     * Safe to call from any thread; the game's own thread then applies the flag fall.
+     * @return true if {@link #checkFlag(long)} should be called
+     */
+    public boolean isFlagFallPending() {
+        return flagFallPosted.get();
+    }
+
+    /**
+     * Checks whether the game was decided by a player running out of time.
+     * @return true if the game was lost on time
+     */
+    public boolean isWonOnTime() {
+        return timeLoser != ' ';
+    }
+
+    /**
+     * Makes sure a flag timeout is pending no later than the running side's flag fall.
+     * A pending timeout that is earlier is kept; when it fires, {@link #checkFlag(long)} re-arms.
+     */
+    private void armFlagTimer() {
+        if (flagWheel == null) {
+            return;
+        }
+        long deadline = clock.getDeadlineNanos();
+        if (flagTimeout != null) {
+            if (flagTimeout.getDeadlineNanos() - deadline <= 0) {
+                return;
+            }
+            flagTimeout.cancel();
+        }
+        // runs on the wheel's thread, so it touches nothing but the flag; a post that outlives
+        // a reset only makes the game check a clock that has not run out
+        flagTimeout = flagWheel.schedule(deadline, () -> flagFallPosted.set(true));
+    }
+
+    /**
+     * Replaces the position with the given marks, keeping the players; the state is recomputed from the board.
+     * @see #restorePosition(int, int, char, char)
+     */
+    void restorePosition(int xMask, int oMask, char toMove) {
+        restorePosition(xMask, oMask, toMove, ' ');
+    }
+
+    /**
+     * Replaces the position with the given marks, keeping the players, as {@link GameCodec} decodes it.
+     * The move count becomes the number of marks and the state is recomputed from the board, except
+     * that a recorded winner the board does not show is taken to have won on time. Like a reset,
+     * this detaches any clock. The real move order is unknown, so the history records one that a
+     * legal game could have played, or none if no legal game reaches the position.
+     * @param xMask  the cells holding X
+     * @param oMask  the cells holding O
+     * @param toMove the side to move ('X' or 'O')
+     * @param winner the recorded winner ('X' or 'O'), or ' ' to take the result from the board alone
+     */
+    void restorePosition(int xMask, int oMask, char toMove, char winner) {
+        if (flagTimeout != null) {
+            flagTimeout.cancel();
+            flagTimeout = null;
+        }
+        this.clock = null;
+        this.flagWheel = null;
+        this.timeLoser = ' ';
+        this.flagFallPosted.set(false);
+        board.reset();
+        for (int cell = 0; cell < 9; cell++) {
+            if ((xMask & (1 << cell)) != 0) board.placeMark(cell / 3, cell % 3, 'X');
+            else if ((oMask & (1 << cell)) != 0) board.placeMark(cell / 3, cell % 3, 'O');
+        }
+        this.moveCount = Integer.bitCount(xMask | oMask);
+        this.historyKnown = rebuildHistory(xMask, oMask);
+        this.gameState = GameState.IN_PROGRESS;
+        updateGameState();
+        if (gameState == GameState.WON) {
+            // the player who made the winning line stays current, as after makeMove
+            this.currentPlayer = (board.getWinner() == 'X') ? playerX : playerO;
+        } else if (gameState == GameState.IN_PROGRESS && (winner == 'X' || winner == 'O')) {
+            // the winner stays current, as after checkFlag
+            this.timeLoser = (winner == 'X') ? 'O' : 'X';
+            this.gameState = GameState.WON;
+            this.currentPlayer = (winner == 'X') ? playerX : playerO;
+        } else {
+            this.currentPlayer = (toMove == 'O') ? playerO : playerX;
+        }
+    }
+
+    /**
+     * Records a move order that reaches a restored position: X and O cells alternately, each in
+     * cell order, except that a winner's move that completes its line comes last, so no line is
+     * completed before the final move.
+     * @return false if no legal game reaches the position
+     */
+    private boolean rebuildHistory(int xMask, int oMask) {
+        int xCount = Integer.bitCount(xMask);
+        int oCount = Integer.bitCount(oMask);
+        if (xCount != oCount && xCount != oCount + 1) {
+            return false;
+        }
+        BoardGeometry lines = BoardGeometry.STANDARD;
+        boolean xLine = lines.isWin(xMask);
+        boolean oLine = lines.isWin(oMask);
+        int lastBit = 0;
+        if (xLine || oLine) {
+            // the winner moved last, and taking that move back must leave no line
+            if ((xLine && oLine) || (xLine ? xCount != oCount + 1 : xCount != oCount)) {
+                return false;
+            }
+            int winnerMask = xLine ? xMask : oMask;
+            for (int bits = winnerMask; bits != 0 && lastBit == 0; bits &= bits - 1) {
+                int bit = bits & -bits;
+                if (!lines.isWin(winnerMask & ~bit)) {
+                    lastBit = bit;
+                }
+            }
+            if (lastBit == 0) {
+                return false;
+            }
+        }
+        int x = xMask & ~lastBit;
+        int o = oMask & ~lastBit;
+        int i = 0;
+        for (; x != 0 || o != 0; i++) {
+            if (i % 2 == 0) {
+                moveHistory[i] = (byte) Integer.numberOfTrailingZeros(x);
+                x &= x - 1;
+            } else {
+                moveHistory[i] = (byte) Integer.numberOfTrailingZeros(o);
+                o &= o - 1;
+            }
+        }
+        if (lastBit != 0) {
+            moveHistory[i] = (byte) Integer.numberOfTrailingZeros(lastBit);
+        }
+        return true;
+    }
+
+    /**
+     * Marks the game as returned to a pool; moves are refused until it is reset.
+     */
+    void markRecycled() {
+        recycled = true;
     }
 
     /**
@@ -102,23 +425,118 @@ public class Game {
      * @param col the column index (0-2)
      * @return true if the move was successful, false if the game is already over
      * @throws IllegalArgumentException if the position is invalid or already occupied
+     * @throws IllegalStateException if the game has been returned to a {@link GamePool}
      */
     public boolean makeMove(int row, int col) {
+        return makeMove(row, col, (clock == null) ? 0 : System.nanoTime());
+    }
+
+    /**
+     * Makes a move for the current player at the specified position at a given time.
+     * If the game has a clock and the player's time ran out before the move, the move is refused
+     * and the game is lost on time; otherwise the mover's time is charged and the other clock started.
+     * Untimed games ignore the time.
+     * @param row      the row index (0-2)
+     * @param col      the column index (0-2)
+     * @param nowNanos the {@link System#nanoTime()} reading when the move was made
+     * @return true if the move was successful, false if the game is already over or was just lost on time
+     * @throws IllegalArgumentException if the position is invalid or already occupied
+     * @throws IllegalStateException if the game has been returned to a {@link GamePool}
+     */
+    public boolean makeMove(int row, int col, long nowNanos) {
+        if (recycled) {
+            throw new IllegalStateException("Game has been returned to its pool");
+        }
         if (gameState != GameState.IN_PROGRESS) {
             return false; // Game is already over
         }
+        if (clock != null && checkFlag(nowNanos)) {
+            return false;
+        }
 
         board.placeMark(row, col, currentPlayer.getMark());
+        moveHistory[moveCount++] = (byte) (row * 3 + col);
 
         // Check for win or tie
         updateGameState();
 
+        if (eventRing != null) {
+            publishMove(row, col);
+        }
+
+        if (clock != null) {
+            updateClock(nowNanos);
+        }
+
         // Switch to the other player if game is still in progress
         if (gameState == GameState.IN_PROGRESS) {
             switchPlayer();
         }
         return true;
     }
+    /**
+     * Charges the move just made to the mover's clock and starts the opponent's, or stops the clock if the game ended.
+     */
+    private void updateClock(long nowNanos) {
+        if (gameState != GameState.IN_PROGRESS) {
+            clock.stop(nowNanos);
+            if (flagTimeout != null) {
+                flagTimeout.cancel();
+                flagTimeout = null;
+            }
+            return;
+        }
+        clock.punch(nowNanos);
+        armFlagTimer();
+    }
+
+    /**
+     * Publishes the move just made, followed by the result if it ended the game.
+     */
+    private void publishMove(int row, int col) {
+        char mark = currentPlayer.getMark();
+        eventRing.publish(GameEvent.Type.MOVE_MADE, sessionId, row, col, mark, moveCount);
+        if (gameState == GameState.WON) {
+            eventRing.publish(GameEvent.Type.GAME_WON, sessionId, row, col, mark, moveCount);
+        } else if (gameState == GameState.TIED) {
+            eventRing.publish(GameEvent.Type.GAME_TIED, sessionId, row, col, ' ', moveCount);
+        }
+    }
+
+    /**
+     * Checks whether the moves that led to the position are known.
+     * @return false if {@link GameCodec} restored a position that no legal game reaches
+     */
+    public boolean hasMoveHistory() {
+        return historyKnown;
+    }
+
+    /**
+     * Gets the moves made since the game started or was last reset.
+     * After {@link GameCodec} restores a position, the order is one that a legal game could have
+     * played to reach it, not necessarily the one played.
+     * @return the cells played in order, each {@code row * 3 + col}
+     * @throws IllegalStateException if the game has no move history; see {@link #hasMoveHistory()}
+     */
+    public int[] getMoveHistory() {
+        if (!historyKnown) {
+            throw new IllegalStateException("No legal game reaches the restored position");
+        }
+        int[] moves = new int[moveCount];
+        for (int i = 0; i < moveCount; i++) {
+            moves[i] = moveHistory[i];
+        }
+        return moves;
+    }
+
+    /**
+     * Gets the number of moves made since the game started or was last reset.
+     * @return the move count
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
     /**
      * Gets the winner of the game.
      * @return the winning player, or null if the game is tied or still in progress
@@ -127,6 +545,9 @@ public class Game {
         if (gameState != GameState.WON) {
             return null;
         }
+        if (timeLoser != ' ') {
+            return (timeLoser == 'X') ? playerO : playerX;
+        }
         char winnerMark = board.getWinner();
         return (winnerMark == 'X') ? playerX : playerO;
     }
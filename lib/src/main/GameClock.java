@@ -0,0 +1,171 @@
+package lib.src.main;
+
+import java.time.Duration;
+
+/**
+ * A chess clock for the two sides of a game, read from {@link System#nanoTime()} values the
+ * caller passes in. Only the side to move has a running clock. Nothing ticks in the background:
+ * the time used is worked out from the turn's start when a move is made or a side's time is read,
+ * so a clock costs a subtraction per move and needs no thread. After each move the mover gains
+ * the increment; with no increment the clock plays sudden death. A side whose time runs out
+ * has lost on time, which {@link Game} checks when a move arrives or when the flag timer fires.
+ * A clock is not thread-safe and belongs to the thread that plays its game.
+ */
+public final class GameClock {
+    private final long initialNanos;
+    private final long incrementNanos;
+    private long remainingX;
+    private long remainingO;
+    private char running = ' ';
+    private long turnStartNanos;
+
+    /**
+     * Creates a stopped clock.
+     * @param initial   the time each side starts with
+     * @param increment the time added to a side after each of its moves; zero for sudden death
+     * @throws IllegalArgumentException if the initial time is not positive or the increment is negative
+     */
+    public GameClock(Duration initial, Duration increment) {
+        if (initial.isNegative() || initial.isZero()) {
+            throw new IllegalArgumentException("Initial time must be positive, got: " + initial);
+        }
+        if (increment.isNegative()) {
+            throw new IllegalArgumentException("Increment must not be negative, got: " + increment);
+        }
+        this.initialNanos = initial.toNanos();
+        this.incrementNanos = increment.toNanos();
+        reset();
+    }
+
+    /**
+     * Creates a stopped clock with no increment.
+     * @param initial the time each side has for the whole game
+     * @return the clock
+     */
+    public static GameClock suddenDeath(Duration initial) {
+        return new GameClock(initial, Duration.ZERO);
+    }
+
+    /**
+     * Stops the clock and gives both sides their initial time again.
+     */
+    public void reset() {
+        remainingX = initialNanos;
+        remainingO = initialNanos;
+        running = ' ';
+    }
+
+    /**
+     * Starts a side's clock, stopping the other's without charging it.
+     * @param mark     the side to move ('X' or 'O')
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @throws IllegalArgumentException if the mark is not 'X' or 'O'
+     */
+    public void start(char mark, long nowNanos) {
+        if (mark != 'X' && mark != 'O') {
+            throw new IllegalArgumentException("Mark must be 'X' or 'O', got: " + mark);
+        }
+        running = mark;
+        turnStartNanos = nowNanos;
+    }
+
+    /**
+     * Ends the running side's turn: charges its time, adds the increment and starts the other side.
+     * The caller checks {@link #isFlagged} first, since a side out of time may not move.
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @throws IllegalStateException if the clock is stopped
+     */
+    public void punch(long nowNanos) {
+        char mover = running;
+        charge(nowNanos);
+        if (mover == 'X') {
+            remainingX += incrementNanos;
+        } else {
+            remainingO += incrementNanos;
+        }
+        start(mover == 'X' ? 'O' : 'X', nowNanos);
+    }
+
+    /**
+     * Stops the clock, charging the running side for its turn so far, without an increment.
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     */
+    public void stop(long nowNanos) {
+        if (running != ' ') {
+            charge(nowNanos);
+        }
+    }
+
+    private void charge(long nowNanos) {
+        if (running == ' ') {
+            throw new IllegalStateException("Clock is stopped");
+        }
+        long used = nowNanos - turnStartNanos;
+        if (running == 'X') {
+            remainingX = Math.max(0, remainingX - used);
+        } else {
+            remainingO = Math.max(0, remainingO - used);
+        }
+        running = ' ';
+    }
+
+    /**
+     * Gets the time a side has left.
+     * @param mark     the side ('X' or 'O')
+     * @param nowNanos the current {@link System#nanoTime()} reading, used if that side is running
+     * @return the remaining time in nanoseconds, never negative
+     */
+    public long getRemainingNanos(char mark, long nowNanos) {
+        long remaining = (mark == 'X') ? remainingX : remainingO;
+        if (mark == running) {
+            remaining -= nowNanos - turnStartNanos;
+        }
+        return Math.max(0, remaining);
+    }
+
+    /**
+     * Gets the moment the running side runs out of time.
+     * @return the {@link System#nanoTime()} value of the flag fall, or {@link Long#MAX_VALUE} if the clock is stopped
+     */
+    public long getDeadlineNanos() {
+        if (running == ' ') {
+            return Long.MAX_VALUE;
+        }
+        return turnStartNanos + ((running == 'X') ? remainingX : remainingO);
+    }
+
+    /**
+     * Checks whether the running side has run out of time.
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @return true if a side is running and its time is used up
+     */
+    public boolean isFlagged(long nowNanos) {
+        return running != ' ' && nowNanos - getDeadlineNanos() >= 0;
+    }
+
+    /**
+     * Gets the side whose clock is running.
+     * @return 'X' or 'O', or ' ' if the clock is stopped
+     */
+    public char getRunningMark() {
+        return running;
+    }
+
+    public long getInitialNanos() {
+        return initialNanos;
+    }
+
+    public long getIncrementNanos() {
+        return incrementNanos;
+    }
+
+    public boolean isSuddenDeath() {
+        return incrementNanos == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("X %.1fs, O %.1fs%s", remainingX / 1e9, remainingO / 1e9,
+                running == ' ' ? " (stopped)" : " (" + running + " to move)");
+    }
+}
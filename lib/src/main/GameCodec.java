@@ -0,0 +1,248 @@
+package lib.src.main;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encodings for 3x3 games and move histories.
+ * A game state packs into the low 18 bits of an {@code int}: the base-3 position index
+ * (15 bits, cell c contributes 3^c for X and 2 * 3^c for O), the side to move (1 bit)
+ * and the game status (2 bits). It is written to buffers as a 4-byte int.
+ * A move history is a count followed by the cells packed two per byte.
+ * Bulk methods read and write whole arrays of records without allocating per record.
+ */
+public final class GameCodec {
+    /** Bytes used by one encoded game state in a buffer. */
+    public static final int STATE_BYTES = 4;
+
+    private static final int INDEX_BITS = 15;
+    private static final int SIDE_BIT = 1 << INDEX_BITS;
+    private static final int STATUS_SHIFT = INDEX_BITS + 1;
+    private static final int IN_PROGRESS = 0;
+    private static final int X_WON = 1;
+    private static final int O_WON = 2;
+    private static final int TIED = 3;
+    private static final int[] POWERS = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
+    private GameCodec() {}
+
+    /**
+     * Encodes a game's position, side to move and status.
+     * A game won on time keeps its winner, though the board shows no line.
+     * @param game the game to encode
+     * @return the encoded state
+     */
+    public static int encode(Game game) {
+        Board board = game.getBoard();
+        int status;
+        if (game.getGameState() == Game.GameState.TIED) {
+            status = TIED;
+        } else if (game.getGameState() == Game.GameState.WON) {
+            status = (game.getWinner().getMark() == 'X') ? X_WON : O_WON;
+        } else {
+            status = IN_PROGRESS;
+        }
+        return encode(board.getMask('X'), board.getMask('O'), game.getCurrentPlayer().getMark(), status);
+    }
+
+    /**
+     * Encodes a board position; the status is derived from the board.
+     * @param board    the board to encode
+     * @param toMove   the side to move ('X' or 'O')
+     * @return the encoded state
+     */
+    public static int encode(Board board, char toMove) {
+        char winner = board.getWinner();
+        int status = (winner == 'X') ? X_WON : (winner == 'O') ? O_WON : board.isFull() ? TIED : IN_PROGRESS;
+        return encode(board.getMask('X'), board.getMask('O'), toMove, status);
+    }
+
+    private static int encode(int xMask, int oMask, char toMove, int status) {
+        return positionIndex(xMask, oMask) | (toMove == 'O' ? SIDE_BIT : 0) | (status << STATUS_SHIFT);
+    }
+
+    /**
+     * Computes the base-3 index of a position.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the index, between 0 and 3^9 - 1
+     */
+    public static int positionIndex(int xMask, int oMask) {
+        int index = 0;
+        for (int cell = 0; cell < 9; cell++) {
+            int bit = 1 << cell;
+            if ((xMask & bit) != 0) index += POWERS[cell];
+            else if ((oMask & bit) != 0) index += 2 * POWERS[cell];
+        }
+        return index;
+    }
+
+    /**
+     * Gets the X cells of an encoded state.
+     * @param code the encoded state
+     * @return the X mask
+     */
+    public static int xMask(int code) {
+        return digitMask(code & (SIDE_BIT - 1), 1);
+    }
+
+    /**
+     * Gets the O cells of an encoded state.
+     * @param code the encoded state
+     * @return the O mask
+     */
+    public static int oMask(int code) {
+        return digitMask(code & (SIDE_BIT - 1), 2);
+    }
+
+    private static int digitMask(int index, int digit) {
+        int mask = 0;
+        for (int cell = 0; cell < 9; cell++) {
+            if (index % 3 == digit) mask |= 1 << cell;
+            index /= 3;
+        }
+        return mask;
+    }
+
+    /**
+     * Gets the side to move of an encoded state.
+     * @param code the encoded state
+     * @return 'X' or 'O'
+     */
+    public static char sideToMove(int code) {
+        return (code & SIDE_BIT) != 0 ? 'O' : 'X';
+    }
+
+    /**
+     * Gets the status of an encoded state.
+     * @param code the encoded state
+     * @return the game state
+     */
+    public static Game.GameState gameState(int code) {
+        switch (code >>> STATUS_SHIFT) {
+            case X_WON:
+            case O_WON:
+                return Game.GameState.WON;
+            case TIED:
+                return Game.GameState.TIED;
+            default:
+                return Game.GameState.IN_PROGRESS;
+        }
+    }
+
+    /**
+     * Gets the winning mark of an encoded state.
+     * @param code the encoded state
+     * @return 'X' or 'O', or ' ' if nobody has won
+     */
+    public static char winner(int code) {
+        int status = code >>> STATUS_SHIFT;
+        return (status == X_WON) ? 'X' : (status == O_WON) ? 'O' : ' ';
+    }
+
+    /**
+     * Writes the position of an encoded state onto a board, replacing its contents.
+     * @param code  the encoded state
+     * @param board the board to overwrite
+     */
+    public static void decode(int code, Board board) {
+        board.reset();
+        int index = code & (SIDE_BIT - 1);
+        for (int cell = 0; cell < 9; cell++) {
+            int digit = index % 3;
+            if (digit != 0) board.placeMark(cell / 3, cell % 3, digit == 1 ? 'X' : 'O');
+            index /= 3;
+        }
+    }
+
+    /**
+     * Restores a game to an encoded state, keeping its players and detaching any clock.
+     * A win the position does not show is restored as a win on time.
+     * @param code the encoded state
+     * @param game the game to overwrite
+     */
+    public static void decode(int code, Game game) {
+        game.restorePosition(xMask(code), oMask(code), sideToMove(code), winner(code));
+    }
+
+    /**
+     * Writes encoded states to a buffer, 4 bytes each.
+     * @param codes the encoded states
+     * @param count how many states to write
+     * @param out   the destination buffer
+     * @throws java.nio.BufferOverflowException if the buffer has too little room
+     */
+    public static void putAll(int[] codes, int count, ByteBuffer out) {
+        if (out.remaining() < count * STATE_BYTES) {
+            throw new java.nio.BufferOverflowException();
+        }
+        out.asIntBuffer().put(codes, 0, count);
+        out.position(out.position() + count * STATE_BYTES);
+    }
+
+    /**
+     * Reads encoded states from a buffer.
+     * @param in  the source buffer
+     * @param out receives the encoded states
+     * @return the number of states read: as many as fit in the array and are available
+     */
+    public static int getAll(ByteBuffer in, int[] out) {
+        int count = Math.min(out.length, in.remaining() / STATE_BYTES);
+        in.asIntBuffer().get(out, 0, count);
+        in.position(in.position() + count * STATE_BYTES);
+        return count;
+    }
+
+    /**
+     * Gets the number of bytes a move history of the given length occupies.
+     * @param count the number of moves
+     * @return 1 length byte plus one byte per two moves
+     */
+    public static int movesSize(int count) {
+        return 1 + (count + 1) / 2;
+    }
+
+    /**
+     * Writes a move history with two cells per byte.
+     * @param cells the cells played, in order (0-8 each)
+     * @param count the number of moves (0-9)
+     * @param out   the destination buffer
+     * @throws IllegalArgumentException if the count or a cell is out of range
+     */
+    public static void putMoves(byte[] cells, int count, ByteBuffer out) {
+        if (count < 0 || count > 9) {
+            throw new IllegalArgumentException("Move count must be between 0 and 9, got: " + count);
+        }
+        out.put((byte) count);
+        for (int i = 0; i < count; i += 2) {
+            int first = checkCell(cells[i]);
+            int second = (i + 1 < count) ? checkCell(cells[i + 1]) : 0;
+            out.put((byte) ((first << 4) | second));
+        }
+    }
+
+    /**
+     * Reads a move history written by {@link #putMoves}.
+     * @param in    the source buffer
+     * @param cells receives the cells played, in order; must hold at least 9 entries
+     * @return the number of moves read
+     */
+    public static int getMoves(ByteBuffer in, byte[] cells) {
+        int count = in.get();
+        if (count < 0 || count > 9) {
+            throw new IllegalArgumentException("Corrupt move history: count " + count);
+        }
+        for (int i = 0; i < count; i += 2) {
+            int packed = in.get() & 0xFF;
+            cells[i] = (byte) (packed >>> 4);
+            if (i + 1 < count) cells[i + 1] = (byte) (packed & 0x0F);
+        }
+        return count;
+    }
+
+    private static int checkCell(int cell) {
+        if (cell < 0 || cell > 8) {
+            throw new IllegalArgumentException("Cell must be between 0 and 8, got: " + cell);
+        }
+        return cell;
+    }
+}
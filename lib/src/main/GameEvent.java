@@ -0,0 +1,79 @@
+package lib.src.main;
+
+/**
+ * Something that happened in a game session, as delivered by a {@link GameEventRing}.
+ * Event objects are preallocated slots of the ring and are overwritten once every consumer
+ * has moved past them, so handlers must copy any fields they want to keep.
+ */
+public final class GameEvent {
+
+    public enum Type {
+        SESSION_CREATED,
+        MOVE_MADE,
+        GAME_WON,
+        GAME_TIED
+    }
+
+    private Type type;
+    private long sessionId;
+    private int row;
+    private int col;
+    private char mark;
+    private int ply;
+
+    GameEvent() {}
+
+    void set(Type type, long sessionId, int row, int col, char mark, int ply) {
+        this.type = type;
+        this.sessionId = sessionId;
+        this.row = row;
+        this.col = col;
+        this.mark = mark;
+        this.ply = ply;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the row of the move, or -1 for events without a move.
+     * @return the row index
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * Gets the column of the move, or -1 for events without a move.
+     * @return the column index
+     */
+    public int getCol() {
+        return col;
+    }
+
+    /**
+     * Gets the mark that moved or won, or ' ' when not applicable.
+     * @return the mark
+     */
+    public char getMark() {
+        return mark;
+    }
+
+    /**
+     * Gets the number of moves made in the session when the event happened.
+     * @return the ply count
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    @Override
+    public String toString() {
+        return type + "[session=" + sessionId + ", row=" + row + ", col=" + col + ", mark=" + mark + ", ply=" + ply + "]";
+    }
+}
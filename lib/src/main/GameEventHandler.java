@@ -0,0 +1,15 @@
+package lib.src.main;
+
+/**
+ * Receives game events from a {@link GameEventRing} on the consumer's own thread.
+ */
+public interface GameEventHandler {
+
+    /**
+     * Handles one event.
+     * @param event      the event; only valid until this method returns
+     * @param sequence   the event's position in the stream
+     * @param endOfBatch true if no further events are available right now
+     */
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch);
+}
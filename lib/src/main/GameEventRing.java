@@ -0,0 +1,225 @@
+package lib.src.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A preallocated single-producer, multi-consumer ring buffer of {@link GameEvent}s.
+ * The producer claims the next slot, fills it in place and publishes it by advancing a
+ * sequence counter; it only waits when the slowest consumer is a full ring behind.
+ * Each consumer runs on its own thread, tracks its own sequence and handles events in batches,
+ * so journals, metrics and spectator fan-out never run on the thread that makes moves.
+ * A handler that throws is counted and reported to the ring's {@link ExceptionHandler}, and
+ * its consumer moves on to the next event. Only one thread may publish at a time.
+ */
+public final class GameEventRing implements AutoCloseable {
+    private static final int SPIN_TRIES = 100;
+
+    private final GameEvent[] slots;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private final List<ConsumerThread> consumers = new ArrayList<>();
+    private volatile ConsumerThread[] gating = new ConsumerThread[0];
+    private long nextSequence;
+    private long cachedMinimum = -1;
+    private volatile boolean started;
+    private volatile boolean running = true;
+    private volatile ExceptionHandler exceptionHandler = (failure, event, sequence, consumer) -> { };
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Receives the exceptions thrown by event handlers, on the failing consumer's thread.
+     */
+    @FunctionalInterface
+    public interface ExceptionHandler {
+
+        /**
+         * Handles one failure. Exceptions thrown from here are ignored.
+         * @param failure  what the event handler threw
+         * @param event    the event being handled; only valid until this method returns
+         * @param sequence the event's position in the stream
+         * @param consumer the name of the failing consumer
+         */
+        void onException(RuntimeException failure, GameEvent event, long sequence, String consumer);
+    }
+
+    /**
+     * Creates a ring.
+     * @param capacity the number of slots, which must be a power of two
+     */
+    public GameEventRing(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got: " + capacity);
+        }
+        slots = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new GameEvent();
+        }
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds a consumer. Consumers must be added before {@link #start()}.
+     * @param name    the name of the consumer's thread
+     * @param handler the handler that receives every event
+     * @throws IllegalStateException if the ring has already started
+     */
+    public synchronized void addConsumer(String name, GameEventHandler handler) {
+        if (started) {
+            throw new IllegalStateException("Consumers must be added before the ring starts");
+        }
+        consumers.add(new ConsumerThread(name, handler));
+        gating = consumers.toArray(new ConsumerThread[0]);
+    }
+
+    /**
+     * Sets where handler failures are reported. By default they are only counted.
+     * @param handler receives every exception an event handler throws
+     * @throws IllegalArgumentException if the handler is null
+     */
+    public void setExceptionHandler(ExceptionHandler handler) {
+        if (handler == null) {
+            throw new IllegalArgumentException("Exception handler cannot be null");
+        }
+        this.exceptionHandler = handler;
+    }
+
+    /**
+     * Gets the number of times an event handler has thrown.
+     * @return the failure count across all consumers
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Starts the consumer threads. Until then, publishing blocks once the ring is full.
+     */
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        for (ConsumerThread consumer : consumers) {
+            consumer.start();
+        }
+    }
+
+    /**
+     * Publishes an event, waiting while the slowest consumer is a full ring behind.
+     * @param type      the event type
+     * @param sessionId the session the event belongs to
+     * @param row       the row of the move, or -1
+     * @param col       the column of the move, or -1
+     * @param mark      the mark that moved or won, or ' '
+     * @param ply       the number of moves made in the session
+     * @return the sequence of the published event
+     */
+    public long publish(GameEvent.Type type, long sessionId, int row, int col, char mark, int ply) {
+        long sequence = nextSequence++;
+        long wrapPoint = sequence - slots.length;
+        if (wrapPoint > cachedMinimum) {
+            int tries = 0;
+            while (wrapPoint > (cachedMinimum = minimumConsumerSequence())) {
+                tries = backOff(tries);
+            }
+        }
+        slots[(int) sequence & mask].set(type, sessionId, row, col, mark, ply);
+        cursor.lazySet(sequence);
+        return sequence;
+    }
+
+    /**
+     * Gets the sequence of the last published event.
+     * @return the cursor, or -1 before the first event
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Gets how many published events the slowest consumer has yet to handle.
+     * @return the consumer lag in events
+     */
+    public long getLag() {
+        return cursor.get() - minimumConsumerSequence();
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = cursor.get();
+        for (ConsumerThread consumer : gating) {
+            minimum = Math.min(minimum, consumer.sequence.get());
+        }
+        return minimum;
+    }
+
+    private static int backOff(int tries) {
+        if (tries < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (tries < 2 * SPIN_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(1_000);
+        }
+        return tries + 1;
+    }
+
+    /**
+     * Stops the consumers once they have handled every published event and waits for them to exit.
+     */
+    @Override
+    public void close() {
+        running = false;
+        for (ConsumerThread consumer : gating) {
+            try {
+                consumer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private final class ConsumerThread extends Thread {
+        private final GameEventHandler handler;
+        private final AtomicLong sequence = new AtomicLong(-1);
+
+        ConsumerThread(String name, GameEventHandler handler) {
+            super(name);
+            this.handler = handler;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long next = 0;
+            int tries = 0;
+            while (true) {
+                long available = cursor.get();
+                if (available < next) {
+                    if (!running && cursor.get() < next) return;
+                    tries = backOff(tries);
+                    continue;
+                }
+                tries = 0;
+                for (long s = next; s <= available; s++) {
+                    GameEvent event = slots[(int) s & mask];
+                    try {
+                        handler.onEvent(event, s, s == available);
+                    } catch (RuntimeException e) {
+                        // a failing handler must not stall the producer by stopping its sequence
+                        failures.increment();
+                        try {
+                            exceptionHandler.onException(e, event, s, getName());
+                        } catch (RuntimeException ignored) {
+                            // nothing left to report it to
+                        }
+                    }
+                }
+                sequence.lazySet(available);
+                next = available + 1;
+            }
+        }
+    }
+}
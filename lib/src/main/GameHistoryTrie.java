@@ -0,0 +1,409 @@
+package lib.src.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Stores the move sequences of many finished 3x3 games in a trie, so the openings that most
+ * games share are stored once. Node {@code n} stands for one move sequence; the root is the
+ * empty one. Nodes live in parallel primitive arrays: the cell of the node's last move, its first
+ * child and next sibling (at most nine children, so sibling lists stay short), and how many of the
+ * games through it X won, O won and tied. A node's games that end there, rather than going on
+ * to a child, are its counts less its children's. Prefix queries walk one node per move.
+ * A trie is not thread-safe; use one writer, or copy a {@link #write snapshot}.
+ */
+public final class GameHistoryTrie {
+    private static final int MAGIC = 0x54544754; // "TTGT"
+    private static final int INITIAL_CAPACITY = 1 << 10;
+    private static final int NONE = -1;
+    /** Bytes per node in memory: a cell, two links and three counters. */
+    public static final int NODE_BYTES = 1 + 2 * Integer.BYTES + 3 * Integer.BYTES;
+
+    public enum Outcome {
+        X_WON,
+        O_WON,
+        TIED
+    }
+
+    private byte[] cells = new byte[INITIAL_CAPACITY];
+    private int[] firstChild = new int[INITIAL_CAPACITY];
+    private int[] nextSibling = new int[INITIAL_CAPACITY];
+    private int[] xWins = new int[INITIAL_CAPACITY];
+    private int[] oWins = new int[INITIAL_CAPACITY];
+    private int[] ties = new int[INITIAL_CAPACITY];
+    private int nodes;
+
+    /**
+     * Counts of the stored games that begin with some move sequence.
+     */
+    public static final class Stats {
+        private final int xWins;
+        private final int oWins;
+        private final int ties;
+
+        Stats(int xWins, int oWins, int ties) {
+            this.xWins = xWins;
+            this.oWins = oWins;
+            this.ties = ties;
+        }
+
+        public int getXWins() {
+            return xWins;
+        }
+
+        public int getOWins() {
+            return oWins;
+        }
+
+        public int getTies() {
+            return ties;
+        }
+
+        public int getGames() {
+            return xWins + oWins + ties;
+        }
+
+        @Override
+        public String toString() {
+            return getGames() + " games: X " + xWins + ", O " + oWins + ", tied " + ties;
+        }
+    }
+
+    /**
+     * Receives stored games from {@link #forEachGame}.
+     */
+    @FunctionalInterface
+    public interface GameVisitor {
+        /**
+         * Visits one distinct move sequence and the outcomes of the games that played exactly it.
+         * @param moves  the cells played; only the first {@code length} entries are valid and the array is reused
+         * @param length the number of moves
+         * @param stats  the outcomes of the games that ended after exactly these moves
+         */
+        void visit(int[] moves, int length, Stats stats);
+    }
+
+    public GameHistoryTrie() {
+        newNode(NONE);
+    }
+
+    private int newNode(int cell) {
+        if (nodes == cells.length) {
+            int capacity = cells.length * 2;
+            cells = Arrays.copyOf(cells, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            nextSibling = Arrays.copyOf(nextSibling, capacity);
+            xWins = Arrays.copyOf(xWins, capacity);
+            oWins = Arrays.copyOf(oWins, capacity);
+            ties = Arrays.copyOf(ties, capacity);
+        }
+        int node = nodes++;
+        cells[node] = (byte) cell;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        return node;
+    }
+
+    private int child(int node, int cell) {
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            if (cells[child] == cell) {
+                return child;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Stores a finished game.
+     * @param game a game that is over
+     * @throws IllegalArgumentException if the game is still in progress or has no move history
+     */
+    public void add(Game game) {
+        if (!game.isGameOver()) {
+            throw new IllegalArgumentException("Game is still in progress");
+        }
+        if (!game.hasMoveHistory()) {
+            throw new IllegalArgumentException("Game has no move history");
+        }
+        Player winner = game.getWinner();
+        Outcome outcome = (winner == null) ? Outcome.TIED : (winner.getMark() == 'X') ? Outcome.X_WON : Outcome.O_WON;
+        int[] moves = game.getMoveHistory();
+        add(moves, moves.length, outcome);
+    }
+
+    /**
+     * Stores a game's move sequence.
+     * @param moves   the cells played, each {@code row * 3 + col}
+     * @param length  the number of moves to store from the start of the array
+     * @param outcome how the game ended
+     * @throws IllegalArgumentException if a cell is out of range or repeated, or the length is invalid
+     */
+    public void add(int[] moves, int length, Outcome outcome) {
+        if (length < 0 || length > 9 || length > moves.length) {
+            throw new IllegalArgumentException("Invalid move count: " + length);
+        }
+        if (outcome == null) {
+            throw new IllegalArgumentException("Outcome cannot be null");
+        }
+        int seen = 0;
+        for (int i = 0; i < length; i++) {
+            if (moves[i] < 0 || moves[i] > 8 || (seen & (1 << moves[i])) != 0) {
+                throw new IllegalArgumentException("Invalid or repeated cell " + moves[i] + " at move " + (i + 1));
+            }
+            seen |= 1 << moves[i];
+        }
+        int node = 0;
+        count(node, outcome);
+        for (int i = 0; i < length; i++) {
+            int child = child(node, moves[i]);
+            if (child == NONE) {
+                child = newNode(moves[i]);
+                link(node, child);
+            }
+            node = child;
+            count(node, outcome);
+        }
+    }
+
+    private void count(int node, Outcome outcome) {
+        switch (outcome) {
+            case X_WON:
+                xWins[node]++;
+                break;
+            case O_WON:
+                oWins[node]++;
+                break;
+            default:
+                ties[node]++;
+        }
+    }
+
+    /**
+     * Finds the node for a move sequence.
+     * @return the node, or -1 if no stored game begins with these moves
+     */
+    private int find(int... prefix) {
+        int node = 0;
+        for (int i = 0; i < prefix.length && node != NONE; i++) {
+            node = child(node, prefix[i]);
+        }
+        return node;
+    }
+
+    /**
+     * Counts the stored games that begin with some moves.
+     * @param prefix the first cells played; empty for all games
+     * @return the outcome counts, all zero if no game begins this way
+     */
+    public Stats query(int... prefix) {
+        int node = find(prefix);
+        return (node == NONE) ? new Stats(0, 0, 0) : new Stats(xWins[node], oWins[node], ties[node]);
+    }
+
+    /**
+     * Counts the stored games that continue a sequence with each possible next move.
+     * @param prefix the cells played so far
+     * @return nine counts, indexed by the next cell; cells no stored game played next are null
+     */
+    public Stats[] continuations(int... prefix) {
+        Stats[] next = new Stats[9];
+        int node = find(prefix);
+        if (node != NONE) {
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                next[cells[child]] = new Stats(xWins[child], oWins[child], ties[child]);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Visits every distinct stored game that begins with some moves, depth first.
+     * @param prefix  the first cells played; empty for all games
+     * @param visitor receives each move sequence that at least one game ended after
+     * @return the number of sequences visited
+     */
+    public int forEachGame(int[] prefix, GameVisitor visitor) {
+        int node = find(prefix);
+        if (node == NONE) {
+            return 0;
+        }
+        int[] moves = Arrays.copyOf(prefix, 9);
+        return visit(node, moves, prefix.length, visitor);
+    }
+
+    private int visit(int node, int[] moves, int length, GameVisitor visitor) {
+        int endedX = xWins[node];
+        int endedO = oWins[node];
+        int endedTied = ties[node];
+        int visited = 0;
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            endedX -= xWins[child];
+            endedO -= oWins[child];
+            endedTied -= ties[child];
+        }
+        if (endedX + endedO + endedTied > 0) {
+            visitor.visit(moves, length, new Stats(endedX, endedO, endedTied));
+            visited++;
+        }
+        for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+            moves[length] = cells[child];
+            visited += visit(child, moves, length + 1, visitor);
+        }
+        return visited;
+    }
+
+    /**
+     * Gets the number of games stored.
+     * @return the game count
+     */
+    public int getGameCount() {
+        return xWins[0] + oWins[0] + ties[0];
+    }
+
+    /**
+     * Gets the number of nodes, one per distinct move sequence stored, plus the root.
+     * @return the node count
+     */
+    public int getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Gets the memory the nodes take, not counting spare array capacity.
+     * @return the size in bytes
+     */
+    public long getMemoryBytes() {
+        return (long) nodes * NODE_BYTES;
+    }
+
+    /**
+     * Writes a compact snapshot. Nodes are written depth first, each as one byte holding its cell
+     * and child count and its three counters as variable-length integers, so the links are implied
+     * by the order and a node played by a single game takes four bytes.
+     * @param file the file to create or replace
+     * @throws IOException if writing fails
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(nodes);
+            int[] stack = new int[nodes];
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                int children = 0;
+                for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                    stack[top++] = child;
+                    children++;
+                }
+                // the root has no cell; 15 stands for none
+                out.writeByte(((cells[node] & 0xF) << 4) | children);
+                writeVarInt(out, xWins[node]);
+                writeVarInt(out, oWins[node]);
+                writeVarInt(out, ties[node]);
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write}.
+     * @param file the snapshot
+     * @return the trie
+     * @throws IOException if reading fails or the file is not a complete snapshot
+     */
+    public static GameHistoryTrie read(Path file) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a game history file: " + file);
+            }
+            int count = in.readInt();
+            if (count < 1) {
+                throw new IOException("Corrupt game history file: " + file);
+            }
+            GameHistoryTrie trie = new GameHistoryTrie();
+            // each entry is a node still owed children, and how many
+            int[] parents = new int[Math.min(count, 1 << 16)];
+            int[] owed = new int[parents.length];
+            int top = 0;
+            for (int i = 0; i < count; i++) {
+                int header = in.readUnsignedByte();
+                int node;
+                if (i == 0) {
+                    node = 0;
+                } else {
+                    if (top == 0 || (header >>> 4) > 8) {
+                        throw new IOException("Corrupt game history file: " + file);
+                    }
+                    int parent = parents[top - 1];
+                    if (--owed[top - 1] == 0) {
+                        top--;
+                    }
+                    node = trie.newNode(header >>> 4);
+                    // children were written last sibling first and each is linked in at the front, which restores the order
+                    trie.link(parent, node);
+                }
+                trie.xWins[node] = readVarInt(in);
+                trie.oWins[node] = readVarInt(in);
+                trie.ties[node] = readVarInt(in);
+                int children = header & 0xF;
+                if (children > 0) {
+                    if (top == parents.length) {
+                        parents = Arrays.copyOf(parents, top * 2);
+                        owed = Arrays.copyOf(owed, top * 2);
+                    }
+                    parents[top] = node;
+                    owed[top] = children;
+                    top++;
+                }
+            }
+            if (top != 0) {
+                throw new IOException("Truncated game history file: " + file);
+            }
+            return trie;
+        } catch (EOFException e) {
+            throw new IOException("Truncated game history file: " + file, e);
+        }
+    }
+
+    private void link(int parent, int node) {
+        nextSibling[node] = firstChild[parent];
+        firstChild[parent] = node;
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    @Override
+    public String toString() {
+        return getGameCount() + " games in " + nodes + " nodes";
+    }
+}
@@ -0,0 +1,114 @@
+package lib.src.main;
+
+import java.util.ArrayDeque;
+
+/**
+ * Recycles finished {@link Game} instances so high-churn callers do not allocate a new
+ * game and board for every match. Each thread keeps its own bounded free list, so acquiring
+ * and releasing never contend. Games are handed out through a {@link Lease} that remembers
+ * the game's generation: once the lease is closed, or the game is reset for another lease,
+ * the old lease refuses to return it. A game sitting in the free list refuses moves and cannot be
+ * reset by anyone but the pool. Once it is leased again, only the lease can tell an old holder from
+ * the new one, so callers should keep the lease rather than the game and move through
+ * {@link Lease#makeMove(int, int)}.
+ */
+public final class GamePool {
+    private final int maxPerThread;
+    private final ThreadLocal<ArrayDeque<Game>> freeGames = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Creates a pool.
+     * @param maxPerThread the largest number of idle games each thread keeps
+     */
+    public GamePool(int maxPerThread) {
+        if (maxPerThread < 0) {
+            throw new IllegalArgumentException("Pool size must not be negative, got: " + maxPerThread);
+        }
+        this.maxPerThread = maxPerThread;
+    }
+
+    /**
+     * Takes a game from the calling thread's free list, or creates one, and starts it with the given players.
+     * @param playerX the player who will use 'X' marks
+     * @param playerO the player who will use 'O' marks
+     * @return a lease on a fresh game
+     * @throws IllegalArgumentException if either player is null or has the wrong mark
+     */
+    public Lease acquire(Player playerX, Player playerO) {
+        Game game = freeGames.get().pollFirst();
+        if (game == null) {
+            game = new Game(playerX, playerO);
+        } else {
+            game.reuse(playerX, playerO);
+        }
+        return new Lease(this, game);
+    }
+
+    /**
+     * Gets the number of idle games held for the calling thread.
+     * @return the idle game count
+     */
+    public int idleCount() {
+        return freeGames.get().size();
+    }
+
+    private void release(Game game) {
+        game.markRecycled();
+        ArrayDeque<Game> free = freeGames.get();
+        if (free.size() < maxPerThread) {
+            free.addFirst(game);
+        }
+    }
+
+    /**
+     * Exclusive use of a pooled game until the lease is closed.
+     */
+    public static final class Lease implements AutoCloseable {
+        private final GamePool pool;
+        private final Game game;
+        private final int generation;
+        private boolean closed;
+
+        private Lease(GamePool pool, Game game) {
+            this.pool = pool;
+            this.game = game;
+            this.generation = game.getGeneration();
+        }
+
+        /**
+         * Gets the leased game.
+         * @return the game
+         * @throws IllegalStateException if the lease was closed or the game has since been recycled
+         */
+        public Game game() {
+            if (closed || game.getGeneration() != generation) {
+                throw new IllegalStateException("Stale game lease: the game has been returned to its pool");
+            }
+            return game;
+        }
+
+        /**
+         * Makes a move in the leased game, refusing it if the lease has gone stale.
+         * @param row the row index (0-2)
+         * @param col the column index (0-2)
+         * @return true if the move was successful, false if the game is already over
+         * @throws IllegalArgumentException if the position is invalid or already occupied
+         * @throws IllegalStateException if the lease was closed or the game has since been recycled
+         */
+        public boolean makeMove(int row, int col) {
+            return game().makeMove(row, col);
+        }
+
+        /**
+         * Returns the game to the pool. Closing a lease more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (closed) return;
+            closed = true;
+            if (game.getGeneration() == generation) {
+                pool.release(game);
+            }
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package lib.src.main;
+
+import java.util.Arrays;
+
+/**
+ * A static evaluation of m,n,k positions that is kept up to date move by move, for depth-limited search.
+ * For every winning line it tracks how many marks each player has there. A line holding marks of
+ * only one player is open for that player; an open line one mark short of complete is a threat,
+ * and its empty cell is a threat cell. Two threat cells for the same player form a fork.
+ * Placing or removing a mark only revisits the lines through that cell, so a search can call
+ * {@link #place}, {@link #evaluate} and {@link #remove} at every node for almost no cost.
+ *
+ * <p>Scores are from the point of view of the side to move: {@link #WIN_SCORE} for a won
+ * position, just below it for a win on the next move, and otherwise the weighted open lines of
+ * the side to move minus those of the opponent. An opponent's fork that the side to move cannot
+ * answer with an immediate win scores just above a loss.
+ */
+public final class IncrementalEvaluator {
+    /** The score of a position the side to move has won. */
+    public static final int WIN_SCORE = 1_000_000;
+
+    private final BoardGeometry geometry;
+    private final int k;
+    private final long[] lineMasks;
+    private final int[][] linesThroughCell;
+    private final int[] weights;
+
+    private final byte[] xCounts;
+    private final byte[] oCounts;
+    private long xMask;
+    private long oMask;
+    // [0] for X, [1] for O
+    private final int[][] openLines;
+    private final int[][] threatsAt;
+    private final int[] threatCells = new int[2];
+
+    /**
+     * Creates an evaluator for an empty board.
+     * @param geometry the board geometry
+     * @throws IllegalArgumentException if the win length is less than two
+     */
+    public IncrementalEvaluator(BoardGeometry geometry) {
+        if (geometry.getWinLength() < 2) {
+            throw new IllegalArgumentException("Evaluation needs a win length of at least 2, got: " + geometry);
+        }
+        this.geometry = geometry;
+        this.k = geometry.getWinLength();
+        int lines = geometry.lineCount();
+        this.lineMasks = new long[lines];
+        for (int i = 0; i < lines; i++) {
+            lineMasks[i] = geometry.line(i);
+        }
+        this.linesThroughCell = linesThroughCell(geometry, lineMasks);
+        this.weights = weights(k);
+        this.xCounts = new byte[lines];
+        this.oCounts = new byte[lines];
+        this.openLines = new int[2][k + 1];
+        this.threatsAt = new int[2][geometry.getCellCount()];
+    }
+
+    private static int[][] linesThroughCell(BoardGeometry geometry, long[] lineMasks) {
+        int[][] through = new int[geometry.getCellCount()][];
+        for (int cell = 0; cell < through.length; cell++) {
+            int count = 0;
+            for (long line : lineMasks) {
+                if ((line & (1L << cell)) != 0) count++;
+            }
+            through[cell] = new int[count];
+            count = 0;
+            for (int i = 0; i < lineMasks.length; i++) {
+                if ((lineMasks[i] & (1L << cell)) != 0) through[cell][count++] = i;
+            }
+        }
+        return through;
+    }
+
+    /**
+     * Weights open lines by how many marks they hold: each extra mark is worth eight times more.
+     */
+    private static int[] weights(int k) {
+        int[] weights = new int[k + 1];
+        for (int n = 1; n < k; n++) {
+            weights[n] = 1 << Math.min(3 * (n - 1), 24);
+        }
+        return weights;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Places a mark and updates the evaluation.
+     * @param cell the empty cell to play
+     * @param mark the mark to place ('X' or 'O')
+     * @throws IllegalArgumentException if the cell is occupied or the mark is invalid
+     */
+    public void place(int cell, char mark) {
+        long bit = 1L << cell;
+        if (((xMask | oMask) & bit) != 0) {
+            throw new IllegalArgumentException("Cell " + cell + " is already occupied");
+        }
+        if (mark != 'X' && mark != 'O') {
+            throw new IllegalArgumentException("Mark must be 'X' or 'O', got: " + mark);
+        }
+        int[] lines = linesThroughCell[cell];
+        for (int line : lines) {
+            account(line, -1);
+        }
+        byte[] counts = (mark == 'X') ? xCounts : oCounts;
+        for (int line : lines) {
+            counts[line]++;
+        }
+        if (mark == 'X') xMask |= bit;
+        else oMask |= bit;
+        for (int line : lines) {
+            account(line, 1);
+        }
+    }
+
+    /**
+     * Removes a mark and updates the evaluation.
+     * @param cell the occupied cell to clear
+     * @throws IllegalArgumentException if the cell is empty
+     */
+    public void remove(int cell) {
+        long bit = 1L << cell;
+        boolean x = (xMask & bit) != 0;
+        if (!x && (oMask & bit) == 0) {
+            throw new IllegalArgumentException("Cell " + cell + " is empty");
+        }
+        int[] lines = linesThroughCell[cell];
+        for (int line : lines) {
+            account(line, -1);
+        }
+        byte[] counts = x ? xCounts : oCounts;
+        for (int line : lines) {
+            counts[line]--;
+        }
+        if (x) xMask &= ~bit;
+        else oMask &= ~bit;
+        for (int line : lines) {
+            account(line, 1);
+        }
+    }
+
+    /**
+     * Adds (sign 1) or withdraws (sign -1) one line's contribution, using the current masks.
+     */
+    private void account(int line, int sign) {
+        int xc = xCounts[line];
+        int oc = oCounts[line];
+        if (oc == 0 && xc > 0) openLines[0][xc] += sign;
+        if (xc == 0 && oc > 0) openLines[1][oc] += sign;
+        if (oc == 0 && xc == k - 1) threat(0, line, sign);
+        if (xc == 0 && oc == k - 1) threat(1, line, sign);
+    }
+
+    private void threat(int side, int line, int sign) {
+        int cell = Long.numberOfTrailingZeros(lineMasks[line] & ~(xMask | oMask));
+        int before = threatsAt[side][cell];
+        threatsAt[side][cell] = before + sign;
+        if (before == 0) threatCells[side]++;
+        else if (before + sign == 0) threatCells[side]--;
+    }
+
+    /**
+     * Clears the board.
+     */
+    public void reset() {
+        Arrays.fill(xCounts, (byte) 0);
+        Arrays.fill(oCounts, (byte) 0);
+        Arrays.fill(openLines[0], 0);
+        Arrays.fill(openLines[1], 0);
+        Arrays.fill(threatsAt[0], 0);
+        Arrays.fill(threatsAt[1], 0);
+        threatCells[0] = 0;
+        threatCells[1] = 0;
+        xMask = 0;
+        oMask = 0;
+    }
+
+    /**
+     * Replaces the position, rebuilding the evaluation from scratch.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @throws IllegalArgumentException if the masks overlap
+     */
+    public void load(long xMask, long oMask) {
+        if ((xMask & oMask) != 0) {
+            throw new IllegalArgumentException("A cell cannot hold both marks");
+        }
+        reset();
+        for (long bits = xMask; bits != 0; bits &= bits - 1) {
+            place(Long.numberOfTrailingZeros(bits), 'X');
+        }
+        for (long bits = oMask; bits != 0; bits &= bits - 1) {
+            place(Long.numberOfTrailingZeros(bits), 'O');
+        }
+    }
+
+    public long getMask(char mark) {
+        return (mark == 'X') ? xMask : oMask;
+    }
+
+    /**
+     * Gets the number of open lines holding a given number of a player's marks.
+     * @param mark  the player's mark ('X' or 'O')
+     * @param marks the number of marks, from 1 to the win length
+     * @return the number of such lines with none of the opponent's marks
+     */
+    public int getOpenLines(char mark, int marks) {
+        return openLines[side(mark)][marks];
+    }
+
+    /**
+     * Gets the number of empty cells that would complete a line for a player.
+     * @param mark the player's mark ('X' or 'O')
+     * @return the number of threat cells
+     */
+    public int getThreatCells(char mark) {
+        return threatCells[side(mark)];
+    }
+
+    /**
+     * Checks if a player has two or more threat cells, so the opponent cannot block them all.
+     * @param mark the player's mark ('X' or 'O')
+     * @return true if the player has a fork
+     */
+    public boolean hasFork(char mark) {
+        return threatCells[side(mark)] >= 2;
+    }
+
+    /**
+     * Checks if a player has completed a line.
+     * @param mark the player's mark ('X' or 'O')
+     * @return true if the player has won
+     */
+    public boolean isWin(char mark) {
+        return openLines[side(mark)][k] > 0;
+    }
+
+    /**
+     * Scores the current position.
+     * @param toMove the side to move ('X' or 'O')
+     * @return the score for the side to move
+     */
+    public int evaluate(char toMove) {
+        int me = side(toMove);
+        return score(openLines[me], openLines[1 - me], threatCells[me], threatCells[1 - me], weights, k);
+    }
+
+    /**
+     * Scores a position by scanning every line, as {@link #evaluate(char)} would after loading it.
+     * @param geometry the board geometry
+     * @param xMask    the cells holding X
+     * @param oMask    the cells holding O
+     * @param toMove   the side to move ('X' or 'O')
+     * @return the score for the side to move
+     */
+    public static int evaluate(BoardGeometry geometry, long xMask, long oMask, char toMove) {
+        int k = geometry.getWinLength();
+        int[][] open = new int[2][k + 1];
+        long[] threatMasks = new long[2];
+        long empty = geometry.fullMask() & ~(xMask | oMask);
+        for (int i = 0; i < geometry.lineCount(); i++) {
+            long line = geometry.line(i);
+            int xc = Long.bitCount(line & xMask);
+            int oc = Long.bitCount(line & oMask);
+            if (oc == 0 && xc > 0) open[0][xc]++;
+            if (xc == 0 && oc > 0) open[1][oc]++;
+            if (oc == 0 && xc == k - 1) threatMasks[0] |= line & empty;
+            if (xc == 0 && oc == k - 1) threatMasks[1] |= line & empty;
+        }
+        int me = side(toMove);
+        return score(open[me], open[1 - me], Long.bitCount(threatMasks[me]), Long.bitCount(threatMasks[1 - me]),
+                weights(k), k);
+    }
+
+    private static int score(int[] mine, int[] theirs, int myThreats, int theirThreats, int[] weights, int k) {
+        if (mine[k] > 0) return WIN_SCORE;
+        if (theirs[k] > 0) return -WIN_SCORE;
+        if (myThreats > 0) return WIN_SCORE - 1;
+        if (theirThreats >= 2) return -(WIN_SCORE - 2);
+        int score = 0;
+        for (int n = 1; n < k; n++) {
+            score += (mine[n] - theirs[n]) * weights[n];
+        }
+        return score;
+    }
+
+    private static int side(char mark) {
+        if (mark == 'X') return 0;
+        if (mark == 'O') return 1;
+        throw new IllegalArgumentException("Mark must be 'X' or 'O', got: " + mark);
+    }
+}
@@ -0,0 +1,70 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Plays greedily from a {@link ValueTable} learned by {@link SelfPlayTrainer}.
+ * The default instance, registered as "learned", loads the table named by the
+ * {@value #VALUES_PROPERTY} system property; without it, it uses the table trained at build
+ * time from {@link TableResources}, loaded the first time a move is requested.
+ */
+public final class LearnedStrategy implements MoveStrategy {
+    /** System property naming a value table file saved by {@link SelfPlayTrainer}. */
+    public static final String VALUES_PROPERTY = "tictactoe.learned.values";
+
+    private final ValueTable table;
+
+    /**
+     * Creates a strategy that uses the default table.
+     */
+    public LearnedStrategy() {
+        this.table = null;
+    }
+
+    /**
+     * Creates a strategy that plays from the given table.
+     * @param table a 3x3 value table
+     * @throws IllegalArgumentException if the table is not 3x3
+     */
+    public LearnedStrategy(ValueTable table) {
+        BoardGeometry geometry = table.getGeometry();
+        if (geometry.getRows() != 3 || geometry.getCols() != 3 || geometry.getWinLength() != 3) {
+            throw new IllegalArgumentException("Learned play needs a 3x3 value table, got: " + geometry);
+        }
+        this.table = table;
+    }
+
+    @Override
+    public String getName() {
+        return "learned";
+    }
+
+    @Override
+    public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+        ValueTable values = (table != null) ? table : DefaultTable.TABLE;
+        int cell = SelfPlayTrainer.greedyCell(values, board.getMask('X'), board.getMask('O'), mark);
+        return CompletableFuture.completedFuture(cell < 0 ? null : new int[]{cell / 3, cell % 3});
+    }
+
+    /**
+     * Loads the default table on first use.
+     */
+    private static final class DefaultTable {
+        static final ValueTable TABLE = loadOrTrain();
+
+        private static ValueTable loadOrTrain() {
+            String file = System.getProperty(VALUES_PROPERTY);
+            if (file != null) {
+                try {
+                    return ValueTable.load(Paths.get(file));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return TableResources.learnedValues();
+        }
+    }
+}
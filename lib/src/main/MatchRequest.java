@@ -0,0 +1,57 @@
+package lib.src.main;
+
+/**
+ * A player waiting to be paired by a {@link Matchmaker}.
+ * The arrival time is a {@link System#nanoTime()} reading, used to measure how long the player has waited.
+ */
+public final class MatchRequest {
+    private final String name;
+    private final int rating;
+    private final long arrivalNanos;
+
+    /**
+     * Creates a request that arrives now.
+     * @param name   the player's name
+     * @param rating the player's rating, zero or more
+     * @throws IllegalArgumentException if the name is empty or the rating is negative
+     */
+    public MatchRequest(String name, int rating) {
+        this(name, rating, System.nanoTime());
+    }
+
+    /**
+     * Creates a request with a given arrival time.
+     * @param name         the player's name
+     * @param rating       the player's rating, zero or more
+     * @param arrivalNanos the {@link System#nanoTime()} reading when the player arrived
+     * @throws IllegalArgumentException if the name is empty or the rating is negative
+     */
+    public MatchRequest(String name, int rating, long arrivalNanos) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Player name cannot be null or empty");
+        }
+        if (rating < 0) {
+            throw new IllegalArgumentException("Rating must not be negative, got: " + rating);
+        }
+        this.name = name.trim();
+        this.rating = rating;
+        this.arrivalNanos = arrivalNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRating() {
+        return rating;
+    }
+
+    public long getArrivalNanos() {
+        return arrivalNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + rating + ")";
+    }
+}
@@ -0,0 +1,208 @@
+package lib.src.main;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Pairs arriving players into games.
+ * Any number of threads {@link #submit} requests into a bounded lock-free {@link MpmcQueue};
+ * when it is full a request is refused at once, so callers can shed load or retry later
+ * instead of piling up. A single pairing thread calls {@link #pair} in a loop: each call
+ * drains up to one batch of requests and puts each in its rating bucket (the rating divided
+ * by the bucket width). Two players in the same bucket are paired in arrival order, and a player
+ * who has waited for the bot timeout without an opponent is given a game against a computer player.
+ * The first to arrive plays X.
+ */
+public final class Matchmaker {
+    /** How long a player waits for a human opponent by default. */
+    public static final Duration DEFAULT_BOT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final MpmcQueue<MatchRequest> queue;
+    private final int bucketWidth;
+    private final long botTimeoutNanos;
+    private final MatchRequest[] batch;
+    // at most one player waits per bucket, since a second one is paired with it at once
+    private final Map<Integer, MatchRequest> waiting = new HashMap<>();
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder botMatches = new LongAdder();
+
+    /**
+     * A game made by the matchmaker.
+     */
+    public static final class Match {
+        private final Game game;
+        private final MatchRequest requestX;
+        private final MatchRequest requestO;
+        private final long waitNanos;
+
+        Match(Game game, MatchRequest requestX, MatchRequest requestO, long waitNanos) {
+            this.game = game;
+            this.requestX = requestX;
+            this.requestO = requestO;
+            this.waitNanos = waitNanos;
+        }
+
+        public Game getGame() {
+            return game;
+        }
+
+        public MatchRequest getRequestX() {
+            return requestX;
+        }
+
+        /**
+         * Gets the request of the player using 'O' marks.
+         * @return the request, or null if 'O' is a computer player
+         */
+        public MatchRequest getRequestO() {
+            return requestO;
+        }
+
+        public boolean isBotMatch() {
+            return requestO == null;
+        }
+
+        /**
+         * Gets how long the player who arrived first waited for this game.
+         * @return the wait in nanoseconds
+         */
+        public long getWaitNanos() {
+            return waitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return game.getPlayerX() + " vs " + game.getPlayerO() + " after " + (waitNanos / 1_000_000) + " ms";
+        }
+    }
+
+    /**
+     * Creates a matchmaker.
+     * @param capacity    the number of requests the queue holds, which must be a power of two
+     * @param bucketWidth the rating range of one bucket
+     * @param batchSize   the largest number of requests one {@link #pair} call takes from the queue
+     * @param botTimeout  how long a player waits for a human opponent before getting a computer one
+     * @throws IllegalArgumentException if a size is out of range or the timeout is negative
+     */
+    public Matchmaker(int capacity, int bucketWidth, int batchSize, Duration botTimeout) {
+        if (bucketWidth < 1) {
+            throw new IllegalArgumentException("Bucket width must be positive, got: " + bucketWidth);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive, got: " + batchSize);
+        }
+        if (botTimeout.isNegative()) {
+            throw new IllegalArgumentException("Bot timeout must not be negative, got: " + botTimeout);
+        }
+        this.queue = new MpmcQueue<>(capacity);
+        this.bucketWidth = bucketWidth;
+        this.botTimeoutNanos = botTimeout.toNanos();
+        this.batch = new MatchRequest[batchSize];
+    }
+
+    /**
+     * Queues a request for pairing. Safe to call from any thread.
+     * @param request the player's request
+     * @return true if it was queued, false if the queue is full and the request was refused
+     * @throws IllegalArgumentException if the request is null
+     */
+    public boolean submit(MatchRequest request) {
+        if (request == null) {
+            throw new IllegalArgumentException("Request cannot be null");
+        }
+        if (queue.offer(request)) {
+            submitted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Runs one pairing round at the current time; see {@link #pair(long, Consumer)}.
+     */
+    public int pair(Consumer<Match> sink) {
+        return pair(System.nanoTime(), sink);
+    }
+
+    /**
+     * Runs one pairing round: takes a batch of queued requests, pairs players within their
+     * buckets, and gives computer opponents to players who have waited too long.
+     * Only one thread may pair at a time.
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @param sink     receives each new match, on the calling thread
+     * @return the number of matches made
+     */
+    public int pair(long nowNanos, Consumer<Match> sink) {
+        int made = 0;
+        int count = queue.drain(batch, batch.length);
+        for (int i = 0; i < count; i++) {
+            MatchRequest request = batch[i];
+            batch[i] = null;
+            MatchRequest opponent = waiting.remove(request.getRating() / bucketWidth);
+            if (opponent == null) {
+                waiting.put(request.getRating() / bucketWidth, request);
+                continue;
+            }
+            Game game = new Game(new Player(opponent.getName(), 'X'), new Player(request.getName(), 'O'));
+            sink.accept(new Match(game, opponent, request, nowNanos - opponent.getArrivalNanos()));
+            made++;
+        }
+        for (Iterator<MatchRequest> it = waiting.values().iterator(); it.hasNext(); ) {
+            MatchRequest request = it.next();
+            long waited = nowNanos - request.getArrivalNanos();
+            if (waited < botTimeoutNanos) continue;
+            it.remove();
+            Game game = new Game(new Player(request.getName(), 'X'),
+                    new ComputerPlayer("Bot", 'O', ComputerPlayer.Strategy.SMART));
+            sink.accept(new Match(game, request, null, waited));
+            botMatches.increment();
+            made++;
+        }
+        matches.add(made);
+        return made;
+    }
+
+    /**
+     * Gets the number of players in buckets waiting for an opponent. Call it from the pairing thread.
+     * @return the waiting count
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Gets the number of requests queued but not yet taken by a pairing round.
+     * @return the approximate queue length
+     */
+    public int getQueuedCount() {
+        return queue.size();
+    }
+
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * Gets the number of requests refused because the queue was full.
+     * @return the rejection count
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    public long getBotMatches() {
+        return botMatches.sum();
+    }
+}
@@ -0,0 +1,375 @@
+package lib.src.main;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A bounded map from {@code long} position keys to {@code int} values that many threads share.
+ * Keys hash to one of several segments, each with its own lock, fixed-size primitive arrays and
+ * its share of the capacity, so lookups never box and threads working on different segments do
+ * not contend. Within a segment an open-addressing index finds a key's slot. When a segment is
+ * full, inserting evicts one entry chosen by the segment's policy: {@link Eviction#CLOCK} gives
+ * every entry that was read since the hand last passed a second chance, and {@link Eviction#LRU}
+ * evicts the least recently used entry exactly. A CLOCK hit only sets a flag, so it is read under
+ * an optimistic stamp and takes no lock at all; an LRU hit reorders the list under the write lock.
+ */
+public final class MoveCache {
+    /** Returned by {@link #get} for a key that is not cached. */
+    public static final int ABSENT = Integer.MIN_VALUE;
+
+    public enum Eviction {
+        /** Second chance: approximate LRU whose hits need no lock. */
+        CLOCK,
+        /** Exact least recently used, with hits taking the segment's write lock. */
+        LRU
+    }
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final Eviction eviction;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache.
+     * @param capacity the number of entries it holds at most, shared evenly among the segments
+     * @param segments the number of independently locked segments, a power of two
+     * @param eviction the policy that chooses which entry a full segment evicts
+     * @throws IllegalArgumentException if the capacity is smaller than the number of segments,
+     *                                  or the segment count is not a positive power of two
+     */
+    public MoveCache(int capacity, int segments, Eviction eviction) {
+        if (segments < 1 || Integer.bitCount(segments) != 1) {
+            throw new IllegalArgumentException("Segments must be a positive power of two, got: " + segments);
+        }
+        if (capacity < segments) {
+            throw new IllegalArgumentException("Capacity must be at least the number of segments, got: " + capacity);
+        }
+        if (eviction == null) {
+            throw new IllegalArgumentException("Eviction cannot be null");
+        }
+        this.eviction = eviction;
+        this.segments = new Segment[segments];
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segments);
+        int perSegment = (capacity + segments - 1) / segments;
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new Segment(perSegment, eviction, Integer.numberOfTrailingZeros(segments));
+        }
+    }
+
+    private static long hash(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private Segment segmentFor(long key) {
+        // the top bits of the hash pick the segment, and the segment's index uses the bits below them
+        return (segments.length == 1) ? segments[0] : segments[(int) (hash(key) >>> segmentShift)];
+    }
+
+    /**
+     * Looks up a key.
+     * @param key the key
+     * @return the cached value, or {@link #ABSENT} if the key is not cached
+     */
+    public int get(long key) {
+        int value = segmentFor(key).get(key);
+        if (value == ABSENT) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches a value, replacing any value cached for the key and evicting another entry if the key's segment is full.
+     * @param key   the key
+     * @param value the value
+     * @throws IllegalArgumentException if the value is {@link #ABSENT}
+     */
+    public void put(long key, int value) {
+        if (value == ABSENT) {
+            throw new IllegalArgumentException("Value cannot be ABSENT");
+        }
+        if (segmentFor(key).put(key, value)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes every entry; the counters are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Gets the number of cached entries, which may be out of date if other threads are writing.
+     * @return the size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int capacity() {
+        return segments.length * segments[0].keys.length;
+    }
+
+    public Eviction getEviction() {
+        return eviction;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets the share of lookups that found their key.
+     * @return the hit rate from 0 to 1, or 0 before any lookup
+     */
+    public double getHitRate() {
+        long hits = getHits();
+        long lookups = hits + getMisses();
+        return (lookups == 0) ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s cache %d/%d, %d hits, %d misses, %d evictions",
+                eviction, size(), capacity(), getHits(), getMisses(), getEvictions());
+    }
+
+    /**
+     * One lock's share of the cache. Slots hold the entries; the index maps keys to slots by linear probing
+     * and is at least twice the slot count, so probes stay short and always reach an empty index cell.
+     */
+    private static final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private final boolean lru;
+        // slots below size are in use; slots are reused, never freed, until the segment is cleared
+        private final long[] keys;
+        private final int[] values;
+        private final boolean[] referenced;
+        // slot plus one, or zero for an empty index cell
+        private final int[] index;
+        private final int segmentBits;
+        private final int indexShift;
+        // LRU order, most recent at the head; unused for CLOCK
+        private final int[] previous;
+        private final int[] next;
+        private int head = -1;
+        private int tail = -1;
+        private int hand;
+        private int size;
+
+        Segment(int capacity, Eviction eviction, int segmentBits) {
+            this.segmentBits = segmentBits;
+            lru = (eviction == Eviction.LRU);
+            keys = new long[capacity];
+            values = new int[capacity];
+            referenced = new boolean[capacity];
+            int indexSize = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1;
+            index = new int[indexSize];
+            indexShift = 64 - Integer.numberOfTrailingZeros(indexSize);
+            previous = lru ? new int[capacity] : null;
+            next = lru ? new int[capacity] : null;
+        }
+
+        private int home(long key) {
+            return (int) ((hash(key) << segmentBits) >>> indexShift);
+        }
+
+        /**
+         * Finds the index cell holding a key.
+         * @return the cell, or -1 if the key is absent
+         */
+        private int find(long key) {
+            int mask = index.length - 1;
+            // bounded, since under an optimistic read the index may change while it is probed
+            for (int cell = home(key), probes = 0; probes < index.length; cell = (cell + 1) & mask, probes++) {
+                int slot = index[cell] - 1;
+                if (slot < 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return cell;
+                }
+            }
+            return -1;
+        }
+
+        int get(long key) {
+            if (lru) {
+                long stamp = lock.writeLock();
+                try {
+                    int cell = find(key);
+                    if (cell < 0) {
+                        return ABSENT;
+                    }
+                    int slot = index[cell] - 1;
+                    moveToHead(slot);
+                    return values[slot];
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+            }
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                int value = ABSENT;
+                int cell = find(key);
+                int slot = (cell < 0) ? -1 : index[cell] - 1;
+                if (slot >= 0) {
+                    value = values[slot];
+                    // a stray flag on an entry that was just replaced only delays its eviction
+                    referenced[slot] = true;
+                }
+                if (lock.validate(stamp)) {
+                    return value;
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                int cell = find(key);
+                if (cell < 0) {
+                    return ABSENT;
+                }
+                int slot = index[cell] - 1;
+                referenced[slot] = true;
+                return values[slot];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Stores a value.
+         * @return true if another entry was evicted to make room
+         */
+        boolean put(long key, int value) {
+            long stamp = lock.writeLock();
+            try {
+                int cell = find(key);
+                if (cell >= 0) {
+                    int slot = index[cell] - 1;
+                    values[slot] = value;
+                    if (lru) moveToHead(slot);
+                    return false;
+                }
+                boolean evicted = false;
+                int slot;
+                if (size < keys.length) {
+                    slot = size++;
+                } else {
+                    slot = victim();
+                    removeFromIndex(find(keys[slot]));
+                    evicted = true;
+                }
+                keys[slot] = key;
+                values[slot] = value;
+                referenced[slot] = false;
+                int mask = index.length - 1;
+                cell = home(key);
+                while (index[cell] != 0) {
+                    cell = (cell + 1) & mask;
+                }
+                index[cell] = slot + 1;
+                if (lru) {
+                    if (evicted) unlinkLru(slot);
+                    linkHead(slot);
+                }
+                return evicted;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Picks the slot to reuse in a full segment.
+         */
+        private int victim() {
+            if (lru) {
+                return tail;
+            }
+            while (referenced[hand]) {
+                referenced[hand] = false;
+                hand = (hand + 1 == keys.length) ? 0 : hand + 1;
+            }
+            int slot = hand;
+            hand = (hand + 1 == keys.length) ? 0 : hand + 1;
+            return slot;
+        }
+
+        /**
+         * Empties an index cell, shifting later cells of the same probe run back so that every key stays reachable.
+         */
+        private void removeFromIndex(int cell) {
+            int mask = index.length - 1;
+            int hole = cell;
+            for (int i = (hole + 1) & mask; index[i] != 0; i = (i + 1) & mask) {
+                int home = home(keys[index[i] - 1]);
+                // move the entry back unless its home lies cyclically after the hole, up to its cell
+                boolean stays = (hole <= i) ? (hole < home && home <= i) : (hole < home || home <= i);
+                if (!stays) {
+                    index[hole] = index[i];
+                    hole = i;
+                }
+            }
+            index[hole] = 0;
+        }
+
+        private void moveToHead(int slot) {
+            if (head == slot) return;
+            unlinkLru(slot);
+            linkHead(slot);
+        }
+
+        private void unlinkLru(int slot) {
+            int before = previous[slot];
+            int after = next[slot];
+            if (before >= 0) next[before] = after; else head = after;
+            if (after >= 0) previous[after] = before; else tail = before;
+        }
+
+        private void linkHead(int slot) {
+            previous[slot] = -1;
+            next[slot] = head;
+            if (head >= 0) previous[head] = slot;
+            head = slot;
+            if (tail < 0) tail = slot;
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                Arrays.fill(index, 0);
+                Arrays.fill(referenced, false);
+                head = -1;
+                tail = -1;
+                hand = 0;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+    }
+}
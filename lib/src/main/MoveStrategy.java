@@ -0,0 +1,29 @@
+package lib.src.main;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A pluggable way of choosing a computer player's move.
+ * Implementations return immediately with a future, so slow engines can think on their own
+ * threads while callers await many moves at once. Strategies are looked up by name in a
+ * {@link MoveStrategyRegistry}; third-party implementations are discovered with
+ * {@link java.util.ServiceLoader} and need a public no-argument constructor.
+ */
+public interface MoveStrategy {
+
+    /**
+     * Gets the name this strategy is registered under, e.g. "smart".
+     * @return the strategy name
+     */
+    String getName();
+
+    /**
+     * Starts choosing a move.
+     * @param board         a snapshot of the board that the strategy may keep and read from any thread
+     * @param mark          the mark of the player to move ('X' or 'O')
+     * @param deadlineNanos the {@link System#nanoTime()} value by which the move should be ready;
+     *                      results arriving later are discarded in favour of a fallback move
+     * @return a future completed with {row, column}, or with null if the board has no empty cells
+     */
+    CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos);
+}
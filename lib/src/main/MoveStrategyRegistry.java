@@ -0,0 +1,164 @@
+package lib.src.main;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolves {@link MoveStrategy} implementations by name and runs them under a deadline.
+ * Every registry starts with the built-in "random", "smart" and "learned" strategies. The default registry
+ * also loads implementations found by {@link ServiceLoader}; a discovered strategy with the same
+ * name as a built-in replaces it. Strategies are called on the registry's executor, never on the
+ * caller's thread, so one that computes synchronously cannot hold up the game loop past its
+ * deadline. When a strategy misses its deadline or fails, the move comes from the cheap heuristic instead.
+ */
+public final class MoveStrategyRegistry {
+    private static final MoveStrategyRegistry DEFAULT = createDefault();
+
+    private final Map<String, MoveStrategy> strategies = new ConcurrentHashMap<>();
+    private final Executor executor;
+
+    /**
+     * Creates a registry holding only the built-in strategies, calling them on daemon threads
+     * that are created as needed and kept while in use.
+     */
+    public MoveStrategyRegistry() {
+        this(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "move-strategy");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates a registry holding only the built-in strategies.
+     * @param executor runs the strategies' {@link MoveStrategy#selectMove} calls; a strategy that
+     *                 overruns its deadline keeps its thread busy until it returns
+     * @throws IllegalArgumentException if the executor is null
+     */
+    public MoveStrategyRegistry(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        this.executor = executor;
+        register(new RandomStrategy());
+        register(new HeuristicStrategy());
+        register(new LearnedStrategy());
+    }
+
+    /**
+     * Gets the shared registry, which includes strategies discovered with ServiceLoader.
+     * @return the default registry
+     */
+    public static MoveStrategyRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    private static MoveStrategyRegistry createDefault() {
+        MoveStrategyRegistry registry = new MoveStrategyRegistry();
+        for (MoveStrategy strategy : ServiceLoader.load(MoveStrategy.class)) {
+            registry.register(strategy);
+        }
+        return registry;
+    }
+
+    /**
+     * Adds a strategy, replacing any strategy already registered under the same name.
+     * @param strategy the strategy to add
+     * @throws IllegalArgumentException if the strategy or its name is null or empty
+     */
+    public void register(MoveStrategy strategy) {
+        if (strategy == null || strategy.getName() == null || strategy.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Strategy and its name cannot be null or empty");
+        }
+        strategies.put(strategy.getName(), strategy);
+    }
+
+    /**
+     * Looks up a strategy by name.
+     * @param name the strategy name
+     * @return the registered strategy
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public MoveStrategy get(String name) {
+        MoveStrategy strategy = strategies.get(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unknown move strategy: " + name);
+        }
+        return strategy;
+    }
+
+    /**
+     * Gets the names of all registered strategies.
+     * @return the names in alphabetical order
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(new TreeSet<>(strategies.keySet()));
+    }
+
+    /**
+     * Chooses a move with the named strategy, falling back to the heuristic when the strategy
+     * does not answer within the timeout or fails. The strategy is called on the registry's
+     * executor and the timeout runs from this call, so it also bounds strategies that block.
+     * @param name    the strategy name
+     * @param board   the current board; the strategy receives a copy
+     * @param mark    the mark of the player to move ('X' or 'O')
+     * @param timeout how long the strategy may think
+     * @return a future completed with {row, column}, or with null if the board has no empty cells
+     * @throws IllegalArgumentException if no strategy has that name
+     */
+    public CompletableFuture<int[]> selectMove(String name, Board board, char mark, Duration timeout) {
+        MoveStrategy strategy = get(name);
+        Board snapshot = board.copy();
+        Board fallbackBoard = board.copy(); // a strategy that overran may still be using its copy
+        long timeoutNanos = timeout.toNanos();
+        long deadlineNanos = System.nanoTime() + timeoutNanos;
+        return CompletableFuture.supplyAsync(() -> strategy.selectMove(snapshot, mark, deadlineNanos), executor)
+                .thenCompose(move -> move)
+                .orTimeout(timeoutNanos, TimeUnit.NANOSECONDS)
+                .exceptionally(e -> fallbackMove(fallbackBoard, mark));
+    }
+
+    private static int[] fallbackMove(Board board, char mark) {
+        int[] move = AIMoveSelector.selectHeuristicMove(board, mark);
+        return (move != null) ? move : AIMoveSelector.selectRandomMove(board);
+    }
+
+    /**
+     * Plays a random empty cell.
+     */
+    private static final class RandomStrategy implements MoveStrategy {
+        @Override
+        public String getName() {
+            return "random";
+        }
+
+        @Override
+        public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+            return CompletableFuture.completedFuture(AIMoveSelector.selectRandomMove(board));
+        }
+    }
+
+    /**
+     * Plays by the win/block/center/corner/edge heuristic.
+     */
+    private static final class HeuristicStrategy implements MoveStrategy {
+        @Override
+        public String getName() {
+            return "smart";
+        }
+
+        @Override
+        public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+            return CompletableFuture.completedFuture(fallbackMove(board, mark));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package lib.src.main;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock-free queue for many producers and many consumers, after Dmitry Vyukov's design.
+ * Every slot carries a sequence number that says whose turn it is: a producer may fill slot
+ * {@code i} when its sequence equals the producer's position, and a consumer may empty it once
+ * the sequence is one past. Producers and consumers each claim positions with a single
+ * compare-and-set on their own counter, so the two sides never contend with each other, and
+ * a full queue rejects new elements at once instead of blocking, which callers use for backpressure.
+ *
+ * @param <E> the element type
+ */
+public final class MpmcQueue<E> {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    /**
+     * Creates a queue.
+     * @param capacity the number of slots, which must be a power of two
+     * @throws IllegalArgumentException if the capacity is not a positive power of two
+     */
+    public MpmcQueue(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two, got: " + capacity);
+        }
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        elements = new AtomicReferenceArray<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an element if there is room.
+     * @param element the element to add
+     * @return true if it was added, false if the queue is full
+     * @throws IllegalArgumentException if the element is null
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element cannot be null");
+        }
+        long position = enqueuePosition.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    elements.lazySet(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false; // the slot still holds an element from one lap ago
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest element.
+     * @return the element, or null if the queue is empty
+     */
+    public E poll() {
+        long position = dequeuePosition.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    E element = elements.get(slot);
+                    elements.lazySet(slot, null);
+                    sequences.set(slot, position + mask + 1);
+                    return element;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null; // nothing has been published in this slot yet
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code max} of the oldest elements.
+     * @param batch receives the elements, from index 0
+     * @param max   the largest number of elements to take; at most {@code batch.length}
+     * @return the number of elements taken
+     */
+    public int drain(E[] batch, int max) {
+        int limit = Math.min(max, batch.length);
+        int count = 0;
+        while (count < limit) {
+            E element = poll();
+            if (element == null) break;
+            batch[count++] = element;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of elements, which may already be out of date when it returns.
+     * @return the approximate size
+     */
+    public int size() {
+        long size = enqueuePosition.get() - dequeuePosition.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
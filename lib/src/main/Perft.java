@@ -0,0 +1,338 @@
+package lib.src.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Enumerates every legal move sequence from a position up to a fixed depth.
+ * The counts act as a correctness oracle for move generation and win detection
+ * (the full 3x3 game has exactly 255,168 distinct games) and the timing as a throughput benchmark.
+ * Root moves are searched in parallel on a ForkJoinPool. The bitmask search shares no code with
+ * {@link Board} or {@link Game}, so {@link #runGame(Board, int)} repeats the enumeration through
+ * them, letting the same counts check the classes that real games are played with.
+ */
+public final class Perft {
+    private static final int NODES = 0;
+    private static final int LEAVES = 1;
+    private static final int X_WINS = 2;
+    private static final int O_WINS = 3;
+    private static final int DRAWS = 4;
+
+    private Perft() {}
+
+    /**
+     * The tallies of a perft run.
+     */
+    public static final class Result {
+        private final long[] counts;
+        private final long elapsedNanos;
+
+        Result(long[] counts, long elapsedNanos) {
+            this.counts = counts;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the number of positions visited below the root.
+         * @return the node count
+         */
+        public long getNodes() {
+            return counts[NODES];
+        }
+
+        /**
+         * Gets the number of sequences that reach the full depth with the game still in progress.
+         * @return the leaf count
+         */
+        public long getLeaves() {
+            return counts[LEAVES];
+        }
+
+        public long getXWins() {
+            return counts[X_WINS];
+        }
+
+        public long getOWins() {
+            return counts[O_WINS];
+        }
+
+        public long getDraws() {
+            return counts[DRAWS];
+        }
+
+        /**
+         * Gets the number of sequences that end the game within the depth.
+         * @return wins for either side plus draws
+         */
+        public long getFinishedGames() {
+            return counts[X_WINS] + counts[O_WINS] + counts[DRAWS];
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets the search speed.
+         * @return nodes visited per second of wall-clock time
+         */
+        public double getNodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : counts[NODES] * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "nodes=" + getNodes() + " leaves=" + getLeaves() + " xWins=" + getXWins()
+                    + " oWins=" + getOWins() + " draws=" + getDraws()
+                    + String.format(" (%.0f nodes/s)", getNodesPerSecond());
+        }
+    }
+
+    /**
+     * Runs perft from the position on a standard board.
+     * @param board the starting position; X moves when both sides have the same number of marks
+     * @param depth the number of plies to enumerate
+     * @return the tallies
+     */
+    public static Result run(Board board, int depth) {
+        return run(BoardGeometry.STANDARD, board.getMask('X'), board.getMask('O'), depth, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs perft from a position given as bitmasks.
+     * @param geometry the board geometry
+     * @param xMask    the cells holding X
+     * @param oMask    the cells holding O
+     * @param depth    the number of plies to enumerate
+     * @param useCache whether to reuse counts of transposed positions
+     * @param pool     the pool that searches the root moves
+     * @return the tallies
+     */
+    public static Result run(BoardGeometry geometry, long xMask, long oMask, int depth, boolean useCache, ForkJoinPool pool) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative, got: " + depth);
+        }
+        Map<Key, long[]> cache = useCache ? new ConcurrentHashMap<>() : null;
+        long start = System.nanoTime();
+        long[] counts = pool.invoke(new RootTask(geometry, xMask, oMask, depth, cache));
+        return new Result(counts, System.nanoTime() - start);
+    }
+
+    /**
+     * Splits the root moves into parallel subtasks and sums their tallies.
+     */
+    private static final class RootTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final BoardGeometry geometry;
+        private final long xMask;
+        private final long oMask;
+        private final int depth;
+        private final Map<Key, long[]> cache;
+
+        RootTask(BoardGeometry geometry, long xMask, long oMask, int depth, Map<Key, long[]> cache) {
+            this.geometry = geometry;
+            this.xMask = xMask;
+            this.oMask = oMask;
+            this.depth = depth;
+            this.cache = cache;
+        }
+
+        @Override
+        protected long[] compute() {
+            long[] total = new long[5];
+            boolean xToMove = Long.bitCount(xMask) == Long.bitCount(oMask);
+            if (depth == 0 || geometry.isWin(xMask) || geometry.isWin(oMask)) {
+                return total;
+            }
+            List<RecursiveTask<long[]>> tasks = new ArrayList<>();
+            long empty = geometry.fullMask() & ~(xMask | oMask);
+            for (long bits = empty; bits != 0; bits &= bits - 1) {
+                int cell = Long.numberOfTrailingZeros(bits);
+                long x = xToMove ? xMask | (1L << cell) : xMask;
+                long o = xToMove ? oMask : oMask | (1L << cell);
+                RecursiveTask<long[]> task = new RecursiveTask<long[]>() {
+                    @Override
+                    protected long[] compute() {
+                        long[] counts = new long[5];
+                        visit(geometry, x, o, cell, depth - 1, cache, counts);
+                        return counts;
+                    }
+                };
+                tasks.add(task);
+            }
+            for (RecursiveTask<long[]> task : invokeAll(tasks)) {
+                add(total, task.join());
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Counts the position reached by playing a cell and everything below it.
+     */
+    private static void visit(BoardGeometry geometry, long xMask, long oMask, int lastCell,
+                              int remaining, Map<Key, long[]> cache, long[] counts) {
+        counts[NODES]++;
+        boolean xMoved = Long.bitCount(xMask) != Long.bitCount(oMask);
+        if (geometry.isWinThrough(xMoved ? xMask : oMask, lastCell)) {
+            counts[xMoved ? X_WINS : O_WINS]++;
+            return;
+        }
+        long empty = geometry.fullMask() & ~(xMask | oMask);
+        if (empty == 0) {
+            counts[DRAWS]++;
+            return;
+        }
+        if (remaining == 0) {
+            counts[LEAVES]++;
+            return;
+        }
+
+        Key key = null;
+        long[] below = counts;
+        if (cache != null) {
+            key = new Key(xMask, oMask, remaining);
+            long[] cached = cache.get(key);
+            if (cached != null) {
+                add(counts, cached);
+                return;
+            }
+            below = new long[5];
+        }
+        for (long bits = empty; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            long x = xMoved ? xMask : xMask | (1L << cell);
+            long o = xMoved ? oMask | (1L << cell) : oMask;
+            visit(geometry, x, o, cell, remaining - 1, cache, below);
+        }
+        if (cache != null) {
+            cache.putIfAbsent(key, below);
+            add(counts, below);
+        }
+    }
+
+    /**
+     * Runs perft from the position by playing every move through {@link Game#makeMove(int, int)},
+     * so moves come from {@link Game#isValidMove(int, int)} and results from the game's own win and
+     * tie detection. Game has no undo, so each sibling move replays the line from the start position;
+     * this is far slower than {@link #run(Board, int)} and runs on the calling thread.
+     * @param board the starting position; X moves when both sides have the same number of marks
+     * @param depth the number of plies to enumerate
+     * @return the tallies
+     */
+    public static Result runGame(Board board, int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Depth must not be negative, got: " + depth);
+        }
+        long start = System.nanoTime();
+        int xMask = board.getMask('X');
+        int oMask = board.getMask('O');
+        char toMove = Integer.bitCount(xMask) == Integer.bitCount(oMask) ? 'X' : 'O';
+        Game game = new Game(new Player("X", 'X'), new Player("O", 'O'));
+        game.restorePosition(xMask, oMask, toMove);
+        long[] counts = new long[5];
+        if (depth > 0 && !game.isGameOver()) {
+            visitGame(game, xMask, oMask, toMove, new int[9], 0, depth, counts);
+        }
+        return new Result(counts, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the children of the position reached by playing the first {@code ply} moves of the line,
+     * and everything below them. The game must be at that position on entry.
+     */
+    private static void visitGame(Game game, int xMask, int oMask, char toMove, int[] line,
+                                  int ply, int depth, long[] counts) {
+        boolean atParent = true;
+        for (int cell = 0; cell < 9; cell++) {
+            int row = cell / 3;
+            int col = cell % 3;
+            if (!atParent) {
+                game.restorePosition(xMask, oMask, toMove);
+                for (int i = 0; i < ply; i++) {
+                    game.makeMove(line[i] / 3, line[i] % 3);
+                }
+                atParent = true;
+            }
+            if (!game.isValidMove(row, col)) {
+                continue;
+            }
+            game.makeMove(row, col);
+            atParent = false;
+            counts[NODES]++;
+            if (game.getGameState() == Game.GameState.WON) {
+                counts[game.getWinner().getMark() == 'X' ? X_WINS : O_WINS]++;
+            } else if (game.getGameState() == Game.GameState.TIED) {
+                counts[DRAWS]++;
+            } else if (ply + 1 == depth) {
+                counts[LEAVES]++;
+            } else {
+                line[ply] = cell;
+                visitGame(game, xMask, oMask, toMove, line, ply + 1, depth, counts);
+            }
+        }
+    }
+
+    private static void add(long[] total, long[] counts) {
+        for (int i = 0; i < total.length; i++) {
+            total[i] += counts[i];
+        }
+    }
+
+    /**
+     * Cache key: a position together with the depth still to be enumerated below it.
+     */
+    private static final class Key {
+        private final long xMask;
+        private final long oMask;
+        private final int remaining;
+
+        Key(long xMask, long oMask, int remaining) {
+            this.xMask = xMask;
+            this.oMask = oMask;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return xMask == other.xMask && oMask == other.oMask && remaining == other.remaining;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(xMask, oMask, remaining);
+        }
+    }
+
+    /**
+     * Runs perft from the empty board and prints the tallies.
+     * Usage: {@code Perft <depth> [rows cols k] [--cache]}, or {@code Perft <depth> --game}
+     * to enumerate the standard board through {@link Game}.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1 && args.length != 2 && args.length != 4 && args.length != 5) {
+            System.err.println("Usage: Perft <depth> [rows cols k] [--cache] | Perft <depth> --game");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[0]);
+        if (args.length == 2 && "--game".equals(args[1])) {
+            System.out.println("perft(" + depth + ") through Game: " + runGame(new Board(), depth));
+            return;
+        }
+        BoardGeometry geometry = args.length >= 4
+                ? new BoardGeometry(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]))
+                : BoardGeometry.STANDARD;
+        boolean useCache = "--cache".equals(args[args.length - 1]);
+        Result result = run(geometry, 0L, 0L, depth, useCache, ForkJoinPool.commonPool());
+        System.out.println("perft(" + depth + ") on " + geometry + ": " + result);
+    }
+}
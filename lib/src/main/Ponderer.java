@@ -0,0 +1,195 @@
+package lib.src.main;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Lets a computer player think on its opponent's time.
+ * While the opponent decides, a background thread computes the computer's reply to each
+ * possible opponent move, most likely first. When the opponent's actual move was pondered
+ * the reply is returned at once; otherwise the remaining pondering is cancelled and the
+ * caller computes the reply as usual.
+ */
+public final class Ponderer implements AutoCloseable {
+    private final ComputerPlayer player;
+    private final ExecutorService executor;
+    private Map<Integer, Pondered> replies = new ConcurrentHashMap<>();
+    private Future<?> task;
+    private int ponderedX = -1;
+    private int ponderedO = -1;
+    private long hits;
+    private long misses;
+    private long savedNanos;
+
+    private static final class Pondered {
+        final int[] move;
+        final long nanos;
+
+        Pondered(int[] move, long nanos) {
+            this.move = move;
+            this.nanos = nanos;
+        }
+    }
+
+    /**
+     * Creates a ponderer for a computer player.
+     * @param player the computer player whose replies are precomputed
+     */
+    public Ponderer(ComputerPlayer player) {
+        this.player = player;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ponder-" + player.getName());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts pondering a position in which the opponent is to move.
+     * Calling this again for the same position keeps the pondering already under way.
+     * @param board the current board; it is copied, not retained
+     */
+    public synchronized void start(Board board) {
+        int x = board.getMask('X');
+        int o = board.getMask('O');
+        if (task != null && x == ponderedX && o == ponderedO) {
+            return;
+        }
+        cancel();
+        ponderedX = x;
+        ponderedO = o;
+        Board snapshot = board.copy();
+        Map<Integer, Pondered> results = replies;
+        task = executor.submit(() -> ponder(snapshot, results));
+    }
+
+    /**
+     * Waits for the pondering started by the last {@link #start(Board)} to finish.
+     * @param timeout the longest time to wait
+     * @param unit    the unit of the timeout
+     * @return true if every reply was pondered, false if nothing is being pondered,
+     *         pondering was cancelled or the wait timed out
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     */
+    public boolean awaitPondered(long timeout, TimeUnit unit) throws InterruptedException {
+        Future<?> current;
+        synchronized (this) {
+            current = task;
+        }
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.get(timeout, unit);
+            return true;
+        } catch (CancellationException | TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pondering failed", e.getCause());
+        }
+    }
+
+    /**
+     * Gets the pondered reply to the opponent's move and stops pondering.
+     * @param row the row the opponent played
+     * @param col the column the opponent played
+     * @return the computer's reply, or null if that move was not pondered in time
+     */
+    public synchronized int[] replyTo(int row, int col) {
+        Pondered pondered = replies.get(row * 3 + col);
+        cancel();
+        if (pondered == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        savedNanos += pondered.nanos;
+        return pondered.move;
+    }
+
+    /**
+     * Stops any pondering in progress and discards its results.
+     */
+    public synchronized void cancel() {
+        if (task != null) {
+            task.cancel(true);
+            task = null;
+        }
+        ponderedX = -1;
+        ponderedO = -1;
+        replies = new ConcurrentHashMap<>(); // a cancelled task may still write to the old map
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the fraction of opponent moves whose reply was ready.
+     * @return the hit rate between 0 and 1, or 0 if nothing was looked up
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Gets the thinking time that pondering took off the computer's turns.
+     * @return the total time of the pondered replies that were used, in nanoseconds
+     */
+    public synchronized long getSavedNanos() {
+        return savedNanos;
+    }
+
+    @Override
+    public void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    private void ponder(Board board, Map<Integer, Pondered> results) {
+        char opponent = (player.getMark() == 'X') ? 'O' : 'X';
+        for (int[] guess : likelyMoves(board, opponent)) {
+            if (Thread.currentThread().isInterrupted()) return;
+            Board next = board.copy();
+            next.placeMark(guess[0], guess[1], opponent);
+            if (next.isGameOver()) continue;
+            long start = System.nanoTime();
+            int[] reply = player.selectMove(next);
+            long elapsed = System.nanoTime() - start;
+            if (reply != null && !Thread.currentThread().isInterrupted()) {
+                results.put(guess[0] * 3 + guess[1], new Pondered(reply, elapsed));
+            }
+        }
+    }
+
+    /**
+     * Orders the opponent's moves with the one a heuristic player would choose first.
+     */
+    private static List<int[]> likelyMoves(Board board, char opponent) {
+        List<int[]> moves = new ArrayList<>();
+        int[] first = AIMoveSelector.selectHeuristicMove(board, opponent);
+        if (first != null) moves.add(first);
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                if (board.isEmpty(r, c) && (first == null || first[0] != r || first[1] != c)) {
+                    moves.add(new int[]{r, c});
+                }
+            }
+        }
+        return moves;
+    }
+}
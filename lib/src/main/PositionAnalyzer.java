@@ -0,0 +1,303 @@
+package lib.src.main;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Evaluates every legal move of a 3x3 position exactly, for hints and game review.
+ * Each move gets its win/draw/loss value for the player making it, the number of plies
+ * until the game ends under perfect play and the principal variation that gets there.
+ * The moves of a position are searched in parallel, and every solved position is kept in
+ * a cache shared by all analyses, so repeated and overlapping queries are answered from it.
+ * Unlike {@link Tablebase}, the side to move is given explicitly rather than derived from the marks.
+ */
+public final class PositionAnalyzer {
+    private static final int POSITIONS = 19683; // 3^9
+    private static final int[] POWERS = Tablebase.powersOfThree(9);
+
+    private final ForkJoinPool pool;
+    // packed value and depth per (position, side to move); 0 means not yet solved
+    private final AtomicIntegerArray cache = new AtomicIntegerArray(2 * POSITIONS);
+
+    /**
+     * Creates an analyzer that searches on the common pool.
+     */
+    public PositionAnalyzer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an analyzer that searches on the given pool.
+     * @param pool the pool that evaluates moves in parallel
+     */
+    public PositionAnalyzer(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Analyzes every legal move of a position.
+     * @param board  the position to analyze; it is not modified
+     * @param toMove the side to move ('X' or 'O')
+     * @return the analysis, with moves ordered best first
+     * @throws IllegalArgumentException if the side to move is not 'X' or 'O'
+     */
+    public Analysis analyze(Board board, char toMove) {
+        if (toMove != 'X' && toMove != 'O') {
+            throw new IllegalArgumentException("Side to move must be 'X' or 'O', got: " + toMove);
+        }
+        int x = board.getMask('X');
+        int o = board.getMask('O');
+        boolean xToMove = toMove == 'X';
+        int root = solve(x, o, xToMove);
+        if (isOver(x, o)) {
+            // a line made by the side to move itself can only come from an edited board
+            Tablebase.Value value = BoardBatch.isWin(xToMove ? x : o) ? Tablebase.Value.WIN : valueOf(root);
+            return new Analysis(value, 0, Collections.emptyList());
+        }
+
+        List<CompletableFuture<MoveAnalysis>> futures = new ArrayList<>();
+        for (int empty = ~(x | o) & 0x1FF; empty != 0; empty &= empty - 1) {
+            int cell = Integer.numberOfTrailingZeros(empty);
+            int childX = xToMove ? x | (1 << cell) : x;
+            int childO = xToMove ? o : o | (1 << cell);
+            futures.add(CompletableFuture.supplyAsync(() -> analyzeMove(cell, childX, childO, !xToMove), pool));
+        }
+        List<MoveAnalysis> moves = new ArrayList<>(futures.size());
+        for (CompletableFuture<MoveAnalysis> future : futures) {
+            moves.add(future.join());
+        }
+        moves.sort((a, b) -> Integer.compare(score(b.value, b.depth), score(a.value, a.depth)));
+        return new Analysis(valueOf(root), depthOf(root), Collections.unmodifiableList(moves));
+    }
+
+    /**
+     * Solves the position after a move and follows best replies to the end of the game.
+     */
+    private MoveAnalysis analyzeMove(int cell, int x, int o, boolean xToMove) {
+        int child = solve(x, o, xToMove);
+        int plies = depthOf(child) + 1;
+        int[][] line = new int[plies][];
+        line[0] = new int[]{cell / 3, cell % 3};
+        for (int i = 1; i < plies; i++) {
+            int next = bestCell(x, o, xToMove);
+            line[i] = new int[]{next / 3, next % 3};
+            if (xToMove) x |= 1 << next;
+            else o |= 1 << next;
+            xToMove = !xToMove;
+        }
+        return new MoveAnalysis(cell / 3, cell % 3, flip(valueOf(child)), plies, line);
+    }
+
+    private int bestCell(int x, int o, boolean xToMove) {
+        int best = -1;
+        int bestScore = Integer.MIN_VALUE;
+        for (int empty = ~(x | o) & 0x1FF; empty != 0; empty &= empty - 1) {
+            int cell = Integer.numberOfTrailingZeros(empty);
+            int child = xToMove ? solve(x | (1 << cell), o, false) : solve(x, o | (1 << cell), true);
+            int score = score(flip(valueOf(child)), depthOf(child) + 1);
+            if (score > bestScore) {
+                bestScore = score;
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the packed value and depth of a position for the side to move, solving it if needed.
+     */
+    private int solve(int x, int o, boolean xToMove) {
+        int slot = 2 * index(x, o) + (xToMove ? 0 : 1);
+        int entry = cache.get(slot);
+        if (entry != 0) return entry;
+
+        if (BoardBatch.isWin(xToMove ? o : x)) {
+            entry = pack(Tablebase.Value.LOSS, 0);
+        } else if (isOver(x, o)) {
+            entry = pack(Tablebase.Value.DRAW, 0);
+        } else {
+            int bestScore = Integer.MIN_VALUE;
+            for (int empty = ~(x | o) & 0x1FF; empty != 0; empty &= empty - 1) {
+                int cell = Integer.numberOfTrailingZeros(empty);
+                int child = xToMove ? solve(x | (1 << cell), o, false) : solve(x, o | (1 << cell), true);
+                Tablebase.Value value = flip(valueOf(child));
+                int depth = depthOf(child) + 1;
+                int score = score(value, depth);
+                if (score > bestScore) {
+                    bestScore = score;
+                    entry = pack(value, depth);
+                }
+            }
+        }
+        // every thread computes the same entry for a slot, so a lost race costs only time
+        cache.set(slot, entry);
+        return entry;
+    }
+
+    private static boolean isOver(int x, int o) {
+        return BoardBatch.isWin(x) || BoardBatch.isWin(o) || (x | o) == 0x1FF;
+    }
+
+    private static int index(int x, int o) {
+        int index = 0;
+        for (int bits = x; bits != 0; bits &= bits - 1) {
+            index += POWERS[Integer.numberOfTrailingZeros(bits)];
+        }
+        for (int bits = o; bits != 0; bits &= bits - 1) {
+            index += 2 * POWERS[Integer.numberOfTrailingZeros(bits)];
+        }
+        return index;
+    }
+
+    /**
+     * Ranks a result for the player it belongs to: quick wins first, slow losses before quick ones.
+     */
+    private static int score(Tablebase.Value value, int depth) {
+        switch (value) {
+            case WIN: return 1000 - depth;
+            case LOSS: return -1000 + depth;
+            default: return 0;
+        }
+    }
+
+    private static Tablebase.Value flip(Tablebase.Value value) {
+        switch (value) {
+            case WIN: return Tablebase.Value.LOSS;
+            case LOSS: return Tablebase.Value.WIN;
+            default: return value;
+        }
+    }
+
+    private static int pack(Tablebase.Value value, int depth) {
+        return Tablebase.pack(value, depth);
+    }
+
+    private static Tablebase.Value valueOf(int entry) {
+        return Tablebase.valueOf((byte) entry);
+    }
+
+    private static int depthOf(int entry) {
+        return Tablebase.depthOf((byte) entry);
+    }
+
+    /**
+     * Gets the number of positions solved so far.
+     * @return the number of cached positions
+     */
+    public int cachedPositions() {
+        int count = 0;
+        for (int i = 0; i < cache.length(); i++) {
+            if (cache.get(i) != 0) count++;
+        }
+        return count;
+    }
+
+    /**
+     * The result of analyzing a position.
+     */
+    public static final class Analysis {
+        private final Tablebase.Value value;
+        private final int depth;
+        private final List<MoveAnalysis> moves;
+
+        private Analysis(Tablebase.Value value, int depth, List<MoveAnalysis> moves) {
+            this.value = value;
+            this.depth = depth;
+            this.moves = moves;
+        }
+
+        /**
+         * Gets the value of the position for the side to move.
+         * @return the win/draw/loss value
+         */
+        public Tablebase.Value getValue() {
+            return value;
+        }
+
+        /**
+         * Gets the number of plies until the game ends under perfect play.
+         * @return the depth to the end of the game
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets every legal move, best first.
+         * @return the analyzed moves, empty if the game is over
+         */
+        public List<MoveAnalysis> getMoves() {
+            return moves;
+        }
+
+        /**
+         * Gets the best move.
+         * @return the best move, or null if the game is over
+         */
+        public MoveAnalysis getBestMove() {
+            return moves.isEmpty() ? null : moves.get(0);
+        }
+    }
+
+    /**
+     * One legal move and what it leads to under perfect play.
+     */
+    public static final class MoveAnalysis {
+        private final int row;
+        private final int col;
+        private final Tablebase.Value value;
+        private final int depth;
+        private final int[][] principalVariation;
+
+        private MoveAnalysis(int row, int col, Tablebase.Value value, int depth, int[][] principalVariation) {
+            this.row = row;
+            this.col = col;
+            this.value = value;
+            this.depth = depth;
+            this.principalVariation = principalVariation;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getCol() {
+            return col;
+        }
+
+        /**
+         * Gets the value of the move for the player making it.
+         * @return the win/draw/loss value
+         */
+        public Tablebase.Value getValue() {
+            return value;
+        }
+
+        /**
+         * Gets the number of plies until the game ends, counting this move.
+         * @return the depth to the end of the game
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Gets the moves of perfect play from this move to the end of the game.
+         * @return {row, column} pairs starting with this move
+         */
+        public int[][] getPrincipalVariation() {
+            int[][] copy = new int[principalVariation.length][];
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = principalVariation[i].clone();
+            }
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package lib.src.main;
+
+/**
+ * Solves single positions of an m,n,k game exactly, with the same win/draw/loss and
+ * depth-to-end values as a {@link Tablebase}, but only for positions reachable from the one asked
+ * about. Every solved position is remembered in an open-addressing table keyed by its base-3
+ * index, so transpositions are solved once and later queries reuse earlier work. This reaches
+ * boards too large for a dense tablebase index, one subtree at a time; {@link ShardedSolver}
+ * splits a whole board into such subtrees across processes.
+ * A solver is not thread-safe; use one per thread.
+ */
+public final class PositionSolver {
+    /** The largest board whose base-3 position index fits in a {@code long}. */
+    public static final int MAX_CELLS = 39;
+
+    private static final int INITIAL_CAPACITY = 1 << 12;
+
+    private final BoardGeometry geometry;
+    private final long[] powers;
+    // open addressing; a key is stored plus one so that zero marks an empty slot
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private byte[] entries = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Creates a solver for a board geometry.
+     * @param geometry the board
+     * @throws IllegalArgumentException if the board has more than {@link #MAX_CELLS} cells
+     */
+    public PositionSolver(BoardGeometry geometry) {
+        if (geometry.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("Board " + geometry + " is too large to solve, at most " + MAX_CELLS + " cells");
+        }
+        this.geometry = geometry;
+        this.powers = powersOfThree(geometry.getCellCount());
+    }
+
+    static long[] powersOfThree(int cells) {
+        long[] powers = new long[cells];
+        long power = 1;
+        for (int i = 0; i < cells; i++) {
+            powers[i] = power;
+            power *= 3;
+        }
+        return powers;
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Gets the number of positions solved and remembered so far.
+     * @return the table size
+     */
+    public int getSolvedPositions() {
+        return size;
+    }
+
+    /**
+     * Solves a position and returns its value for the side to move.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the value, or {@link Tablebase.Value#INVALID} if the position cannot occur
+     */
+    public Tablebase.Value value(long xMask, long oMask) {
+        return Tablebase.valueOf(solve(xMask, oMask));
+    }
+
+    /**
+     * Solves a position and returns the number of plies until the game ends under perfect play.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the depth to the end, 0 for finished or impossible positions
+     */
+    public int depth(long xMask, long oMask) {
+        return Tablebase.depthOf(solve(xMask, oMask));
+    }
+
+    /**
+     * Solves a position.
+     * @return the packed tablebase entry
+     */
+    byte solve(long xMask, long oMask) {
+        if ((xMask & oMask) != 0 || ((xMask | oMask) & ~geometry.fullMask()) != 0) {
+            return Tablebase.pack(Tablebase.Value.INVALID, 0);
+        }
+        int xCount = Long.bitCount(xMask);
+        int oCount = Long.bitCount(oMask);
+        if (xCount != oCount && xCount != oCount + 1) {
+            return Tablebase.pack(Tablebase.Value.INVALID, 0);
+        }
+        boolean xToMove = xCount == oCount;
+        if (geometry.isWin(xToMove ? xMask : oMask)) {
+            return Tablebase.pack(Tablebase.Value.INVALID, 0);
+        }
+        if (geometry.isWin(xToMove ? oMask : xMask)) {
+            return Tablebase.pack(Tablebase.Value.LOSS, 0);
+        }
+        return search(xMask, oMask, key(powers, xMask, oMask), xToMove);
+    }
+
+    /**
+     * Solves a position the previous player has not won, combining the children the way
+     * {@link TablebaseGenerator} does: the quickest win, else the longest draw, else the longest loss.
+     */
+    private byte search(long xMask, long oMask, long key, boolean xToMove) {
+        long empty = geometry.fullMask() & ~(xMask | oMask);
+        if (empty == 0) {
+            return Tablebase.pack(Tablebase.Value.DRAW, 0);
+        }
+        int slot = find(key);
+        if (keys[slot] != 0) {
+            return entries[slot];
+        }
+
+        int winDepth = Integer.MAX_VALUE;
+        int drawDepth = -1;
+        int lossDepth = -1;
+        long stride = xToMove ? 1 : 2;
+        for (long bits = empty; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            long bit = 1L << cell;
+            long x = xToMove ? xMask | bit : xMask;
+            long o = xToMove ? oMask : oMask | bit;
+            if (geometry.isWinThrough(xToMove ? x : o, cell)) {
+                winDepth = 0;
+                break;
+            }
+            byte child = search(x, o, key + stride * powers[cell], !xToMove);
+            int depth = Tablebase.depthOf(child);
+            switch (Tablebase.valueOf(child)) {
+                case LOSS:
+                    winDepth = Math.min(winDepth, depth);
+                    break;
+                case DRAW:
+                    drawDepth = Math.max(drawDepth, depth);
+                    break;
+                case WIN:
+                    lossDepth = Math.max(lossDepth, depth);
+                    break;
+                default:
+                    break;
+            }
+        }
+        byte entry;
+        if (winDepth != Integer.MAX_VALUE) {
+            entry = Tablebase.pack(Tablebase.Value.WIN, winDepth + 1);
+        } else if (drawDepth >= 0) {
+            entry = Tablebase.pack(Tablebase.Value.DRAW, drawDepth + 1);
+        } else {
+            entry = Tablebase.pack(Tablebase.Value.LOSS, lossDepth + 1);
+        }
+        store(key, entry);
+        return entry;
+    }
+
+    /**
+     * Computes the base-3 index of a position: cell c adds 3^c for X and 2 * 3^c for O.
+     */
+    static long key(long[] powers, long xMask, long oMask) {
+        long key = 0;
+        for (long bits = xMask; bits != 0; bits &= bits - 1) {
+            key += powers[Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = oMask; bits != 0; bits &= bits - 1) {
+            key += 2 * powers[Long.numberOfTrailingZeros(bits)];
+        }
+        return key;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot where it belongs.
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(keys.length)));
+        while (keys[slot] != 0 && keys[slot] != key + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void store(long key, byte entry) {
+        if (size + 1 > keys.length / 2) {
+            grow();
+        }
+        int slot = find(key);
+        keys[slot] = key + 1;
+        entries[slot] = entry;
+        size++;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        byte[] oldEntries = entries;
+        keys = new long[oldKeys.length * 2];
+        entries = new byte[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i] - 1);
+                keys[slot] = oldKeys[i];
+                entries[slot] = oldEntries[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package lib.src.main;
+
+import java.util.Arrays;
+
+/**
+ * Proves or disproves that one side can force a win, using proof-number search.
+ * The search always expands the most-proving leaf of an explicit tree, so effort goes to the
+ * cheapest forcing line instead of being spread evenly as in alpha-beta. Memory is bounded:
+ * once a node is solved its subtree is discarded (only its result and proof size are kept, in a
+ * fixed-size transposition table), and the search gives up when the live tree reaches its node limit.
+ */
+public final class ProofNumberSolver {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int PROBES = 4;
+
+    public enum Result {
+        /** The attacker can force a win. */
+        PROVEN,
+        /** The defender can always avoid losing. */
+        DISPROVEN,
+        /** The node limit was reached before the position was solved. */
+        UNKNOWN
+    }
+
+    /**
+     * The outcome of a solve together with its cost.
+     */
+    public static final class Solution {
+        private final Result result;
+        private final long proofTreeSize;
+        private final long nodesCreated;
+        private final int winningCell;
+
+        Solution(Result result, long proofTreeSize, long nodesCreated, int winningCell) {
+            this.result = result;
+            this.proofTreeSize = proofTreeSize;
+            this.nodesCreated = nodesCreated;
+            this.winningCell = winningCell;
+        }
+
+        public Result getResult() {
+            return result;
+        }
+
+        /**
+         * Gets the number of nodes in the proof (or disproof) tree, or 0 if the result is unknown.
+         * @return the proof tree size
+         */
+        public long getProofTreeSize() {
+            return proofTreeSize;
+        }
+
+        /**
+         * Gets the number of nodes the search generated.
+         * @return the node count
+         */
+        public long getNodesCreated() {
+            return nodesCreated;
+        }
+
+        /**
+         * Gets the cell that starts the forced win when the attacker is to move and the result is proven.
+         * @return the winning cell, or -1 if there is none
+         */
+        public int getWinningCell() {
+            return winningCell;
+        }
+
+        @Override
+        public String toString() {
+            return result + " (proof tree " + proofTreeSize + " nodes, " + nodesCreated + " generated)";
+        }
+    }
+
+    private static final class Node {
+        final long xMask;
+        final long oMask;
+        final int cell;
+        final boolean orNode;
+        final Node parent;
+        int proof = 1;
+        int disproof = 1;
+        long proofSize;
+        Node[] children;
+
+        Node(long xMask, long oMask, int cell, boolean orNode, Node parent) {
+            this.xMask = xMask;
+            this.oMask = oMask;
+            this.cell = cell;
+            this.orNode = orNode;
+            this.parent = parent;
+        }
+
+        boolean isSolved() {
+            return proof == 0 || disproof == 0;
+        }
+    }
+
+    private final BoardGeometry geometry;
+    private final int maxNodes;
+    private final long[] tableX;
+    private final long[] tableO;
+    private final long[] tableEntry; // proofSize << 1 | proven, or 0 when empty
+    private long liveNodes;
+    private long nodesCreated;
+    private int winningCell;
+
+    /**
+     * Creates a solver for a board geometry.
+     * @param geometry  the board to solve on
+     * @param maxNodes  the largest number of live tree nodes before the search gives up
+     * @param tableSize the number of transposition table entries (rounded up to a power of two)
+     */
+    public ProofNumberSolver(BoardGeometry geometry, int maxNodes, int tableSize) {
+        if (maxNodes < 1 || tableSize < 1) {
+            throw new IllegalArgumentException("Node limit and table size must be positive");
+        }
+        this.geometry = geometry;
+        this.maxNodes = maxNodes;
+        int capacity = Integer.highestOneBit(Math.max(PROBES, tableSize - 1) << 1);
+        this.tableX = new long[capacity];
+        this.tableO = new long[capacity];
+        this.tableEntry = new long[capacity];
+    }
+
+    /**
+     * Creates a solver for the standard 3x3 board with generous limits.
+     */
+    public ProofNumberSolver() {
+        this(BoardGeometry.STANDARD, 1 << 20, 1 << 16);
+    }
+
+    /**
+     * Decides whether the attacker can force a win from a game's current position.
+     * @param game     the game, which must use the standard board
+     * @param attacker the side trying to win ('X' or 'O')
+     * @return the solution
+     */
+    public Solution solve(Game game, char attacker) {
+        return solve(game.getBoard(), attacker);
+    }
+
+    /**
+     * Decides whether the attacker can force a win from a board position.
+     * The side to move is X when both sides have the same number of marks, otherwise O.
+     * @param board    the board, which must use the standard geometry of this solver
+     * @param attacker the side trying to win ('X' or 'O')
+     * @return the solution
+     */
+    public Solution solve(Board board, char attacker) {
+        if (geometry.getRows() != 3 || geometry.getCols() != 3 || geometry.getWinLength() != 3) {
+            throw new IllegalArgumentException("Solver for " + geometry + " cannot be used on a 3x3 board");
+        }
+        return solve(board.getMask('X'), board.getMask('O'), attacker);
+    }
+
+    /**
+     * Decides whether the attacker can force a win from a position given as bitmasks.
+     * @param xMask    the cells holding X
+     * @param oMask    the cells holding O
+     * @param attacker the side trying to win ('X' or 'O')
+     * @return the solution
+     */
+    public Solution solve(long xMask, long oMask, char attacker) {
+        if (attacker != 'X' && attacker != 'O') {
+            throw new IllegalArgumentException("Attacker must be 'X' or 'O', got: " + attacker);
+        }
+        Arrays.fill(tableEntry, 0L);
+        liveNodes = 1;
+        nodesCreated = 1;
+        winningCell = -1;
+
+        boolean xToMove = Long.bitCount(xMask) == Long.bitCount(oMask);
+        boolean attackerToMove = xToMove == (attacker == 'X');
+        Node root = new Node(xMask, oMask, -1, attackerToMove, null);
+        long attackerMask = attacker == 'X' ? xMask : oMask;
+        long defenderMask = attacker == 'X' ? oMask : xMask;
+        if (geometry.isWin(attackerMask)) {
+            return new Solution(Result.PROVEN, 1, nodesCreated, -1);
+        }
+        if (geometry.isWin(defenderMask) || ((xMask | oMask) == geometry.fullMask())) {
+            return new Solution(Result.DISPROVEN, 1, nodesCreated, -1);
+        }
+
+        while (!root.isSolved() && liveNodes < maxNodes) {
+            Node leaf = root;
+            while (leaf.children != null) {
+                leaf = mostProvingChild(leaf);
+            }
+            expand(leaf, attacker);
+            updateAncestors(leaf);
+        }
+
+        if (!root.isSolved()) {
+            return new Solution(Result.UNKNOWN, 0, nodesCreated, -1);
+        }
+        Result result = root.proof == 0 ? Result.PROVEN : Result.DISPROVEN;
+        return new Solution(result, root.proofSize, nodesCreated, winningCell);
+    }
+
+    private Node mostProvingChild(Node node) {
+        Node best = null;
+        for (Node child : node.children) {
+            if (best == null
+                    || (node.orNode ? child.proof < best.proof : child.disproof < best.disproof)) {
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    private void expand(Node node, char attacker) {
+        boolean xToMove = Long.bitCount(node.xMask) == Long.bitCount(node.oMask);
+        char mover = xToMove ? 'X' : 'O';
+        long empty = geometry.fullMask() & ~(node.xMask | node.oMask);
+        Node[] children = new Node[Long.bitCount(empty)];
+        int n = 0;
+        for (long bits = empty; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            long x = xToMove ? node.xMask | (1L << cell) : node.xMask;
+            long o = xToMove ? node.oMask : node.oMask | (1L << cell);
+            Node child = new Node(x, o, cell, !node.orNode, node);
+            if (geometry.isWinThrough(xToMove ? x : o, cell)) {
+                markSolved(child, mover == attacker, 1);
+            } else if ((x | o) == geometry.fullMask()) {
+                markSolved(child, false, 1);
+            } else {
+                long entry = probe(x, o);
+                if (entry != 0) {
+                    markSolved(child, (entry & 1) != 0, entry >>> 1);
+                }
+            }
+            children[n++] = child;
+        }
+        node.children = children;
+        liveNodes += children.length;
+        nodesCreated += children.length;
+    }
+
+    private static void markSolved(Node node, boolean proven, long proofSize) {
+        node.proof = proven ? 0 : INFINITY;
+        node.disproof = proven ? INFINITY : 0;
+        node.proofSize = proofSize;
+    }
+
+    private void updateAncestors(Node node) {
+        while (node != null) {
+            int oldProof = node.proof;
+            int oldDisproof = node.disproof;
+            recompute(node);
+            if (node.isSolved()) {
+                solved(node);
+            } else if (node.proof == oldProof && node.disproof == oldDisproof) {
+                return;
+            }
+            node = node.parent;
+        }
+    }
+
+    /**
+     * Recomputes a node's proof and disproof numbers from its children.
+     */
+    private static void recompute(Node node) {
+        int min = INFINITY;
+        long sum = 0;
+        for (Node child : node.children) {
+            int minTerm = node.orNode ? child.proof : child.disproof;
+            int sumTerm = node.orNode ? child.disproof : child.proof;
+            min = Math.min(min, minTerm);
+            sum = Math.min((long) INFINITY, sum + sumTerm);
+        }
+        if (node.orNode) {
+            node.proof = min;
+            node.disproof = (int) sum;
+        } else {
+            node.disproof = min;
+            node.proof = (int) sum;
+        }
+    }
+
+    /**
+     * Records the size of a freshly solved node's proof tree, stores it in the table
+     * and releases its subtree.
+     */
+    private void solved(Node node) {
+        boolean proven = node.proof == 0;
+        // an OR node is proven (and an AND node disproven) by a single child; otherwise all children are needed
+        boolean singleChild = node.orNode == proven;
+        long size = singleChild ? Long.MAX_VALUE : 0;
+        Node decisive = null;
+        for (Node child : node.children) {
+            boolean childCounts = proven ? child.proof == 0 : child.disproof == 0;
+            if (!childCounts) continue;
+            if (singleChild) {
+                if (child.proofSize < size) {
+                    size = child.proofSize;
+                    decisive = child;
+                }
+            } else {
+                size += child.proofSize;
+            }
+        }
+        node.proofSize = size + 1;
+        if (node.parent == null) {
+            winningCell = (proven && node.orNode && decisive != null) ? decisive.cell : -1;
+        }
+        store(node.xMask, node.oMask, proven, node.proofSize);
+        release(node);
+    }
+
+    private void release(Node node) {
+        if (node.children == null) return;
+        for (Node child : node.children) {
+            release(child);
+        }
+        liveNodes -= node.children.length;
+        node.children = null;
+    }
+
+    private int slot(long xMask, long oMask) {
+        long h = xMask * 0x9E3779B97F4A7C15L ^ oMask * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h ^ (h >>> 29)) & (tableEntry.length - 1);
+    }
+
+    private long probe(long xMask, long oMask) {
+        int base = slot(xMask, oMask);
+        for (int i = 0; i < PROBES; i++) {
+            int s = (base + i) & (tableEntry.length - 1);
+            if (tableEntry[s] == 0) return 0;
+            if (tableX[s] == xMask && tableO[s] == oMask) return tableEntry[s];
+        }
+        return 0;
+    }
+
+    /**
+     * Stores a solved position, evicting the cheapest-to-recompute entry of its probe window when full.
+     */
+    private void store(long xMask, long oMask, boolean proven, long proofSize) {
+        int base = slot(xMask, oMask);
+        int victim = base;
+        for (int i = 0; i < PROBES; i++) {
+            int s = (base + i) & (tableEntry.length - 1);
+            if (tableEntry[s] == 0 || (tableX[s] == xMask && tableO[s] == oMask)) {
+                victim = s;
+                break;
+            }
+            if (tableEntry[s] < tableEntry[victim]) {
+                victim = s;
+            }
+        }
+        tableX[victim] = xMask;
+        tableO[victim] = oMask;
+        tableEntry[victim] = (proofSize << 1) | (proven ? 1 : 0);
+    }
+}
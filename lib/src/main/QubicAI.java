@@ -0,0 +1,175 @@
+package lib.src.main;
+
+/**
+ * Chooses Qubic moves with a depth-limited alpha-beta search.
+ * Each node scans the 76 lines once, which yields the evaluation and both players' threat
+ * cells (the empty cell of a line holding three of one player's marks and none of the other's).
+ * A player with a threat wins on the next move; a player facing two threats has lost; a player
+ * facing one must block it, and that forced reply is searched without using up depth, so the
+ * long chains of forcing moves that decide Qubic games are followed past the horizon.
+ * An instance reuses its move buffers, so it is not thread-safe; use one per thread.
+ */
+public final class QubicAI {
+    /** The score of a won game, less the plies needed to reach it. */
+    public static final int WIN_SCORE = 1_000_000;
+
+    // open lines holding one, two or three marks of only one player
+    private static final int[] WEIGHTS = {0, 1, 8, 64};
+    // cells on seven lines first, then the rest
+    private static final int[] ORDER = new int[QubicBoard.CELLS];
+
+    static {
+        int count = 0;
+        for (int cell = 0; cell < QubicBoard.CELLS; cell++) {
+            if (QubicBoard.linesThrough(cell) == 7) ORDER[count++] = cell;
+        }
+        for (int cell = 0; cell < QubicBoard.CELLS; cell++) {
+            if (QubicBoard.linesThrough(cell) != 7) ORDER[count++] = cell;
+        }
+    }
+
+    private final int depth;
+    private final int[][] moveBuffers = new int[QubicBoard.CELLS][QubicBoard.CELLS];
+    private long nodes;
+
+    /**
+     * Creates a search of the given depth.
+     * @param depth the number of plies to look ahead, at least 1
+     * @throws IllegalArgumentException if the depth is less than 1
+     */
+    public QubicAI(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1, got: " + depth);
+        }
+        this.depth = depth;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of positions visited by the searches so far.
+     * @return the node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Chooses the best move for the side to move.
+     * @param board the position; it is not modified
+     * @return the cell number ({@code layer * 16 + row * 4 + col}), or -1 if the game is over
+     */
+    public int selectMove(QubicBoard board) {
+        if (board.isGameOver()) return -1;
+        QubicBoard search = new QubicBoard(board);
+        int[] moves = moveBuffers[search.getPly()];
+        int count = orderMoves(search, moves);
+        int best = -1;
+        int alpha = -Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            search.play(moves[i]);
+            int score = -negamax(search, depth - 1, -Integer.MAX_VALUE, -alpha);
+            search.undo();
+            if (best < 0 || score > alpha) {
+                alpha = score;
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    private int negamax(QubicBoard board, int remaining, int alpha, int beta) {
+        nodes++;
+        int ply = board.getPly();
+        if (board.getWinner() != ' ') {
+            // the side that just moved won; prefer quicker wins
+            return -(WIN_SCORE - ply);
+        }
+        if (board.isFull()) return 0;
+
+        long mine = board.getMask(board.getCurrentMark());
+        long theirs = board.getMask(board.isXToMove() ? 'O' : 'X');
+        long empty = board.getEmptyMask();
+        long myThreats = 0;
+        long theirThreats = 0;
+        int score = 0;
+        for (int i = 0; i < QubicBoard.lineCount(); i++) {
+            long line = QubicBoard.line(i);
+            int m = Long.bitCount(line & mine);
+            int t = Long.bitCount(line & theirs);
+            if (t == 0) {
+                if (m == 3) myThreats |= line & empty;
+                score += WEIGHTS[m];
+            } else if (m == 0) {
+                if (t == 3) theirThreats |= line & empty;
+                score -= WEIGHTS[t];
+            }
+        }
+        if (myThreats != 0) return WIN_SCORE - (ply + 1);
+        if (Long.bitCount(theirThreats) >= 2) return -(WIN_SCORE - (ply + 2));
+        if (theirThreats != 0) {
+            board.play(Long.numberOfTrailingZeros(theirThreats));
+            int forced = -negamax(board, remaining, -beta, -alpha);
+            board.undo();
+            return forced;
+        }
+        if (remaining == 0) return score;
+
+        int[] moves = moveBuffers[ply];
+        int count = orderMoves(board, moves);
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            int value = -negamax(board, remaining - 1, -beta, -alpha);
+            board.undo();
+            if (value > alpha) {
+                alpha = value;
+                if (alpha >= beta) break;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Writes the empty cells into an array, those that make a new threat for the side to move first.
+     */
+    private static int orderMoves(QubicBoard board, int[] moves) {
+        long mine = board.getMask(board.getCurrentMark());
+        long theirs = board.getMask(board.isXToMove() ? 'O' : 'X');
+        long empty = board.getEmptyMask();
+        long attacking = 0;
+        for (int i = 0; i < QubicBoard.lineCount(); i++) {
+            long line = QubicBoard.line(i);
+            if ((line & theirs) == 0 && Long.bitCount(line & mine) == 2) attacking |= line & empty;
+        }
+        int count = 0;
+        for (long bits = attacking; bits != 0; bits &= bits - 1) {
+            moves[count++] = Long.numberOfTrailingZeros(bits);
+        }
+        for (int cell : ORDER) {
+            long bit = 1L << cell;
+            if ((empty & bit) != 0 && (attacking & bit) == 0) moves[count++] = cell;
+        }
+        return count;
+    }
+
+    /**
+     * Scores an unfinished position for the side to move by its open lines.
+     * @param board the position
+     * @return positive if the side to move stands better
+     */
+    public static int evaluate(QubicBoard board) {
+        long mine = board.getMask(board.getCurrentMark());
+        long theirs = board.getMask(board.isXToMove() ? 'O' : 'X');
+        int score = 0;
+        for (int i = 0; i < QubicBoard.lineCount(); i++) {
+            long line = QubicBoard.line(i);
+            int m = Long.bitCount(line & mine);
+            int t = Long.bitCount(line & theirs);
+            if (t == 0 && m < 4) score += WEIGHTS[m];
+            else if (m == 0 && t < 4) score -= WEIGHTS[t];
+        }
+        return score;
+    }
+}
@@ -0,0 +1,348 @@
+package lib.src.main;
+
+/**
+ * The position of a game of Qubic, 3D Tic-Tac-Toe on a 4x4x4 cube, packed for fast search.
+ * Four in a row along any of the 76 lines through the cube wins: 48 along an axis, 24 diagonals
+ * within a plane and 4 diagonals through the centre. A cell is numbered
+ * {@code layer * 16 + row * 4 + col}, so each player's marks fit in one {@code long}.
+ * Every line is precomputed as a mask, and each cell keeps the lines through it, so a move is
+ * checked against at most seven lines instead of all 76. Moves can be undone, so a search needs
+ * no copying.
+ */
+public final class QubicBoard {
+    /** The length of each side of the cube. */
+    public static final int SIZE = 4;
+    /** The number of cells, which is also the greatest number of legal moves. */
+    public static final int CELLS = 64;
+
+    private static final long[] LINES = buildLines();
+    private static final long[][] LINES_THROUGH = buildLinesThrough();
+
+    private long xMask;
+    private long oMask;
+    private boolean xToMove = true;
+    private char winner = ' ';
+    private final int[] history = new int[CELLS];
+    private int ply;
+
+    /**
+     * Creates an empty board with X to move.
+     */
+    public QubicBoard() {
+    }
+
+    /**
+     * Creates a copy of a board, including its move history.
+     * @param other the board to copy
+     */
+    public QubicBoard(QubicBoard other) {
+        xMask = other.xMask;
+        oMask = other.oMask;
+        xToMove = other.xToMove;
+        winner = other.winner;
+        System.arraycopy(other.history, 0, history, 0, other.ply);
+        ply = other.ply;
+    }
+
+    private static long[] buildLines() {
+        long[] lines = new long[76];
+        int count = 0;
+        // each of the 13 directions with steps in {-1, 0, 1}, taken once
+        for (int dl = 0; dl <= 1; dl++) {
+            for (int dr = -1; dr <= 1; dr++) {
+                for (int dc = -1; dc <= 1; dc++) {
+                    if (dl == 0 && (dr < 0 || (dr == 0 && dc <= 0))) continue;
+                    for (int start = 0; start < CELLS; start++) {
+                        int l = start / 16;
+                        int r = (start / 4) % 4;
+                        int c = start % 4;
+                        if (!inside(l + 3 * dl) || !inside(r + 3 * dr) || !inside(c + 3 * dc)) continue;
+                        long line = 0;
+                        for (int i = 0; i < SIZE; i++) {
+                            line |= 1L << cell(l + i * dl, r + i * dr, c + i * dc);
+                        }
+                        lines[count++] = line;
+                    }
+                }
+            }
+        }
+        return lines;
+    }
+
+    private static boolean inside(int coordinate) {
+        return coordinate >= 0 && coordinate < SIZE;
+    }
+
+    private static long[][] buildLinesThrough() {
+        long[][] through = new long[CELLS][];
+        for (int cell = 0; cell < CELLS; cell++) {
+            int count = 0;
+            for (long line : LINES) {
+                if ((line & (1L << cell)) != 0) count++;
+            }
+            through[cell] = new long[count];
+            count = 0;
+            for (long line : LINES) {
+                if ((line & (1L << cell)) != 0) through[cell][count++] = line;
+            }
+        }
+        return through;
+    }
+
+    /**
+     * Converts coordinates to a cell number.
+     * @param layer the layer index (0-3)
+     * @param row   the row index (0-3)
+     * @param col   the column index (0-3)
+     * @return the cell number (0-63)
+     */
+    public static int cell(int layer, int row, int col) {
+        return layer * 16 + row * 4 + col;
+    }
+
+    /**
+     * Gets the number of winning lines.
+     * @return 76
+     */
+    public static int lineCount() {
+        return LINES.length;
+    }
+
+    /**
+     * Gets the cells of a winning line.
+     * @param index the line index (0-75)
+     * @return a mask of the line's four cells
+     */
+    public static long line(int index) {
+        return LINES[index];
+    }
+
+    /**
+     * Gets the number of winning lines through a cell: seven for the corners and the eight
+     * centre cells, four for the rest.
+     * @param cell the cell number (0-63)
+     * @return the number of lines
+     */
+    public static int linesThrough(int cell) {
+        return LINES_THROUGH[cell].length;
+    }
+
+    /**
+     * Checks if a player's marks complete a line through a cell; after a move this is the only
+     * check needed, since no other line has changed.
+     * @param mask the player's cells
+     * @param cell the cell just played
+     * @return true if a line through the cell is complete
+     */
+    public static boolean isWinThrough(long mask, int cell) {
+        for (long line : LINES_THROUGH[cell]) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a player's marks complete any of the 76 lines.
+     * @param mask the player's cells
+     * @return true if a line is complete
+     */
+    public static boolean isWin(long mask) {
+        for (long line : LINES) {
+            if ((mask & line) == line) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes every legal move into an array.
+     * @param moves receives the cell numbers; must hold at least {@link #CELLS} entries
+     * @return the number of legal moves, 0 if the game is over
+     */
+    public int generateMoves(int[] moves) {
+        if (winner != ' ') return 0;
+        int count = 0;
+        for (long empty = getEmptyMask(); empty != 0; empty &= empty - 1) {
+            moves[count++] = Long.numberOfTrailingZeros(empty);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if a move is legal.
+     * @param cell the cell number (0-63)
+     * @return true if the game is not over and the cell is empty
+     */
+    public boolean isLegal(int cell) {
+        return winner == ' ' && cell >= 0 && cell < CELLS && ((xMask | oMask) & (1L << cell)) == 0;
+    }
+
+    /**
+     * Plays a move for the side to move.
+     * @param cell the cell number (0-63)
+     * @throws IllegalArgumentException if the move is not legal
+     */
+    public void play(int cell) {
+        if (!isLegal(cell)) {
+            throw new IllegalArgumentException("Illegal move: cell " + cell);
+        }
+        history[ply++] = cell;
+        long bit = 1L << cell;
+        if (xToMove) {
+            xMask |= bit;
+            if (isWinThrough(xMask, cell)) winner = 'X';
+        } else {
+            oMask |= bit;
+            if (isWinThrough(oMask, cell)) winner = 'O';
+        }
+        xToMove = !xToMove;
+    }
+
+    /**
+     * Takes back the last move.
+     * @throws IllegalStateException if no move has been played
+     */
+    public void undo() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        long bit = 1L << history[--ply];
+        xToMove = !xToMove;
+        if (xToMove) xMask &= ~bit;
+        else oMask &= ~bit;
+        // the game was still going before the move
+        winner = ' ';
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree to a fixed depth, for testing and benchmarking move generation.
+     * @param depth the number of plies
+     * @return the number of legal move sequences of exactly that length
+     */
+    public long perft(int depth) {
+        return perft(depth, new int[depth + 1][CELLS]);
+    }
+
+    private long perft(int depth, int[][] buffers) {
+        if (depth == 0) return 1;
+        int[] moves = buffers[depth];
+        int count = generateMoves(moves);
+        if (depth == 1) return count;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            play(moves[i]);
+            nodes += perft(depth - 1, buffers);
+            undo();
+        }
+        return nodes;
+    }
+
+    public boolean isXToMove() {
+        return xToMove;
+    }
+
+    /**
+     * Gets the mark of the player to move.
+     * @return 'X' or 'O'
+     */
+    public char getCurrentMark() {
+        return xToMove ? 'X' : 'O';
+    }
+
+    /**
+     * Gets a player's cells.
+     * @param mark 'X' or 'O'
+     * @return a mask of the cells holding the mark
+     */
+    public long getMask(char mark) {
+        return (mark == 'X') ? xMask : oMask;
+    }
+
+    /**
+     * Gets the empty cells.
+     * @return a mask of the cells holding no mark
+     */
+    public long getEmptyMask() {
+        return ~(xMask | oMask);
+    }
+
+    /**
+     * Checks if coordinates are on the board.
+     * @param layer the layer index
+     * @param row   the row index
+     * @param col   the column index
+     * @return true if all three are between 0 and 3
+     */
+    public boolean isValidPosition(int layer, int row, int col) {
+        return inside(layer) && inside(row) && inside(col);
+    }
+
+    /**
+     * Gets the mark in a cell.
+     * @param layer the layer index (0-3)
+     * @param row   the row index (0-3)
+     * @param col   the column index (0-3)
+     * @return 'X', 'O' or ' '
+     * @throws IllegalArgumentException if the position is invalid
+     */
+    public char getMark(int layer, int row, int col) {
+        if (!isValidPosition(layer, row, col)) {
+            throw new IllegalArgumentException("Invalid position: (" + layer + ", " + row + ", " + col + ")");
+        }
+        long bit = 1L << cell(layer, row, col);
+        if ((xMask & bit) != 0) return 'X';
+        if ((oMask & bit) != 0) return 'O';
+        return ' ';
+    }
+
+    /**
+     * Gets the winner of the game.
+     * @return 'X' or 'O', or ' ' if nobody has won
+     */
+    public char getWinner() {
+        return winner;
+    }
+
+    /**
+     * Checks if every cell is occupied.
+     * @return true if the board is full
+     */
+    public boolean isFull() {
+        return (xMask | oMask) == -1L;
+    }
+
+    /**
+     * Checks if the game is over: won, or with no empty cell left.
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return winner != ' ' || isFull();
+    }
+
+    /**
+     * Gets the number of moves played.
+     * @return the ply count
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Returns the four layers side by side, layer 0 on the left.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < SIZE; row++) {
+            for (int layer = 0; layer < SIZE; layer++) {
+                if (layer > 0) sb.append("  |  ");
+                for (int col = 0; col < SIZE; col++) {
+                    char mark = getMark(layer, row, col);
+                    sb.append(mark == ' ' ? '.' : mark);
+                    if (col < SIZE - 1) sb.append(' ');
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
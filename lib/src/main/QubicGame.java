@@ -0,0 +1,104 @@
+package lib.src.main;
+
+/**
+ * Manages a game of Qubic (4x4x4 Tic-Tac-Toe) between two players.
+ * Like {@link Game}, it tracks turns and the game state; the position itself is a {@link QubicBoard}.
+ */
+public class QubicGame {
+    private final QubicBoard board = new QubicBoard();
+    private final Player playerX;
+    private final Player playerO;
+
+    /**
+     * Creates a new game with the specified players.
+     * @param playerX the player who will use 'X' marks
+     * @param playerO the player who will use 'O' marks
+     * @throws IllegalArgumentException if either player is null or has the wrong mark
+     */
+    public QubicGame(Player playerX, Player playerO) {
+        if (playerX == null || playerO == null) {
+            throw new IllegalArgumentException("Players cannot be null");
+        }
+        if (playerX.getMark() != 'X' || playerO.getMark() != 'O') {
+            throw new IllegalArgumentException("Player X must have mark 'X' and Player O must have mark 'O'");
+        }
+        this.playerX = playerX;
+        this.playerO = playerO;
+    }
+
+    /**
+     * Makes a move for the current player.
+     * @param layer the layer index (0-3)
+     * @param row   the row index (0-3)
+     * @param col   the column index (0-3)
+     * @return true if the move was made, false if the game is already over
+     * @throws IllegalArgumentException if the position is invalid or occupied
+     */
+    public boolean makeMove(int layer, int row, int col) {
+        if (isGameOver()) {
+            return false;
+        }
+        if (!board.isValidPosition(layer, row, col)) {
+            throw new IllegalArgumentException("Invalid position: (" + layer + ", " + row + ", " + col + ")");
+        }
+        board.play(QubicBoard.cell(layer, row, col));
+        return true;
+    }
+
+    /**
+     * Gets the current state of the game.
+     * @return the current game state
+     */
+    public Game.GameState getGameState() {
+        if (board.getWinner() != ' ') return Game.GameState.WON;
+        if (board.isFull()) return Game.GameState.TIED;
+        return Game.GameState.IN_PROGRESS;
+    }
+
+    /**
+     * Checks if the game is over.
+     * @return true if the game is won or tied
+     */
+    public boolean isGameOver() {
+        return board.isGameOver();
+    }
+
+    /**
+     * Gets the player whose turn it is.
+     * @return the current player
+     */
+    public Player getCurrentPlayer() {
+        return board.isXToMove() ? playerX : playerO;
+    }
+
+    /**
+     * Gets the winner of the game.
+     * @return the winning player, or null if the game is tied or still in progress
+     */
+    public Player getWinner() {
+        char winner = board.getWinner();
+        if (winner == ' ') return null;
+        return (winner == 'X') ? playerX : playerO;
+    }
+
+    /**
+     * Gets the board; use it to read the position, not to play.
+     * @return the game board
+     */
+    public QubicBoard getBoard() {
+        return board;
+    }
+
+    public Player getPlayerX() {
+        return playerX;
+    }
+
+    public Player getPlayerO() {
+        return playerO;
+    }
+
+    @Override
+    public String toString() {
+        return "Current player: " + getCurrentPlayer().getName() + "\n" + board;
+    }
+}
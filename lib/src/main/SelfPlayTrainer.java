@@ -0,0 +1,330 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Learns a {@link ValueTable} by playing games against itself on any board geometry the table
+ * covers, so variants without a hand-written heuristic still get a computer opponent.
+ * Worker threads each play their own games on bitmasks, choosing the move whose resulting position
+ * the table rates best for the mover, or a random move with probability epsilon. After each game
+ * every position it passed through is moved towards the value of the best reply from it, walking
+ * back from the end so a result reaches the opening in one game. All workers update one shared
+ * table with lock-free compare-and-set. Because targets use the best reply rather than the move
+ * actually played, exploration does not bias the values, which converge to perfect play.
+ */
+public final class SelfPlayTrainer {
+    /** A learning rate that converges on 3x3 in about 100,000 games. */
+    public static final float DEFAULT_ALPHA = 0.5f;
+    /** Enough exploration to visit every reachable position regularly. */
+    public static final double DEFAULT_EPSILON = 0.5;
+
+    private static final long SEED = 0x5E1F91A7L;
+
+    private final ValueTable table;
+    private final float alpha;
+    private final double epsilon;
+    private final AtomicLong gamesPlayed = new AtomicLong();
+
+    /**
+     * Creates a trainer.
+     * @param table   the table to train; its geometry is the board the games are played on
+     * @param alpha   the learning rate, in (0, 1]
+     * @param epsilon the probability of exploring with a random move, in [0, 1]
+     * @throws IllegalArgumentException if a rate is out of range
+     */
+    public SelfPlayTrainer(ValueTable table, float alpha, double epsilon) {
+        if (!(alpha > 0 && alpha <= 1) || !(epsilon >= 0 && epsilon <= 1)) {
+            throw new IllegalArgumentException("Alpha must be in (0, 1] and epsilon in [0, 1], got: " + alpha + ", " + epsilon);
+        }
+        this.table = table;
+        this.alpha = alpha;
+        this.epsilon = epsilon;
+    }
+
+    public ValueTable getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the number of training games played so far.
+     * @return the game count
+     */
+    public long getGamesPlayed() {
+        return gamesPlayed.get();
+    }
+
+    /**
+     * Plays training games across several threads and waits for them to finish.
+     * If the calling thread is interrupted, the workers stop after their current game and are
+     * joined before this method returns with the interrupt flag set.
+     * @param games   the number of games to play
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if either count is not positive
+     */
+    public void train(int games, int threads) {
+        if (games < 1 || threads < 1) {
+            throw new IllegalArgumentException("Games and threads must be positive, got: " + games + ", " + threads);
+        }
+        Thread[] workers = new Thread[threads];
+        long round = gamesPlayed.get();
+        for (int t = 0; t < threads; t++) {
+            int share = games / threads + (t < games % threads ? 1 : 0);
+            SplittableRandom random = new SplittableRandom(SEED + round * 31 + t);
+            workers[t] = new Thread(() -> playGames(share, random), "self-play-" + t);
+            workers[t].start();
+        }
+        boolean interrupted = false;
+        for (Thread worker : workers) {
+            while (true) {
+                try {
+                    worker.join();
+                    break;
+                } catch (InterruptedException e) {
+                    if (!interrupted) {
+                        interrupted = true;
+                        for (Thread other : workers) {
+                            other.interrupt();
+                        }
+                    }
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void playGames(int games, SplittableRandom random) {
+        BoardGeometry geometry = table.getGeometry();
+        long full = geometry.fullMask();
+        long[] xs = new long[geometry.getCellCount()];
+        long[] os = new long[geometry.getCellCount()];
+        for (int g = 0; g < games && !Thread.currentThread().isInterrupted(); g++) {
+            long x = 0;
+            long o = 0;
+            int plies = 0;
+            char mark = 'X';
+            while (true) {
+                int cell = (random.nextDouble() < epsilon) ? randomCell(~(x | o) & full, random) : greedyCell(table, x, o, mark);
+                if (mark == 'X') x |= 1L << cell;
+                else o |= 1L << cell;
+                xs[plies] = x;
+                os[plies] = o;
+                plies++;
+                if (geometry.isWinThrough(mark == 'X' ? x : o, cell) || (x | o) == full) {
+                    break;
+                }
+                mark = (mark == 'X') ? 'O' : 'X';
+            }
+            // the last position is terminal and always valued exactly
+            for (int i = plies - 2; i >= 0; i--) {
+                char next = (i % 2 == 0) ? 'O' : 'X';
+                table.update(table.index(xs[i], os[i]), bestReplyValue(table, xs[i], os[i], next), alpha);
+            }
+            gamesPlayed.incrementAndGet();
+        }
+    }
+
+    private static int randomCell(long empty, SplittableRandom random) {
+        for (int skip = random.nextInt(Long.bitCount(empty)); skip > 0; skip--) {
+            empty &= empty - 1;
+        }
+        return Long.numberOfTrailingZeros(empty);
+    }
+
+    /**
+     * Gets the value of a position, exact for finished games and learned otherwise.
+     */
+    static float positionValue(ValueTable table, long x, long o) {
+        BoardGeometry geometry = table.getGeometry();
+        if (geometry.isWin(x)) return 1f;
+        if (geometry.isWin(o)) return -1f;
+        if ((x | o) == geometry.fullMask()) return 0f;
+        return table.get(table.index(x, o));
+    }
+
+    private static float bestReplyValue(ValueTable table, long x, long o, char mark) {
+        float best = (mark == 'X') ? -Float.MAX_VALUE : Float.MAX_VALUE;
+        for (long empty = ~(x | o) & table.getGeometry().fullMask(); empty != 0; empty &= empty - 1) {
+            long bit = empty & -empty;
+            float value = (mark == 'X') ? positionValue(table, x | bit, o) : positionValue(table, x, o | bit);
+            best = (mark == 'X') ? Math.max(best, value) : Math.min(best, value);
+        }
+        return best;
+    }
+
+    /**
+     * Chooses the move whose resulting position the table rates best for the mover.
+     * @param table the learned values
+     * @param x     the cells holding X
+     * @param o     the cells holding O
+     * @param mark  the mark to move ('X' or 'O')
+     * @return the cell to play, or -1 if the board is full
+     */
+    static int greedyCell(ValueTable table, long x, long o, char mark) {
+        int bestCell = -1;
+        float best = 0;
+        for (long empty = ~(x | o) & table.getGeometry().fullMask(); empty != 0; empty &= empty - 1) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            float value = (mark == 'X') ? positionValue(table, x | (1L << cell), o) : -positionValue(table, x, o | (1L << cell));
+            if (bestCell < 0 || value > best) {
+                best = value;
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Measures the learned play against the tablebase.
+     * @param perfect a tablebase for the table's geometry
+     * @param games   the number of games to play against a perfect opponent, half with each mark
+     * @param seed    the seed for the opponent's choice between equally good moves
+     * @return the results of the games and the share of positions where the learned move is optimal
+     * @throws IllegalArgumentException if the tablebase is for another geometry
+     */
+    public Evaluation evaluate(Tablebase perfect, int games, long seed) {
+        BoardGeometry geometry = table.getGeometry();
+        BoardGeometry other = perfect.getGeometry();
+        if (geometry.getRows() != other.getRows() || geometry.getCols() != other.getCols()
+                || geometry.getWinLength() != other.getWinLength()) {
+            throw new IllegalArgumentException("Tablebase is for " + other + ", table for " + geometry);
+        }
+        long full = geometry.fullMask();
+        SplittableRandom random = new SplittableRandom(seed);
+        int wins = 0;
+        int draws = 0;
+        int losses = 0;
+        for (int g = 0; g < games; g++) {
+            char learner = (g % 2 == 0) ? 'X' : 'O';
+            long x = 0;
+            long o = 0;
+            char mark = 'X';
+            while (!geometry.isWin(x) && !geometry.isWin(o) && (x | o) != full) {
+                int cell = (mark == learner) ? greedyCell(table, x, o, mark) : perfectCell(perfect, x, o, random);
+                if (mark == 'X') x |= 1L << cell;
+                else o |= 1L << cell;
+                mark = (mark == 'X') ? 'O' : 'X';
+            }
+            if (!geometry.isWin(x) && !geometry.isWin(o)) draws++;
+            else if (geometry.isWin(learner == 'X' ? x : o)) wins++;
+            else losses++;
+        }
+
+        int positions = 0;
+        int optimal = 0;
+        for (int index = 0; index < table.size(); index++) {
+            long x = 0;
+            long o = 0;
+            for (int cell = 0, rest = index; cell < geometry.getCellCount(); cell++, rest /= 3) {
+                if (rest % 3 == 1) x |= 1L << cell;
+                else if (rest % 3 == 2) o |= 1L << cell;
+            }
+            Tablebase.Value value = perfect.value(x, o);
+            if (value == Tablebase.Value.INVALID || perfect.depth(x, o) == 0) continue;
+            char mark = (Long.bitCount(x) == Long.bitCount(o)) ? 'X' : 'O';
+            int cell = greedyCell(table, x, o, mark);
+            Tablebase.Value after = (mark == 'X') ? perfect.value(x | (1L << cell), o) : perfect.value(x, o | (1L << cell));
+            positions++;
+            if (after == opposite(value)) optimal++;
+        }
+        return new Evaluation(wins, draws, losses, (double) optimal / positions);
+    }
+
+    /**
+     * Picks uniformly among the moves that keep the best value for the side to move.
+     */
+    private static int perfectCell(Tablebase perfect, long x, long o, SplittableRandom random) {
+        boolean xToMove = Long.bitCount(x) == Long.bitCount(o);
+        Tablebase.Value target = opposite(perfect.value(x, o));
+        int choices = 0;
+        int chosen = -1;
+        for (long empty = ~(x | o) & perfect.getGeometry().fullMask(); empty != 0; empty &= empty - 1) {
+            int cell = Long.numberOfTrailingZeros(empty);
+            Tablebase.Value after = xToMove ? perfect.value(x | (1L << cell), o) : perfect.value(x, o | (1L << cell));
+            // reservoir sampling keeps each optimal move equally likely
+            if (after == target && random.nextInt(++choices) == 0) chosen = cell;
+        }
+        return chosen;
+    }
+
+    private static Tablebase.Value opposite(Tablebase.Value value) {
+        switch (value) {
+            case WIN: return Tablebase.Value.LOSS;
+            case LOSS: return Tablebase.Value.WIN;
+            default: return value;
+        }
+    }
+
+    /**
+     * How learned play fares against perfect play.
+     */
+    public static final class Evaluation {
+        private final int wins;
+        private final int draws;
+        private final int losses;
+        private final double optimalMoveRate;
+
+        private Evaluation(int wins, int draws, int losses, double optimalMoveRate) {
+            this.wins = wins;
+            this.draws = draws;
+            this.losses = losses;
+            this.optimalMoveRate = optimalMoveRate;
+        }
+
+        public int getWins() {
+            return wins;
+        }
+
+        public int getDraws() {
+            return draws;
+        }
+
+        public int getLosses() {
+            return losses;
+        }
+
+        /**
+         * Gets the share of reachable, unfinished positions where the learned move keeps the best value.
+         * @return a rate between 0 and 1
+         */
+        public double getOptimalMoveRate() {
+            return optimalMoveRate;
+        }
+    }
+
+    /**
+     * Trains a table in rounds, reporting throughput and progress against perfect play, and saves it.
+     * Usage: {@code SelfPlayTrainer <games-per-round> <rounds> <output-file> [rows cols k]}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 && args.length != 6) {
+            System.err.println("Usage: SelfPlayTrainer <games-per-round> <rounds> <output-file> [rows cols k]");
+            System.exit(2);
+        }
+        int games = Integer.parseInt(args[0]);
+        int rounds = Integer.parseInt(args[1]);
+        Path output = Paths.get(args[2]);
+        BoardGeometry geometry = args.length == 6
+                ? new BoardGeometry(Integer.parseInt(args[3]), Integer.parseInt(args[4]), Integer.parseInt(args[5]))
+                : BoardGeometry.STANDARD;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Tablebase perfect = (args.length == 6) ? TablebaseGenerator.generate(geometry) : TableResources.standardTablebase();
+        SelfPlayTrainer trainer = new SelfPlayTrainer(new ValueTable(geometry), DEFAULT_ALPHA, DEFAULT_EPSILON);
+        for (int round = 1; round <= rounds; round++) {
+            long start = System.nanoTime();
+            trainer.train(games, threads);
+            long elapsed = System.nanoTime() - start;
+            Evaluation evaluation = trainer.evaluate(perfect, 1000, round);
+            System.out.printf("round %d: %.0f games/s, vs perfect %d/%d/%d (W/D/L), optimal moves %.1f%%%n",
+                    round, games * 1e9 / elapsed, evaluation.getWins(), evaluation.getDraws(), evaluation.getLosses(),
+                    evaluation.getOptimalMoveRate() * 100);
+        }
+        trainer.getTable().save(output);
+        System.out.println("Saved " + trainer.getGamesPlayed() + " games of training to " + output);
+    }
+}
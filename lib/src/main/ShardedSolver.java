@@ -0,0 +1,537 @@
+package lib.src.main;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solves a whole m,n,k board by splitting it across worker JVMs on the local host.
+ * The coordinator enumerates the distinct unfinished positions after a fixed number of opening
+ * plies (the prefix), splits them into one shard per worker, and runs each shard in a separate
+ * {@code java} process started with {@link ProcessBuilder}. A worker solves its positions with
+ * one {@link PositionSolver}, so its memory is its own, and streams compact binary records back
+ * over its standard output. The coordinator checks every stream against the positions it
+ * expects, runs a failed, truncated or (given a deadline) hung shard again up to a retry limit, merges the records into
+ * one result table and backs the values up through the prefix to the empty board.
+ * Subtrees below different prefix positions overlap, and a worker only shares its table with
+ * itself, so fewer, larger shards repeat less work than many small ones.
+ *
+ * <p>A worker's stream is a header ({@code int} magic, {@code int} shard, {@code int} count),
+ * then {@code count} records of a {@code long} base-3 position index and a one-byte packed
+ * tablebase entry, then a {@code long} of positions the worker solved in total.
+ */
+public final class ShardedSolver {
+    private static final int MAGIC = 0x53484152; // "SHAR"
+    private static final String WORKER_FLAG = "--worker";
+
+    private final BoardGeometry geometry;
+    private final int prefixPlies;
+    private final int workers;
+    private final int maxAttempts;
+    private final long[] powers;
+    private List<String> jvmOptions = Collections.emptyList();
+    private long attemptTimeoutNanos;
+
+    /**
+     * The merged values of the prefix positions and the statistics of a solve.
+     */
+    public static final class Result {
+        private final BoardGeometry geometry;
+        private final long[] powers;
+        private final Map<Long, Byte> entries;
+        private final int shards;
+        private final int frontierPositions;
+        private final long workerPositions;
+        private final int retries;
+        private final long elapsedNanos;
+
+        Result(BoardGeometry geometry, long[] powers, Map<Long, Byte> entries, int shards, int frontierPositions,
+               long workerPositions, int retries, long elapsedNanos) {
+            this.geometry = geometry;
+            this.powers = powers;
+            this.entries = entries;
+            this.shards = shards;
+            this.frontierPositions = frontierPositions;
+            this.workerPositions = workerPositions;
+            this.retries = retries;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public BoardGeometry getGeometry() {
+            return geometry;
+        }
+
+        /**
+         * Gets the value of a position within the prefix, for the side to move.
+         * @param xMask the cells holding X
+         * @param oMask the cells holding O
+         * @return the value, or {@link Tablebase.Value#INVALID} if the position is not an unfinished
+         *         position reachable within the prefix plies
+         */
+        public Tablebase.Value value(long xMask, long oMask) {
+            Byte entry = entries.get(PositionSolver.key(powers, xMask, oMask));
+            return (entry == null) ? Tablebase.Value.INVALID : Tablebase.valueOf(entry);
+        }
+
+        /**
+         * Gets the number of plies until the game ends under perfect play from a position within the prefix.
+         * @param xMask the cells holding X
+         * @param oMask the cells holding O
+         * @return the depth, or 0 if the position is not in the result
+         */
+        public int depth(long xMask, long oMask) {
+            Byte entry = entries.get(PositionSolver.key(powers, xMask, oMask));
+            return (entry == null) ? 0 : Tablebase.depthOf(entry);
+        }
+
+        /**
+         * Gets the value of the empty board.
+         * @return the value for X, who moves first
+         */
+        public Tablebase.Value getRootValue() {
+            return value(0L, 0L);
+        }
+
+        /**
+         * Gets the length of the game under perfect play.
+         * @return the depth of the empty board
+         */
+        public int getRootDepth() {
+            return depth(0L, 0L);
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        /**
+         * Gets the number of distinct unfinished positions at the end of the prefix, which the workers solved.
+         * @return the frontier size
+         */
+        public int getFrontierPositions() {
+            return frontierPositions;
+        }
+
+        /**
+         * Gets the number of positions the workers solved in total, each counted once per worker that met it.
+         * @return the sum of the workers' table sizes
+         */
+        public long getWorkerPositions() {
+            return workerPositions;
+        }
+
+        /**
+         * Gets the number of shard runs that failed and were started again.
+         * @return the retry count
+         */
+        public int getRetries() {
+            return retries;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %s in %d plies (%d shards, %d frontier positions, %d solved by workers, %d retries, %d ms)",
+                    geometry, getRootValue(), getRootDepth(), shards, frontierPositions, workerPositions, retries,
+                    elapsedNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Creates a coordinator.
+     * @param geometry    the board to solve
+     * @param prefixPlies the number of opening plies the coordinator expands before handing positions to workers
+     * @param workers     the number of worker JVMs running at once
+     * @param maxAttempts the number of times a shard is run before the solve fails
+     * @throws IllegalArgumentException if the board is too large or a count is out of range
+     */
+    public ShardedSolver(BoardGeometry geometry, int prefixPlies, int workers, int maxAttempts) {
+        if (geometry.getCellCount() > PositionSolver.MAX_CELLS) {
+            throw new IllegalArgumentException("Board " + geometry + " is too large to solve, at most "
+                    + PositionSolver.MAX_CELLS + " cells");
+        }
+        if (prefixPlies < 0 || prefixPlies >= geometry.getCellCount()) {
+            throw new IllegalArgumentException("Prefix must be between 0 and " + (geometry.getCellCount() - 1)
+                    + " plies, got: " + prefixPlies);
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be positive, got: " + workers);
+        }
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Attempt count must be positive, got: " + maxAttempts);
+        }
+        this.geometry = geometry;
+        this.prefixPlies = prefixPlies;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.powers = PositionSolver.powersOfThree(geometry.getCellCount());
+    }
+
+    /**
+     * Sets extra options for the worker JVMs, such as a heap size.
+     * @param options the options, placed before the main class on each worker's command line
+     */
+    public void setWorkerJvmOptions(String... options) {
+        this.jvmOptions = Arrays.asList(options.clone());
+    }
+
+    /**
+     * Limits how long one run of a shard may take. A worker still running at the deadline is
+     * killed and the shard counts as failed, so a worker that hangs is retried like one that crashes.
+     * @param timeout the time allowed per attempt, or zero for no limit (the default)
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public void setAttemptTimeout(Duration timeout) {
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("Attempt timeout must not be negative, got: " + timeout);
+        }
+        this.attemptTimeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * Runs the solve.
+     * @return the merged result
+     * @throws IOException if a shard still fails after the last attempt
+     * @throws InterruptedException if the calling thread is interrupted while waiting for workers
+     */
+    public Result solve() throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        long[] frontier = frontier(geometry, powers, prefixPlies);
+        int shards = Math.max(1, Math.min(frontier.length, workers));
+        AtomicInteger retries = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "shard-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<Long, Byte> entries = new HashMap<>();
+        long workerPositions = 0;
+        try {
+            List<Future<ShardOutput>> futures = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                long[] expected = shardPositions(frontier, shard, shards);
+                int index = shard;
+                futures.add(executor.submit(() -> runShard(index, shards, expected, retries, watchdog)));
+            }
+            for (Future<ShardOutput> future : futures) {
+                ShardOutput output = future.get();
+                for (int i = 0; i < output.keys.length; i++) {
+                    entries.put(output.keys[i], output.entries[i]);
+                }
+                workerPositions += output.solvedPositions;
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException(cause);
+        } finally {
+            executor.shutdownNow();
+            watchdog.shutdownNow();
+        }
+        backUp(0L, 0L, 0L, 0, entries);
+        return new Result(geometry, powers, entries, shards, frontier.length, workerPositions, retries.get(),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * The records of one successful shard run.
+     */
+    private static final class ShardOutput {
+        final long[] keys;
+        final byte[] entries;
+        final long solvedPositions;
+
+        ShardOutput(long[] keys, byte[] entries, long solvedPositions) {
+            this.keys = keys;
+            this.entries = entries;
+            this.solvedPositions = solvedPositions;
+        }
+    }
+
+    /**
+     * Runs a shard in a worker JVM, starting it again after a failure until the attempts run out.
+     * With an attempt timeout, the watchdog kills a worker that overruns it, which ends the
+     * blocked read or wait here with a failure.
+     */
+    private ShardOutput runShard(int shard, int shards, long[] expected, AtomicInteger retries,
+                                 ScheduledExecutorService watchdog) throws IOException, InterruptedException {
+        IOException failure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (attempt > 1) retries.incrementAndGet();
+            Process process = startWorker(shard, shards);
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> deadline = (attemptTimeoutNanos == 0) ? null : watchdog.schedule(() -> {
+                timedOut.set(true);
+                process.destroyForcibly();
+            }, attemptTimeoutNanos, TimeUnit.NANOSECONDS);
+            try {
+                ShardOutput output = read(process, shard, expected);
+                int exit = process.waitFor();
+                if (exit != 0) {
+                    throw new IOException("Worker exited with status " + exit);
+                }
+                if (timedOut.get()) {
+                    throw new IOException("Worker was killed at the deadline");
+                }
+                return output;
+            } catch (IOException e) {
+                failure = timedOut.get()
+                        ? new IOException("Worker timed out after " + attemptTimeoutNanos / 1_000_000 + " ms", e)
+                        : e;
+            } finally {
+                if (deadline != null) {
+                    deadline.cancel(false);
+                }
+                process.destroyForcibly();
+            }
+        }
+        throw new IOException("Shard " + shard + " failed after " + maxAttempts + " attempts: " + failure.getMessage(), failure);
+    }
+
+    private Process startWorker(int shard, int shards) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.addAll(jvmOptions);
+        command.add(ShardedSolver.class.getName());
+        command.add(WORKER_FLAG);
+        command.add(Integer.toString(geometry.getRows()));
+        command.add(Integer.toString(geometry.getCols()));
+        command.add(Integer.toString(geometry.getWinLength()));
+        command.add(Integer.toString(prefixPlies));
+        command.add(Integer.toString(shard));
+        command.add(Integer.toString(shards));
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectInput(ProcessBuilder.Redirect.PIPE)
+                .redirectError(ProcessBuilder.Redirect.INHERIT);
+        Process process = builder.start();
+        process.getOutputStream().close();
+        return process;
+    }
+
+    /**
+     * Reads a worker's stream, checking that it holds exactly the expected positions in order.
+     */
+    private static ShardOutput read(Process process, int shard, long[] expected) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(process.getInputStream(), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != shard) {
+                throw new IOException("Bad header from worker");
+            }
+            int count = in.readInt();
+            if (count != expected.length) {
+                throw new IOException("Worker sent " + count + " positions, expected " + expected.length);
+            }
+            byte[] entries = new byte[count];
+            for (int i = 0; i < count; i++) {
+                long key = in.readLong();
+                if (key != expected[i]) {
+                    throw new IOException("Worker sent position " + key + ", expected " + expected[i]);
+                }
+                entries[i] = in.readByte();
+            }
+            long solved = in.readLong();
+            return new ShardOutput(expected, entries, solved);
+        } catch (EOFException e) {
+            throw new IOException("Worker output ended early", e);
+        }
+    }
+
+    /**
+     * Combines the merged frontier values up through the prefix, storing each prefix position.
+     * @return the packed entry of the position
+     */
+    private byte backUp(long xMask, long oMask, long key, int ply, Map<Long, Byte> entries) {
+        if (ply == prefixPlies) {
+            Byte entry = entries.get(key);
+            if (entry == null) {
+                throw new IllegalStateException("No worker result for position " + key);
+            }
+            return entry;
+        }
+        boolean xToMove = (ply % 2) == 0;
+        long stride = xToMove ? 1 : 2;
+        int winDepth = Integer.MAX_VALUE;
+        int drawDepth = -1;
+        int lossDepth = -1;
+        for (long bits = geometry.fullMask() & ~(xMask | oMask); bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            long bit = 1L << cell;
+            long x = xToMove ? xMask | bit : xMask;
+            long o = xToMove ? oMask : oMask | bit;
+            byte child;
+            if (geometry.isWinThrough(xToMove ? x : o, cell)) {
+                child = Tablebase.pack(Tablebase.Value.LOSS, 0);
+            } else if ((x | o) == geometry.fullMask()) {
+                child = Tablebase.pack(Tablebase.Value.DRAW, 0);
+            } else {
+                child = backUp(x, o, key + stride * powers[cell], ply + 1, entries);
+            }
+            int depth = Tablebase.depthOf(child);
+            switch (Tablebase.valueOf(child)) {
+                case LOSS:
+                    winDepth = Math.min(winDepth, depth);
+                    break;
+                case DRAW:
+                    drawDepth = Math.max(drawDepth, depth);
+                    break;
+                case WIN:
+                    lossDepth = Math.max(lossDepth, depth);
+                    break;
+                default:
+                    break;
+            }
+        }
+        byte entry;
+        if (winDepth != Integer.MAX_VALUE) {
+            entry = Tablebase.pack(Tablebase.Value.WIN, winDepth + 1);
+        } else if (drawDepth >= 0) {
+            entry = Tablebase.pack(Tablebase.Value.DRAW, drawDepth + 1);
+        } else {
+            entry = Tablebase.pack(Tablebase.Value.LOSS, lossDepth + 1);
+        }
+        entries.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * Lists the distinct positions reached after exactly the given number of plies with the game
+     * still going, as sorted base-3 indexes. The order is the same in every JVM, so the
+     * coordinator and a worker agree on which positions a shard holds.
+     */
+    static long[] frontier(BoardGeometry geometry, long[] powers, int plies) {
+        Map<Long, Boolean> seen = new HashMap<>();
+        collect(geometry, powers, 0L, 0L, 0L, 0, plies, seen);
+        long[] keys = new long[seen.size()];
+        int n = 0;
+        for (Map.Entry<Long, Boolean> entry : seen.entrySet()) {
+            if (entry.getValue()) keys[n++] = entry.getKey();
+        }
+        keys = Arrays.copyOf(keys, n);
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static void collect(BoardGeometry geometry, long[] powers, long xMask, long oMask, long key, int ply,
+                                int plies, Map<Long, Boolean> seen) {
+        if (ply == plies) {
+            seen.put(key, Boolean.TRUE);
+            return;
+        }
+        if (seen.putIfAbsent(key, Boolean.FALSE) != null) {
+            return; // a transposition already expanded
+        }
+        boolean xToMove = (ply % 2) == 0;
+        long stride = xToMove ? 1 : 2;
+        for (long bits = geometry.fullMask() & ~(xMask | oMask); bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            long bit = 1L << cell;
+            long x = xToMove ? xMask | bit : xMask;
+            long o = xToMove ? oMask : oMask | bit;
+            if (geometry.isWinThrough(xToMove ? x : o, cell) || (x | o) == geometry.fullMask()) {
+                continue;
+            }
+            collect(geometry, powers, x, o, key + stride * powers[cell], ply + 1, plies, seen);
+        }
+    }
+
+    /**
+     * Picks out one contiguous run of the sorted frontier. Neighbouring indexes share their
+     * highest cells, so their subtrees overlap and a worker's table is reused across them.
+     */
+    static long[] shardPositions(long[] frontier, int shard, int shards) {
+        int from = (int) ((long) frontier.length * shard / shards);
+        int to = (int) ((long) frontier.length * (shard + 1) / shards);
+        return Arrays.copyOfRange(frontier, from, to);
+    }
+
+    /**
+     * Converts a base-3 index back to the cells of X and O.
+     */
+    private static long[] decode(long key, int cells) {
+        long xMask = 0;
+        long oMask = 0;
+        for (int cell = 0; cell < cells && key != 0; cell++) {
+            long digit = key % 3;
+            if (digit == 1) xMask |= 1L << cell;
+            if (digit == 2) oMask |= 1L << cell;
+            key /= 3;
+        }
+        return new long[] {xMask, oMask};
+    }
+
+    /**
+     * Solves one shard and writes its records to standard output.
+     */
+    private static void runWorker(BoardGeometry geometry, int prefixPlies, int shard, int shards) throws IOException {
+        long[] powers = PositionSolver.powersOfThree(geometry.getCellCount());
+        long[] positions = shardPositions(frontier(geometry, powers, prefixPlies), shard, shards);
+        PositionSolver solver = new PositionSolver(geometry);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(shard);
+        out.writeInt(positions.length);
+        for (long key : positions) {
+            long[] masks = decode(key, geometry.getCellCount());
+            out.writeLong(key);
+            out.writeByte(solver.solve(masks[0], masks[1]));
+        }
+        out.writeLong(solver.getSolvedPositions());
+        out.flush();
+    }
+
+    /**
+     * Solves a board with worker JVMs and prints the result.
+     * Usage: {@code ShardedSolver <rows> <cols> <k> [prefix-plies] [workers]}; the defaults are
+     * two plies and one worker per processor.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 7 && WORKER_FLAG.equals(args[0])) {
+            BoardGeometry geometry = new BoardGeometry(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            runWorker(geometry, Integer.parseInt(args[4]), Integer.parseInt(args[5]), Integer.parseInt(args[6]));
+            return;
+        }
+        if (args.length < 3 || args.length > 5) {
+            System.err.println("Usage: ShardedSolver <rows> <cols> <k> [prefix-plies] [workers]");
+            System.exit(2);
+        }
+        BoardGeometry geometry = new BoardGeometry(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        int prefixPlies = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+        int workers = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        Result result = new ShardedSolver(geometry, prefixPlies, workers, 3).solve();
+        System.out.println(result);
+        System.out.printf("%.0f positions/s across %d workers%n",
+                result.getWorkerPositions() * 1e9 / result.getElapsedNanos(), workers);
+    }
+}
@@ -0,0 +1,273 @@
+package lib.src.main;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans one game's moves out to many spectators as compact binary frames.
+ * Each move is encoded once into a small read-only buffer that every subscriber shares.
+ * Subscribers have bounded queues: when a subscriber falls a full queue behind, its queued
+ * moves are dropped and its next frame is a snapshot of the whole board instead, so a slow
+ * spectator costs a fixed amount of memory no matter how far behind it is.
+ * The broadcaster can be fed directly or registered as a {@link GameEventRing} consumer;
+ * as a consumer it follows one session and ignores the events of any other game sharing the ring.
+ *
+ * <p>Frame formats (the top two bits of the first byte give the type, the low six bits the ply):
+ * a move is two bytes, {@code [00 ply] [mark cell]} where the mark bit (0x10) is set for O;
+ * a snapshot is five bytes, {@code [01 ply] [X mask as short] [O mask as short]}.
+ */
+public final class SpectatorBroadcaster implements GameEventHandler {
+    public static final int MOVE_FRAME = 0;
+    public static final int SNAPSHOT_FRAME = 1;
+
+    private static final int SNAPSHOT_BYTES = 5;
+    private static final int O_FLAG = 0x10;
+
+    private final long sessionId;
+    private final int queueCapacity;
+    private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+    // X mask | O mask << 9 | ply << 18, replaced whole so snapshots are consistent
+    private volatile int state;
+
+    /**
+     * Creates a broadcaster that is fed directly; as a ring consumer it follows session 0.
+     * @param queueCapacity the most move frames a subscriber may have waiting before it is switched to a snapshot
+     */
+    public SpectatorBroadcaster(int queueCapacity) {
+        this(0, queueCapacity);
+    }
+
+    /**
+     * Creates a broadcaster for one session of a shared event ring.
+     * @param sessionId     the session whose events are relayed
+     * @param queueCapacity the most move frames a subscriber may have waiting before it is switched to a snapshot
+     */
+    public SpectatorBroadcaster(long sessionId, int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive, got: " + queueCapacity);
+        }
+        this.sessionId = sessionId;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets the session this broadcaster relays from an event ring.
+     * @return the session identifier
+     */
+    public long getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Adds a spectator. Its first frame is a snapshot of the current board.
+     * @return the new subscription
+     */
+    public Subscription subscribe() {
+        Subscription subscription = new Subscription(this);
+        subscribers.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Gets the number of current subscribers.
+     * @return the subscriber count
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Clears the board for a new game and sends every subscriber a snapshot.
+     */
+    public void reset() {
+        replaceState(0);
+    }
+
+    /**
+     * Sets the board to a game already in progress, such as a restored one, and sends every
+     * subscriber a snapshot. Seed the broadcaster this way before the game's session is announced
+     * on the ring, so the session's first event finds the board it started from.
+     * @param board the current position
+     */
+    public void reset(Board board) {
+        int x = 0;
+        int o = 0;
+        int ply = 0;
+        for (int cell = 0; cell < 9; cell++) {
+            char mark = board.getMark(cell / 3, cell % 3);
+            if (mark == 'X') x |= 1 << cell;
+            else if (mark == 'O') o |= 1 << cell;
+            else continue;
+            ply++;
+        }
+        replaceState(x | (o << 9) | (ply << 18));
+    }
+
+    private void replaceState(int next) {
+        state = next;
+        for (Subscription subscription : subscribers) {
+            subscription.requestSnapshot();
+        }
+    }
+
+    /**
+     * Broadcasts a move. Only one thread may publish at a time.
+     * @param cell the cell played (0-8)
+     * @param mark the mark played ('X' or 'O')
+     * @param ply  the number of moves made including this one
+     */
+    public void publishMove(int cell, char mark, int ply) {
+        if (cell < 0 || cell > 8 || (mark != 'X' && mark != 'O') || ply < 1 || ply > 9) {
+            throw new IllegalArgumentException("Invalid move: cell " + cell + ", mark " + mark + ", ply " + ply);
+        }
+        int current = state;
+        int x = current & 0x1FF;
+        int o = (current >>> 9) & 0x1FF;
+        if (mark == 'X') x |= 1 << cell;
+        else o |= 1 << cell;
+        state = x | (o << 9) | (ply << 18);
+
+        byte[] bytes = {(byte) ((MOVE_FRAME << 6) | ply), (byte) ((mark == 'O' ? O_FLAG : 0) | cell)};
+        ByteBuffer frame = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        for (Subscription subscription : subscribers) {
+            subscription.offer(frame);
+        }
+    }
+
+    /**
+     * Relays moves of this broadcaster's session from a game event stream.
+     * A session created at ply 0 starts a new board. One created mid-game keeps the board if it is
+     * already at that ply (seeded with {@link #reset(Board)}, or the same game announced again);
+     * otherwise the earlier moves are unknown and the board restarts empty at the event's ply,
+     * so later move frames still line up.
+     */
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        if (event.getSessionId() != sessionId) {
+            return;
+        }
+        if (event.getType() == GameEvent.Type.SESSION_CREATED) {
+            int ply = event.getPly();
+            int current = state;
+            replaceState((current >>> 18) == ply && ply > 0 ? current : ply << 18);
+        } else if (event.getType() == GameEvent.Type.MOVE_MADE) {
+            publishMove(event.getRow() * 3 + event.getCol(), event.getMark(), event.getPly());
+        }
+    }
+
+    private ByteBuffer snapshot(int current) {
+        ByteBuffer frame = ByteBuffer.allocate(SNAPSHOT_BYTES);
+        frame.put((byte) ((SNAPSHOT_FRAME << 6) | (current >>> 18)));
+        frame.putShort((short) (current & 0x1FF));
+        frame.putShort((short) ((current >>> 9) & 0x1FF));
+        frame.flip();
+        return frame.asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the type of a frame.
+     * @param frame a frame returned by {@link Subscription#poll()}
+     * @return {@link #MOVE_FRAME} or {@link #SNAPSHOT_FRAME}
+     */
+    public static int frameType(ByteBuffer frame) {
+        return (frame.get(frame.position()) & 0xFF) >>> 6;
+    }
+
+    /**
+     * Gets the ply a frame brings the board to.
+     * @param frame a frame returned by {@link Subscription#poll()}
+     * @return the ply count
+     */
+    public static int framePly(ByteBuffer frame) {
+        return frame.get(frame.position()) & 0x3F;
+    }
+
+    /**
+     * Updates a spectator's copy of the board with a frame.
+     * @param frame a frame returned by {@link Subscription#poll()}
+     * @param board the spectator's board
+     */
+    public static void applyFrame(ByteBuffer frame, Board board) {
+        int start = frame.position();
+        if (frameType(frame) == MOVE_FRAME) {
+            int payload = frame.get(start + 1);
+            int cell = payload & 0x0F;
+            board.placeMark(cell / 3, cell % 3, (payload & O_FLAG) != 0 ? 'O' : 'X');
+            return;
+        }
+        int x = frame.getShort(start + 1);
+        int o = frame.getShort(start + 3);
+        board.reset();
+        for (int cell = 0; cell < 9; cell++) {
+            if ((x & (1 << cell)) != 0) board.placeMark(cell / 3, cell % 3, 'X');
+            else if ((o & (1 << cell)) != 0) board.placeMark(cell / 3, cell % 3, 'O');
+        }
+    }
+
+    /**
+     * One spectator's view of the broadcast.
+     */
+    public static final class Subscription implements AutoCloseable {
+        private final SpectatorBroadcaster broadcaster;
+        private final ArrayDeque<ByteBuffer> queue;
+        private boolean snapshotPending = true;
+        private int snapshotPly;
+        private long coalesced;
+
+        private Subscription(SpectatorBroadcaster broadcaster) {
+            this.broadcaster = broadcaster;
+            this.queue = new ArrayDeque<>(broadcaster.queueCapacity);
+        }
+
+        private synchronized void offer(ByteBuffer frame) {
+            // moves published before the last snapshot was taken are already part of it
+            if (snapshotPending || framePly(frame) <= snapshotPly) return;
+            if (queue.size() == broadcaster.queueCapacity) {
+                coalesced += queue.size();
+                queue.clear();
+                snapshotPending = true;
+                return;
+            }
+            queue.addLast(frame);
+        }
+
+        private synchronized void requestSnapshot() {
+            queue.clear();
+            snapshotPending = true;
+        }
+
+        /**
+         * Takes the next frame for this spectator.
+         * The returned buffer is a view of bytes shared with other subscribers; it is read-only.
+         * @return the next frame, or null if the spectator is up to date
+         */
+        public synchronized ByteBuffer poll() {
+            if (snapshotPending) {
+                snapshotPending = false;
+                int current = broadcaster.state;
+                snapshotPly = current >>> 18;
+                return broadcaster.snapshot(current);
+            }
+            ByteBuffer frame = queue.pollFirst();
+            return (frame == null) ? null : frame.duplicate();
+        }
+
+        /**
+         * Gets the number of queued move frames that were replaced by snapshots.
+         * @return the coalesced frame count
+         */
+        public synchronized long getCoalescedFrames() {
+            return coalesced;
+        }
+
+        /**
+         * Stops receiving frames.
+         */
+        @Override
+        public void close() {
+            broadcaster.subscribers.remove(this);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The 3x3 tables that are expensive to build, precomputed at build time and shipped as binary
+ * class-path resources next to this class. Each table is loaded on first use, not at startup, so
+ * a short-lived run that never needs it never pays for it. If a resource is missing, as when
+ * running from sources that were compiled without the generation step, the table is built in-process
+ * instead. Run {@link #main} as part of the build to write the resources into the class output directory.
+ */
+public final class TableResources {
+    /** The resource holding the 3x3 tablebase, in {@link Tablebase#write} format. */
+    public static final String TABLEBASE_RESOURCE = "tablebase-3x3.bin";
+    /** The resource holding the learned 3x3 value table, in {@link ValueTable#save} format. */
+    public static final String LEARNED_VALUES_RESOURCE = "learned-3x3.bin";
+    /** System property that, set to {@code false}, ignores the resources and builds every table in-process. */
+    public static final String PRECOMPUTED_PROPERTY = "tictactoe.tables.precomputed";
+
+    static final int TRAINING_GAMES = 200_000;
+
+    private TableResources() {}
+
+    /**
+     * Gets the 3x3 tablebase, loading it on the first call.
+     * @return the shared tablebase
+     */
+    public static Tablebase standardTablebase() {
+        return TablebaseHolder.TABLEBASE;
+    }
+
+    /**
+     * Gets the learned 3x3 value table, loading it on the first call.
+     * @return the shared table
+     */
+    public static ValueTable learnedValues() {
+        return LearnedHolder.VALUES;
+    }
+
+    private static final class TablebaseHolder {
+        static final Tablebase TABLEBASE = loadTablebase();
+
+        private static Tablebase loadTablebase() {
+            ByteBuffer bytes = resource(TABLEBASE_RESOURCE);
+            if (bytes == null) {
+                return TablebaseGenerator.generate(BoardGeometry.STANDARD);
+            }
+            try {
+                return Tablebase.read(bytes, TABLEBASE_RESOURCE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class LearnedHolder {
+        static final ValueTable VALUES = loadValues();
+
+        private static ValueTable loadValues() {
+            ByteBuffer bytes = resource(LEARNED_VALUES_RESOURCE);
+            if (bytes == null) {
+                return train();
+            }
+            try {
+                return ValueTable.read(bytes, LEARNED_VALUES_RESOURCE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    static ValueTable train() {
+        SelfPlayTrainer trainer = new SelfPlayTrainer(new ValueTable(BoardGeometry.STANDARD),
+                SelfPlayTrainer.DEFAULT_ALPHA, SelfPlayTrainer.DEFAULT_EPSILON);
+        trainer.train(TRAINING_GAMES, Runtime.getRuntime().availableProcessors());
+        return trainer.getTable();
+    }
+
+    /**
+     * Reads a resource into a heap buffer.
+     * @return the bytes, or null if the resource is absent or precomputed tables are switched off
+     */
+    private static ByteBuffer resource(String name) {
+        if ("false".equalsIgnoreCase(System.getProperty(PRECOMPUTED_PROPERTY))) {
+            return null;
+        }
+        try (InputStream in = TableResources.class.getResourceAsStream(name)) {
+            return (in == null) ? null : ByteBuffer.wrap(in.readAllBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Builds every table and writes it as a resource under a class output directory.
+     * Usage: {@code TableResources <classes-dir>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: TableResources <classes-dir>");
+            System.exit(2);
+        }
+        Path directory = Paths.get(args[0]).resolve(TableResources.class.getPackage().getName().replace('.', '/'));
+        Files.createDirectories(directory);
+
+        long start = System.nanoTime();
+        TablebaseGenerator.generate(BoardGeometry.STANDARD).write(directory.resolve(TABLEBASE_RESOURCE));
+        train().save(directory.resolve(LEARNED_VALUES_RESOURCE));
+        System.out.println("Wrote " + TABLEBASE_RESOURCE + " and " + LEARNED_VALUES_RESOURCE + " to " + directory
+                + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+}
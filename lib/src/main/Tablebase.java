@@ -0,0 +1,218 @@
+package lib.src.main;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Exact win/draw/loss and depth-to-end values for every position of a board geometry.
+ * Positions are addressed by a dense base-3 index (cell c contributes 3^c for X, 2 * 3^c for O)
+ * and each entry is packed into a single byte: the low two bits hold the value for the side
+ * to move and the high six bits hold the number of plies until the game ends under perfect play.
+ * Tablebases are built by {@link TablebaseGenerator} and can be written to disk and memory-mapped back.
+ */
+public final class Tablebase {
+    private static final int MAGIC = 0x54544242; // "TTBB"
+    private static final int HEADER_BYTES = 4 + 3 + 8;
+    static final int MAX_CELLS = 19; // 3^19 still fits an int index
+
+    public enum Value {
+        /** Unreachable position, or one that was never evaluated. */
+        INVALID,
+        /** The side to move loses against perfect play. */
+        LOSS,
+        /** Perfect play from both sides leads to a draw. */
+        DRAW,
+        /** The side to move wins against perfect play. */
+        WIN
+    }
+
+    private static final Value[] VALUES = Value.values();
+
+    private final BoardGeometry geometry;
+    private final ByteBuffer entries;
+    private final int[] powersOfThree;
+
+    Tablebase(BoardGeometry geometry, ByteBuffer entries) {
+        this.geometry = geometry;
+        this.entries = entries;
+        this.powersOfThree = powersOfThree(geometry.getCellCount());
+    }
+
+    /**
+     * Memory-maps a tablebase file written by {@link #write(Path)}.
+     * @param file the tablebase file
+     * @return a tablebase that probes the mapped file directly
+     * @throws IOException if the file cannot be read or is not a tablebase
+     */
+    public static Tablebase open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file.toString());
+        }
+    }
+
+    /**
+     * Wraps the bytes of a tablebase file, probing them in place.
+     * @param buffer the file contents, from the start of the header
+     * @param source the file or resource name, for error messages
+     * @throws IOException if the bytes are not a complete tablebase
+     */
+    static Tablebase read(ByteBuffer buffer, String source) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a tablebase file: " + source);
+        }
+        BoardGeometry geometry = new BoardGeometry(buffer.get(), buffer.get(), buffer.get());
+        long size = buffer.getLong();
+        if (size != indexSize(geometry) || buffer.remaining() != size) {
+            throw new IOException("Truncated or corrupt tablebase file: " + source);
+        }
+        return new Tablebase(geometry, buffer.slice());
+    }
+
+    /**
+     * Writes the tablebase to a file that can later be opened with {@link #open(Path)}.
+     * @param file the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeByte(geometry.getRows());
+            out.writeByte(geometry.getCols());
+            out.writeByte(geometry.getWinLength());
+            out.writeLong(entries.capacity());
+            byte[] chunk = new byte[1 << 16];
+            ByteBuffer source = entries.duplicate();
+            source.clear();
+            while (source.hasRemaining()) {
+                int length = Math.min(chunk.length, source.remaining());
+                source.get(chunk, 0, length);
+                out.write(chunk, 0, length);
+            }
+        }
+    }
+
+    /**
+     * Gets the board geometry this tablebase covers.
+     * @return the geometry
+     */
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Computes the dense index of a position.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the position index
+     */
+    public int index(long xMask, long oMask) {
+        int index = 0;
+        for (long bits = xMask; bits != 0; bits &= bits - 1) {
+            index += powersOfThree[Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = oMask; bits != 0; bits &= bits - 1) {
+            index += 2 * powersOfThree[Long.numberOfTrailingZeros(bits)];
+        }
+        return index;
+    }
+
+    /**
+     * Gets the value of a position for the side to move.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the win/draw/loss value
+     */
+    public Value value(long xMask, long oMask) {
+        return valueOf(entries.get(index(xMask, oMask)));
+    }
+
+    /**
+     * Gets the number of plies until the game ends under perfect play.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the depth to the end of the game
+     */
+    public int depth(long xMask, long oMask) {
+        return depthOf(entries.get(index(xMask, oMask)));
+    }
+
+    /**
+     * Finds the best move for the side to move: the fastest win, otherwise a draw,
+     * otherwise the loss that takes longest.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the cell to play, or -1 if the game is already over
+     */
+    public int bestMove(long xMask, long oMask) {
+        int base = index(xMask, oMask);
+        byte entry = entries.get(base);
+        if (valueOf(entry) == Value.INVALID || depthOf(entry) == 0) return -1;
+        boolean xToMove = Long.bitCount(xMask) == Long.bitCount(oMask);
+        int bestCell = -1;
+        int bestScore = Integer.MIN_VALUE;
+        long empty = geometry.fullMask() & ~(xMask | oMask);
+        for (long bits = empty; bits != 0; bits &= bits - 1) {
+            int cell = Long.numberOfTrailingZeros(bits);
+            byte child = entries.get(base + (xToMove ? 1 : 2) * powersOfThree[cell]);
+            int score = scoreForMover(valueOf(child), depthOf(child));
+            if (score > bestScore) {
+                bestScore = score;
+                bestCell = cell;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Ranks a child position from the point of view of the player who moved into it.
+     */
+    private static int scoreForMover(Value childValue, int childDepth) {
+        switch (childValue) {
+            case LOSS: return 1000 - childDepth; // opponent lost: prefer the quickest win
+            case DRAW: return 0;
+            case WIN: return -1000 + childDepth; // opponent wins: hold out as long as possible
+            default: return Integer.MIN_VALUE + 1;
+        }
+    }
+
+    static Value valueOf(byte entry) {
+        return VALUES[entry & 0x3];
+    }
+
+    static int depthOf(byte entry) {
+        return (entry & 0xFF) >>> 2;
+    }
+
+    static byte pack(Value value, int depth) {
+        return (byte) ((depth << 2) | value.ordinal());
+    }
+
+    static int indexSize(BoardGeometry geometry) {
+        if (geometry.getCellCount() > MAX_CELLS) {
+            throw new IllegalArgumentException("Board " + geometry + " is too large for a dense position index");
+        }
+        int size = 1;
+        for (int i = 0; i < geometry.getCellCount(); i++) {
+            size *= 3;
+        }
+        return size;
+    }
+
+    static int[] powersOfThree(int count) {
+        int[] powers = new int[count];
+        int power = 1;
+        for (int i = 0; i < count; i++) {
+            powers[i] = power;
+            power *= 3;
+        }
+        return powers;
+    }
+}
@@ -0,0 +1,218 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Builds {@link Tablebase}s by retrograde analysis.
+ * Positions are solved one piece count at a time, starting from full boards and working back
+ * to the empty board, so every position only looks up children that are already final.
+ * Within a piece count the positions are independent and are split across a ForkJoinPool.
+ */
+public final class TablebaseGenerator {
+    private static final int SPLIT_THRESHOLD = 64;
+
+    private TablebaseGenerator() {}
+
+    /**
+     * Generates the tablebase for a board geometry using the common ForkJoinPool.
+     * @param geometry the board to solve
+     * @return the complete tablebase
+     * @throws IllegalArgumentException if the board is too large for a dense index
+     */
+    public static Tablebase generate(BoardGeometry geometry) {
+        return generate(geometry, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates the tablebase for a board geometry.
+     * @param geometry the board to solve
+     * @param pool     the pool that runs the workers
+     * @return the complete tablebase
+     * @throws IllegalArgumentException if the board is too large for a dense index
+     */
+    public static Tablebase generate(BoardGeometry geometry, ForkJoinPool pool) {
+        byte[] entries = new byte[Tablebase.indexSize(geometry)];
+        int[] powers = Tablebase.powersOfThree(geometry.getCellCount());
+        for (int pieces = geometry.getCellCount(); pieces >= 0; pieces--) {
+            long[] occupancies = occupancies(geometry.getCellCount(), pieces);
+            pool.invoke(new LevelTask(geometry, entries, powers, pieces, occupancies, 0, occupancies.length));
+        }
+        return new Tablebase(geometry, ByteBuffer.wrap(entries));
+    }
+
+    /**
+     * Lists every set of occupied cells with the given number of pieces.
+     */
+    private static long[] occupancies(int cells, int pieces) {
+        List<Long> result = new ArrayList<>();
+        if (pieces == 0) {
+            result.add(0L);
+        } else {
+            long limit = 1L << cells;
+            // Gosper's hack: walk all masks with exactly `pieces` bits in increasing order
+            for (long mask = (1L << pieces) - 1; mask < limit && mask > 0; ) {
+                result.add(mask);
+                long lowest = mask & -mask;
+                long ripple = mask + lowest;
+                mask = (((ripple ^ mask) >>> 2) / lowest) | ripple;
+            }
+        }
+        long[] masks = new long[result.size()];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = result.get(i);
+        }
+        return masks;
+    }
+
+    /**
+     * Solves all positions of one piece count whose occupancy falls in a range.
+     */
+    private static final class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final BoardGeometry geometry;
+        private final byte[] entries;
+        private final int[] powers;
+        private final int pieces;
+        private final long[] occupancies;
+        private final int from;
+        private final int to;
+
+        LevelTask(BoardGeometry geometry, byte[] entries, int[] powers, int pieces,
+                  long[] occupancies, int from, int to) {
+            this.geometry = geometry;
+            this.entries = entries;
+            this.powers = powers;
+            this.pieces = pieces;
+            this.occupancies = occupancies;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LevelTask(geometry, entries, powers, pieces, occupancies, from, mid),
+                        new LevelTask(geometry, entries, powers, pieces, occupancies, mid, to));
+                return;
+            }
+            int xCount = (pieces + 1) / 2;
+            for (int i = from; i < to; i++) {
+                solveOccupancy(occupancies[i], xCount);
+            }
+        }
+
+        /**
+         * Solves every split of the occupied cells into X and O cells.
+         */
+        private void solveOccupancy(long occupied, int xCount) {
+            int[] cells = new int[pieces];
+            int n = 0;
+            for (long bits = occupied; bits != 0; bits &= bits - 1) {
+                cells[n++] = Long.numberOfTrailingZeros(bits);
+            }
+            if (xCount == 0) {
+                solve(0L, 0L);
+                return;
+            }
+            // choose which xCount of the occupied cells belong to X
+            for (long pick = (1L << xCount) - 1; pick < (1L << pieces) && pick > 0; ) {
+                long xMask = 0L;
+                for (long bits = pick; bits != 0; bits &= bits - 1) {
+                    xMask |= 1L << cells[Long.numberOfTrailingZeros(bits)];
+                }
+                solve(xMask, occupied & ~xMask);
+                long lowest = pick & -pick;
+                long ripple = pick + lowest;
+                pick = (((ripple ^ pick) >>> 2) / lowest) | ripple;
+            }
+        }
+
+        private void solve(long xMask, long oMask) {
+            boolean xToMove = (pieces % 2) == 0;
+            long mover = xToMove ? xMask : oMask;
+            long previous = xToMove ? oMask : xMask;
+            int index = index(xMask, oMask);
+
+            if (geometry.isWin(mover)) {
+                return; // the game would already have ended: unreachable
+            }
+            if (geometry.isWin(previous)) {
+                entries[index] = Tablebase.pack(Tablebase.Value.LOSS, 0);
+                return;
+            }
+            if (pieces == geometry.getCellCount()) {
+                entries[index] = Tablebase.pack(Tablebase.Value.DRAW, 0);
+                return;
+            }
+
+            int stride = xToMove ? 1 : 2;
+            int winDepth = Integer.MAX_VALUE;
+            int drawDepth = -1;
+            int lossDepth = -1;
+            long empty = geometry.fullMask() & ~(xMask | oMask);
+            for (long bits = empty; bits != 0; bits &= bits - 1) {
+                byte child = entries[index + stride * powers[Long.numberOfTrailingZeros(bits)]];
+                int depth = Tablebase.depthOf(child);
+                switch (Tablebase.valueOf(child)) {
+                    case LOSS:
+                        winDepth = Math.min(winDepth, depth);
+                        break;
+                    case DRAW:
+                        drawDepth = Math.max(drawDepth, depth);
+                        break;
+                    case WIN:
+                        lossDepth = Math.max(lossDepth, depth);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (winDepth != Integer.MAX_VALUE) {
+                entries[index] = Tablebase.pack(Tablebase.Value.WIN, winDepth + 1);
+            } else if (drawDepth >= 0) {
+                entries[index] = Tablebase.pack(Tablebase.Value.DRAW, drawDepth + 1);
+            } else if (lossDepth >= 0) {
+                entries[index] = Tablebase.pack(Tablebase.Value.LOSS, lossDepth + 1);
+            }
+        }
+
+        private int index(long xMask, long oMask) {
+            int index = 0;
+            for (long bits = xMask; bits != 0; bits &= bits - 1) {
+                index += powers[Long.numberOfTrailingZeros(bits)];
+            }
+            for (long bits = oMask; bits != 0; bits &= bits - 1) {
+                index += 2 * powers[Long.numberOfTrailingZeros(bits)];
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Generates a tablebase and writes it to a file.
+     * Usage: {@code TablebaseGenerator <rows> <cols> <k> <output-file>}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: TablebaseGenerator <rows> <cols> <k> <output-file>");
+            System.exit(2);
+        }
+        BoardGeometry geometry = new BoardGeometry(Integer.parseInt(args[0]), Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        Path output = Paths.get(args[3]);
+        long start = System.nanoTime();
+        Tablebase tablebase = generate(geometry);
+        long elapsed = System.nanoTime() - start;
+        tablebase.write(output);
+        System.out.println("Solved " + geometry + " in " + (elapsed / 1_000_000) + " ms; empty board is a "
+                + tablebase.value(0L, 0L) + " in " + tablebase.depth(0L, 0L) + " plies");
+    }
+}
@@ -0,0 +1,80 @@
+package lib.src.main;
+
+import java.time.Duration;
+
+/**
+ * Decides how long an engine may think about its next move under a {@link GameClock}.
+ * The usable time is what is left on the mover's clock less a safety margin for the
+ * move to reach the game. It is shared evenly over the moves the mover still has to make,
+ * and most of the increment is spent as well, since it comes back after the move.
+ * A move never gets more than the usable time, so an engine that keeps to its budget
+ * never loses on time.
+ */
+public final class TimeManager {
+    /** The time kept back by default for the move to reach the game after the engine answers. */
+    public static final Duration DEFAULT_SAFETY_MARGIN = Duration.ofMillis(50);
+
+    private final long safetyNanos;
+
+    public TimeManager() {
+        this(DEFAULT_SAFETY_MARGIN);
+    }
+
+    /**
+     * Creates a time manager.
+     * @param safetyMargin the time kept back on every move
+     * @throws IllegalArgumentException if the margin is negative
+     */
+    public TimeManager(Duration safetyMargin) {
+        if (safetyMargin.isNegative()) {
+            throw new IllegalArgumentException("Safety margin must not be negative, got: " + safetyMargin);
+        }
+        this.safetyNanos = safetyMargin.toNanos();
+    }
+
+    /**
+     * Gets the thinking time for a move.
+     * @param remainingNanos the time on the mover's clock
+     * @param incrementNanos the time the mover gains after the move
+     * @param movesToGo      the number of moves the mover has left at most, including this one
+     * @return the budget in nanoseconds; zero if the clock is inside the safety margin
+     * @throws IllegalArgumentException if no moves are left
+     */
+    public long allocateNanos(long remainingNanos, long incrementNanos, int movesToGo) {
+        if (movesToGo < 1) {
+            throw new IllegalArgumentException("Moves to go must be positive, got: " + movesToGo);
+        }
+        long usable = remainingNanos - safetyNanos;
+        if (usable <= 0) {
+            return 0;
+        }
+        long budget = usable / movesToGo + incrementNanos / 4 * 3;
+        return Math.min(budget, usable);
+    }
+
+    /**
+     * Gets the thinking time for the running side's next move on a 3x3 board, where the
+     * side to move has at most half the empty cells, rounded up, left to play.
+     * @param clock    the game's clock
+     * @param board    the current board
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @return the budget
+     * @throws IllegalStateException if the clock is stopped or the board is full
+     */
+    public Duration allocate(GameClock clock, Board board, long nowNanos) {
+        char mark = clock.getRunningMark();
+        if (mark == ' ') {
+            throw new IllegalStateException("Clock is stopped");
+        }
+        int empty = Integer.bitCount(board.getMask(' '));
+        if (empty == 0) {
+            throw new IllegalStateException("Board is full");
+        }
+        return Duration.ofNanos(allocateNanos(clock.getRemainingNanos(mark, nowNanos),
+                clock.getIncrementNanos(), (empty + 1) / 2));
+    }
+
+    public long getSafetyNanos() {
+        return safetyNanos;
+    }
+}
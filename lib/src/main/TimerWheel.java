@@ -0,0 +1,185 @@
+package lib.src.main;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed timer wheel that many games share for their flag timeouts, instead of each game
+ * holding a scheduled task or a thread. Time is cut into ticks and the wheel has one slot per
+ * tick, each holding a linked list of the timeouts due in it, so a timeout more than a turn of
+ * the wheel away shares a slot with nearer ones and waits there until its own tick. Scheduling
+ * and cancelling are constant time, and {@link #advance} visits only the slots of the ticks that
+ * have passed. Timeouts fire up to one tick late, never early. Any thread may schedule or cancel;
+ * tasks run on the thread that calls {@link #advance}, outside the wheel's lock.
+ */
+public final class TimerWheel {
+    private final long tickNanos;
+    private final int mask;
+    private final Timeout[] slots;
+    private final long startNanos;
+    // every tick before this one has been processed
+    private long currentTick;
+    private int pending;
+
+    /**
+     * A task scheduled on a wheel.
+     */
+    public static final class Timeout {
+        private final TimerWheel wheel;
+        private final long deadlineNanos;
+        private final Runnable task;
+        private long tick;
+        private int slot = -1; // -1 once fired or cancelled
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(TimerWheel wheel, long deadlineNanos, Runnable task) {
+            this.wheel = wheel;
+            this.deadlineNanos = deadlineNanos;
+            this.task = task;
+        }
+
+        public long getDeadlineNanos() {
+            return deadlineNanos;
+        }
+
+        /**
+         * Cancels the task if it has not fired yet.
+         * @return true if it was cancelled, false if it already fired or was cancelled before
+         */
+        public boolean cancel() {
+            synchronized (wheel) {
+                if (slot < 0) {
+                    return false;
+                }
+                wheel.unlink(this);
+                return true;
+            }
+        }
+
+        /**
+         * Checks whether the task is still waiting to fire.
+         * @return true until it fires or is cancelled
+         */
+        public boolean isPending() {
+            synchronized (wheel) {
+                return slot >= 0;
+            }
+        }
+    }
+
+    /**
+     * Creates a wheel whose first tick starts now.
+     * @param tick      the length of a tick, which is the timing precision
+     * @param wheelSize the number of slots, which must be a power of two
+     * @throws IllegalArgumentException if the tick is not positive or the size is not a power of two
+     */
+    public TimerWheel(Duration tick, int wheelSize) {
+        this(tick, wheelSize, System.nanoTime());
+    }
+
+    /**
+     * Creates a wheel.
+     * @param tick       the length of a tick, which is the timing precision
+     * @param wheelSize  the number of slots, which must be a power of two
+     * @param startNanos the {@link System#nanoTime()} value at which the first tick starts
+     * @throws IllegalArgumentException if the tick is not positive or the size is not a power of two
+     */
+    public TimerWheel(Duration tick, int wheelSize, long startNanos) {
+        if (tick.isNegative() || tick.isZero()) {
+            throw new IllegalArgumentException("Tick must be positive, got: " + tick);
+        }
+        if (wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a positive power of two, got: " + wheelSize);
+        }
+        this.tickNanos = tick.toNanos();
+        this.mask = wheelSize - 1;
+        this.slots = new Timeout[wheelSize];
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Schedules a task.
+     * @param deadlineNanos the {@link System#nanoTime()} value at or after which the task runs
+     * @param task          the task to run
+     * @return the handle for cancelling it
+     * @throws IllegalArgumentException if the task is null
+     */
+    public synchronized Timeout schedule(long deadlineNanos, Runnable task) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        Timeout timeout = new Timeout(this, deadlineNanos, task);
+        // the first tick that ends at or after the deadline, or the next tick if that one was processed already
+        timeout.tick = Math.max(currentTick, ceilDiv(deadlineNanos - startNanos, tickNanos));
+        timeout.slot = (int) timeout.tick & mask;
+        timeout.next = slots[timeout.slot];
+        if (timeout.next != null) {
+            timeout.next.previous = timeout;
+        }
+        slots[timeout.slot] = timeout;
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Runs every task whose tick has passed.
+     * @param nowNanos the current {@link System#nanoTime()} reading
+     * @return the number of tasks run
+     */
+    public int advance(long nowNanos) {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            long lastTick = Math.floorDiv(nowNanos - startNanos, tickNanos);
+            // after a long pause one turn of the wheel still visits every slot
+            for (long tick = Math.max(currentTick, lastTick - mask); tick <= lastTick; tick++) {
+                Timeout timeout = slots[(int) tick & mask];
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    if (timeout.tick <= lastTick) {
+                        unlink(timeout);
+                        due.add(timeout);
+                    }
+                    timeout = next;
+                }
+            }
+            currentTick = Math.max(currentTick, lastTick + 1);
+        }
+        for (Timeout timeout : due) {
+            timeout.task.run();
+        }
+        return due.size();
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.previous != null) {
+            timeout.previous.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.previous = timeout.previous;
+        }
+        timeout.previous = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        pending--;
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    /**
+     * Gets the number of tasks waiting to fire.
+     * @return the pending count
+     */
+    public synchronized int size() {
+        return pending;
+    }
+
+    public long getTickNanos() {
+        return tickNanos;
+    }
+}
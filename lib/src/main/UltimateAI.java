@@ -0,0 +1,122 @@
+package lib.src.main;
+
+/**
+ * Chooses Ultimate Tic-Tac-Toe moves with a depth-limited alpha-beta search.
+ * Positions at the search horizon are scored with table lookups: sub-boards won, open
+ * two-in-a-rows on the meta-board, and open two-in-a-rows inside the sub-boards still in play.
+ * An instance reuses its move buffers, so it is not thread-safe; use one per thread.
+ */
+public final class UltimateAI {
+    /** The score of a won game, less the plies needed to reach it. */
+    public static final int WIN_SCORE = 1_000_000;
+
+    private static final int META_TWO = 300;
+    private static final int BOARD_WON = 100;
+    private static final int CENTER_BOARD_WON = 30;
+    private static final int BOARD_TWO = 8;
+    private static final int CENTER_CELL = 3;
+
+    private final int depth;
+    private final int[][] moveBuffers;
+    private long nodes;
+
+    /**
+     * Creates a search of the given depth.
+     * @param depth the number of plies to look ahead, at least 1
+     * @throws IllegalArgumentException if the depth is less than 1
+     */
+    public UltimateAI(int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1, got: " + depth);
+        }
+        this.depth = depth;
+        this.moveBuffers = new int[depth + 1][UltimateBoard.MAX_MOVES];
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Gets the number of positions visited by the searches so far.
+     * @return the node count
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Chooses the best move for the side to move.
+     * @param board the position; it is not modified
+     * @return the move number ({@code subBoard * 9 + cell}), or -1 if the game is over
+     */
+    public int selectMove(UltimateBoard board) {
+        UltimateBoard search = new UltimateBoard(board);
+        int[] moves = moveBuffers[depth];
+        int count = search.generateMoves(moves);
+        int best = -1;
+        int alpha = -Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            search.play(moves[i]);
+            int score = -negamax(search, depth - 1, -Integer.MAX_VALUE, -alpha);
+            search.undo();
+            if (best < 0 || score > alpha) {
+                alpha = score;
+                best = moves[i];
+            }
+        }
+        return best;
+    }
+
+    private int negamax(UltimateBoard board, int remaining, int alpha, int beta) {
+        nodes++;
+        if (board.getWinner() != ' ') {
+            // the side that just moved won; prefer quicker wins
+            return -(WIN_SCORE - board.getPly());
+        }
+        int[] moves = moveBuffers[remaining];
+        int count = (remaining == 0) ? 0 : board.generateMoves(moves);
+        if (remaining == 0 || count == 0) {
+            return board.isGameOver() ? 0 : evaluate(board);
+        }
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            int score = -negamax(board, remaining - 1, -beta, -alpha);
+            board.undo();
+            if (score > alpha) {
+                alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Scores an unfinished position for the side to move.
+     * @param board the position
+     * @return positive if the side to move stands better
+     */
+    public static int evaluate(UltimateBoard board) {
+        int score = evaluateFor(board, 'X') - evaluateFor(board, 'O');
+        return board.isXToMove() ? score : -score;
+    }
+
+    private static int evaluateFor(UltimateBoard board, char mark) {
+        char other = (mark == 'X') ? 'O' : 'X';
+        int mine = board.getMetaMask(mark);
+        int theirs = board.getMetaMask(other);
+        // a drawn sub-board blocks meta lines for both players
+        int blocked = theirs | (board.getClosedBoards() & ~(mine | theirs));
+        int score = Integer.bitCount(mine) * BOARD_WON
+                + ((mine & (1 << 4)) != 0 ? CENTER_BOARD_WON : 0)
+                + Integer.bitCount(UltimateBoard.LINES_WITH_TWO[mine] & ~UltimateBoard.LINES_TOUCHED[blocked]) * META_TWO;
+        for (int open = ~board.getClosedBoards() & 0x1FF; open != 0; open &= open - 1) {
+            int sub = Integer.numberOfTrailingZeros(open);
+            int own = board.getSubBoardMask(sub, mark);
+            int opponent = board.getSubBoardMask(sub, other);
+            score += Integer.bitCount(UltimateBoard.LINES_WITH_TWO[own] & ~UltimateBoard.LINES_TOUCHED[opponent]) * BOARD_TWO;
+            if ((own & (1 << 4)) != 0) score += CENTER_CELL;
+        }
+        return score;
+    }
+}
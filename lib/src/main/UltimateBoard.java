@@ -0,0 +1,295 @@
+package lib.src.main;
+
+/**
+ * The position of an Ultimate Tic-Tac-Toe game, packed for fast search.
+ * The board is nine 3x3 sub-boards, each held as a pair of 9-bit masks, plus a meta-board of
+ * sub-boards won by each player. The cell a player picks sends the opponent to the sub-board in
+ * the same position; if that sub-board is already won or full, the opponent may play in any open one.
+ * Win checks and evaluation features come from 512-entry tables indexed by a sub-board mask,
+ * legal moves are generated with mask operations, and moves can be undone, so a search needs
+ * no copying. A move is numbered {@code subBoard * 9 + cell}, both counted row by row.
+ */
+public final class UltimateBoard {
+    /** The sub-board value meaning the player to move may play in any open sub-board. */
+    public static final int ANY_BOARD = -1;
+    /** The greatest number of legal moves in any position. */
+    public static final int MAX_MOVES = 81;
+
+    private static final int FULL = 0x1FF;
+    private static final int[] LINES = {0x007, 0x038, 0x1C0, 0x049, 0x092, 0x124, 0x111, 0x054};
+
+    static final boolean[] WIN = new boolean[512];
+    // the lines (as an 8-bit set) holding exactly two, or at least one, of a mask's cells
+    static final int[] LINES_WITH_TWO = new int[512];
+    static final int[] LINES_TOUCHED = new int[512];
+
+    static {
+        for (int mask = 0; mask < 512; mask++) {
+            for (int i = 0; i < LINES.length; i++) {
+                int count = Integer.bitCount(mask & LINES[i]);
+                if (count == 3) WIN[mask] = true;
+                if (count == 2) LINES_WITH_TWO[mask] |= 1 << i;
+                if (count > 0) LINES_TOUCHED[mask] |= 1 << i;
+            }
+        }
+    }
+
+    private final int[] xBoards = new int[9];
+    private final int[] oBoards = new int[9];
+    private int xMeta;
+    private int oMeta;
+    private int closed; // sub-boards that are won or full
+    private int active = ANY_BOARD;
+    private boolean xToMove = true;
+    private char winner = ' ';
+    private final int[] history = new int[MAX_MOVES];
+    private final int[] activeHistory = new int[MAX_MOVES];
+    private int ply;
+
+    /**
+     * Creates an empty board with X to move.
+     */
+    public UltimateBoard() {
+    }
+
+    /**
+     * Creates a copy of a board, including its move history.
+     * @param other the board to copy
+     */
+    public UltimateBoard(UltimateBoard other) {
+        System.arraycopy(other.xBoards, 0, xBoards, 0, 9);
+        System.arraycopy(other.oBoards, 0, oBoards, 0, 9);
+        xMeta = other.xMeta;
+        oMeta = other.oMeta;
+        closed = other.closed;
+        active = other.active;
+        xToMove = other.xToMove;
+        winner = other.winner;
+        System.arraycopy(other.history, 0, history, 0, other.ply);
+        System.arraycopy(other.activeHistory, 0, activeHistory, 0, other.ply);
+        ply = other.ply;
+    }
+
+    /**
+     * Writes every legal move into an array.
+     * @param moves receives the moves; must hold at least {@link #MAX_MOVES} entries
+     * @return the number of legal moves, 0 if the game is over
+     */
+    public int generateMoves(int[] moves) {
+        if (winner != ' ') return 0;
+        int count = 0;
+        for (int boards = playableBoards(); boards != 0; boards &= boards - 1) {
+            int board = Integer.numberOfTrailingZeros(boards);
+            for (int empty = ~(xBoards[board] | oBoards[board]) & FULL; empty != 0; empty &= empty - 1) {
+                moves[count++] = board * 9 + Integer.numberOfTrailingZeros(empty);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the sub-boards the player to move may play in.
+     * @return a 9-bit mask of sub-boards
+     */
+    public int playableBoards() {
+        if (winner != ' ') return 0;
+        if (active != ANY_BOARD && (closed & (1 << active)) == 0) return 1 << active;
+        return ~closed & FULL;
+    }
+
+    /**
+     * Checks if a move is legal.
+     * @param move the move number (0-80)
+     * @return true if the move may be played now
+     */
+    public boolean isLegal(int move) {
+        if (move < 0 || move >= 81) return false;
+        int board = move / 9;
+        int bit = 1 << (move % 9);
+        return (playableBoards() & (1 << board)) != 0 && ((xBoards[board] | oBoards[board]) & bit) == 0;
+    }
+
+    /**
+     * Plays a move for the side to move.
+     * @param move the move number (0-80)
+     * @throws IllegalArgumentException if the move is not legal
+     */
+    public void play(int move) {
+        if (!isLegal(move)) {
+            throw new IllegalArgumentException("Illegal move: sub-board " + (move / 9) + ", cell " + (move % 9));
+        }
+        int board = move / 9;
+        int cell = move % 9;
+        history[ply] = move;
+        activeHistory[ply] = active;
+        ply++;
+
+        int[] boards = xToMove ? xBoards : oBoards;
+        int mask = boards[board] | (1 << cell);
+        boards[board] = mask;
+        int boardBit = 1 << board;
+        if (WIN[mask]) {
+            closed |= boardBit;
+            if (xToMove) {
+                xMeta |= boardBit;
+                if (WIN[xMeta]) winner = 'X';
+            } else {
+                oMeta |= boardBit;
+                if (WIN[oMeta]) winner = 'O';
+            }
+        } else if ((xBoards[board] | oBoards[board]) == FULL) {
+            closed |= boardBit;
+        }
+        active = cell;
+        xToMove = !xToMove;
+    }
+
+    /**
+     * Takes back the last move.
+     * @throws IllegalStateException if no move has been played
+     */
+    public void undo() {
+        if (ply == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        ply--;
+        int move = history[ply];
+        int board = move / 9;
+        int boardBit = 1 << board;
+        xToMove = !xToMove;
+        int[] boards = xToMove ? xBoards : oBoards;
+        boards[board] &= ~(1 << (move % 9));
+        // the board was open before the move, so whatever closed it came from this move
+        closed &= ~boardBit;
+        xMeta &= ~boardBit;
+        oMeta &= ~boardBit;
+        winner = ' ';
+        active = activeHistory[ply];
+    }
+
+    /**
+     * Counts the leaf nodes of the game tree to a fixed depth, for testing and benchmarking move generation.
+     * @param depth the number of plies
+     * @return the number of legal move sequences of exactly that length
+     */
+    public long perft(int depth) {
+        return perft(depth, new int[depth + 1][MAX_MOVES]);
+    }
+
+    private long perft(int depth, int[][] buffers) {
+        if (depth == 0) return 1;
+        int[] moves = buffers[depth];
+        int count = generateMoves(moves);
+        if (depth == 1) return count;
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            play(moves[i]);
+            nodes += perft(depth - 1, buffers);
+            undo();
+        }
+        return nodes;
+    }
+
+    public boolean isXToMove() {
+        return xToMove;
+    }
+
+    /**
+     * Gets the mark of the player to move.
+     * @return 'X' or 'O'
+     */
+    public char getCurrentMark() {
+        return xToMove ? 'X' : 'O';
+    }
+
+    /**
+     * Gets the sub-board the player to move was sent to.
+     * @return the sub-board index (0-8), or {@link #ANY_BOARD} before the first move
+     */
+    public int getActiveBoard() {
+        return active;
+    }
+
+    /**
+     * Gets a player's marks in a sub-board.
+     * @param board the sub-board index (0-8)
+     * @param mark  'X' or 'O'
+     * @return a 9-bit mask of cells
+     */
+    public int getSubBoardMask(int board, char mark) {
+        return (mark == 'X') ? xBoards[board] : oBoards[board];
+    }
+
+    /**
+     * Gets the sub-boards a player has won.
+     * @param mark 'X' or 'O'
+     * @return a 9-bit mask of sub-boards
+     */
+    public int getMetaMask(char mark) {
+        return (mark == 'X') ? xMeta : oMeta;
+    }
+
+    /**
+     * Gets the sub-boards that are won or full.
+     * @return a 9-bit mask of sub-boards
+     */
+    public int getClosedBoards() {
+        return closed;
+    }
+
+    /**
+     * Gets the mark in a cell.
+     * @param board the sub-board index (0-8)
+     * @param cell  the cell index within the sub-board (0-8)
+     * @return 'X', 'O' or ' '
+     */
+    public char getMark(int board, int cell) {
+        int bit = 1 << cell;
+        if ((xBoards[board] & bit) != 0) return 'X';
+        if ((oBoards[board] & bit) != 0) return 'O';
+        return ' ';
+    }
+
+    /**
+     * Gets the winner of the game.
+     * @return 'X' or 'O', or ' ' if nobody has won
+     */
+    public char getWinner() {
+        return winner;
+    }
+
+    /**
+     * Checks if the game is over: won, or with no sub-board left to play in.
+     * @return true if the game is over
+     */
+    public boolean isGameOver() {
+        return winner != ' ' || closed == FULL;
+    }
+
+    /**
+     * Gets the number of moves played.
+     * @return the ply count
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Returns a 9x9 grid of the marks, with sub-boards separated by lines.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < 9; row++) {
+            if (row > 0 && row % 3 == 0) sb.append("------+-------+------\n");
+            for (int col = 0; col < 9; col++) {
+                if (col > 0 && col % 3 == 0) sb.append("| ");
+                char mark = getMark((row / 3) * 3 + col / 3, (row % 3) * 3 + col % 3);
+                sb.append(mark == ' ' ? '.' : mark).append(' ');
+            }
+            sb.setLength(sb.length() - 1);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package lib.src.main;
+
+/**
+ * Manages a game of Ultimate Tic-Tac-Toe between two players.
+ * Like {@link Game}, it tracks turns and the game state; the position itself is an {@link UltimateBoard}.
+ */
+public class UltimateGame {
+    private final UltimateBoard board = new UltimateBoard();
+    private final Player playerX;
+    private final Player playerO;
+
+    /**
+     * Creates a new game with the specified players.
+     * @param playerX the player who will use 'X' marks
+     * @param playerO the player who will use 'O' marks
+     * @throws IllegalArgumentException if either player is null or has the wrong mark
+     */
+    public UltimateGame(Player playerX, Player playerO) {
+        if (playerX == null || playerO == null) {
+            throw new IllegalArgumentException("Players cannot be null");
+        }
+        if (playerX.getMark() != 'X' || playerO.getMark() != 'O') {
+            throw new IllegalArgumentException("Player X must have mark 'X' and Player O must have mark 'O'");
+        }
+        this.playerX = playerX;
+        this.playerO = playerO;
+    }
+
+    /**
+     * Makes a move for the current player.
+     * @param subBoard the sub-board index (0-8), counted row by row
+     * @param cell     the cell index within the sub-board (0-8), counted row by row
+     * @return true if the move was made, false if the game is already over
+     * @throws IllegalArgumentException if the move is out of range, occupied or in a sub-board the player was not sent to
+     */
+    public boolean makeMove(int subBoard, int cell) {
+        if (isGameOver()) {
+            return false;
+        }
+        if (subBoard < 0 || subBoard > 8 || cell < 0 || cell > 8) {
+            throw new IllegalArgumentException("Invalid position: sub-board " + subBoard + ", cell " + cell);
+        }
+        board.play(subBoard * 9 + cell);
+        return true;
+    }
+
+    /**
+     * Gets the current state of the game.
+     * @return the current game state
+     */
+    public Game.GameState getGameState() {
+        if (board.getWinner() != ' ') return Game.GameState.WON;
+        if (board.isGameOver()) return Game.GameState.TIED;
+        return Game.GameState.IN_PROGRESS;
+    }
+
+    /**
+     * Checks if the game is over.
+     * @return true if the game is won or tied
+     */
+    public boolean isGameOver() {
+        return board.isGameOver();
+    }
+
+    /**
+     * Gets the player whose turn it is.
+     * @return the current player
+     */
+    public Player getCurrentPlayer() {
+        return board.isXToMove() ? playerX : playerO;
+    }
+
+    /**
+     * Gets the winner of the game.
+     * @return the winning player, or null if the game is tied or still in progress
+     */
+    public Player getWinner() {
+        char winner = board.getWinner();
+        if (winner == ' ') return null;
+        return (winner == 'X') ? playerX : playerO;
+    }
+
+    /**
+     * Gets the board; use it to read the position and the legal moves, not to play.
+     * @return the game board
+     */
+    public UltimateBoard getBoard() {
+        return board;
+    }
+
+    public Player getPlayerX() {
+        return playerX;
+    }
+
+    public Player getPlayerO() {
+        return playerO;
+    }
+
+    @Override
+    public String toString() {
+        return "Current player: " + getCurrentPlayer().getName() + "\n" + board;
+    }
+}
@@ -0,0 +1,166 @@
+package lib.src.main;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A learned value for every position of a board geometry, shared by many training threads.
+ * Values are floats from X's point of view, +1 for an X win and -1 for an O win, stored as
+ * their raw bits in an {@link AtomicIntegerArray} and addressed by the same dense base-3 index
+ * as {@link Tablebase}. Updates use compare-and-set, so threads never block one another and
+ * no update is lost. Tables are saved as a small header followed by the raw floats.
+ */
+public final class ValueTable {
+    private static final int MAGIC = 0x54545654; // "TTVT"
+    private static final int HEADER_BYTES = 4 + 3 + 4;
+
+    private final BoardGeometry geometry;
+    private final int[] powersOfThree;
+    private final AtomicIntegerArray values;
+
+    /**
+     * Creates a table with every value at 0.
+     * @param geometry the board geometry the positions belong to
+     * @throws IllegalArgumentException if the board has more than 19 cells
+     */
+    public ValueTable(BoardGeometry geometry) {
+        this.geometry = geometry;
+        this.powersOfThree = Tablebase.powersOfThree(geometry.getCellCount());
+        this.values = new AtomicIntegerArray(Tablebase.indexSize(geometry));
+    }
+
+    public BoardGeometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Gets the number of positions in the table.
+     * @return the table size
+     */
+    public int size() {
+        return values.length();
+    }
+
+    /**
+     * Computes the dense index of a position.
+     * @param xMask the cells holding X
+     * @param oMask the cells holding O
+     * @return the position index
+     */
+    public int index(long xMask, long oMask) {
+        int index = 0;
+        for (long bits = xMask; bits != 0; bits &= bits - 1) {
+            index += powersOfThree[Long.numberOfTrailingZeros(bits)];
+        }
+        for (long bits = oMask; bits != 0; bits &= bits - 1) {
+            index += 2 * powersOfThree[Long.numberOfTrailingZeros(bits)];
+        }
+        return index;
+    }
+
+    /**
+     * Gets the index of the position after a move.
+     * @param index the index of the position before the move
+     * @param cell  the empty cell played
+     * @param mark  the mark played ('X' or 'O')
+     * @return the index of the resulting position
+     */
+    public int childIndex(int index, int cell, char mark) {
+        return index + (mark == 'X' ? 1 : 2) * powersOfThree[cell];
+    }
+
+    /**
+     * Gets the value of a position.
+     * @param index the position index
+     * @return the value from X's point of view
+     */
+    public float get(int index) {
+        return Float.intBitsToFloat(values.get(index));
+    }
+
+    /**
+     * Sets the value of a position.
+     * @param index the position index
+     * @param value the value from X's point of view
+     */
+    public void set(int index, float value) {
+        values.set(index, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Moves the value of a position part of the way towards a target.
+     * @param index the position index
+     * @param target the value to move towards
+     * @param alpha  the fraction of the distance to move, between 0 and 1
+     * @return the new value
+     */
+    public float update(int index, float target, float alpha) {
+        while (true) {
+            int bits = values.get(index);
+            float current = Float.intBitsToFloat(bits);
+            float next = current + alpha * (target - current);
+            if (values.compareAndSet(index, bits, Float.floatToRawIntBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Writes the table to a file.
+     * @param file the file to write, replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + values.length() * Float.BYTES);
+        buffer.putInt(MAGIC);
+        buffer.put((byte) geometry.getRows()).put((byte) geometry.getCols()).put((byte) geometry.getWinLength());
+        buffer.putInt(values.length());
+        for (int i = 0; i < values.length(); i++) {
+            buffer.putInt(values.get(i));
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads a table written by {@link #save(Path)}.
+     * @param file the table file
+     * @return the loaded table
+     * @throws IOException if the file cannot be read or is not a value table
+     */
+    public static ValueTable load(Path file) throws IOException {
+        return read(ByteBuffer.wrap(Files.readAllBytes(file)), file.toString());
+    }
+
+    /**
+     * Reads a table from the bytes of a file written by {@link #save(Path)}.
+     * @param buffer the file contents, from the start of the header
+     * @param source the file or resource name, for error messages
+     * @throws IOException if the bytes are not a value table
+     */
+    static ValueTable read(ByteBuffer buffer, String source) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a value table file: " + source);
+        }
+        BoardGeometry geometry = new BoardGeometry(buffer.get(), buffer.get(), buffer.get());
+        ValueTable table = new ValueTable(geometry);
+        int count = buffer.getInt();
+        if (count != table.size() || buffer.remaining() != (long) count * Float.BYTES) {
+            throw new IOException("Value table " + source + " does not match its header");
+        }
+        for (int i = 0; i < count; i++) {
+            table.values.set(i, buffer.getInt());
+        }
+        return table;
+    }
+}
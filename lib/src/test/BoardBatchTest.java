@@ -0,0 +1,109 @@
+package lib.src.test;
+
+import lib.src.main.AIMoveSelector;
+import lib.src.main.Board;
+import lib.src.main.BoardBatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoardBatchTest {
+
+    private BoardBatch batch;
+
+    @BeforeEach
+    void setUp() {
+        batch = new BoardBatch(8);
+    }
+
+    @Test
+    void addCopiesBoardMasks() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(2, 2, 'O');
+        int index = batch.add(board);
+        assertEquals(1, batch.getXMask(index));
+        assertEquals(1 << 8, batch.getOMask(index));
+    }
+
+    @Test
+    void winnersAndFullBoards() {
+        batch.add(0x007, 0x018);          // X top row
+        batch.add(0x00B, 0x1C0 | 0x004);  // O bottom row
+        batch.add(0x18D, 0x072);          // full, no winner: X O X / X O O / O X X
+        batch.add(0, 0);
+        byte[] winners = new byte[4];
+        boolean[] full = new boolean[4];
+        batch.winners(winners);
+        batch.fullBoards(full);
+        assertEquals(BoardBatch.X_WINNER, winners[0]);
+        assertEquals(BoardBatch.O_WINNER, winners[1]);
+        assertEquals(BoardBatch.NO_WINNER, winners[2]);
+        assertEquals(BoardBatch.NO_WINNER, winners[3]);
+        assertFalse(full[0]);
+        assertTrue(full[2]);
+        assertFalse(full[3]);
+    }
+
+    @Test
+    void heuristicMovesMatchAIMoveSelector() {
+        SplittableRandom random = new SplittableRandom(7);
+        BoardBatch large = new BoardBatch(2000);
+        Board[] boards = new Board[2000];
+        for (int i = 0; i < boards.length; i++) {
+            Board board = new Board();
+            char mark = 'X';
+            int plies = random.nextInt(9);
+            for (int p = 0; p < plies && !board.isGameOver(); p++) {
+                int[] move = AIMoveSelector.selectRandomMove(board);
+                board.placeMark(move[0], move[1], mark);
+                mark = (mark == 'X') ? 'O' : 'X';
+            }
+            boards[i] = board;
+            large.add(board);
+        }
+        int[] moves = new int[boards.length];
+        large.selectHeuristicMoves(moves);
+        for (int i = 0; i < boards.length; i++) {
+            Board board = boards[i];
+            if (board.isGameOver()) {
+                assertEquals(-1, moves[i]);
+                continue;
+            }
+            char toMove = Integer.bitCount(board.getMask('X')) == Integer.bitCount(board.getMask('O')) ? 'X' : 'O';
+            int[] expected = AIMoveSelector.selectHeuristicMove(board, toMove);
+            assertEquals(expected[0] * 3 + expected[1], moves[i]);
+        }
+    }
+
+    @Test
+    void randomMovesPickEmptyCells() {
+        batch.add(0x0E5, 0x01A);  // only cell 8 empty, no winner
+        batch.add(0x007, 0x018);
+        int[] moves = new int[2];
+        batch.selectRandomMoves(moves, new SplittableRandom(1));
+        assertEquals(8, moves[0]);
+        assertEquals(-1, moves[1]);
+    }
+
+    @Test
+    void playAllAlternatesSides() {
+        batch.add(0, 0);
+        batch.add(1, 0);
+        batch.playAll(new int[]{4, 4});
+        assertEquals(1 << 4, batch.getXMask(0));
+        assertEquals(1 << 4, batch.getOMask(1));
+    }
+
+    @Test
+    void rejectsOverlappingMasksAndOverflow() {
+        assertThrows(IllegalArgumentException.class, () -> batch.add(1, 1));
+        BoardBatch tiny = new BoardBatch(1);
+        tiny.add(0, 0);
+        assertThrows(IllegalStateException.class, () -> tiny.add(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> tiny.play(0, 9));
+    }
+}
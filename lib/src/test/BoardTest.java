@@ -137,6 +137,21 @@ class BoardTest {
         assertTrue(board.isGameOver());
     }
 
+    // reset
+    @Test
+    void testResetClearsBoard() {
+        board.placeMark(0, 0, 'X');
+        board.placeMark(1, 1, 'O');
+        board.reset();
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                assertTrue(board.isEmpty(r, c));
+            }
+        }
+        board.placeMark(0, 0, 'O');
+        assertEquals('O', board.getMark(0, 0));
+    }
+
     // toString
     @Test
     void testToStringContainsMarks() {
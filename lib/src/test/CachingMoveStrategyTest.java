@@ -0,0 +1,88 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.CachingMoveStrategy;
+import lib.src.main.MoveCache;
+import lib.src.main.MoveStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingMoveStrategyTest {
+
+    /**
+     * Plays the first empty cell and counts its calls.
+     */
+    private static final class CountingStrategy implements MoveStrategy {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+            calls.incrementAndGet();
+            for (int cell = 0; cell < 9; cell++) {
+                if (board.isEmpty(cell / 3, cell % 3)) {
+                    return CompletableFuture.completedFuture(new int[] {cell / 3, cell % 3});
+                }
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @Test
+    void answersRepeatedPositionFromCache() {
+        CountingStrategy delegate = new CountingStrategy();
+        MoveCache cache = new MoveCache(64, 4, MoveCache.Eviction.CLOCK);
+        CachingMoveStrategy strategy = new CachingMoveStrategy(delegate, cache);
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+
+        int[] first = strategy.selectMove(board, 'O', Long.MAX_VALUE).join();
+        int[] second = strategy.selectMove(board, 'O', Long.MAX_VALUE).join();
+        assertArrayEquals(new int[] {0, 1}, first);
+        assertArrayEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, delegate.calls.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals("counting", strategy.getName());
+    }
+
+    @Test
+    void sideToMoveIsPartOfTheKey() {
+        Board board = new Board();
+        board.placeMark(1, 1, 'X');
+        assertNotEquals(CachingMoveStrategy.positionKey(board, 'X'), CachingMoveStrategy.positionKey(board, 'O'));
+        Board mirrored = new Board();
+        mirrored.placeMark(1, 1, 'O');
+        assertNotEquals(CachingMoveStrategy.positionKey(board, 'O'), CachingMoveStrategy.positionKey(mirrored, 'O'));
+    }
+
+    @Test
+    void cachesFullBoards() {
+        CountingStrategy delegate = new CountingStrategy();
+        CachingMoveStrategy strategy = new CachingMoveStrategy(delegate, new MoveCache(8, 1, MoveCache.Eviction.LRU));
+        Board board = new Board();
+        char[] marks = {'X', 'O', 'X', 'X', 'O', 'O', 'O', 'X', 'X'};
+        for (int cell = 0; cell < 9; cell++) {
+            board.placeMark(cell / 3, cell % 3, marks[cell]);
+        }
+        assertNull(strategy.selectMove(board, 'O', Long.MAX_VALUE).join());
+        assertNull(strategy.selectMove(board, 'O', Long.MAX_VALUE).join());
+        assertEquals(1, delegate.calls.get());
+    }
+
+    @Test
+    void rejectsNullArguments() {
+        MoveCache cache = new MoveCache(8, 1, MoveCache.Eviction.CLOCK);
+        assertThrows(IllegalArgumentException.class, () -> new CachingMoveStrategy(null, cache));
+        assertThrows(IllegalArgumentException.class, () -> new CachingMoveStrategy(new CountingStrategy(), null));
+    }
+}
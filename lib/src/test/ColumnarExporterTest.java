@@ -0,0 +1,131 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.ColumnarExporter;
+import lib.src.main.ColumnarReader;
+import lib.src.main.ComputerPlayer;
+import lib.src.main.Game;
+import lib.src.main.GameCodec;
+import lib.src.main.GameHistoryTrie;
+import lib.src.main.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarExporterTest {
+
+    @Test
+    void packsAndUnpacksMoves() {
+        long packed = ColumnarExporter.packMoves(new int[] {4, 0, 8, 2}, 4);
+        assertEquals(0x2804L, packed);
+        assertArrayEquals(new int[] {4, 0, 8, 2}, ColumnarExporter.unpackMoves(packed, 4));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarExporter.packMoves(new int[] {9}, 1));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarExporter.packMoves(new int[] {0}, 2));
+    }
+
+    @Test
+    void namesStrategies() {
+        assertEquals(ColumnarExporter.HUMAN, ColumnarExporter.strategyName(new Player("Alice", 'X')));
+        assertEquals("smart", ColumnarExporter.strategyName(new ComputerPlayer("Bot", 'O', ComputerPlayer.Strategy.SMART)));
+    }
+
+    @Test
+    void writesGamesAsColumns() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            Game game = new Game(new Player("Alice", 'X'), new ComputerPlayer("Bot", 'O', ComputerPlayer.Strategy.RANDOM));
+            try (ColumnarExporter exporter = new ColumnarExporter(file, 4)) {
+                for (long id = 100; id < 110; id++) {
+                    game.reset();
+                    game.makeMove(0, 0);
+                    game.makeMove(1, 0);
+                    game.makeMove(0, 1);
+                    game.makeMove(1, 1);
+                    game.makeMove(0, 2);
+                    exporter.add(id, game);
+                }
+                game.reset();
+                assertThrows(IllegalArgumentException.class, () -> exporter.add(0, game));
+                assertEquals(10, exporter.getRowCount());
+            }
+
+            ColumnarReader reader = new ColumnarReader(file);
+            assertEquals(10, reader.getRowCount());
+            assertEquals(3, reader.getBlockCount());
+            assertEquals(2, reader.getBlockRows(2));
+            int id = reader.columnIndex(ColumnarExporter.GAME_ID);
+            int x = reader.columnIndex(ColumnarExporter.X_STRATEGY);
+            int o = reader.columnIndex(ColumnarExporter.O_STRATEGY);
+            int result = reader.columnIndex(ColumnarExporter.RESULT);
+            int moves = reader.columnIndex(ColumnarExporter.MOVES);
+
+            long[] values = new long[4];
+            assertEquals(4, reader.readBlock(1, id, values));
+            assertArrayEquals(new long[] {104, 105, 106, 107}, values);
+            assertEquals(104, reader.getMin(1, id));
+            assertEquals(107, reader.getMax(1, id));
+            assertEquals(ColumnarExporter.Encoding.DELTA, reader.getEncoding(1, id));
+            assertEquals(ColumnarExporter.Encoding.RLE, reader.getEncoding(1, result));
+
+            reader.readBlock(0, x, values);
+            assertEquals("human", reader.getDictionary(x).get((int) values[0]));
+            reader.readBlock(0, o, values);
+            assertEquals("random", reader.getDictionary(o).get((int) values[0]));
+            reader.readBlock(2, result, values);
+            assertEquals(GameHistoryTrie.Outcome.X_WON.ordinal(), values[0]);
+            reader.readBlock(2, moves, values);
+            assertArrayEquals(new int[] {0, 3, 1, 4, 2}, ColumnarExporter.unpackMoves(values[0], 5));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void emptyFileHasNoBlocks() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            new ColumnarExporter(file).close();
+            ColumnarReader reader = new ColumnarReader(file);
+            assertEquals(0, reader.getRowCount());
+            assertEquals(0, reader.getBlockCount());
+            assertEquals(6, reader.getColumnNames().size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsGameWithoutHistory() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try (ColumnarExporter exporter = new ColumnarExporter(file)) {
+            Board board = new Board();
+            for (int col = 0; col < 3; col++) {
+                board.placeMark(0, col, 'X');
+                board.placeMark(1, col, 'O');
+            }
+            Game game = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+            GameCodec.decode(GameCodec.encode(board, 'X'), game); // both sides have a line
+            assertThrows(IllegalArgumentException.class, () -> exporter.add(1, game));
+            assertEquals(0, exporter.getRowCount());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsAddAfterClose() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            ColumnarExporter exporter = new ColumnarExporter(file);
+            exporter.close();
+            assertThrows(IllegalStateException.class,
+                    () -> exporter.add(1, "human", "human", GameHistoryTrie.Outcome.TIED, new int[0], 0));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package lib.src.test;
+
+import lib.src.main.ColumnarExporter;
+import lib.src.main.ColumnarReader;
+import lib.src.main.GameHistoryTrie;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarReaderTest {
+
+    private static final int GAMES = 10_000;
+
+    /**
+     * Writes random games with ids 0, 2, 4, ... and returns their ply counts.
+     */
+    private static int[] writeGames(Path file) throws IOException {
+        SplittableRandom random = new SplittableRandom(50);
+        String[] strategies = {"smart", "random", "learned", "human"};
+        int[] plies = new int[GAMES];
+        int[] moves = {4, 0, 8, 2, 6, 1, 7, 3, 5};
+        try (ColumnarExporter exporter = new ColumnarExporter(file, 1_000)) {
+            for (int i = 0; i < GAMES; i++) {
+                plies[i] = 5 + random.nextInt(5);
+                exporter.add(2L * i, strategies[random.nextInt(4)], strategies[i / 2_500],
+                        GameHistoryTrie.Outcome.values()[random.nextInt(3)], moves, plies[i]);
+            }
+        }
+        return plies;
+    }
+
+    @Test
+    void scansWholeColumn() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            int[] plies = writeGames(file);
+            ColumnarReader reader = new ColumnarReader(file);
+            assertEquals(GAMES, reader.getRowCount());
+            assertEquals(10, reader.getBlockCount());
+
+            List<Long> read = new ArrayList<>();
+            assertEquals(GAMES, reader.scan(reader.columnIndex(ColumnarExporter.PLIES), read::add));
+            for (int i = 0; i < GAMES; i++) {
+                assertEquals(Long.valueOf(plies[i]), read.get(i));
+            }
+            long[] ids = new long[1];
+            reader.scan(reader.columnIndex(ColumnarExporter.GAME_ID), value -> ids[0] += value);
+            assertEquals((long) GAMES * (GAMES - 1), ids[0]);
+            // the O strategy changes every 2500 games, so its runs compress well
+            int o = reader.columnIndex(ColumnarExporter.O_STRATEGY);
+            assertEquals(ColumnarExporter.Encoding.RLE, reader.getEncoding(0, o));
+            assertTrue(reader.getEncodedBytes(0, o) < 8);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rangeScanSkipsBlocks() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            writeGames(file);
+            ColumnarReader reader = new ColumnarReader(file);
+            int id = reader.columnIndex(ColumnarExporter.GAME_ID);
+            List<Long> found = new ArrayList<>();
+            assertEquals(3, reader.scan(id, 4_000, 4_004, found::add));
+            assertEquals(Arrays.asList(4_000L, 4_002L, 4_004L), found);
+            assertEquals(1_000, reader.count(id, 0, 1_998));
+            assertEquals(1_001, reader.count(id, 0, 2_000));
+            assertEquals(0, reader.count(id, -10, -1));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsUnknownColumn() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            writeGames(file);
+            ColumnarReader reader = new ColumnarReader(file);
+            assertThrows(IllegalArgumentException.class, () -> reader.columnIndex("winner"));
+            assertThrows(IllegalArgumentException.class, () -> reader.readBlock(0, 0, new long[10]));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("games", ".col");
+        try {
+            writeGames(file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+            assertThrows(IOException.class, () -> new ColumnarReader(file));
+            Files.write(file, new byte[] {1, 2, 3});
+            assertThrows(IOException.class, () -> new ColumnarReader(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package lib.src.test;
 
+import lib.src.main.Board;
 import lib.src.main.ComputerPlayer;
 import org.junit.jupiter.api.Test;
 
@@ -27,4 +28,32 @@ class ComputerPlayerTest {
                 () -> new ComputerPlayer("AI", 'X', null));
         assertEquals("strategy", exception.getMessage());
     }
+
+    @Test
+    void selectMove_smartPlayerTakesWinningMove() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(0, 1, 'X');
+        ComputerPlayer player = new ComputerPlayer("SmartBot", 'X', ComputerPlayer.Strategy.SMART);
+        assertArrayEquals(new int[]{0, 2}, player.selectMove(board));
+    }
+
+    @Test
+    void selectMove_randomPlayerPicksEmptyCell() {
+        Board board = new Board();
+        ComputerPlayer player = new ComputerPlayer("RandomBot", 'O', ComputerPlayer.Strategy.RANDOM);
+        int[] move = player.selectMove(board);
+        assertTrue(board.isEmpty(move[0], move[1]));
+    }
+
+    @Test
+    void selectMove_learnedPlayerTakesWinningMove() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'O');
+        board.placeMark(1, 1, 'O');
+        board.placeMark(0, 1, 'X');
+        board.placeMark(0, 2, 'X');
+        ComputerPlayer player = new ComputerPlayer("LearnedBot", 'O', ComputerPlayer.Strategy.LEARNED);
+        assertArrayEquals(new int[]{2, 2}, player.selectMove(board));
+    }
 }
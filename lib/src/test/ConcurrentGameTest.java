@@ -0,0 +1,122 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.ConcurrentGame;
+import lib.src.main.Game;
+import lib.src.main.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentGameTest {
+
+    private Player playerX;
+    private Player playerO;
+    private ConcurrentGame game;
+
+    @BeforeEach
+    void setUp() {
+        playerX = new Player("Alice", 'X');
+        playerO = new Player("Bob", 'O');
+        game = new ConcurrentGame(playerX, playerO);
+    }
+
+    @Test
+    void rejectsOutOfTurnAndOccupiedMoves() {
+        assertEquals(ConcurrentGame.MoveResult.NOT_YOUR_TURN, game.submitMove('O', 0, 0));
+        assertEquals(ConcurrentGame.MoveResult.ACCEPTED, game.submitMove('X', 0, 0));
+        assertEquals(ConcurrentGame.MoveResult.OCCUPIED, game.submitMove('O', 0, 0));
+        assertEquals(ConcurrentGame.MoveResult.OUT_OF_BOUNDS, game.submitMove('O', 3, 0));
+        assertEquals(playerO, game.getCurrentPlayer());
+    }
+
+    @Test
+    void rejectsStaleMoves() {
+        assertEquals(ConcurrentGame.MoveResult.ACCEPTED, game.submitMove('X', 1, 1, 0));
+        assertEquals(ConcurrentGame.MoveResult.STALE, game.submitMove('X', 0, 0, 0));
+        assertEquals(ConcurrentGame.MoveResult.ACCEPTED, game.submitMove('O', 0, 0, 1));
+        assertEquals(2, game.getPly());
+    }
+
+    @Test
+    void detectsWinAndRefusesFurtherMoves() {
+        game.submitMove('X', 0, 0);
+        game.submitMove('O', 1, 0);
+        game.submitMove('X', 0, 1);
+        game.submitMove('O', 1, 1);
+        game.submitMove('X', 0, 2);
+        assertEquals(Game.GameState.WON, game.getGameState());
+        assertEquals(playerX, game.getWinner());
+        assertEquals(ConcurrentGame.MoveResult.GAME_OVER, game.submitMove('O', 1, 2));
+    }
+
+    @Test
+    void detectsTie() {
+        int[][] moves = {{0, 0}, {1, 1}, {2, 2}, {0, 1}, {2, 1}, {2, 0}, {0, 2}, {1, 2}, {1, 0}};
+        char mark = 'X';
+        for (int[] move : moves) {
+            assertEquals(ConcurrentGame.MoveResult.ACCEPTED, game.submitMove(mark, move[0], move[1]));
+            mark = (mark == 'X') ? 'O' : 'X';
+        }
+        assertEquals(Game.GameState.TIED, game.getGameState());
+        assertNull(game.getWinner());
+    }
+
+    @Test
+    void contendedSubmissionsAreLinearizable() throws InterruptedException {
+        int threads = 8;
+        for (int round = 0; round < 200; round++) {
+            ConcurrentGame shared = new ConcurrentGame(playerX, playerO);
+            // accepted cell per ply; each ply must be won by exactly one submission
+            AtomicIntegerArray cellAtPly = new AtomicIntegerArray(9);
+            for (int i = 0; i < 9; i++) cellAtPly.set(i, -1);
+            AtomicBoolean duplicate = new AtomicBoolean();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                char mark = (t % 2 == 0) ? 'X' : 'O';
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (shared.getGameState() == Game.GameState.IN_PROGRESS) {
+                        int ply = shared.getPly();
+                        int cell = random.nextInt(9);
+                        if (shared.submitMove(mark, cell / 3, cell % 3, ply) == ConcurrentGame.MoveResult.ACCEPTED) {
+                            if (!cellAtPly.compareAndSet(ply, -1, cell)) duplicate.set(true);
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            start.countDown();
+            for (Thread worker : workers) worker.join();
+            assertFalse(duplicate.get(), "a ply was accepted twice");
+
+            // replaying the accepted moves sequentially must give the same final position
+            Game replay = new Game(playerX, playerO);
+            for (int ply = 0; ply < shared.getPly(); ply++) {
+                int cell = cellAtPly.get(ply);
+                assertTrue(cell >= 0, "missing move at ply " + ply);
+                assertTrue(replay.makeMove(cell / 3, cell % 3));
+            }
+            assertEquals(replay.getGameState(), shared.getGameState());
+            assertEquals(replay.getWinner(), shared.getWinner());
+            Board board = shared.toBoard();
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    assertEquals(replay.getBoard().getMark(r, c), board.getMark(r, c));
+                }
+            }
+        }
+    }
+}
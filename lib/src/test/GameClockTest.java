@@ -0,0 +1,74 @@
+package lib.src.test;
+
+import lib.src.main.GameClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameClockTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void rejectsInvalidTimes() {
+        assertThrows(IllegalArgumentException.class, () -> new GameClock(Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new GameClock(Duration.ofSeconds(1), Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    void suddenDeathHasNoIncrement() {
+        GameClock clock = GameClock.suddenDeath(Duration.ofSeconds(3));
+        assertTrue(clock.isSuddenDeath());
+        clock.start('X', 0);
+        clock.punch(SECOND);
+        assertEquals(2 * SECOND, clock.getRemainingNanos('X', 5 * SECOND));
+        assertEquals(3 * SECOND, clock.getRemainingNanos('O', SECOND));
+        assertEquals(SECOND, clock.getRemainingNanos('O', 3 * SECOND));
+    }
+
+    @Test
+    void incrementIsAddedAfterEachMove() {
+        GameClock clock = new GameClock(Duration.ofSeconds(10), Duration.ofSeconds(2));
+        assertFalse(clock.isSuddenDeath());
+        clock.start('X', 0);
+        clock.punch(3 * SECOND);
+        assertEquals(9 * SECOND, clock.getRemainingNanos('X', 3 * SECOND));
+        assertEquals('O', clock.getRunningMark());
+        clock.punch(4 * SECOND);
+        assertEquals(11 * SECOND, clock.getRemainingNanos('O', 4 * SECOND));
+        assertEquals('X', clock.getRunningMark());
+    }
+
+    @Test
+    void flagsWhenTimeRunsOut() {
+        GameClock clock = GameClock.suddenDeath(Duration.ofSeconds(2));
+        clock.start('X', 5 * SECOND);
+        assertEquals(7 * SECOND, clock.getDeadlineNanos());
+        assertFalse(clock.isFlagged(7 * SECOND - 1));
+        assertTrue(clock.isFlagged(7 * SECOND));
+        assertEquals(0, clock.getRemainingNanos('X', 9 * SECOND));
+    }
+
+    @Test
+    void stoppedClockNeverFlags() {
+        GameClock clock = GameClock.suddenDeath(Duration.ofSeconds(1));
+        assertEquals(' ', clock.getRunningMark());
+        assertEquals(Long.MAX_VALUE, clock.getDeadlineNanos());
+        assertFalse(clock.isFlagged(Long.MAX_VALUE));
+        assertThrows(IllegalStateException.class, () -> clock.punch(0));
+
+        clock.start('O', 0);
+        clock.stop(SECOND / 2);
+        assertEquals(SECOND / 2, clock.getRemainingNanos('O', 10 * SECOND));
+        clock.reset();
+        assertEquals(SECOND, clock.getRemainingNanos('O', 0));
+    }
+
+    @Test
+    void rejectsUnknownMark() {
+        GameClock clock = GameClock.suddenDeath(Duration.ofSeconds(1));
+        assertThrows(IllegalArgumentException.class, () -> clock.start('Z', 0));
+    }
+}
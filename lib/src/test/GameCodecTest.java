@@ -0,0 +1,195 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.Game;
+import lib.src.main.GameClock;
+import lib.src.main.GameCodec;
+import lib.src.main.Player;
+import lib.src.main.TimerWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCodecTest {
+
+    private Player playerX;
+    private Player playerO;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        playerX = new Player("Alice", 'X');
+        playerO = new Player("Bob", 'O');
+        game = new Game(playerX, playerO);
+    }
+
+    private static void assertSameBoard(Board expected, Board actual) {
+        for (int r = 0; r < 3; r++) {
+            for (int c = 0; c < 3; c++) {
+                assertEquals(expected.getMark(r, c), actual.getMark(r, c));
+            }
+        }
+    }
+
+    @Test
+    void emptyGameEncodesToZero() {
+        int code = GameCodec.encode(game);
+        assertEquals(0, code);
+        assertEquals('X', GameCodec.sideToMove(code));
+        assertEquals(Game.GameState.IN_PROGRESS, GameCodec.gameState(code));
+    }
+
+    @Test
+    void encodedStateFitsInEighteenBits() {
+        int[][] moves = {{0, 0}, {1, 1}, {2, 2}, {0, 1}, {2, 1}, {2, 0}, {0, 2}, {1, 2}, {1, 0}};
+        for (int[] move : moves) {
+            game.makeMove(move[0], move[1]);
+            assertEquals(0, GameCodec.encode(game) >>> 18);
+        }
+        int code = GameCodec.encode(game);
+        assertEquals(Game.GameState.TIED, GameCodec.gameState(code));
+        assertEquals(' ', GameCodec.winner(code));
+    }
+
+    @Test
+    void roundTripsGameInProgress() {
+        game.makeMove(1, 1);
+        game.makeMove(0, 0);
+        game.makeMove(2, 2);
+        int code = GameCodec.encode(game);
+        assertEquals('O', GameCodec.sideToMove(code));
+        assertEquals(1 << 4 | 1 << 8, GameCodec.xMask(code));
+        assertEquals(1, GameCodec.oMask(code));
+
+        Game restored = new Game(playerX, playerO);
+        GameCodec.decode(code, restored);
+        assertSameBoard(game.getBoard(), restored.getBoard());
+        assertEquals(playerO, restored.getCurrentPlayer());
+        assertEquals(Game.GameState.IN_PROGRESS, restored.getGameState());
+        assertTrue(restored.makeMove(0, 1));
+    }
+
+    @Test
+    void roundTripsWonGame() {
+        game.makeMove(0, 0);
+        game.makeMove(1, 0);
+        game.makeMove(0, 1);
+        game.makeMove(1, 1);
+        game.makeMove(0, 2);
+        int code = GameCodec.encode(game);
+        assertEquals(Game.GameState.WON, GameCodec.gameState(code));
+        assertEquals('X', GameCodec.winner(code));
+
+        Game restored = new Game(playerX, playerO);
+        GameCodec.decode(code, restored);
+        assertEquals(Game.GameState.WON, restored.getGameState());
+        assertEquals(playerX, restored.getWinner());
+        assertEquals(code, GameCodec.encode(restored));
+    }
+
+    @Test
+    void roundTripsGameWonOnTime() {
+        game.setClock(GameClock.suddenDeath(Duration.ofSeconds(1)), null, 0);
+        assertTrue(game.makeMove(0, 0, 500_000_000L));
+        assertFalse(game.makeMove(1, 1, 2_000_000_000L)); // O's flag fell
+        int code = GameCodec.encode(game);
+        assertEquals(Game.GameState.WON, GameCodec.gameState(code));
+        assertEquals('X', GameCodec.winner(code));
+
+        Game restored = new Game(playerX, playerO);
+        GameCodec.decode(code, restored);
+        assertEquals(Game.GameState.WON, restored.getGameState());
+        assertTrue(restored.isWonOnTime());
+        assertEquals(playerX, restored.getWinner());
+        assertEquals(code, GameCodec.encode(restored));
+    }
+
+    @Test
+    void decodeClearsTimeState() {
+        game.setClock(GameClock.suddenDeath(Duration.ofSeconds(1)), new TimerWheel(Duration.ofMillis(10), 64, 0), 0);
+        assertFalse(game.makeMove(0, 0, 2_000_000_000L)); // X's flag fell, O wins on time
+        assertEquals(playerO, game.getWinner());
+
+        Game source = new Game(playerX, playerO);
+        source.makeMove(0, 0);
+        source.makeMove(1, 0);
+        source.makeMove(0, 1);
+        source.makeMove(1, 1);
+        source.makeMove(0, 2);
+        GameCodec.decode(GameCodec.encode(source), game);
+        assertFalse(game.isWonOnTime());
+        assertNull(game.getClock());
+        assertEquals(playerX, game.getWinner());
+
+        GameCodec.decode(0, game);
+        assertEquals(Game.GameState.IN_PROGRESS, game.getGameState());
+        assertTrue(game.makeMove(1, 1, Long.MAX_VALUE));
+    }
+
+    @Test
+    void decodeOverwritesBoard() {
+        Board board = new Board();
+        board.placeMark(2, 2, 'O');
+        Board source = new Board();
+        source.placeMark(0, 1, 'X');
+        GameCodec.decode(GameCodec.encode(source, 'O'), board);
+        assertSameBoard(source, board);
+    }
+
+    @Test
+    void bulkRoundTripPreservesEveryState() {
+        int[] codes = new int[100];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = GameCodec.positionIndex(i, ~i & 0x1FF & (i * 7));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(codes.length * GameCodec.STATE_BYTES);
+        GameCodec.putAll(codes, codes.length, buffer);
+        assertFalse(buffer.hasRemaining());
+        buffer.flip();
+
+        int[] decoded = new int[codes.length + 10];
+        assertEquals(codes.length, GameCodec.getAll(buffer, decoded));
+        for (int i = 0; i < codes.length; i++) {
+            assertEquals(codes[i], decoded[i]);
+        }
+    }
+
+    @Test
+    void putAllRejectsShortBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(7);
+        assertThrows(java.nio.BufferOverflowException.class, () -> GameCodec.putAll(new int[2], 2, buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void roundTripsMoveHistories() {
+        byte[] odd = {4, 0, 8, 2, 6};
+        byte[] full = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        GameCodec.putMoves(odd, odd.length, buffer);
+        GameCodec.putMoves(full, full.length, buffer);
+        GameCodec.putMoves(full, 0, buffer);
+        assertEquals(GameCodec.movesSize(5) + GameCodec.movesSize(9) + GameCodec.movesSize(0), buffer.position());
+        assertEquals(4, GameCodec.movesSize(5));
+        buffer.flip();
+
+        byte[] cells = new byte[9];
+        assertEquals(5, GameCodec.getMoves(buffer, cells));
+        for (int i = 0; i < odd.length; i++) assertEquals(odd[i], cells[i]);
+        assertEquals(9, GameCodec.getMoves(buffer, cells));
+        for (int i = 0; i < full.length; i++) assertEquals(full[i], cells[i]);
+        assertEquals(0, GameCodec.getMoves(buffer, cells));
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void putMovesRejectsInvalidInput() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.putMoves(new byte[]{9}, 1, buffer));
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.putMoves(new byte[10], 10, buffer));
+    }
+}
@@ -0,0 +1,98 @@
+package lib.src.test;
+
+import lib.src.main.Game;
+import lib.src.main.GameEvent;
+import lib.src.main.GameEventRing;
+import lib.src.main.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameEventRingTest {
+
+    @Test
+    void everyConsumerSeesEveryEventInOrder() {
+        List<Long> first = Collections.synchronizedList(new ArrayList<>());
+        List<Long> second = Collections.synchronizedList(new ArrayList<>());
+        GameEventRing ring = new GameEventRing(8);
+        ring.addConsumer("first", (event, sequence, endOfBatch) -> first.add(event.getSessionId()));
+        ring.addConsumer("second", (event, sequence, endOfBatch) -> {
+            if (sequence % 100 == 0) Thread.yield();
+            second.add(event.getSessionId());
+        });
+        ring.start();
+        for (long i = 0; i < 1000; i++) {
+            ring.publish(GameEvent.Type.MOVE_MADE, i, 0, 0, 'X', 1);
+        }
+        ring.close();
+
+        assertEquals(1000, first.size());
+        assertEquals(1000, second.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, first.get(i).longValue());
+            assertEquals(i, second.get(i).longValue());
+        }
+        assertEquals(999, ring.getCursor());
+        assertEquals(0, ring.getLag());
+    }
+
+    @Test
+    void gamePublishesSessionMovesAndResult() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        GameEventRing ring = new GameEventRing(16);
+        ring.addConsumer("journal", (event, sequence, endOfBatch) ->
+                events.add(event.getType() + ":" + event.getMark() + ":" + event.getPly()));
+        ring.start();
+
+        Game game = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+        game.setEventRing(ring, 7L);
+        game.makeMove(0, 0);
+        game.makeMove(1, 0);
+        game.makeMove(0, 1);
+        game.makeMove(1, 1);
+        game.makeMove(0, 2);
+        ring.close();
+
+        assertEquals(List.of("SESSION_CREATED: :0", "MOVE_MADE:X:1", "MOVE_MADE:O:2", "MOVE_MADE:X:3",
+                "MOVE_MADE:O:4", "MOVE_MADE:X:5", "GAME_WON:X:5"), events);
+    }
+
+    @Test
+    void failingHandlerDoesNotStallProducer() {
+        GameEventRing ring = new GameEventRing(2);
+        ring.addConsumer("broken", (event, sequence, endOfBatch) -> {
+            throw new IllegalStateException("boom");
+        });
+        List<String> reported = new CopyOnWriteArrayList<>();
+        ring.setExceptionHandler((failure, event, sequence, consumer) -> {
+            reported.add(consumer + ":" + sequence + ":" + event.getSessionId() + ":" + failure.getMessage());
+            if (sequence == 3) {
+                throw new IllegalStateException("reporting failed too");
+            }
+        });
+        ring.start();
+        for (int i = 0; i < 10; i++) {
+            ring.publish(GameEvent.Type.GAME_TIED, i, -1, -1, ' ', 9);
+        }
+        ring.close();
+        assertEquals(9, ring.getCursor());
+        assertEquals(10, ring.getFailureCount());
+        assertEquals(10, reported.size());
+        assertEquals("broken:0:0:boom", reported.get(0));
+        assertThrows(IllegalArgumentException.class, () -> ring.setExceptionHandler(null));
+    }
+
+    @Test
+    void rejectsInvalidCapacityAndLateConsumers() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEventRing(3));
+        GameEventRing ring = new GameEventRing(4);
+        ring.start();
+        assertThrows(IllegalStateException.class, () -> ring.addConsumer("late", (e, s, b) -> { }));
+        ring.close();
+    }
+}
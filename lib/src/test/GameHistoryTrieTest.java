@@ -0,0 +1,139 @@
+package lib.src.test;
+
+import lib.src.main.Game;
+import lib.src.main.GameHistoryTrie;
+import lib.src.main.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameHistoryTrieTest {
+
+    private static GameHistoryTrie sample() {
+        GameHistoryTrie trie = new GameHistoryTrie();
+        trie.add(new int[] {4, 0, 8, 2, 6, 1, 7}, 7, GameHistoryTrie.Outcome.O_WON);
+        trie.add(new int[] {4, 0, 8, 2, 1, 7, 6, 3, 5}, 9, GameHistoryTrie.Outcome.TIED);
+        trie.add(new int[] {4, 0, 8, 2, 6, 1, 7}, 7, GameHistoryTrie.Outcome.O_WON);
+        trie.add(new int[] {0, 3, 1, 4, 2}, 5, GameHistoryTrie.Outcome.X_WON);
+        return trie;
+    }
+
+    @Test
+    void sharesCommonPrefixes() {
+        GameHistoryTrie trie = sample();
+        assertEquals(4, trie.getGameCount());
+        // root, 7 for the first game, 5 more where the second leaves it at 4,0,8,2, and 5 for the last
+        assertEquals(18, trie.getNodeCount());
+        assertEquals(18L * GameHistoryTrie.NODE_BYTES, trie.getMemoryBytes());
+    }
+
+    @Test
+    void countsGamesByPrefix() {
+        GameHistoryTrie trie = sample();
+        GameHistoryTrie.Stats opening = trie.query(4, 0, 8);
+        assertEquals(3, opening.getGames());
+        assertEquals(2, opening.getOWins());
+        assertEquals(1, opening.getTies());
+        assertEquals(0, opening.getXWins());
+        assertEquals(4, trie.query().getGames());
+        assertEquals(0, trie.query(4, 1).getGames());
+    }
+
+    @Test
+    void listsContinuations() {
+        GameHistoryTrie.Stats[] next = sample().continuations(4, 0, 8, 2);
+        assertEquals(2, next[6].getGames());
+        assertEquals(1, next[1].getGames());
+        assertNull(next[3]);
+    }
+
+    @Test
+    void visitsEachDistinctGame() {
+        List<String> games = new ArrayList<>();
+        int visited = sample().forEachGame(new int[] {4, 0}, (moves, length, stats) ->
+                games.add(Arrays.toString(Arrays.copyOf(moves, length)) + " " + stats.getGames()));
+        assertEquals(2, visited);
+        assertTrue(games.contains("[4, 0, 8, 2, 6, 1, 7] 2"));
+        assertTrue(games.contains("[4, 0, 8, 2, 1, 7, 6, 3, 5] 1"));
+        assertEquals(0, sample().forEachGame(new int[] {8}, (moves, length, stats) -> fail("no games start at 8")));
+    }
+
+    @Test
+    void countsGamesEndingMidSequence() {
+        GameHistoryTrie trie = new GameHistoryTrie();
+        trie.add(new int[] {0, 1, 2}, 3, GameHistoryTrie.Outcome.X_WON);
+        trie.add(new int[] {0, 1, 2, 3}, 4, GameHistoryTrie.Outcome.TIED);
+        List<Integer> lengths = new ArrayList<>();
+        trie.forEachGame(new int[0], (moves, length, stats) -> lengths.add(length));
+        assertEquals(List.of(3, 4), lengths);
+    }
+
+    @Test
+    void storesFinishedGames() {
+        Game game = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+        GameHistoryTrie trie = new GameHistoryTrie();
+        assertThrows(IllegalArgumentException.class, () -> trie.add(game));
+        game.makeMove(0, 0);
+        game.makeMove(1, 0);
+        game.makeMove(0, 1);
+        game.makeMove(1, 1);
+        game.makeMove(0, 2);
+        trie.add(game);
+        assertEquals(1, trie.query(0, 3, 1).getXWins());
+    }
+
+    @Test
+    void rejectsInvalidSequences() {
+        GameHistoryTrie trie = new GameHistoryTrie();
+        assertThrows(IllegalArgumentException.class, () -> trie.add(new int[] {0, 0}, 2, GameHistoryTrie.Outcome.TIED));
+        assertThrows(IllegalArgumentException.class, () -> trie.add(new int[] {9}, 1, GameHistoryTrie.Outcome.TIED));
+        assertThrows(IllegalArgumentException.class, () -> trie.add(new int[] {0}, 2, GameHistoryTrie.Outcome.TIED));
+        assertThrows(IllegalArgumentException.class, () -> trie.add(new int[] {0}, 1, null));
+    }
+
+    @Test
+    void snapshotRoundTrips() throws IOException {
+        GameHistoryTrie trie = new GameHistoryTrie();
+        SplittableRandom random = new SplittableRandom(49);
+        int[] moves = new int[9];
+        for (int i = 0; i < 5_000; i++) {
+            int length = 5 + random.nextInt(5);
+            int used = 0;
+            for (int m = 0; m < length; m++) {
+                int cell;
+                do {
+                    cell = random.nextInt(9);
+                } while ((used & (1 << cell)) != 0);
+                used |= 1 << cell;
+                moves[m] = cell;
+            }
+            trie.add(moves, length, GameHistoryTrie.Outcome.values()[random.nextInt(3)]);
+        }
+        Path file = Files.createTempFile("history", ".bin");
+        try {
+            trie.write(file);
+            GameHistoryTrie copy = GameHistoryTrie.read(file);
+            assertEquals(trie.getNodeCount(), copy.getNodeCount());
+            assertEquals(trie.getGameCount(), copy.getGameCount());
+            List<String> expected = new ArrayList<>();
+            List<String> actual = new ArrayList<>();
+            trie.forEachGame(new int[0], (m, length, stats) -> expected.add(Arrays.toString(Arrays.copyOf(m, length)) + stats));
+            copy.forEachGame(new int[0], (m, length, stats) -> actual.add(Arrays.toString(Arrays.copyOf(m, length)) + stats));
+            assertEquals(expected, actual);
+            assertTrue(Files.size(file) < trie.getMemoryBytes());
+
+            Files.write(file, Arrays.copyOf(Files.readAllBytes(file), (int) Files.size(file) - 3));
+            assertThrows(IOException.class, () -> GameHistoryTrie.read(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package lib.src.test;
+
+import lib.src.main.Game;
+import lib.src.main.GamePool;
+import lib.src.main.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GamePoolTest {
+
+    private Player playerX;
+    private Player playerO;
+    private GamePool pool;
+
+    @BeforeEach
+    void setUp() {
+        playerX = new Player("Alice", 'X');
+        playerO = new Player("Bob", 'O');
+        pool = new GamePool(4);
+    }
+
+    @Test
+    void releasedGameIsReusedAndReset() {
+        GamePool.Lease first = pool.acquire(playerX, playerO);
+        Game game = first.game();
+        game.makeMove(1, 1);
+        first.close();
+        assertEquals(1, pool.idleCount());
+
+        Player carol = new Player("Carol", 'X');
+        GamePool.Lease second = pool.acquire(carol, playerO);
+        assertSame(game, second.game());
+        assertEquals(carol, second.game().getCurrentPlayer());
+        assertTrue(second.game().isValidMove(1, 1));
+        assertEquals(Game.GameState.IN_PROGRESS, second.game().getGameState());
+    }
+
+    @Test
+    void staleLeaseCannotReachRecycledGame() {
+        GamePool.Lease first = pool.acquire(playerX, playerO);
+        first.close();
+        assertThrows(IllegalStateException.class, first::game);
+
+        GamePool.Lease second = pool.acquire(playerX, playerO);
+        assertThrows(IllegalStateException.class, first::game);
+        assertNotNull(second.game());
+    }
+
+    @Test
+    void closingStaleLeaseDoesNotReleaseNewOwnersGame() {
+        GamePool.Lease first = pool.acquire(playerX, playerO);
+        first.close();
+        GamePool.Lease second = pool.acquire(playerX, playerO);
+        first.close();
+        assertEquals(0, pool.idleCount());
+        assertTrue(second.game().makeMove(0, 0));
+    }
+
+    @Test
+    void directReferenceToPooledGameRefusesMoves() {
+        GamePool.Lease lease = pool.acquire(playerX, playerO);
+        Game game = lease.game();
+        lease.close();
+        assertThrows(IllegalStateException.class, () -> game.makeMove(0, 0));
+    }
+
+    @Test
+    void staleLeaseCannotMoveInReleasedGame() {
+        GamePool.Lease first = pool.acquire(playerX, playerO);
+        first.close();
+        GamePool.Lease second = pool.acquire(playerX, playerO);
+        assertThrows(IllegalStateException.class, () -> first.makeMove(0, 0));
+        assertTrue(second.makeMove(0, 0));
+        assertEquals('X', second.game().getBoard().getMark(0, 0));
+    }
+
+    @Test
+    void pooledGameCannotBeResetByStaleHolder() {
+        GamePool.Lease lease = pool.acquire(playerX, playerO);
+        Game game = lease.game();
+        lease.close();
+        assertThrows(IllegalStateException.class, game::reset);
+        assertThrows(IllegalStateException.class, () -> game.reset(playerX, playerO));
+        assertThrows(IllegalStateException.class, () -> game.makeMove(0, 0));
+        assertEquals(1, pool.idleCount());
+
+        GamePool.Lease next = pool.acquire(playerX, playerO);
+        assertSame(game, next.game());
+        assertTrue(next.makeMove(1, 1));
+    }
+
+    @Test
+    void poolKeepsAtMostConfiguredIdleGames() {
+        GamePool small = new GamePool(1);
+        GamePool.Lease a = small.acquire(playerX, playerO);
+        GamePool.Lease b = small.acquire(playerX, playerO);
+        a.close();
+        b.close();
+        assertEquals(1, small.idleCount());
+    }
+
+    @Test
+    void rejectsNegativeSize() {
+        assertThrows(IllegalArgumentException.class, () -> new GamePool(-1));
+    }
+}
@@ -3,10 +3,18 @@ package lib.src.test;
 
 import lib.src.main.Board;
 import lib.src.main.Game;
+import lib.src.main.GameClock;
+import lib.src.main.GameCodec;
+import lib.src.main.GameHistoryTrie;
 import lib.src.main.Player;
+import lib.src.main.TimerWheel;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameTest {
@@ -100,6 +108,179 @@ class GameTest {
         assertEquals(Game.GameState.TIED, game.getGameState());
     }
 
+    // reset
+    @Test
+    void testResetStartsNewGame() {
+        game.makeMove(0, 0);
+        game.makeMove(1, 1);
+        int generation = game.getGeneration();
+        game.reset();
+        assertEquals(Game.GameState.IN_PROGRESS, game.getGameState());
+        assertEquals(playerX, game.getCurrentPlayer());
+        assertTrue(game.isValidMove(0, 0));
+        assertTrue(game.isValidMove(1, 1));
+        assertEquals(generation + 1, game.getGeneration());
+    }
+
+    @Test
+    void testResetWithNewPlayers() {
+        Player carol = new Player("Carol", 'X');
+        game.reset(carol, playerO);
+        assertEquals(carol, game.getPlayerX());
+        assertThrows(IllegalArgumentException.class, () -> game.reset(playerO, playerX));
+    }
+
+    // move history
+    @Test
+    void testMoveHistoryRecordsCellsInOrder() {
+        game.makeMove(1, 1);
+        game.makeMove(0, 0);
+        game.makeMove(2, 2);
+        assertArrayEquals(new int[] {4, 0, 8}, game.getMoveHistory());
+        assertEquals(3, game.getMoveCount());
+    }
+
+    @Test
+    void testRejectedMoveIsNotRecorded() {
+        game.makeMove(1, 1);
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(1, 1));
+        assertArrayEquals(new int[] {4}, game.getMoveHistory());
+    }
+
+    @Test
+    void testRestoredWinCompletesLineOnLastMove() {
+        Board board = new Board();
+        for (int cell : new int[] {0, 1, 2, 4}) board.placeMark(cell / 3, cell % 3, 'X');
+        for (int cell : new int[] {3, 5, 6}) board.placeMark(cell / 3, cell % 3, 'O');
+        GameCodec.decode(GameCodec.encode(board, 'O'), game);
+        assertTrue(game.hasMoveHistory());
+        int[] moves = game.getMoveHistory();
+        assertArrayEquals(new int[] {1, 3, 2, 5, 4, 6, 0}, moves);
+
+        Game replay = new Game(playerX, playerO);
+        for (int i = 0; i < moves.length; i++) {
+            assertFalse(replay.isGameOver(), "game ended before move " + i);
+            assertTrue(replay.makeMove(moves[i] / 3, moves[i] % 3));
+        }
+        assertEquals(playerX, replay.getWinner());
+    }
+
+    @Test
+    void testRestoredImpossiblePositionHasNoHistory() {
+        Board board = new Board();
+        for (int cell : new int[] {0, 1, 2}) board.placeMark(cell / 3, cell % 3, 'X');
+        for (int cell : new int[] {3, 4, 5}) board.placeMark(cell / 3, cell % 3, 'O');
+        GameCodec.decode(GameCodec.encode(board, 'X'), game);
+        assertFalse(game.hasMoveHistory());
+        assertThrows(IllegalStateException.class, game::getMoveHistory);
+        assertThrows(IllegalArgumentException.class, () -> new GameHistoryTrie().add(game));
+
+        game.reset();
+        assertTrue(game.hasMoveHistory());
+    }
+
+    @Test
+    void testResetClearsMoveHistory() {
+        game.makeMove(0, 0);
+        game.makeMove(1, 1);
+        game.reset();
+        assertEquals(0, game.getMoveHistory().length);
+        game.makeMove(2, 2);
+        assertArrayEquals(new int[] {8}, game.getMoveHistory());
+    }
+
+    // clocks
+    @Test
+    void testClockChargesEachMove() {
+        GameClock clock = new GameClock(Duration.ofSeconds(10), Duration.ofSeconds(1));
+        game.setClock(clock, null, 0);
+        assertTrue(game.makeMove(0, 0, 3_000_000_000L));
+        assertEquals(8_000_000_000L, clock.getRemainingNanos('X', 3_000_000_000L));
+        assertEquals('O', clock.getRunningMark());
+        assertTrue(game.makeMove(1, 1, 5_000_000_000L));
+        assertEquals(9_000_000_000L, clock.getRemainingNanos('O', 5_000_000_000L));
+    }
+
+    @Test
+    void testMoveAfterFlagFallLosesOnTime() {
+        game.setClock(GameClock.suddenDeath(Duration.ofSeconds(1)), null, 0);
+        assertTrue(game.makeMove(0, 0, 500_000_000L));
+        assertFalse(game.makeMove(1, 1, 2_000_000_000L));
+        assertTrue(game.isGameOver());
+        assertTrue(game.isWonOnTime());
+        assertEquals(playerX, game.getWinner());
+        assertFalse(game.isValidMove(1, 1));
+    }
+
+    @Test
+    void testFlagWheelEndsStalledGame() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 64);
+        long start = System.nanoTime();
+        game.setClock(GameClock.suddenDeath(Duration.ofMillis(5)), wheel, start);
+        assertEquals(1, wheel.size());
+        assertTrue(game.makeMove(0, 0, start));
+        assertEquals(1, wheel.size());
+        while (!game.isFlagFallPending() && System.nanoTime() - start < 5_000_000_000L) {
+            Thread.sleep(1);
+            wheel.advance(System.nanoTime());
+        }
+        // the wheel only posts the flag fall; the game applies it on its own thread
+        assertEquals(Game.GameState.IN_PROGRESS, game.getGameState());
+        assertFalse(game.makeMove(1, 1, System.nanoTime()));
+        assertFalse(game.isFlagFallPending());
+        assertTrue(game.isWonOnTime());
+        assertEquals(playerX, game.getWinner());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testSharedFlagWheelServesGamesOnTwoThreads() throws Exception {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 64);
+        Game[] games = {game, new Game(new Player("Carol", 'X'), new Player("Dave", 'O'))};
+        Game.GameState[] whenPosted = new Game.GameState[2];
+        boolean[] lostOnTime = new boolean[2];
+        CountDownLatch armed = new CountDownLatch(2);
+        Thread[] threads = new Thread[2];
+        for (int i = 0; i < 2; i++) {
+            int index = i;
+            threads[i] = new Thread(() -> {
+                Game own = games[index];
+                long start = System.nanoTime();
+                own.setClock(GameClock.suddenDeath(Duration.ofMillis(5 + 5 * index)), wheel, start);
+                own.makeMove(index, index, start);
+                armed.countDown();
+                while (!own.isFlagFallPending() && System.nanoTime() - start < 5_000_000_000L) {
+                    Thread.onSpinWait();
+                }
+                whenPosted[index] = own.getGameState();
+                lostOnTime[index] = own.checkFlag(System.nanoTime());
+            });
+            threads[i].start();
+        }
+        assertTrue(armed.await(5, TimeUnit.SECONDS));
+        while (threads[0].isAlive() || threads[1].isAlive()) {
+            Thread.sleep(1);
+            wheel.advance(System.nanoTime());
+        }
+        for (int i = 0; i < 2; i++) {
+            assertEquals(Game.GameState.IN_PROGRESS, whenPosted[i]);
+            assertTrue(lostOnTime[i]);
+            assertTrue(games[i].isWonOnTime());
+            assertEquals('X', games[i].getWinner().getMark());
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testResetDetachesClock() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 64, 0);
+        game.setClock(GameClock.suddenDeath(Duration.ofSeconds(1)), wheel, 0);
+        game.reset();
+        assertNull(game.getClock());
+        assertEquals(0, wheel.size());
+        assertTrue(game.makeMove(0, 0, Long.MAX_VALUE));
+    }
+
     // toString
     @Test
     void testToStringContainsCurrentPlayer() {
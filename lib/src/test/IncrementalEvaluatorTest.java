@@ -0,0 +1,98 @@
+package lib.src.test;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.IncrementalEvaluator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalEvaluatorTest {
+
+    private IncrementalEvaluator evaluator;
+
+    @BeforeEach
+    void setUp() {
+        evaluator = new IncrementalEvaluator(BoardGeometry.STANDARD);
+    }
+
+    @Test
+    void emptyBoardIsBalanced() {
+        assertEquals(0, evaluator.evaluate('X'));
+        assertEquals(0, evaluator.getThreatCells('X'));
+    }
+
+    @Test
+    void countsOpenLinesAndBlocks() {
+        evaluator.place(4, 'X');
+        assertEquals(4, evaluator.getOpenLines('X', 1));
+        evaluator.place(0, 'O');
+        // O's corner blocks X's diagonal
+        assertEquals(3, evaluator.getOpenLines('X', 1));
+        assertEquals(2, evaluator.getOpenLines('O', 1));
+        assertTrue(evaluator.evaluate('O') < 0);
+        assertEquals(-evaluator.evaluate('O'), evaluator.evaluate('X'));
+    }
+
+    @Test
+    void detectsThreatsForksAndWins() {
+        // X . .
+        // . X .
+        // . . .   X threatens 8; adding 2 makes a fork on 1 and 8 (and 6)
+        evaluator.place(0, 'X');
+        evaluator.place(4, 'X');
+        assertEquals(1, evaluator.getThreatCells('X'));
+        assertEquals(IncrementalEvaluator.WIN_SCORE - 1, evaluator.evaluate('X'));
+        evaluator.place(8, 'O');
+        assertEquals(0, evaluator.getThreatCells('X'));
+        evaluator.place(2, 'X');
+        assertTrue(evaluator.hasFork('X'));
+        assertEquals(-(IncrementalEvaluator.WIN_SCORE - 2), evaluator.evaluate('O'));
+        evaluator.place(1, 'X');
+        assertTrue(evaluator.isWin('X'));
+        assertEquals(-IncrementalEvaluator.WIN_SCORE, evaluator.evaluate('O'));
+
+        evaluator.remove(1);
+        assertFalse(evaluator.isWin('X'));
+        assertTrue(evaluator.hasFork('X'));
+    }
+
+    @Test
+    void matchesFromScratchEvaluation() {
+        BoardGeometry[] geometries = {BoardGeometry.STANDARD, new BoardGeometry(4, 4, 3), new BoardGeometry(7, 7, 4),
+                new BoardGeometry(8, 8, 5)};
+        SplittableRandom random = new SplittableRandom(40);
+        for (BoardGeometry geometry : geometries) {
+            IncrementalEvaluator incremental = new IncrementalEvaluator(geometry);
+            int cells = geometry.getCellCount();
+            for (int step = 0; step < 5000; step++) {
+                long occupied = incremental.getMask('X') | incremental.getMask('O');
+                int cell = random.nextInt(cells);
+                if ((occupied & (1L << cell)) != 0) {
+                    incremental.remove(cell);
+                } else {
+                    incremental.place(cell, random.nextBoolean() ? 'X' : 'O');
+                }
+                char toMove = random.nextBoolean() ? 'X' : 'O';
+                long x = incremental.getMask('X');
+                long o = incremental.getMask('O');
+                assertEquals(IncrementalEvaluator.evaluate(geometry, x, o, toMove), incremental.evaluate(toMove),
+                        geometry + " after step " + step);
+            }
+            IncrementalEvaluator loaded = new IncrementalEvaluator(geometry);
+            loaded.load(incremental.getMask('X'), incremental.getMask('O'));
+            assertEquals(incremental.evaluate('X'), loaded.evaluate('X'));
+        }
+    }
+
+    @Test
+    void rejectsInvalidUpdates() {
+        evaluator.place(4, 'X');
+        assertThrows(IllegalArgumentException.class, () -> evaluator.place(4, 'O'));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.remove(0));
+        assertThrows(IllegalArgumentException.class, () -> evaluator.place(0, '?'));
+        assertThrows(IllegalArgumentException.class, () -> new IncrementalEvaluator(new BoardGeometry(3, 3, 1)));
+    }
+}
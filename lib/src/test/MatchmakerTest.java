@@ -0,0 +1,90 @@
+package lib.src.test;
+
+import lib.src.main.ComputerPlayer;
+import lib.src.main.Game;
+import lib.src.main.MatchRequest;
+import lib.src.main.Matchmaker;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchmakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void pairsPlayersInSameBucket() {
+        Matchmaker matchmaker = new Matchmaker(16, 100, 16, Duration.ofSeconds(5));
+        List<Matchmaker.Match> matches = new ArrayList<>();
+        assertTrue(matchmaker.submit(new MatchRequest("Alice", 1210, 0)));
+        assertTrue(matchmaker.submit(new MatchRequest("Bob", 1580, SECOND)));
+        assertTrue(matchmaker.submit(new MatchRequest("Carol", 1290, 2 * SECOND)));
+        assertEquals(1, matchmaker.pair(3 * SECOND, matches::add));
+
+        Matchmaker.Match match = matches.get(0);
+        assertEquals("Alice", match.getGame().getPlayerX().getName());
+        assertEquals("Carol", match.getGame().getPlayerO().getName());
+        assertEquals(Game.GameState.IN_PROGRESS, match.getGame().getGameState());
+        assertFalse(match.isBotMatch());
+        assertEquals(3 * SECOND, match.getWaitNanos());
+        assertEquals(1, matchmaker.getWaitingCount());
+    }
+
+    @Test
+    void givesBotAfterTimeout() {
+        Matchmaker matchmaker = new Matchmaker(16, 100, 16, Duration.ofSeconds(5));
+        List<Matchmaker.Match> matches = new ArrayList<>();
+        matchmaker.submit(new MatchRequest("Alice", 1200, 0));
+        assertEquals(0, matchmaker.pair(4 * SECOND, matches::add));
+        assertEquals(1, matchmaker.pair(5 * SECOND, matches::add));
+
+        Matchmaker.Match match = matches.get(0);
+        assertTrue(match.isBotMatch());
+        assertNull(match.getRequestO());
+        assertTrue(match.getGame().getPlayerO() instanceof ComputerPlayer);
+        assertEquals(0, matchmaker.getWaitingCount());
+        assertEquals(1, matchmaker.getBotMatches());
+        assertEquals(1, matchmaker.getMatches());
+    }
+
+    @Test
+    void refusesRequestsWhenQueueIsFull() {
+        Matchmaker matchmaker = new Matchmaker(2, 100, 16, Duration.ofSeconds(5));
+        assertTrue(matchmaker.submit(new MatchRequest("A", 1000, 0)));
+        assertTrue(matchmaker.submit(new MatchRequest("B", 2000, 0)));
+        assertFalse(matchmaker.submit(new MatchRequest("C", 3000, 0)));
+        assertEquals(1, matchmaker.getRejected());
+        assertEquals(2, matchmaker.getSubmitted());
+        matchmaker.pair(0, match -> { });
+        assertTrue(matchmaker.submit(new MatchRequest("C", 3000, 0)));
+    }
+
+    @Test
+    void takesAtMostOneBatchPerRound() {
+        Matchmaker matchmaker = new Matchmaker(16, 100, 2, Duration.ofSeconds(5));
+        for (int i = 0; i < 6; i++) {
+            matchmaker.submit(new MatchRequest("P" + i, 1500, 0));
+        }
+        List<Matchmaker.Match> matches = new ArrayList<>();
+        assertEquals(1, matchmaker.pair(0, matches::add));
+        assertEquals(4, matchmaker.getQueuedCount());
+        assertEquals(1, matchmaker.pair(0, matches::add));
+        assertEquals(1, matchmaker.pair(0, matches::add));
+        assertEquals("P4", matches.get(2).getRequestX().getName());
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new Matchmaker(3, 100, 16, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new Matchmaker(4, 0, 16, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new Matchmaker(4, 100, 0, Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> new Matchmaker(4, 100, 16, Duration.ofSeconds(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new Matchmaker(4, 100, 16, Duration.ofSeconds(1)).submit(null));
+        assertThrows(IllegalArgumentException.class, () -> new MatchRequest("A", -1));
+        assertThrows(IllegalArgumentException.class, () -> new MatchRequest(" ", 1000));
+    }
+}
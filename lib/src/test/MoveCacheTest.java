@@ -0,0 +1,136 @@
+package lib.src.test;
+
+import lib.src.main.MoveCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveCacheTest {
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new MoveCache(16, 3, MoveCache.Eviction.CLOCK));
+        assertThrows(IllegalArgumentException.class, () -> new MoveCache(2, 4, MoveCache.Eviction.CLOCK));
+        assertThrows(IllegalArgumentException.class, () -> new MoveCache(16, 4, null));
+        MoveCache cache = new MoveCache(16, 4, MoveCache.Eviction.CLOCK);
+        assertThrows(IllegalArgumentException.class, () -> cache.put(1, MoveCache.ABSENT));
+    }
+
+    @Test
+    void storesAndReplacesValues() {
+        MoveCache cache = new MoveCache(64, 4, MoveCache.Eviction.CLOCK);
+        assertEquals(MoveCache.ABSENT, cache.get(42));
+        cache.put(42, 7);
+        cache.put(-1, -1);
+        assertEquals(7, cache.get(42));
+        assertEquals(-1, cache.get(-1));
+        cache.put(42, 8);
+        assertEquals(8, cache.get(42));
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.75, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void neverExceedsCapacity() {
+        for (MoveCache.Eviction eviction : MoveCache.Eviction.values()) {
+            MoveCache cache = new MoveCache(100, 4, eviction);
+            for (long key = 0; key < 1_000; key++) {
+                cache.put(key * 7919, (int) key);
+            }
+            assertTrue(cache.size() <= cache.capacity(), eviction.name());
+            assertEquals(1_000 - cache.size(), cache.getEvictions(), eviction.name());
+            // every entry still cached is found with its own value
+            int found = 0;
+            for (long key = 0; key < 1_000; key++) {
+                int value = cache.get(key * 7919);
+                if (value != MoveCache.ABSENT) {
+                    assertEquals((int) key, value);
+                    found++;
+                }
+            }
+            assertEquals(cache.size(), found, eviction.name());
+        }
+    }
+
+    @Test
+    void lruEvictsLeastRecentlyUsed() {
+        MoveCache cache = new MoveCache(3, 1, MoveCache.Eviction.LRU);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        cache.get(1);
+        cache.put(4, 4);
+        assertEquals(MoveCache.ABSENT, cache.get(2));
+        assertEquals(1, cache.get(1));
+        assertEquals(3, cache.get(3));
+        assertEquals(4, cache.get(4));
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void clockGivesReadEntriesSecondChance() {
+        MoveCache cache = new MoveCache(3, 1, MoveCache.Eviction.CLOCK);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        cache.get(1);
+        cache.put(4, 4);
+        assertEquals(1, cache.get(1));
+        assertEquals(MoveCache.ABSENT, cache.get(2));
+        assertEquals(3, cache.get(3));
+        assertEquals(4, cache.get(4));
+    }
+
+    @Test
+    void clearEmptiesButKeepsCounters() {
+        MoveCache cache = new MoveCache(8, 2, MoveCache.Eviction.CLOCK);
+        cache.put(5, 5);
+        cache.get(5);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(MoveCache.ABSENT, cache.get(5));
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void concurrentUseKeepsValuesConsistent() throws InterruptedException {
+        for (MoveCache.Eviction eviction : MoveCache.Eviction.values()) {
+            MoveCache cache = new MoveCache(256, 8, eviction);
+            List<Thread> threads = new ArrayList<>();
+            List<Throwable> failures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                SplittableRandom random = new SplittableRandom(t);
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 50_000; i++) {
+                        long key = random.nextInt(1_000);
+                        int value = cache.get(key);
+                        if (value == MoveCache.ABSENT) {
+                            cache.put(key, (int) (key * 3));
+                        } else if (value != key * 3) {
+                            throw new AssertionError("Key " + key + " had value " + value);
+                        }
+                    }
+                });
+                thread.setUncaughtExceptionHandler((th, e) -> {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(failures.isEmpty(), failures.toString());
+            assertEquals(200_000, cache.getHits() + cache.getMisses());
+            assertTrue(cache.size() <= cache.capacity());
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.ComputerPlayer;
+import lib.src.main.MoveStrategy;
+import lib.src.main.MoveStrategyRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveStrategyRegistryTest {
+
+    private MoveStrategyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new MoveStrategyRegistry();
+    }
+
+    private static MoveStrategy strategy(String name, CompletableFuture<int[]> result) {
+        return new MoveStrategy() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+                return result;
+            }
+        };
+    }
+
+    @Test
+    void builtInStrategiesAreRegistered() {
+        assertTrue(registry.names().contains("random"));
+        assertTrue(registry.names().contains("smart"));
+        assertTrue(MoveStrategyRegistry.getDefault().names().contains("smart"));
+    }
+
+    @Test
+    void unknownStrategyIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> registry.get("missing"));
+    }
+
+    @Test
+    void registeredStrategyIsUsed() {
+        registry.register(strategy("corner", CompletableFuture.completedFuture(new int[]{2, 2})));
+        int[] move = registry.selectMove("corner", new Board(), 'X', Duration.ofSeconds(1)).join();
+        assertArrayEquals(new int[]{2, 2}, move);
+    }
+
+    @Test
+    void slowStrategyFallsBackToHeuristic() {
+        registry.register(strategy("slow", new CompletableFuture<>()));
+        int[] move = registry.selectMove("slow", new Board(), 'X', Duration.ofMillis(20)).join();
+        assertArrayEquals(new int[]{1, 1}, move);
+    }
+
+    @Test
+    void blockingStrategyDoesNotHoldUpCaller() {
+        CountDownLatch release = new CountDownLatch(1);
+        registry.register(new MoveStrategy() {
+            @Override
+            public String getName() {
+                return "blocking";
+            }
+
+            @Override
+            public CompletableFuture<int[]> selectMove(Board board, char mark, long deadlineNanos) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return CompletableFuture.completedFuture(new int[]{0, 0});
+            }
+        });
+        try {
+            CompletableFuture<int[]> move = registry.selectMove("blocking", new Board(), 'X', Duration.ofMillis(20));
+            assertArrayEquals(new int[]{1, 1}, move.join());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void failingStrategyFallsBackToHeuristic() {
+        registry.register(strategy("broken", CompletableFuture.failedFuture(new IllegalStateException("boom"))));
+        Board board = new Board();
+        board.placeMark(1, 1, 'X');
+        int[] move = registry.selectMove("broken", board, 'O', Duration.ofSeconds(1)).join();
+        assertArrayEquals(new int[]{0, 0}, move);
+    }
+
+    @Test
+    void computerPlayerResolvesThroughItsRegistry() {
+        registry.register(strategy("random", CompletableFuture.completedFuture(new int[]{0, 1})));
+        ComputerPlayer player = new ComputerPlayer("Bot", 'X', ComputerPlayer.Strategy.RANDOM, registry);
+        assertArrayEquals(new int[]{0, 1}, player.selectMove(new Board()));
+        assertArrayEquals(new int[]{0, 1}, player.selectMoveAsync(new Board(), Duration.ofSeconds(1)).join());
+    }
+
+    @Test
+    void computerPlayerUsesStrategyByRegistryName() {
+        registry.register(strategy("corner", CompletableFuture.completedFuture(new int[]{2, 2})));
+        ComputerPlayer player = new ComputerPlayer("Bot", 'X', "corner", registry);
+        assertArrayEquals(new int[]{2, 2}, player.selectMove(new Board()));
+        assertEquals("corner", player.getStrategyName());
+        assertNull(player.getStrategy());
+        assertEquals(ComputerPlayer.Strategy.SMART, new ComputerPlayer("Bot", 'X', "smart", registry).getStrategy());
+        assertThrows(IllegalArgumentException.class, () -> new ComputerPlayer("Bot", 'X', "missing", registry));
+    }
+
+    @Test
+    void rejectsNamelessStrategy() {
+        assertThrows(IllegalArgumentException.class, () -> registry.register(strategy(" ", null)));
+    }
+}
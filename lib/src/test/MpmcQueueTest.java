@@ -0,0 +1,98 @@
+package lib.src.test;
+
+import lib.src.main.MpmcQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpmcQueueTest {
+
+    @Test
+    void keepsArrivalOrder() {
+        MpmcQueue<Integer> queue = new MpmcQueue<>(4);
+        assertNull(queue.poll());
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.offer(i));
+            assertTrue(queue.offer(i + 100));
+            assertEquals(Integer.valueOf(i), queue.poll());
+            assertEquals(Integer.valueOf(i + 100), queue.poll());
+        }
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void refusesWhenFull() {
+        MpmcQueue<String> queue = new MpmcQueue<>(2);
+        assertTrue(queue.offer("a"));
+        assertTrue(queue.offer("b"));
+        assertFalse(queue.offer("c"));
+        assertEquals(2, queue.size());
+        assertEquals("a", queue.poll());
+        assertTrue(queue.offer("c"));
+    }
+
+    @Test
+    void drainsUpToBatchSize() {
+        MpmcQueue<Integer> queue = new MpmcQueue<>(8);
+        for (int i = 0; i < 5; i++) {
+            queue.offer(i);
+        }
+        Integer[] batch = new Integer[8];
+        assertEquals(3, queue.drain(batch, 3));
+        assertArrayEquals(new Object[] {0, 1, 2}, Arrays.copyOf(batch, 3));
+        assertEquals(2, queue.drain(batch, 8));
+        assertEquals(0, queue.drain(batch, 8));
+    }
+
+    @Test
+    void deliversEveryElementOnceUnderContention() throws InterruptedException {
+        int producers = 4;
+        int consumers = 4;
+        int perProducer = 50_000;
+        MpmcQueue<Integer> queue = new MpmcQueue<>(64);
+        AtomicIntegerArray seen = new AtomicIntegerArray(producers * perProducer);
+        AtomicLong received = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(producers + consumers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!queue.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+        for (int c = 0; c < consumers; c++) {
+            new Thread(() -> {
+                while (received.get() < (long) producers * perProducer) {
+                    Integer value = queue.poll();
+                    if (value == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    seen.incrementAndGet(value);
+                    received.incrementAndGet();
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+        for (int i = 0; i < seen.length(); i++) {
+            assertEquals(1, seen.get(i), "element " + i);
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new MpmcQueue<String>(3));
+        assertThrows(IllegalArgumentException.class, () -> new MpmcQueue<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new MpmcQueue<String>(4).offer(null));
+    }
+}
@@ -0,0 +1,94 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.BoardGeometry;
+import lib.src.main.Perft;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerftTest {
+
+    @Test
+    void fullGameTreeHasKnownGameCounts() {
+        Perft.Result result = Perft.run(new Board(), 9);
+        assertEquals(255168, result.getFinishedGames());
+        assertEquals(131184, result.getXWins());
+        assertEquals(77904, result.getOWins());
+        assertEquals(46080, result.getDraws());
+        assertEquals(0, result.getLeaves());
+        assertEquals(549945, result.getNodes());
+    }
+
+    @Test
+    void shallowDepthsCountLeaves() {
+        assertEquals(9, Perft.run(new Board(), 1).getLeaves());
+        assertEquals(72, Perft.run(new Board(), 2).getLeaves());
+        Perft.Result five = Perft.run(new Board(), 5);
+        assertEquals(1440, five.getXWins());
+        assertEquals(15120 - 1440, five.getLeaves());
+    }
+
+    @Test
+    void gameAndBoardAgreeWithKnownGameCounts() {
+        Perft.Result result = Perft.runGame(new Board(), 9);
+        assertEquals(255168, result.getFinishedGames());
+        assertEquals(131184, result.getXWins());
+        assertEquals(77904, result.getOWins());
+        assertEquals(46080, result.getDraws());
+        assertEquals(0, result.getLeaves());
+        assertEquals(549945, result.getNodes());
+    }
+
+    @Test
+    void gameModeMatchesBitmaskSearchFromPosition() {
+        Board board = new Board();
+        board.placeMark(1, 1, 'X');
+        board.placeMark(0, 0, 'O');
+        for (int depth = 0; depth <= 7; depth++) {
+            Perft.Result masks = Perft.run(board, depth);
+            Perft.Result game = Perft.runGame(board, depth);
+            assertEquals(masks.getNodes(), game.getNodes());
+            assertEquals(masks.getLeaves(), game.getLeaves());
+            assertEquals(masks.getXWins(), game.getXWins());
+            assertEquals(masks.getOWins(), game.getOWins());
+            assertEquals(masks.getDraws(), game.getDraws());
+        }
+    }
+
+    @Test
+    void cacheDoesNotChangeCounts() {
+        Perft.Result plain = Perft.run(BoardGeometry.STANDARD, 0L, 0L, 9, false, ForkJoinPool.commonPool());
+        Perft.Result cached = Perft.run(BoardGeometry.STANDARD, 0L, 0L, 9, true, ForkJoinPool.commonPool());
+        assertEquals(plain.getNodes(), cached.getNodes());
+        assertEquals(plain.getXWins(), cached.getXWins());
+        assertEquals(plain.getOWins(), cached.getOWins());
+        assertEquals(plain.getDraws(), cached.getDraws());
+    }
+
+    @Test
+    void startsFromGivenPosition() {
+        Board board = new Board();
+        board.placeMark(1, 1, 'X');
+        assertEquals(8, Perft.run(board, 1).getLeaves());
+    }
+
+    @Test
+    void finishedPositionHasNoChildren() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(1, 0, 'O');
+        board.placeMark(0, 1, 'X');
+        board.placeMark(1, 1, 'O');
+        board.placeMark(0, 2, 'X');
+        assertEquals(0, Perft.run(board, 4).getNodes());
+    }
+
+    @Test
+    void rejectsNegativeDepth() {
+        assertThrows(IllegalArgumentException.class, () -> Perft.run(new Board(), -1));
+        assertThrows(IllegalArgumentException.class, () -> Perft.runGame(new Board(), -1));
+    }
+}
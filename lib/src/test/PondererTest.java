@@ -0,0 +1,64 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.ComputerPlayer;
+import lib.src.main.Ponderer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PondererTest {
+
+    private ComputerPlayer computer;
+    private Ponderer ponderer;
+
+    @BeforeEach
+    void setUp() {
+        computer = new ComputerPlayer("Bot", 'O', ComputerPlayer.Strategy.SMART);
+        ponderer = new Ponderer(computer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ponderer.close();
+    }
+
+    @Test
+    void ponderedReplyMatchesFreshSearch() throws InterruptedException {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(1, 1, 'O');
+        ponderer.start(board);
+        assertTrue(ponderer.awaitPondered(10, TimeUnit.SECONDS));
+
+        int[] reply = ponderer.replyTo(0, 1);
+        Board after = board.copy();
+        after.placeMark(0, 1, 'X');
+        assertArrayEquals(computer.selectMove(after), reply);
+        assertEquals(1, ponderer.getHits());
+        assertEquals(1.0, ponderer.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void missWithoutPonderingCountsAndReturnsNull() {
+        assertNull(ponderer.replyTo(1, 1));
+        assertEquals(1, ponderer.getMisses());
+        assertEquals(0.0, ponderer.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void cancelDiscardsPonderedReplies() throws InterruptedException {
+        Board board = new Board();
+        board.placeMark(1, 1, 'X');
+        board.placeMark(0, 0, 'O');
+        ponderer.start(board);
+        assertTrue(ponderer.awaitPondered(10, TimeUnit.SECONDS));
+        ponderer.cancel();
+        assertFalse(ponderer.awaitPondered(10, TimeUnit.SECONDS));
+        assertNull(ponderer.replyTo(2, 2));
+    }
+}
@@ -0,0 +1,136 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.BoardGeometry;
+import lib.src.main.PositionAnalyzer;
+import lib.src.main.Tablebase;
+import lib.src.main.TablebaseGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionAnalyzerTest {
+
+    private PositionAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() {
+        analyzer = new PositionAnalyzer();
+    }
+
+    @Test
+    void everyOpeningMoveDraws() {
+        PositionAnalyzer.Analysis analysis = analyzer.analyze(new Board(), 'X');
+        assertEquals(Tablebase.Value.DRAW, analysis.getValue());
+        assertEquals(9, analysis.getDepth());
+        assertEquals(9, analysis.getMoves().size());
+        for (PositionAnalyzer.MoveAnalysis move : analysis.getMoves()) {
+            assertEquals(Tablebase.Value.DRAW, move.getValue());
+            assertEquals(9, move.getDepth());
+            assertEquals(9, move.getPrincipalVariation().length);
+        }
+    }
+
+    @Test
+    void ranksWinsBeforeDrawsBeforeLosses() {
+        // X X .
+        // O O .
+        // . . .   X to move: 0,2 wins at once, anything else but 1,2 loses
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(0, 1, 'X');
+        board.placeMark(1, 0, 'O');
+        board.placeMark(1, 1, 'O');
+        PositionAnalyzer.Analysis analysis = analyzer.analyze(board, 'X');
+        assertEquals(Tablebase.Value.WIN, analysis.getValue());
+        assertEquals(1, analysis.getDepth());
+
+        PositionAnalyzer.MoveAnalysis best = analysis.getBestMove();
+        assertEquals(0, best.getRow());
+        assertEquals(2, best.getCol());
+        assertEquals(Tablebase.Value.WIN, best.getValue());
+        assertEquals(1, best.getPrincipalVariation().length);
+
+        List<PositionAnalyzer.MoveAnalysis> moves = analysis.getMoves();
+        PositionAnalyzer.MoveAnalysis worst = moves.get(moves.size() - 1);
+        assertEquals(Tablebase.Value.LOSS, worst.getValue());
+        assertEquals(2, worst.getDepth());
+        int[][] line = worst.getPrincipalVariation();
+        assertEquals(1, line[1][0]);
+        assertEquals(2, line[1][1]);
+    }
+
+    @Test
+    void sideToMoveIsTakenFromCaller() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(0, 1, 'X');
+        PositionAnalyzer.MoveAnalysis best = analyzer.analyze(board, 'O').getBestMove();
+        assertEquals(0, best.getRow());
+        assertEquals(2, best.getCol());
+        assertEquals(Tablebase.Value.WIN, analyzer.analyze(board, 'X').getValue());
+    }
+
+    @Test
+    void finishedGameHasNoMoves() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(1, 1, 'X');
+        board.placeMark(2, 2, 'X');
+        board.placeMark(1, 0, 'O');
+        board.placeMark(2, 0, 'O');
+        PositionAnalyzer.Analysis analysis = analyzer.analyze(board, 'O');
+        assertTrue(analysis.getMoves().isEmpty());
+        assertNull(analysis.getBestMove());
+        assertEquals(Tablebase.Value.LOSS, analysis.getValue());
+        assertEquals(0, analysis.getDepth());
+    }
+
+    @Test
+    void agreesWithTablebase() {
+        Tablebase tablebase = TablebaseGenerator.generate(BoardGeometry.STANDARD);
+        SplittableRandom random = new SplittableRandom(38);
+        for (int game = 0; game < 200; game++) {
+            Board board = new Board();
+            char mark = 'X';
+            int plies = random.nextInt(8);
+            for (int i = 0; i < plies && !board.isGameOver(); i++) {
+                int cell;
+                do {
+                    cell = random.nextInt(9);
+                } while (!board.isEmpty(cell / 3, cell % 3));
+                board.placeMark(cell / 3, cell % 3, mark);
+                mark = (mark == 'X') ? 'O' : 'X';
+            }
+            if (board.isGameOver()) continue;
+            long x = board.getMask('X');
+            long o = board.getMask('O');
+            PositionAnalyzer.Analysis analysis = analyzer.analyze(board, mark);
+            assertEquals(tablebase.value(x, o), analysis.getValue());
+            assertEquals(tablebase.depth(x, o), analysis.getDepth());
+            PositionAnalyzer.MoveAnalysis best = analysis.getBestMove();
+            assertEquals(analysis.getValue(), best.getValue());
+            assertEquals(analysis.getDepth(), best.getDepth());
+        }
+    }
+
+    @Test
+    void reusesCachedPositions() {
+        analyzer.analyze(new Board(), 'X');
+        int cached = analyzer.cachedPositions();
+        assertTrue(cached > 5000);
+        Board board = new Board();
+        board.placeMark(1, 1, 'X');
+        analyzer.analyze(board, 'O');
+        assertEquals(cached, analyzer.cachedPositions());
+    }
+
+    @Test
+    void rejectsInvalidSide() {
+        assertThrows(IllegalArgumentException.class, () -> analyzer.analyze(new Board(), ' '));
+    }
+}
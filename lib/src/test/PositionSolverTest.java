@@ -0,0 +1,67 @@
+package lib.src.test;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.PositionSolver;
+import lib.src.main.Tablebase;
+import lib.src.main.TablebaseGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PositionSolverTest {
+
+    @Test
+    void matchesTablebaseOnEveryStandardPosition() {
+        Tablebase tablebase = TablebaseGenerator.generate(BoardGeometry.STANDARD);
+        PositionSolver solver = new PositionSolver(BoardGeometry.STANDARD);
+        for (int index = 0; index < 19683; index++) {
+            long x = 0;
+            long o = 0;
+            int rest = index;
+            for (int cell = 0; cell < 9; cell++) {
+                if (rest % 3 == 1) x |= 1L << cell;
+                if (rest % 3 == 2) o |= 1L << cell;
+                rest /= 3;
+            }
+            assertEquals(tablebase.value(x, o), solver.value(x, o), "position " + index);
+            assertEquals(tablebase.depth(x, o), solver.depth(x, o), "position " + index);
+        }
+    }
+
+    @Test
+    void matchesTablebaseOnLargerBoard() {
+        BoardGeometry geometry = new BoardGeometry(3, 4, 3);
+        Tablebase tablebase = TablebaseGenerator.generate(geometry);
+        PositionSolver solver = new PositionSolver(geometry);
+        assertEquals(tablebase.value(0L, 0L), solver.value(0L, 0L));
+        assertEquals(tablebase.depth(0L, 0L), solver.depth(0L, 0L));
+        // X in a corner, O beside it
+        assertEquals(tablebase.value(1L, 2L), solver.value(1L, 2L));
+        assertEquals(tablebase.depth(1L, 2L), solver.depth(1L, 2L));
+    }
+
+    @Test
+    void reusesSolvedPositions() {
+        PositionSolver solver = new PositionSolver(BoardGeometry.STANDARD);
+        solver.value(0L, 0L);
+        int solved = solver.getSolvedPositions();
+        assertTrue(solved > 0);
+        // every position below the empty board is already known
+        solver.value(1L << 4, 0L);
+        assertEquals(solved, solver.getSolvedPositions());
+    }
+
+    @Test
+    void reportsImpossiblePositionsAsInvalid() {
+        PositionSolver solver = new PositionSolver(BoardGeometry.STANDARD);
+        assertEquals(Tablebase.Value.INVALID, solver.value(1L, 1L));
+        assertEquals(Tablebase.Value.INVALID, solver.value(0L, 1L));
+        assertEquals(Tablebase.Value.INVALID, solver.value(1L << 9, 0L));
+        assertEquals(Tablebase.Value.LOSS, solver.value(0b111L, 0b11000L));
+    }
+
+    @Test
+    void rejectsBoardsTooLargeForIndex() {
+        assertThrows(IllegalArgumentException.class, () -> new PositionSolver(new BoardGeometry(7, 6, 4)));
+    }
+}
@@ -0,0 +1,68 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.BoardGeometry;
+import lib.src.main.Game;
+import lib.src.main.Player;
+import lib.src.main.ProofNumberSolver;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProofNumberSolverTest {
+
+    @Test
+    void emptyBoardIsNotAForcedWinForEitherSide() {
+        ProofNumberSolver solver = new ProofNumberSolver();
+        Board board = new Board();
+        assertEquals(ProofNumberSolver.Result.DISPROVEN, solver.solve(board, 'X').getResult());
+        assertEquals(ProofNumberSolver.Result.DISPROVEN, solver.solve(board, 'O').getResult());
+    }
+
+    @Test
+    void edgeReplyToCenterOpeningLosesForO() {
+        Game game = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+        game.makeMove(1, 1);
+        game.makeMove(0, 1);
+        ProofNumberSolver.Solution solution = new ProofNumberSolver().solve(game, 'X');
+        assertEquals(ProofNumberSolver.Result.PROVEN, solution.getResult());
+        assertTrue(solution.getProofTreeSize() > 1);
+        assertTrue(solution.getNodesCreated() >= solution.getProofTreeSize());
+        assertTrue(solution.getWinningCell() >= 0);
+    }
+
+    @Test
+    void immediateWinIsReportedAsWinningCell() {
+        long x = (1L << 0) | (1L << 1);
+        long o = (1L << 3) | (1L << 4);
+        ProofNumberSolver.Solution solution = new ProofNumberSolver().solve(x, o, 'X');
+        assertEquals(ProofNumberSolver.Result.PROVEN, solution.getResult());
+        assertEquals(2, solution.getWinningCell());
+    }
+
+    @Test
+    void finishedGameIsSolvedWithoutSearch() {
+        long x = (1L << 0) | (1L << 1) | (1L << 2);
+        long o = (1L << 3) | (1L << 4);
+        ProofNumberSolver solver = new ProofNumberSolver();
+        assertEquals(ProofNumberSolver.Result.PROVEN, solver.solve(x, o, 'X').getResult());
+        assertEquals(ProofNumberSolver.Result.DISPROVEN, solver.solve(x, o, 'O').getResult());
+    }
+
+    @Test
+    void fourByFourWithThreeInARowIsAFirstPlayerWin() {
+        ProofNumberSolver solver = new ProofNumberSolver(new BoardGeometry(4, 4, 3), 1 << 20, 1 << 18);
+        assertEquals(ProofNumberSolver.Result.PROVEN, solver.solve(0L, 0L, 'X').getResult());
+    }
+
+    @Test
+    void tinyNodeLimitGivesUnknown() {
+        ProofNumberSolver solver = new ProofNumberSolver(BoardGeometry.STANDARD, 2, 16);
+        assertEquals(ProofNumberSolver.Result.UNKNOWN, solver.solve(0L, 0L, 'X').getResult());
+    }
+
+    @Test
+    void rejectsInvalidAttacker() {
+        assertThrows(IllegalArgumentException.class, () -> new ProofNumberSolver().solve(0L, 0L, 'Z'));
+    }
+}
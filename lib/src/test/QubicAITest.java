@@ -0,0 +1,88 @@
+package lib.src.test;
+
+import lib.src.main.QubicAI;
+import lib.src.main.QubicBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QubicAITest {
+
+    private static QubicBoard play(int... cells) {
+        QubicBoard board = new QubicBoard();
+        for (int cell : cells) {
+            board.play(cell);
+        }
+        return board;
+    }
+
+    @Test
+    void takesImmediateWin() {
+        // X holds three of the bottom row of layer 0; O has three in another layer but it is X's move
+        QubicBoard board = play(0, 48, 1, 49, 2, 50);
+        QubicAI ai = new QubicAI(2);
+        String before = board.toString();
+        assertEquals(3, ai.selectMove(board));
+        assertEquals(before, board.toString());
+    }
+
+    @Test
+    void blocksThreat() {
+        // O holds three of a column; X must take the fourth cell
+        QubicBoard board = play(0, 16, 5, 20, 63, 24);
+        assertEquals(28, new QubicAI(3).selectMove(board));
+    }
+
+    @Test
+    void beatsRandomPlayer() {
+        SplittableRandom random = new SplittableRandom(42);
+        QubicAI ai = new QubicAI(2);
+        int[] moves = new int[QubicBoard.CELLS];
+        int wins = 0;
+        for (int game = 0; game < 10; game++) {
+            QubicBoard board = new QubicBoard();
+            while (!board.isGameOver()) {
+                if (board.isXToMove() == (game % 2 == 0)) {
+                    board.play(ai.selectMove(board));
+                } else {
+                    board.play(moves[random.nextInt(board.generateMoves(moves))]);
+                }
+            }
+            char aiMark = (game % 2 == 0) ? 'X' : 'O';
+            if (board.getWinner() == aiMark) wins++;
+        }
+        assertEquals(10, wins);
+    }
+
+    @Test
+    void deeperSearchHoldsItsOwnAgainstShallowSearch() {
+        QubicAI deep = new QubicAI(3);
+        QubicAI shallow = new QubicAI(1);
+        QubicBoard board = new QubicBoard();
+        while (!board.isGameOver()) {
+            board.play((board.isXToMove() ? shallow : deep).selectMove(board));
+        }
+        assertNotEquals('X', board.getWinner());
+    }
+
+    @Test
+    void evaluationIsSymmetric() {
+        QubicBoard board = new QubicBoard();
+        assertEquals(0, QubicAI.evaluate(board));
+        board.play(QubicBoard.cell(1, 1, 1));
+        assertTrue(QubicAI.evaluate(board) < 0);
+    }
+
+    @Test
+    void returnsNoMoveWhenGameIsOver() {
+        QubicBoard board = play(0, 16, 1, 17, 2, 18, 3);
+        assertEquals(-1, new QubicAI(2).selectMove(board));
+    }
+
+    @Test
+    void rejectsInvalidDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new QubicAI(0));
+    }
+}
@@ -0,0 +1,113 @@
+package lib.src.test;
+
+import lib.src.main.QubicBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QubicBoardTest {
+
+    @Test
+    void has76DistinctLines() {
+        assertEquals(76, QubicBoard.lineCount());
+        Set<Long> lines = new HashSet<>();
+        for (int i = 0; i < QubicBoard.lineCount(); i++) {
+            assertEquals(4, Long.bitCount(QubicBoard.line(i)));
+            lines.add(QubicBoard.line(i));
+        }
+        assertEquals(76, lines.size());
+    }
+
+    @Test
+    void cornersAndCentreCellsLieOnSevenLines() {
+        int seven = 0;
+        int total = 0;
+        for (int cell = 0; cell < QubicBoard.CELLS; cell++) {
+            int lines = QubicBoard.linesThrough(cell);
+            assertTrue(lines == 4 || lines == 7, "cell " + cell + " is on " + lines + " lines");
+            if (lines == 7) seven++;
+            total += lines;
+        }
+        assertEquals(16, seven);
+        assertEquals(76 * 4, total);
+        assertEquals(7, QubicBoard.linesThrough(QubicBoard.cell(0, 0, 0)));
+        assertEquals(7, QubicBoard.linesThrough(QubicBoard.cell(1, 2, 1)));
+        assertEquals(4, QubicBoard.linesThrough(QubicBoard.cell(0, 0, 1)));
+    }
+
+    @Test
+    void perftCountsMoveSequences() {
+        QubicBoard board = new QubicBoard();
+        assertEquals(64, board.perft(1));
+        assertEquals(64L * 63, board.perft(2));
+        assertEquals(64L * 63 * 62, board.perft(3));
+        assertEquals(0, board.getPly());
+    }
+
+    @Test
+    void detectsSpaceDiagonalWin() {
+        QubicBoard board = new QubicBoard();
+        int[] moves = {
+                QubicBoard.cell(0, 0, 0), QubicBoard.cell(0, 0, 1),
+                QubicBoard.cell(1, 1, 1), QubicBoard.cell(0, 0, 2),
+                QubicBoard.cell(2, 2, 2), QubicBoard.cell(0, 1, 0)
+        };
+        for (int move : moves) {
+            board.play(move);
+        }
+        assertEquals(' ', board.getWinner());
+        board.play(QubicBoard.cell(3, 3, 3));
+        assertEquals('X', board.getWinner());
+        assertTrue(board.isGameOver());
+        assertFalse(board.isLegal(QubicBoard.cell(3, 0, 0)));
+        assertEquals(0, board.generateMoves(new int[QubicBoard.CELLS]));
+
+        board.undo();
+        assertEquals(' ', board.getWinner());
+        assertTrue(board.isXToMove());
+        assertEquals(' ', board.getMark(3, 3, 3));
+    }
+
+    @Test
+    void winThroughLastMoveMatchesFullScan() {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] moves = new int[QubicBoard.CELLS];
+        for (int game = 0; game < 200; game++) {
+            QubicBoard board = new QubicBoard();
+            while (!board.isGameOver()) {
+                char mover = board.getCurrentMark();
+                board.play(moves[random.nextInt(board.generateMoves(moves))]);
+                assertEquals(QubicBoard.isWin(board.getMask(mover)), board.getWinner() == mover);
+            }
+        }
+    }
+
+    @Test
+    void rejectsIllegalMoves() {
+        QubicBoard board = new QubicBoard();
+        board.play(0);
+        assertThrows(IllegalArgumentException.class, () -> board.play(0));
+        assertThrows(IllegalArgumentException.class, () -> board.play(64));
+        assertThrows(IllegalArgumentException.class, () -> board.getMark(4, 0, 0));
+        board.undo();
+        assertThrows(IllegalStateException.class, board::undo);
+    }
+
+    @Test
+    void copyIsIndependent() {
+        QubicBoard board = new QubicBoard();
+        board.play(21);
+        QubicBoard copy = new QubicBoard(board);
+        copy.play(42);
+        assertEquals(1, board.getPly());
+        assertEquals(2, copy.getPly());
+        assertEquals('X', copy.getMark(1, 1, 1));
+        copy.undo();
+        copy.undo();
+        assertEquals('X', board.getMark(1, 1, 1));
+    }
+}
@@ -0,0 +1,59 @@
+package lib.src.test;
+
+import lib.src.main.Game;
+import lib.src.main.Player;
+import lib.src.main.QubicGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QubicGameTest {
+
+    private Player playerX;
+    private Player playerO;
+    private QubicGame game;
+
+    @BeforeEach
+    void setUp() {
+        playerX = new Player("Alice", 'X');
+        playerO = new Player("Bob", 'O');
+        game = new QubicGame(playerX, playerO);
+    }
+
+    @Test
+    void alternatesPlayers() {
+        assertEquals(playerX, game.getCurrentPlayer());
+        assertTrue(game.makeMove(1, 2, 3));
+        assertEquals(playerO, game.getCurrentPlayer());
+        assertEquals('X', game.getBoard().getMark(1, 2, 3));
+        assertEquals(Game.GameState.IN_PROGRESS, game.getGameState());
+    }
+
+    @Test
+    void detectsVerticalWin() {
+        for (int layer = 0; layer < 3; layer++) {
+            game.makeMove(layer, 0, 0);
+            game.makeMove(layer, 3, 3);
+        }
+        assertFalse(game.isGameOver());
+        assertTrue(game.makeMove(3, 0, 0));
+        assertEquals(Game.GameState.WON, game.getGameState());
+        assertEquals(playerX, game.getWinner());
+        assertFalse(game.makeMove(2, 2, 2));
+    }
+
+    @Test
+    void rejectsInvalidMoves() {
+        game.makeMove(0, 0, 0);
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(0, 4, 0));
+        assertEquals(playerO, game.getCurrentPlayer());
+    }
+
+    @Test
+    void rejectsInvalidPlayers() {
+        assertThrows(IllegalArgumentException.class, () -> new QubicGame(null, playerO));
+        assertThrows(IllegalArgumentException.class, () -> new QubicGame(playerO, playerX));
+    }
+}
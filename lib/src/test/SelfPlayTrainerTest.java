@@ -0,0 +1,75 @@
+package lib.src.test;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.SelfPlayTrainer;
+import lib.src.main.Tablebase;
+import lib.src.main.TablebaseGenerator;
+import lib.src.main.ValueTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlayTrainerTest {
+
+    @Test
+    void convergesToPerfectPlay() {
+        Tablebase perfect = TablebaseGenerator.generate(BoardGeometry.STANDARD);
+        SelfPlayTrainer trainer = new SelfPlayTrainer(new ValueTable(BoardGeometry.STANDARD),
+                SelfPlayTrainer.DEFAULT_ALPHA, SelfPlayTrainer.DEFAULT_EPSILON);
+        SelfPlayTrainer.Evaluation untrained = trainer.evaluate(perfect, 200, 1);
+        assertTrue(untrained.getLosses() > 0);
+
+        trainer.train(200_000, 4);
+        assertEquals(200_000, trainer.getGamesPlayed());
+        SelfPlayTrainer.Evaluation trained = trainer.evaluate(perfect, 200, 1);
+        assertEquals(0, trained.getLosses());
+        assertEquals(0, trained.getWins());
+        assertTrue(trained.getOptimalMoveRate() > 0.99, "optimal move rate " + trained.getOptimalMoveRate());
+    }
+
+    @Test
+    void learnedValuesMatchGameTheory() {
+        SelfPlayTrainer trainer = new SelfPlayTrainer(new ValueTable(BoardGeometry.STANDARD),
+                SelfPlayTrainer.DEFAULT_ALPHA, SelfPlayTrainer.DEFAULT_EPSILON);
+        trainer.train(100_000, 2);
+        ValueTable table = trainer.getTable();
+        // X in the centre draws; X to move with the 1-4-7 column open wins
+        assertEquals(0f, table.get(table.index(1 << 4, 0)), 0.05);
+        assertEquals(1f, table.get(table.index(0b011 | 1 << 4, 0b1000 | 1 << 8 | 1 << 2)), 0.05);
+    }
+
+    @Test
+    void learnsOtherGeometries() {
+        // on 3x4 with three in a row the first player wins, so perfect play wins every game as X and loses every game as O
+        BoardGeometry geometry = new BoardGeometry(3, 4, 3);
+        SelfPlayTrainer trainer = new SelfPlayTrainer(new ValueTable(geometry),
+                SelfPlayTrainer.DEFAULT_ALPHA, SelfPlayTrainer.DEFAULT_EPSILON);
+        trainer.train(200_000, 2);
+        SelfPlayTrainer.Evaluation trained = trainer.evaluate(TablebaseGenerator.generate(geometry), 200, 1);
+        assertEquals(100, trained.getWins());
+        assertEquals(100, trained.getLosses());
+        assertTrue(trained.getOptimalMoveRate() > 0.95, "optimal move rate " + trained.getOptimalMoveRate());
+        assertThrows(IllegalArgumentException.class,
+                () -> trainer.evaluate(TablebaseGenerator.generate(BoardGeometry.STANDARD), 2, 1));
+    }
+
+    @Test
+    void interruptedTrainingStopsAndJoinsWorkers() {
+        SelfPlayTrainer trainer = new SelfPlayTrainer(new ValueTable(BoardGeometry.STANDARD),
+                SelfPlayTrainer.DEFAULT_ALPHA, SelfPlayTrainer.DEFAULT_EPSILON);
+        Thread.currentThread().interrupt();
+        trainer.train(Integer.MAX_VALUE, 2);
+        assertTrue(Thread.interrupted());
+        assertTrue(trainer.getGamesPlayed() < Integer.MAX_VALUE);
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> thread.getName().startsWith("self-play-")));
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        ValueTable table = new ValueTable(BoardGeometry.STANDARD);
+        assertThrows(IllegalArgumentException.class, () -> new SelfPlayTrainer(table, 0f, 0.1));
+        assertThrows(IllegalArgumentException.class, () -> new SelfPlayTrainer(table, 0.5f, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new SelfPlayTrainer(table, 0.5f, 0.1).train(0, 1));
+    }
+}
@@ -0,0 +1,86 @@
+package lib.src.test;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.ShardedSolver;
+import lib.src.main.Tablebase;
+import lib.src.main.TablebaseGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedSolverTest {
+
+    @Test
+    void mergedPrefixMatchesTablebase() throws Exception {
+        Tablebase tablebase = TablebaseGenerator.generate(BoardGeometry.STANDARD);
+        ShardedSolver.Result result = new ShardedSolver(BoardGeometry.STANDARD, 2, 2, 1).solve();
+        assertEquals(Tablebase.Value.DRAW, result.getRootValue());
+        assertEquals(9, result.getRootDepth());
+        assertEquals(2, result.getShards());
+        assertEquals(72, result.getFrontierPositions());
+        assertEquals(0, result.getRetries());
+        assertTrue(result.getWorkerPositions() > 0);
+        for (int x = 0; x < 9; x++) {
+            assertEquals(tablebase.value(1L << x, 0L), result.value(1L << x, 0L));
+            assertEquals(tablebase.depth(1L << x, 0L), result.depth(1L << x, 0L));
+            for (int o = 0; o < 9; o++) {
+                if (o == x) continue;
+                assertEquals(tablebase.value(1L << x, 1L << o), result.value(1L << x, 1L << o));
+                assertEquals(tablebase.depth(1L << x, 1L << o), result.depth(1L << x, 1L << o));
+            }
+        }
+    }
+
+    @Test
+    void solvesWholeBoardInOneWorker() throws Exception {
+        BoardGeometry geometry = new BoardGeometry(3, 4, 3);
+        Tablebase tablebase = TablebaseGenerator.generate(geometry);
+        ShardedSolver.Result result = new ShardedSolver(geometry, 0, 1, 1).solve();
+        assertEquals(1, result.getFrontierPositions());
+        assertEquals(tablebase.value(0L, 0L), result.getRootValue());
+        assertEquals(tablebase.depth(0L, 0L), result.getRootDepth());
+    }
+
+    @Test
+    void failsAfterLastAttempt() {
+        ShardedSolver solver = new ShardedSolver(BoardGeometry.STANDARD, 1, 1, 2);
+        // a worker that cannot start fails every attempt
+        solver.setWorkerJvmOptions("-XX:+NoSuchWorkerOption");
+        IOException e = assertThrows(IOException.class, solver::solve);
+        assertTrue(e.getMessage().contains("after 2 attempts"), e.getMessage());
+    }
+
+    @Test
+    void hungWorkerIsKilledAndRetried() throws IOException {
+        Path pauseFile = Files.createTempFile("worker", ".paused");
+        try {
+            ShardedSolver solver = new ShardedSolver(BoardGeometry.STANDARD, 1, 1, 2);
+            // HotSpot holds the worker before main for as long as the pause file exists
+            solver.setWorkerJvmOptions("-XX:+UnlockDiagnosticVMOptions", "-XX:+PauseAtStartup",
+                    "-XX:PauseAtStartupFile=" + pauseFile);
+            solver.setAttemptTimeout(Duration.ofMillis(500));
+            long start = System.nanoTime();
+            IOException e = assertThrows(IOException.class, solver::solve);
+            assertTrue(e.getMessage().contains("after 2 attempts"), e.getMessage());
+            assertTrue(e.getMessage().contains("timed out"), e.getMessage());
+            assertTrue(System.nanoTime() - start < Duration.ofSeconds(30).toNanos());
+        } finally {
+            Files.deleteIfExists(pauseFile);
+        }
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSolver(BoardGeometry.STANDARD, 9, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSolver(BoardGeometry.STANDARD, 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSolver(BoardGeometry.STANDARD, 1, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedSolver(new BoardGeometry(7, 6, 4), 1, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ShardedSolver(BoardGeometry.STANDARD, 1, 1, 1).setAttemptTimeout(Duration.ofSeconds(-1)));
+    }
+}
@@ -0,0 +1,166 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.Game;
+import lib.src.main.GameCodec;
+import lib.src.main.GameEventRing;
+import lib.src.main.Player;
+import lib.src.main.SpectatorBroadcaster;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpectatorBroadcasterTest {
+
+    private SpectatorBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new SpectatorBroadcaster(4);
+    }
+
+    private static void drain(SpectatorBroadcaster.Subscription subscription, Board board) {
+        ByteBuffer frame;
+        while ((frame = subscription.poll()) != null) {
+            SpectatorBroadcaster.applyFrame(frame, board);
+        }
+    }
+
+    @Test
+    void newSubscriberStartsWithSnapshotThenMoves() {
+        broadcaster.publishMove(4, 'X', 1);
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+
+        ByteBuffer first = subscription.poll();
+        assertEquals(SpectatorBroadcaster.SNAPSHOT_FRAME, SpectatorBroadcaster.frameType(first));
+        assertEquals(5, first.remaining());
+        assertEquals(1, SpectatorBroadcaster.framePly(first));
+        broadcaster.publishMove(0, 'O', 2);
+        ByteBuffer second = subscription.poll();
+        assertEquals(SpectatorBroadcaster.MOVE_FRAME, SpectatorBroadcaster.frameType(second));
+        assertEquals(2, second.remaining());
+        assertEquals(2, SpectatorBroadcaster.framePly(second));
+        assertNull(subscription.poll());
+    }
+
+    @Test
+    void subscribersShareEncodedMoveBytes() {
+        SpectatorBroadcaster.Subscription a = broadcaster.subscribe();
+        SpectatorBroadcaster.Subscription b = broadcaster.subscribe();
+        a.poll();
+        b.poll();
+        broadcaster.publishMove(8, 'X', 1);
+        ByteBuffer frameA = a.poll();
+        ByteBuffer frameB = b.poll();
+        assertTrue(frameA.isReadOnly());
+        assertEquals(frameA, frameB);
+    }
+
+    @Test
+    void spectatorBoardTracksGame() {
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+        Board spectator = new Board();
+        int[] cells = {4, 0, 8, 2, 1};
+        char mark = 'X';
+        for (int ply = 1; ply <= cells.length; ply++) {
+            broadcaster.publishMove(cells[ply - 1], mark, ply);
+            mark = (mark == 'X') ? 'O' : 'X';
+            drain(subscription, spectator);
+        }
+        assertEquals('X', spectator.getMark(1, 1));
+        assertEquals('O', spectator.getMark(0, 0));
+        assertEquals('X', spectator.getMark(0, 1));
+    }
+
+    @Test
+    void slowSubscriberIsCoalescedIntoSnapshot() {
+        SpectatorBroadcaster.Subscription slow = broadcaster.subscribe();
+        Board spectator = new Board();
+        drain(slow, spectator);
+        int[] cells = {4, 0, 8, 2, 6, 3, 1};
+        char mark = 'X';
+        for (int ply = 1; ply <= cells.length; ply++) {
+            broadcaster.publishMove(cells[ply - 1], mark, ply);
+            mark = (mark == 'X') ? 'O' : 'X';
+        }
+        assertEquals(4, slow.getCoalescedFrames());
+        ByteBuffer frame = slow.poll();
+        assertEquals(SpectatorBroadcaster.SNAPSHOT_FRAME, SpectatorBroadcaster.frameType(frame));
+        assertEquals(7, SpectatorBroadcaster.framePly(frame));
+        SpectatorBroadcaster.applyFrame(frame, spectator);
+        assertNull(slow.poll());
+        assertEquals('X', spectator.getMark(2, 0));
+        assertEquals('O', spectator.getMark(1, 0));
+        assertEquals('X', spectator.getMark(0, 1));
+    }
+
+    @Test
+    void resetSendsEmptySnapshot() {
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+        Board spectator = new Board();
+        broadcaster.publishMove(4, 'X', 1);
+        drain(subscription, spectator);
+        broadcaster.reset();
+        drain(subscription, spectator);
+        assertTrue(spectator.isEmpty(1, 1));
+    }
+
+    @Test
+    void followsOnlyItsOwnSessionOnSharedRing() {
+        SpectatorBroadcaster first = new SpectatorBroadcaster(1L, 16);
+        SpectatorBroadcaster.Subscription subscription = first.subscribe();
+        GameEventRing ring = new GameEventRing(16);
+        ring.addConsumer("spectators", first);
+        ring.start();
+
+        Game one = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+        Game two = new Game(new Player("Carol", 'X'), new Player("Dave", 'O'));
+        one.setEventRing(ring, 1L);
+        two.setEventRing(ring, 2L);
+        one.makeMove(0, 0);
+        two.makeMove(1, 1);
+        one.makeMove(2, 2);
+        ring.close();
+
+        Board spectator = new Board();
+        drain(subscription, spectator);
+        assertEquals('X', spectator.getMark(0, 0));
+        assertEquals('O', spectator.getMark(2, 2));
+        assertTrue(spectator.isEmpty(1, 1));
+    }
+
+    @Test
+    void restoredSessionKeepsSeededBoard() {
+        Game game = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+        game.makeMove(1, 1);
+        game.makeMove(0, 0);
+        Game restored = new Game(new Player("Alice", 'X'), new Player("Bob", 'O'));
+        GameCodec.decode(GameCodec.encode(game), restored);
+
+        SpectatorBroadcaster seeded = new SpectatorBroadcaster(5L, 16);
+        seeded.reset(restored.getBoard());
+        SpectatorBroadcaster.Subscription subscription = seeded.subscribe();
+        GameEventRing ring = new GameEventRing(16);
+        ring.addConsumer("spectators", seeded);
+        ring.start();
+        restored.setEventRing(ring, 5L);
+        restored.makeMove(2, 2);
+        ring.close();
+
+        Board spectator = new Board();
+        drain(subscription, spectator);
+        assertEquals('X', spectator.getMark(1, 1));
+        assertEquals('O', spectator.getMark(0, 0));
+        assertEquals('X', spectator.getMark(2, 2));
+    }
+
+    @Test
+    void closedSubscriptionStopsReceiving() {
+        SpectatorBroadcaster.Subscription subscription = broadcaster.subscribe();
+        subscription.close();
+        assertEquals(0, broadcaster.subscriberCount());
+    }
+}
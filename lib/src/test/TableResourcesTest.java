@@ -0,0 +1,43 @@
+package lib.src.test;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.Tablebase;
+import lib.src.main.TableResources;
+import lib.src.main.ValueTable;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableResourcesTest {
+
+    @Test
+    void standardTablebaseIsSharedAndCorrect() {
+        Tablebase tablebase = TableResources.standardTablebase();
+        assertSame(tablebase, TableResources.standardTablebase());
+        assertEquals(Tablebase.Value.DRAW, tablebase.value(0L, 0L));
+        assertEquals(9, tablebase.depth(0L, 0L));
+    }
+
+    @Test
+    void learnedValuesCoverStandardBoard() {
+        ValueTable values = TableResources.learnedValues();
+        assertSame(values, TableResources.learnedValues());
+        assertEquals(3, values.getGeometry().getRows());
+        assertEquals(19683, values.size());
+    }
+
+    @Test
+    void writesLoadableResources() throws Exception {
+        Path classes = Files.createTempDirectory("table-resources");
+        TableResources.main(new String[] {classes.toString()});
+        Path directory = classes.resolve("lib/src/main");
+
+        Tablebase tablebase = Tablebase.open(directory.resolve(TableResources.TABLEBASE_RESOURCE));
+        assertEquals(Tablebase.Value.DRAW, tablebase.value(0L, 0L));
+        ValueTable values = ValueTable.load(directory.resolve(TableResources.LEARNED_VALUES_RESOURCE));
+        assertEquals(BoardGeometry.STANDARD.getCellCount(), values.getGeometry().getCellCount());
+    }
+}
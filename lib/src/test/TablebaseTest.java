@@ -0,0 +1,86 @@
+package lib.src.test;
+
+import lib.src.main.AIMoveSelector;
+import lib.src.main.Board;
+import lib.src.main.BoardGeometry;
+import lib.src.main.Tablebase;
+import lib.src.main.TablebaseGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TablebaseTest {
+
+    private static final Tablebase STANDARD = TablebaseGenerator.generate(BoardGeometry.STANDARD);
+
+    @Test
+    void emptyBoardIsDrawLastingNinePlies() {
+        assertEquals(Tablebase.Value.DRAW, STANDARD.value(0L, 0L));
+        assertEquals(9, STANDARD.depth(0L, 0L));
+    }
+
+    @Test
+    void immediateWinIsFoundInOnePly() {
+        // X on 0 and 1, O on 3 and 4, X to move
+        long x = (1L << 0) | (1L << 1);
+        long o = (1L << 3) | (1L << 4);
+        assertEquals(Tablebase.Value.WIN, STANDARD.value(x, o));
+        assertEquals(1, STANDARD.depth(x, o));
+        assertEquals(2, STANDARD.bestMove(x, o));
+    }
+
+    @Test
+    void finishedGameHasNoBestMove() {
+        long x = (1L << 0) | (1L << 1) | (1L << 2);
+        long o = (1L << 3) | (1L << 4);
+        assertEquals(Tablebase.Value.LOSS, STANDARD.value(x, o));
+        assertEquals(0, STANDARD.depth(x, o));
+        assertEquals(-1, STANDARD.bestMove(x, o));
+    }
+
+    @Test
+    void unreachablePositionIsInvalid() {
+        assertEquals(Tablebase.Value.INVALID, STANDARD.value(0L, 1L));
+    }
+
+    @Test
+    void smallBoardWithLongerLinesIsDrawn() {
+        Tablebase tablebase = TablebaseGenerator.generate(new BoardGeometry(3, 4, 4));
+        assertEquals(Tablebase.Value.DRAW, tablebase.value(0L, 0L));
+    }
+
+    @Test
+    void writtenTablebaseCanBeMappedAndProbed() throws IOException {
+        Path file = Files.createTempFile("ttt", ".tb");
+        try {
+            STANDARD.write(file);
+            Tablebase mapped = Tablebase.open(file);
+            assertEquals(BoardGeometry.STANDARD.toString(), mapped.getGeometry().toString());
+            long x = 1L << 4;
+            assertEquals(STANDARD.value(x, 0L), mapped.value(x, 0L));
+            assertEquals(STANDARD.depth(x, 0L), mapped.depth(x, 0L));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void selectTablebaseMoveBlocksOpponent() {
+        Board board = new Board();
+        board.placeMark(0, 0, 'X');
+        board.placeMark(1, 1, 'O');
+        board.placeMark(0, 1, 'X');
+        // O must block at (0,2)
+        assertArrayEquals(new int[]{0, 2}, AIMoveSelector.selectTablebaseMove(board, STANDARD));
+    }
+
+    @Test
+    void selectTablebaseMoveRejectsOtherGeometries() {
+        Tablebase other = TablebaseGenerator.generate(new BoardGeometry(2, 2, 2));
+        assertThrows(IllegalArgumentException.class, () -> AIMoveSelector.selectTablebaseMove(new Board(), other));
+    }
+}
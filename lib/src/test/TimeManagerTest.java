@@ -0,0 +1,63 @@
+package lib.src.test;
+
+import lib.src.main.Board;
+import lib.src.main.GameClock;
+import lib.src.main.TimeManager;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeManagerTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void sharesUsableTimeOverMovesToGo() {
+        TimeManager manager = new TimeManager(Duration.ofMillis(100));
+        assertEquals(300 * MILLI, manager.allocateNanos(1_000 * MILLI, 0, 3));
+        assertEquals(900 * MILLI, manager.allocateNanos(1_000 * MILLI, 0, 1));
+    }
+
+    @Test
+    void spendsMostOfTheIncrement() {
+        TimeManager manager = new TimeManager(Duration.ZERO);
+        assertEquals(250 * MILLI + 300 * MILLI, manager.allocateNanos(1_000 * MILLI, 400 * MILLI, 4));
+    }
+
+    @Test
+    void neverExceedsUsableTime() {
+        TimeManager manager = new TimeManager(Duration.ofMillis(50));
+        assertEquals(50 * MILLI, manager.allocateNanos(100 * MILLI, 1_000 * MILLI, 1));
+        assertEquals(0, manager.allocateNanos(40 * MILLI, 0, 2));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeManager(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> new TimeManager().allocateNanos(MILLI, 0, 0));
+    }
+
+    @Test
+    void countsMovesLeftOnBoard() {
+        TimeManager manager = new TimeManager(Duration.ZERO);
+        GameClock clock = GameClock.suddenDeath(Duration.ofSeconds(5));
+        Board board = new Board();
+        clock.start('X', 0);
+        // X has five moves left on an empty board
+        assertEquals(Duration.ofSeconds(1), manager.allocate(clock, board, 0));
+
+        board.placeMark(0, 0, 'X');
+        clock.punch(0);
+        // O has four
+        assertEquals(Duration.ofMillis(1250), manager.allocate(clock, board, 0));
+    }
+
+    @Test
+    void stoppedClockIsRejected() {
+        TimeManager manager = new TimeManager();
+        assertThrows(IllegalStateException.class,
+                () -> manager.allocate(GameClock.suddenDeath(Duration.ofSeconds(1)), new Board(), 0));
+    }
+}
@@ -0,0 +1,108 @@
+package lib.src.test;
+
+import lib.src.main.TimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private static final long MILLI = 1_000_000L;
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel(Duration.ZERO, 8, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel(Duration.ofMillis(1), 6, 0));
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 8, 0);
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(0, null));
+    }
+
+    @Test
+    void firesAtDeadlineNeverEarly() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 8, 0);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(25 * MILLI, () -> fired.add("a"));
+        wheel.schedule(5 * MILLI, () -> fired.add("b"));
+
+        assertEquals(0, wheel.advance(9 * MILLI));
+        assertEquals(1, wheel.advance(10 * MILLI));
+        assertEquals(List.of("b"), fired);
+        assertEquals(0, wheel.advance(29 * MILLI));
+        assertEquals(1, wheel.advance(30 * MILLI));
+        assertEquals(List.of("b", "a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void waitsForLaterTurnsOfTheWheel() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 4, 0);
+        List<Long> fired = new ArrayList<>();
+        // ticks 2, 6 and 10 share a slot
+        for (long tick : new long[] {2, 6, 10}) {
+            wheel.schedule(tick * MILLI, () -> fired.add(tick));
+        }
+        for (long now = 0; now <= 12; now++) {
+            wheel.advance(now * MILLI);
+        }
+        assertEquals(List.of(2L, 6L, 10L), fired);
+    }
+
+    @Test
+    void catchesUpAfterLongPause() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 4, 0);
+        int[] fired = new int[1];
+        for (int i = 0; i < 20; i++) {
+            wheel.schedule(i * MILLI, () -> fired[0]++);
+        }
+        wheel.schedule(100 * MILLI, () -> fired[0] += 100);
+        assertEquals(20, wheel.advance(50 * MILLI));
+        assertEquals(20, fired[0]);
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.advance(100 * MILLI));
+        assertEquals(120, fired[0]);
+    }
+
+    @Test
+    void pastDeadlineFiresOnNextTick() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 8, 0);
+        wheel.advance(10 * MILLI);
+        int[] fired = new int[1];
+        wheel.schedule(2 * MILLI, () -> fired[0]++);
+        assertEquals(0, wheel.advance(10 * MILLI));
+        assertEquals(1, wheel.advance(11 * MILLI));
+        assertEquals(1, fired[0]);
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 8, 0);
+        int[] fired = new int[1];
+        TimerWheel.Timeout first = wheel.schedule(3 * MILLI, () -> fired[0]++);
+        TimerWheel.Timeout second = wheel.schedule(3 * MILLI, () -> fired[0] += 10);
+        assertTrue(first.cancel());
+        assertFalse(first.cancel());
+        assertFalse(first.isPending());
+        assertTrue(second.isPending());
+        assertEquals(1, wheel.advance(5 * MILLI));
+        assertEquals(10, fired[0]);
+        assertFalse(second.cancel());
+    }
+
+    @Test
+    void tasksMayScheduleMore() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(1), 8, 0);
+        List<Long> fired = new ArrayList<>();
+        wheel.schedule(MILLI, () -> {
+            fired.add(1L);
+            wheel.schedule(4 * MILLI, () -> fired.add(4L));
+        });
+        wheel.advance(2 * MILLI);
+        assertEquals(1, wheel.size());
+        wheel.advance(4 * MILLI);
+        assertEquals(List.of(1L, 4L), fired);
+    }
+}
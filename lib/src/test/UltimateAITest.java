@@ -0,0 +1,82 @@
+package lib.src.test;
+
+import lib.src.main.UltimateAI;
+import lib.src.main.UltimateBoard;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UltimateAITest {
+
+    private static boolean hasWinningMove(UltimateBoard board, int[] moves) {
+        char mover = board.getCurrentMark();
+        int count = board.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            board.play(moves[i]);
+            boolean won = board.getWinner() == mover;
+            board.undo();
+            if (won) return true;
+        }
+        return false;
+    }
+
+    @Test
+    void takesImmediateWins() {
+        SplittableRandom random = new SplittableRandom(41);
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        UltimateAI ai = new UltimateAI(2);
+        int checked = 0;
+        while (checked < 20) {
+            // play randomly until the side to move can win the game at once
+            UltimateBoard board = new UltimateBoard();
+            while (!board.isGameOver() && !hasWinningMove(board, moves)) {
+                board.play(moves[random.nextInt(board.generateMoves(moves))]);
+            }
+            if (board.isGameOver()) continue;
+            char mover = board.getCurrentMark();
+            String before = board.toString();
+            int move = ai.selectMove(board);
+            assertEquals(before, board.toString());
+            board.play(move);
+            assertEquals(mover, board.getWinner());
+            checked++;
+        }
+        assertTrue(ai.getNodes() > 0);
+    }
+
+    @Test
+    void beatsRandomPlayer() {
+        SplittableRandom random = new SplittableRandom(41);
+        UltimateAI ai = new UltimateAI(3);
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        int wins = 0;
+        for (int game = 0; game < 10; game++) {
+            UltimateBoard board = new UltimateBoard();
+            while (!board.isGameOver()) {
+                if (board.isXToMove()) {
+                    board.play(ai.selectMove(board));
+                } else {
+                    board.play(moves[random.nextInt(board.generateMoves(moves))]);
+                }
+            }
+            if (board.getWinner() == 'X') wins++;
+        }
+        assertTrue(wins >= 9, "won " + wins + " of 10");
+    }
+
+    @Test
+    void evaluationIsSymmetric() {
+        UltimateBoard board = new UltimateBoard();
+        assertEquals(0, UltimateAI.evaluate(board));
+        board.play(4 * 9 + 4);
+        int forO = UltimateAI.evaluate(board);
+        assertTrue(forO < 0);
+    }
+
+    @Test
+    void rejectsInvalidDepth() {
+        assertThrows(IllegalArgumentException.class, () -> new UltimateAI(0));
+    }
+}
@@ -0,0 +1,181 @@
+package lib.src.test;
+
+import lib.src.main.UltimateBoard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UltimateBoardTest {
+
+    private UltimateBoard board;
+
+    @BeforeEach
+    void setUp() {
+        board = new UltimateBoard();
+    }
+
+    @Test
+    void firstMoveMayGoAnywhere() {
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        assertEquals(81, board.generateMoves(moves));
+        assertEquals(UltimateBoard.ANY_BOARD, board.getActiveBoard());
+    }
+
+    @Test
+    void cellPlayedChoosesOpponentsSubBoard() {
+        board.play(4 * 9 + 2);
+        assertEquals(2, board.getActiveBoard());
+        assertEquals('O', board.getCurrentMark());
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        assertEquals(9, board.generateMoves(moves));
+        for (int i = 0; i < 9; i++) assertEquals(2, moves[i] / 9);
+        assertFalse(board.isLegal(4 * 9 + 0));
+        assertThrows(IllegalArgumentException.class, () -> board.play(4 * 9 + 0));
+    }
+
+    @Test
+    void wonSubBoardClosesAndFreesTheNextPlayer() {
+        // X wins sub-board 0 with cells 0, 1, 2 while O answers inside sub-board 0's targets
+        int[] moves = {0 * 9 + 0, 0 * 9 + 3, 3 * 9 + 0, 0 * 9 + 4, 4 * 9 + 0, 0 * 9 + 5, 5 * 9 + 0};
+        for (int move : moves) board.play(move);
+        // O won sub-board 0 with 3, 4, 5; X is sent to sub-board 0
+        assertEquals(1, board.getMetaMask('O'));
+        assertEquals(1, board.getClosedBoards());
+        assertEquals(0b111111110, board.playableBoards());
+        assertFalse(board.isLegal(0 * 9 + 8));
+    }
+
+    @Test
+    void undoRestoresEveryField() {
+        SplittableRandom random = new SplittableRandom(41);
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        for (int game = 0; game < 50; game++) {
+            UltimateBoard played = new UltimateBoard();
+            int plies = 0;
+            while (!played.isGameOver()) {
+                String before = played.toString();
+                int closed = played.getClosedBoards();
+                int playable = played.playableBoards();
+                int count = played.generateMoves(moves);
+                int move = moves[random.nextInt(count)];
+                played.play(move);
+                plies++;
+                played.undo();
+                assertEquals(before, played.toString());
+                assertEquals(closed, played.getClosedBoards());
+                assertEquals(playable, played.playableBoards());
+                assertEquals(' ', played.getWinner());
+                played.play(move);
+            }
+            assertEquals(plies, played.getPly());
+            assertTrue(played.getWinner() != ' ' || played.getClosedBoards() == 0x1FF);
+        }
+    }
+
+    @Test
+    void perftMatchesReferenceImplementation() {
+        for (int depth = 1; depth <= 4; depth++) {
+            assertEquals(Reference.perft(new Reference(), depth), board.perft(depth), "depth " + depth);
+        }
+        assertEquals(81, board.perft(1));
+        assertEquals(720, board.perft(2));
+        assertEquals(6336, board.perft(3));
+
+        // positions deep in a game have closed sub-boards and free choices
+        SplittableRandom random = new SplittableRandom(7);
+        int[] moves = new int[UltimateBoard.MAX_MOVES];
+        for (int game = 0; game < 20; game++) {
+            UltimateBoard played = new UltimateBoard();
+            Reference reference = new Reference();
+            for (int i = 0; i < 40 && !played.isGameOver(); i++) {
+                int move = moves[random.nextInt(played.generateMoves(moves))];
+                played.play(move);
+                reference.play(move);
+            }
+            assertEquals(Reference.perft(reference, 3), played.perft(3));
+        }
+    }
+
+    @Test
+    void undoWithoutMovesThrows() {
+        assertThrows(IllegalStateException.class, () -> board.undo());
+    }
+
+    /**
+     * A direct implementation of the rules on a plain array, used to check the packed board.
+     */
+    private static final class Reference {
+        private static final int[][] LINES = {{0, 1, 2}, {3, 4, 5}, {6, 7, 8}, {0, 3, 6}, {1, 4, 7}, {2, 5, 8}, {0, 4, 8}, {2, 4, 6}};
+        private final char[] cells = new char[81];
+        private final char[] meta = new char[9];
+        private int active = -1;
+        private char toMove = 'X';
+
+        Reference() {
+            java.util.Arrays.fill(cells, ' ');
+            java.util.Arrays.fill(meta, ' ');
+        }
+
+        private Reference(Reference other) {
+            System.arraycopy(other.cells, 0, cells, 0, 81);
+            System.arraycopy(other.meta, 0, meta, 0, 9);
+            active = other.active;
+            toMove = other.toMove;
+        }
+
+        private boolean full(int sub) {
+            for (int c = 0; c < 9; c++) if (cells[sub * 9 + c] == ' ') return false;
+            return true;
+        }
+
+        private boolean open(int sub) {
+            return meta[sub] == ' ' && !full(sub);
+        }
+
+        private static boolean wins(char[] grid, int offset, char mark) {
+            for (int[] line : LINES) {
+                if (grid[offset + line[0]] == mark && grid[offset + line[1]] == mark && grid[offset + line[2]] == mark) return true;
+            }
+            return false;
+        }
+
+        boolean over() {
+            if (wins(meta, 0, 'X') || wins(meta, 0, 'O')) return true;
+            for (int sub = 0; sub < 9; sub++) if (open(sub)) return false;
+            return true;
+        }
+
+        java.util.List<Integer> moves() {
+            java.util.List<Integer> result = new java.util.ArrayList<>();
+            if (over()) return result;
+            for (int sub = 0; sub < 9; sub++) {
+                boolean allowed = (active >= 0 && open(active)) ? sub == active : open(sub);
+                if (!allowed) continue;
+                for (int c = 0; c < 9; c++) if (cells[sub * 9 + c] == ' ') result.add(sub * 9 + c);
+            }
+            return result;
+        }
+
+        void play(int move) {
+            cells[move] = toMove;
+            int sub = move / 9;
+            if (wins(cells, sub * 9, toMove)) meta[sub] = toMove;
+            active = move % 9;
+            toMove = (toMove == 'X') ? 'O' : 'X';
+        }
+
+        static long perft(Reference position, int depth) {
+            if (depth == 0) return 1;
+            long nodes = 0;
+            for (int move : position.moves()) {
+                Reference child = new Reference(position);
+                child.play(move);
+                nodes += perft(child, depth - 1);
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package lib.src.test;
+
+import lib.src.main.Game;
+import lib.src.main.Player;
+import lib.src.main.UltimateGame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UltimateGameTest {
+
+    private Player playerX;
+    private Player playerO;
+    private UltimateGame game;
+
+    @BeforeEach
+    void setUp() {
+        playerX = new Player("Alice", 'X');
+        playerO = new Player("Bob", 'O');
+        game = new UltimateGame(playerX, playerO);
+    }
+
+    @Test
+    void alternatesPlayers() {
+        assertEquals(playerX, game.getCurrentPlayer());
+        assertTrue(game.makeMove(4, 0));
+        assertEquals(playerO, game.getCurrentPlayer());
+        assertEquals('X', game.getBoard().getMark(4, 0));
+        assertEquals(Game.GameState.IN_PROGRESS, game.getGameState());
+    }
+
+    @Test
+    void rejectsMovesOutsideTheTargetSubBoard() {
+        game.makeMove(4, 0);
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(4, 1));
+        assertThrows(IllegalArgumentException.class, () -> game.makeMove(9, 0));
+        assertTrue(game.makeMove(0, 4));
+    }
+
+    @Test
+    void detectsMetaWin() {
+        // X wins sub-boards 5, 2 and 8, the right column of the meta-board, in the fewest possible plies
+        int[][] moves = {
+                {5, 1}, {1, 8}, {8, 8}, {8, 5}, {5, 0}, {0, 2}, {2, 0}, {0, 5}, {5, 2},
+                {2, 2}, {2, 3}, {3, 8}, {8, 6}, {6, 2}, {2, 6}, {6, 5}, {8, 7}
+        };
+        for (int[] move : moves) {
+            assertFalse(game.isGameOver(), "game ended early at " + move[0] + "," + move[1]);
+            assertTrue(game.makeMove(move[0], move[1]));
+        }
+        assertEquals(Game.GameState.WON, game.getGameState());
+        assertEquals(playerX, game.getWinner());
+        assertFalse(game.makeMove(7, 7));
+    }
+
+    @Test
+    void rejectsInvalidPlayers() {
+        assertThrows(IllegalArgumentException.class, () -> new UltimateGame(null, playerO));
+        assertThrows(IllegalArgumentException.class, () -> new UltimateGame(playerO, playerX));
+    }
+}
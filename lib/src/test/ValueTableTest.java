@@ -0,0 +1,81 @@
+package lib.src.test;
+
+import lib.src.main.BoardGeometry;
+import lib.src.main.ValueTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValueTableTest {
+
+    @Test
+    void indexesPositionsLikeTablebase() {
+        ValueTable table = new ValueTable(BoardGeometry.STANDARD);
+        assertEquals(19683, table.size());
+        assertEquals(0, table.index(0, 0));
+        assertEquals(1 + 2 * 3, table.index(0b01, 0b10));
+        assertEquals(table.index(1 << 4, 0), table.childIndex(0, 4, 'X'));
+        assertEquals(table.index(1 << 4, 1), table.childIndex(table.index(1 << 4, 0), 0, 'O'));
+    }
+
+    @Test
+    void updateMovesTowardsTarget() {
+        ValueTable table = new ValueTable(BoardGeometry.STANDARD);
+        assertEquals(0.5f, table.update(7, 1f, 0.5f), 1e-6);
+        assertEquals(0.75f, table.update(7, 1f, 0.5f), 1e-6);
+        table.set(7, -1f);
+        assertEquals(-1f, table.get(7), 0);
+    }
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws InterruptedException {
+        ValueTable table = new ValueTable(BoardGeometry.STANDARD);
+        table.set(3, 1f);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 30; i++) {
+                    // each update halves the value, so any lost update would leave it larger
+                    table.update(3, 0f, 0.5f);
+                }
+            });
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertEquals(Math.scalb(1f, -120), table.get(3), 0);
+    }
+
+    @Test
+    void savesAndLoads() throws IOException {
+        ValueTable table = new ValueTable(BoardGeometry.STANDARD);
+        table.set(0, 0.25f);
+        table.set(19682, -0.5f);
+        Path file = Files.createTempFile("ttt", ".values");
+        try {
+            table.save(file);
+            assertEquals(11 + 19683 * 4, Files.size(file));
+            ValueTable loaded = ValueTable.load(file);
+            assertEquals(BoardGeometry.STANDARD.toString(), loaded.getGeometry().toString());
+            assertEquals(0.25f, loaded.get(0), 0);
+            assertEquals(-0.5f, loaded.get(19682), 0);
+            assertEquals(0f, loaded.get(100), 0);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void loadRejectsOtherFiles() throws IOException {
+        Path file = Files.createTempFile("ttt", ".values");
+        try {
+            Files.write(file, new byte[]{1, 2, 3});
+            assertThrows(IOException.class, () -> ValueTable.load(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}